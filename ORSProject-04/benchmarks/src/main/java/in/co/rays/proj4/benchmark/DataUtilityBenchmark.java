@@ -0,0 +1,83 @@
+package in.co.rays.proj4.benchmark;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * Measures date and timestamp parsing and formatting in {@link DataUtility},
+ * including the failure path taken for every blank or malformed field and
+ * the slower path for dates without leading zeros.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataUtilityBenchmark {
+
+    private String date = "15-08-2023";
+
+    private String badDate = "2023/08/15";
+
+    private String shortDate = "5-8-2023";
+
+    private String timestamp = "15-08-2023 10:30:45";
+
+    private String badTimestamp = "15-08-2023 25:30:45";
+
+    private Date value = new Date(1692075645000L);
+
+    private Date sqlValue = java.sql.Date.valueOf("2023-08-15");
+
+    @Benchmark
+    public Date getDate() {
+        return DataUtility.getDate(date);
+    }
+
+    @Benchmark
+    public Date getDateInvalid() {
+        return DataUtility.getDate(badDate);
+    }
+
+    @Benchmark
+    public Date getDateShort() {
+        return DataUtility.getDate(shortDate);
+    }
+
+    @Benchmark
+    public Timestamp getTimestamp() {
+        return DataUtility.getTimestamp(timestamp);
+    }
+
+    @Benchmark
+    public Timestamp getTimestampInvalid() {
+        return DataUtility.getTimestamp(badTimestamp);
+    }
+
+    @Benchmark
+    public String getDateString() {
+        return DataUtility.getDateString(value);
+    }
+
+    @Benchmark
+    public String getDateStringSql() {
+        return DataUtility.getDateString(sqlValue);
+    }
+}
@@ -0,0 +1,94 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.DataValidator;
+
+/**
+ * Measures the {@link DataValidator} checks run on every form submit, with
+ * both valid and invalid input.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataValidatorBenchmark {
+
+    private String email = "rahul.sharma@rays.co.in";
+
+    private String badEmail = "rahul.sharma@";
+
+    private String name = "Rahul Sharma";
+
+    private String badName = "R4hul";
+
+    private String integer = "12345";
+
+    private String badInteger = "12a45";
+
+    private String phone = "9876543210";
+
+    private String password = "Rays@1234";
+
+    private String rollNo = "RN1042";
+
+    @Benchmark
+    public boolean isEmail() {
+        return DataValidator.isEmail(email);
+    }
+
+    @Benchmark
+    public boolean isEmailInvalid() {
+        return DataValidator.isEmail(badEmail);
+    }
+
+    @Benchmark
+    public boolean isName() {
+        return DataValidator.isName(name);
+    }
+
+    @Benchmark
+    public boolean isNameInvalid() {
+        return DataValidator.isName(badName);
+    }
+
+    @Benchmark
+    public boolean isInteger() {
+        return DataValidator.isInteger(integer);
+    }
+
+    @Benchmark
+    public boolean isIntegerInvalid() {
+        return DataValidator.isInteger(badInteger);
+    }
+
+    @Benchmark
+    public boolean isPhoneNo() {
+        return DataValidator.isPhoneNo(phone);
+    }
+
+    @Benchmark
+    public boolean isPassword() {
+        return DataValidator.isPassword(password);
+    }
+
+    @Benchmark
+    public boolean isRollNo() {
+        return DataValidator.isRollNo(rollNo);
+    }
+}
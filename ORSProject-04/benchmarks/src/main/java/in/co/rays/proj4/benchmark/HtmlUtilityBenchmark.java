@@ -0,0 +1,70 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.util.HTMLUtility;
+
+/**
+ * Measures {@link HTMLUtility#getList} rendering of dropdowns, from the size
+ * of a typical form up to large college lists.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlUtilityBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int size;
+
+    private List<CollegeBean> list;
+
+    private HashMap<String, String> map;
+
+    private String selected;
+
+    @Setup
+    public void setup() {
+        list = new ArrayList<CollegeBean>(size);
+        map = new HashMap<String, String>();
+        for (int i = 1; i <= size; i++) {
+            CollegeBean bean = new CollegeBean();
+            bean.setId(i);
+            bean.setName("College of Engineering and Technology " + i);
+            list.add(bean);
+            map.put(String.valueOf(i), bean.getName());
+        }
+        selected = String.valueOf(size / 2);
+    }
+
+    @Benchmark
+    public String listDropdown() {
+        return HTMLUtility.getList("collegeId", selected, list);
+    }
+
+    @Benchmark
+    public String mapDropdown() {
+        return HTMLUtility.getList("collegeId", selected, map);
+    }
+}
@@ -0,0 +1,154 @@
+package in.co.rays.proj4.benchmark;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+
+/**
+ * Measures the models' ResultSet-to-bean mapping against an in-memory H2
+ * database in MySQL mode, so the numbers are not dominated by network and
+ * disk time. {@link #scanOnly} runs the same query without building beans;
+ * the difference to {@link #studentSearch} is the cost of the mapping.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = { "-Ddb.driver=org.h2.Driver", "-Ddb.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "-Ddb.username=sa", "-Ddb.password=" })
+public class ModelMappingBenchmark {
+
+    /** Rows returned by every query. */
+    @Param({ "10", "100", "1000" })
+    private int rows;
+
+    private long[] ids;
+
+    @Setup
+    public void setup() throws Exception {
+        Connection conn = JDBCDataSource.getConnection();
+        try {
+            Statement stmt = conn.createStatement();
+            for (String sql : readSchema().split(";")) {
+                if (sql.trim().length() > 0) {
+                    stmt.execute(sql);
+                }
+            }
+            stmt.execute("delete from st_student");
+            stmt.execute("delete from st_marksheet");
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            PreparedStatement student = conn
+                    .prepareStatement("insert into st_student values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            PreparedStatement marksheet = conn
+                    .prepareStatement("insert into st_marksheet values(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+            ids = new long[rows];
+            for (int i = 1; i <= rows; i++) {
+                ids[i - 1] = i;
+                student.setLong(1, i);
+                student.setString(2, "First" + i);
+                student.setString(3, "Last" + i);
+                student.setDate(4, Date.valueOf("2001-01-01"));
+                student.setString(5, i % 2 == 0 ? "Male" : "Female");
+                student.setString(6, "98765" + (10000 + i));
+                student.setString(7, "student" + i + "@rays.co.in");
+                student.setLong(8, 1 + i % 20);
+                student.setString(9, "College " + (1 + i % 20));
+                student.setString(10, "root");
+                student.setString(11, "root");
+                student.setTimestamp(12, now);
+                student.setTimestamp(13, now);
+                student.addBatch();
+
+                marksheet.setLong(1, i);
+                marksheet.setString(2, "RN" + (1000 + i));
+                marksheet.setLong(3, i);
+                marksheet.setString(4, "First" + i + " Last" + i);
+                marksheet.setInt(5, 30 + i % 70);
+                marksheet.setInt(6, 35 + i % 65);
+                marksheet.setInt(7, 40 + i % 60);
+                marksheet.setString(8, "root");
+                marksheet.setString(9, "root");
+                marksheet.setTimestamp(10, now);
+                marksheet.setTimestamp(11, now);
+                marksheet.addBatch();
+            }
+            student.executeBatch();
+            marksheet.executeBatch();
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    @Benchmark
+    public List<StudentBean> studentSearch() throws Exception {
+        return new StudentModel().search(null, 1, rows);
+    }
+
+    @Benchmark
+    public List<MarksheetBean> marksheetSearch() throws Exception {
+        return new MarksheetModel().search(null, 1, rows);
+    }
+
+    @Benchmark
+    public LongMap<StudentBean> studentFindByPks() throws Exception {
+        return new StudentModel().findByPks(ids);
+    }
+
+    @Benchmark
+    public void scanOnly(Blackhole bh) throws Exception {
+        Connection conn = JDBCDataSource.getConnection();
+        try {
+            PreparedStatement pstmt = conn.prepareStatement("select * from st_student where 1 = 1 limit 0, " + rows);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                bh.consume(rs.getLong(1));
+            }
+            rs.close();
+            pstmt.close();
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+    }
+
+    private static String readSchema() throws Exception {
+        InputStream in = ModelMappingBenchmark.class.getResourceAsStream("/schema.sql");
+        try {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package in.co.rays.proj4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.PropertyReader;
+
+/**
+ * Measures message lookup and formatting in {@link PropertyReader}, which
+ * every controller calls for page sizes and validation messages.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyReaderBenchmark {
+
+    private String[] params = { "Roll No", "Student Name" };
+
+    @Benchmark
+    public String getValue() {
+        return PropertyReader.getValue("page.size");
+    }
+
+    @Benchmark
+    public String getValueMissing() {
+        return PropertyReader.getValue("no.such.key");
+    }
+
+    @Benchmark
+    public String getValueParam() {
+        return PropertyReader.getValue("error.require", "First Name");
+    }
+
+    @Benchmark
+    public String getValueParams() {
+        return PropertyReader.getValue("error.multipleFields", params);
+    }
+}
@@ -0,0 +1,101 @@
+package in.co.rays.proj4.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import in.co.rays.proj4.util.RuleSet;
+
+/**
+ * Measures a {@link RuleSet} validating a complete user registration form,
+ * once with valid input and once with every field invalid.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleSetBenchmark {
+
+    private RuleSet rules;
+
+    private HttpServletRequest valid;
+
+    private HttpServletRequest invalid;
+
+    @Setup
+    public void setUp() {
+        RuleSet.Builder builder = RuleSet.builder();
+        builder.field("firstName").required("First Name").name("Invalid First Name");
+        builder.field("lastName").required("Last Name").name("Invalid Last Name");
+        builder.field("login").required("Login Id").email("Login");
+        builder.field("password").required("Password").password("Password should be 8 to 12 characters",
+                "Must contain uppercase, lowercase, digit & special character");
+        builder.field("confirmPassword").required("Confirm Password").sameAs("password",
+                "Password and Confirm Password must be Same!");
+        builder.field("gender").required("Gender");
+        builder.field("dob").required("Date of Birth").date("Date of Birth");
+        builder.field("mobileNo").required("Mobile No").phone("Mobile No must have 10 digits", "Invalid Mobile No");
+        rules = builder.build();
+
+        valid = request("Rahul", "Sharma", "rahul.sharma@rays.co.in", "Rays@1234", "Rays@1234", "Male",
+                "15-08-2001", "9876543210");
+        invalid = request("R4hul", "", "rahul.sharma@", "rays", "Rays@12345", "", "31-02-2001", "12345x7890");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return rules.validate(valid);
+    }
+
+    @Benchmark
+    public boolean validateInvalid() {
+        return rules.validate(invalid);
+    }
+
+    /**
+     * Returns a request with the given form parameters whose attributes are
+     * discarded.
+     */
+    private static HttpServletRequest request(String firstName, String lastName, String login, String password,
+            String confirmPassword, String gender, String dob, String mobileNo) {
+        final Map<String, String> params = new HashMap<String, String>();
+        params.put("firstName", firstName);
+        params.put("lastName", lastName);
+        params.put("login", login);
+        params.put("password", password);
+        params.put("confirmPassword", confirmPassword);
+        params.put("gender", gender);
+        params.put("dob", dob);
+        params.put("mobileNo", mobileNo);
+        return (HttpServletRequest) Proxy.newProxyInstance(RuleSetBenchmark.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getParameter".equals(method.getName())) {
+                            return params.get(args[0]);
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,179 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP client of one simulated user. It keeps the user's cookies (the session
+ * and, in stateless mode, the signed token),
+ * does not follow redirects, and records the latency of every request in the
+ * user's {@link Samples}. A request counts as an error when it fails, returns
+ * a 4xx/5xx status or is redirected to the error page.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class Client {
+
+    private final HttpClient http;
+
+    private final String base;
+
+    private final Samples samples;
+
+    private final Map<String, String> cookies = new LinkedHashMap<String, String>();
+
+    /**
+     * A response as seen by a scenario.
+     */
+    public static class Response {
+
+        public final int status;
+
+        public final String location;
+
+        public final String body;
+
+        Response(int status, String location, String body) {
+            this.status = status;
+            this.location = location;
+            this.body = body;
+        }
+
+        /**
+         * Tells whether the response redirects to a URL containing the given
+         * text.
+         *
+         * @param text part of the expected location
+         * @return true if redirected there
+         */
+        public boolean redirectsTo(String text) {
+            return status == 302 && location != null && location.contains(text);
+        }
+    }
+
+    /**
+     * Creates a client.
+     *
+     * @param http    shared HTTP client
+     * @param base    application URL, e.g. {@code http://localhost:8080/ORSProject-04}
+     * @param samples where latencies and errors are recorded
+     */
+    public Client(HttpClient http, String base, Samples samples) {
+        this.http = http;
+        this.base = base;
+        this.samples = samples;
+    }
+
+    /**
+     * Sends a GET request.
+     *
+     * @param path path below the application URL
+     * @return the response, or null if the request failed
+     */
+    public Response get(String path) {
+        return send(HttpRequest.newBuilder(URI.create(base + path)).GET(), true);
+    }
+
+    /**
+     * Sends a form POST request.
+     *
+     * @param path   path below the application URL
+     * @param fields alternating parameter names and values
+     * @return the response, or null if the request failed
+     */
+    public Response post(String path, String... fields) {
+        return send(form(path, fields), true);
+    }
+
+    /**
+     * Signs in without recording the request, for scenarios that need a
+     * session but do not measure the login itself.
+     *
+     * @param login    login id
+     * @param password password
+     * @return true if the login succeeded
+     */
+    public boolean signIn(String login, String password) {
+        Response r = send(form("/LoginCtl", "login", login, "password", password, "operation", "Sign In"), false);
+        return r != null && r.redirectsTo("WelcomeCtl");
+    }
+
+    /**
+     * Forgets the cookies, so the next request starts a new session.
+     */
+    public void clearSession() {
+        cookies.clear();
+    }
+
+    /**
+     * Records a failed check made by a scenario unless {@code ok} holds.
+     *
+     * @param ok outcome of the check
+     */
+    public void check(boolean ok) {
+        if (!ok) {
+            samples.error();
+        }
+    }
+
+    private HttpRequest.Builder form(String path, String... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < fields.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(fields[i], StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(fields[i + 1], StandardCharsets.UTF_8));
+        }
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(sb.toString()));
+    }
+
+    private Response send(HttpRequest.Builder builder, boolean record) {
+
+        if (!cookies.isEmpty()) {
+            builder.header("Cookie", String.join("; ", cookies.values()));
+        }
+        HttpRequest request = builder.timeout(Duration.ofSeconds(60)).build();
+
+        long t = System.nanoTime();
+        Response response = null;
+        try {
+            HttpResponse<String> r = http.send(request, HttpResponse.BodyHandlers.ofString());
+            response = new Response(r.statusCode(), r.headers().firstValue("Location").orElse(null), r.body());
+            for (String c : r.headers().allValues("Set-Cookie")) {
+                int semi = c.indexOf(';');
+                String cookie = semi > 0 ? c.substring(0, semi) : c;
+                String name = cookie.substring(0, Math.max(0, cookie.indexOf('=')));
+                if (c.contains("Max-Age=0")) {
+                    cookies.remove(name);
+                } else {
+                    cookies.put(name, cookie);
+                }
+            }
+        } catch (IOException e) {
+            response = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = null;
+        }
+
+        if (record) {
+            samples.add(System.nanoTime() - t);
+            if (response == null || response.status >= 400 || response.redirectsTo("/ErrorCtl")) {
+                samples.error();
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,121 @@
+package in.co.rays.proj4.loadtest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC driver that counts the statements executed by the webapp. It accepts
+ * URLs of the form {@code jdbc:count:<real url>}, opens the real connection and
+ * wraps it so that every {@code execute...} call on its statements adds one to
+ * {@link #count()}. A batch counts as one statement.
+ *
+ * <p>
+ * The webapp is pointed at it with {@code -Ddb.driver} and {@code -Ddb.url};
+ * the harness itself talks to the database directly, so seeding and checks
+ * are not counted.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class CountingDriver implements Driver {
+
+    /** URL prefix handled by this driver. */
+    public static final String PREFIX = "jdbc:count:";
+
+    private static final AtomicLong executed = new AtomicLong();
+
+    static {
+        try {
+            DriverManager.registerDriver(new CountingDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Returns the number of statements executed since the last reset.
+     *
+     * @return statement count
+     */
+    public static long count() {
+        return executed.get();
+    }
+
+    /**
+     * Sets the statement count back to zero.
+     */
+    public static void reset() {
+        executed.set(0);
+    }
+
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        Connection conn = DriverManager.getConnection("jdbc:" + url.substring(PREFIX.length()), info);
+        return wrap(conn, Connection.class);
+    }
+
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Wraps a connection or statement; statements created by a wrapped
+     * connection are wrapped in turn.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(final Object target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(CountingDriver.class.getClassLoader(), new Class<?>[] { type },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (method.getName().startsWith("execute")) {
+                            executed.incrementAndGet();
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        Class<?> returned = method.getReturnType();
+                        if (result != null && Statement.class.isAssignableFrom(returned)) {
+                            return wrap(result, returned);
+                        }
+                        return result;
+                    }
+                });
+    }
+}
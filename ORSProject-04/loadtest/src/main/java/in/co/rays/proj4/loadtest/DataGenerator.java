@@ -0,0 +1,426 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a deterministic, consistent data set for scale testing. The same
+ * seed and size always give the same rows, and every row is derived from the
+ * seed, its table and its id alone, so a marksheet can repeat the name of its
+ * student without keeping the students in memory.
+ *
+ * <p>
+ * The size is given as a number of students; the other tables follow from it:
+ * </p>
+ * <ul>
+ *   <li>st_college - students / 2500, at least 10; students per college are Zipf distributed</li>
+ *   <li>st_course - 12, Zipf distributed over faculty</li>
+ *   <li>st_subject - 8 per course</li>
+ *   <li>st_student - students; first and last names are Zipf distributed</li>
+ *   <li>st_marksheet - 90% of the students, marks correlated per student around 60</li>
+ *   <li>st_faculty - students / 20, at least 20, teaching a subject of their course</li>
+ *   <li>st_timetable - 4 exams per subject</li>
+ *   <li>st_user - students / 10, at least 10, mostly students; user 1 is the administrator</li>
+ *   <li>st_patient - students / 4, at least 10, diseases Zipf distributed, visits mostly recent</li>
+ * </ul>
+ * <p>
+ * Rows go to a {@link RowWriter}: batched inserts through
+ * {@link JdbcRowWriter}, or LOAD DATA files through {@link TsvRowWriter}. From
+ * the command line, with system properties:
+ * </p>
+ * <pre>
+ * java -Dstudents=1000000 -Dseed=42 -Durl="jdbc:mysql://localhost:3306/project04?rewriteBatchedStatements=true" \
+ *      -Duser=root -Dpassword=root -cp loadtest/target/loadtest.jar in.co.rays.proj4.loadtest.DataGenerator
+ * java -Dstudents=1000000 -Dout=data -cp loadtest/target/loadtest.jar in.co.rays.proj4.loadtest.DataGenerator
+ * </pre>
+ * <p>
+ * With a URL the tables are created from schema.sql if missing, and emptied
+ * first when {@code -Dclean=true}. {@code -Dbatch} sets the rows per batch.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class DataGenerator {
+
+    /** Login of the administrator, user 1. */
+    public static final String ADMIN_LOGIN = "admin@rays.co.in";
+
+    /** Password of the administrator. */
+    public static final String ADMIN_PASSWORD = "Admin@123";
+
+    /** Password of every other user. */
+    public static final String USER_PASSWORD = "Pass@123";
+
+    /** First names, most frequent first. */
+    public static final String[] FIRST_NAMES = { "Rahul", "Priya", "Amit", "Neha", "Rohit", "Pooja", "Ankit",
+            "Sneha", "Vikas", "Anjali", "Rajesh", "Kavita", "Suresh", "Ritu", "Manish", "Swati", "Deepak", "Shweta",
+            "Arun", "Nisha", "Sanjay", "Preeti", "Vivek", "Divya", "Gaurav", "Megha", "Ajay", "Komal", "Nitin",
+            "Sonal", "Ashish", "Payal", "Sachin", "Jyoti", "Varun", "Tanvi", "Harsh", "Isha", "Kunal", "Aarti",
+            "Mohit", "Shruti", "Yash", "Kritika", "Abhishek", "Riya", "Pankaj", "Simran", "Tarun", "Bhavna" };
+
+    /** Last names, most frequent first. */
+    public static final String[] LAST_NAMES = { "Sharma", "Verma", "Patel", "Gupta", "Singh", "Jain", "Yadav",
+            "Mishra", "Agrawal", "Chouhan", "Tiwari", "Joshi", "Pandey", "Dubey", "Shukla", "Bhatt", "Mehta", "Soni",
+            "Rathore", "Malviya", "Saxena", "Trivedi", "Kushwaha", "Thakur", "Rajput", "Nair", "Iyer", "Reddy",
+            "Das", "Khan" };
+
+    private static final String[][] CITIES = { { "Indore", "Madhya Pradesh" }, { "Bhopal", "Madhya Pradesh" },
+            { "Jabalpur", "Madhya Pradesh" }, { "Gwalior", "Madhya Pradesh" }, { "Ujjain", "Madhya Pradesh" },
+            { "Pune", "Maharashtra" }, { "Mumbai", "Maharashtra" }, { "Nagpur", "Maharashtra" },
+            { "Jaipur", "Rajasthan" }, { "Kota", "Rajasthan" }, { "Ahmedabad", "Gujarat" }, { "Surat", "Gujarat" },
+            { "Lucknow", "Uttar Pradesh" }, { "Kanpur", "Uttar Pradesh" }, { "Delhi", "Delhi" },
+            { "Bangalore", "Karnataka" }, { "Chennai", "Tamil Nadu" }, { "Hyderabad", "Telangana" },
+            { "Kolkata", "West Bengal" }, { "Patna", "Bihar" } };
+
+    private static final String[] COLLEGE_KINDS = { "Institute of Technology", "College of Engineering",
+            "Science College", "Commerce College", "Institute of Management", "Arts College" };
+
+    private static final String[][] COURSES = { { "BE", "4 Years" }, { "BCA", "3 Years" }, { "BSc", "3 Years" },
+            { "BCom", "3 Years" }, { "BBA", "3 Years" }, { "MCA", "2 Years" }, { "MBA", "2 Years" },
+            { "MTech", "2 Years" }, { "MSc", "2 Years" }, { "BA", "3 Years" }, { "MCom", "2 Years" },
+            { "BPharm", "4 Years" } };
+
+    private static final String[] TOPICS = { "Mathematics", "Physics", "Chemistry", "Programming",
+            "Data Structures", "Economics", "Accounting", "Communication" };
+
+    private static final String[] DISEASES = { "Diabetes", "Hypertension", "Asthma", "Malaria", "Tuberculosis",
+            "Hepatitis", "Cholera", "Alzheimer's", "Parkinson's", "Ebola" };
+
+    private static final String[] EXAM_TIMES = { "08:00 AM to 11:00 AM", "12:00 PM to 03:00 PM",
+            "04:00 PM to 07:00 PM" };
+
+    /** Roles 1 to 4 as in RoleBean, and how often users get them. */
+    private static final String[] ROLES = { "Admin", "Student", "Faculty", "Kiosk" };
+    private static final double[] ROLE_SHARE = { 0.02, 0.70, 0.20, 0.08 };
+
+    private static final int SUBJECTS_PER_COURSE = 8;
+
+    private static final int EXAMS_PER_SUBJECT = 4;
+
+    private static final Timestamp CREATED = Timestamp.valueOf("2024-01-01 00:00:00");
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    /* table numbers, mixed into the per-row seed */
+    private static final int COLLEGE = 1, STUDENT = 2, MARKSHEET = 3, FACULTY = 4, TIMETABLE = 5, USER = 6,
+            PATIENT = 7;
+
+    private final long seed;
+
+    private final int students;
+    private final int colleges;
+    private final int courses;
+    private final int subjects;
+    private final int marksheets;
+    private final int faculty;
+    private final int timetables;
+    private final int users;
+    private final int patients;
+
+    private final Zipf collegeRank;
+    private final Zipf courseRank;
+    private final Zipf firstNameRank;
+    private final Zipf lastNameRank;
+    private final Zipf diseaseRank;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed     random seed
+     * @param students number of students, which sizes the other tables
+     */
+    public DataGenerator(long seed, int students) {
+        this.seed = seed;
+        this.students = students;
+        this.colleges = Math.max(10, students / 2500);
+        this.courses = COURSES.length;
+        this.subjects = courses * SUBJECTS_PER_COURSE;
+        this.marksheets = (int) (students * 9L / 10);
+        this.faculty = Math.max(20, students / 20);
+        this.timetables = subjects * EXAMS_PER_SUBJECT;
+        this.users = Math.max(10, students / 10);
+        this.patients = Math.max(10, students / 4);
+
+        this.collegeRank = new Zipf(colleges, 1.05);
+        this.courseRank = new Zipf(courses, 0.9);
+        this.firstNameRank = new Zipf(FIRST_NAMES.length, 0.8);
+        this.lastNameRank = new Zipf(LAST_NAMES.length, 1.0);
+        this.diseaseRank = new Zipf(DISEASES.length, 1.2);
+    }
+
+    /**
+     * Returns the number of students.
+     *
+     * @return number of students
+     */
+    public int getStudents() {
+        return students;
+    }
+
+    /**
+     * Returns the number of marksheets; ids and students run from 1 to this.
+     *
+     * @return number of marksheets
+     */
+    public int getMarksheets() {
+        return marksheets;
+    }
+
+    /**
+     * Returns the roll number of a marksheet.
+     *
+     * @param id marksheet id, 1 to {@link #getMarksheets()}
+     * @return roll number
+     */
+    public static String rollNo(long id) {
+        return "RN" + (1000 + id);
+    }
+
+    /**
+     * Writes all tables, parents before children.
+     *
+     * @param out destination of the rows
+     * @return number of rows written
+     * @throws Exception if a row cannot be written
+     */
+    public long generate(RowWriter out) throws Exception {
+
+        long rows = 0;
+
+        out.begin("st_role", 7);
+        for (int i = 0; i < ROLES.length; i++) {
+            out.row((long) i + 1, ROLES[i], ROLES[i], "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += ROLES.length;
+
+        out.begin("st_college", 10);
+        for (long id = 1; id <= colleges; id++) {
+            SplittableRandom r = random(COLLEGE, id);
+            String[] city = CITIES[(int) ((id - 1) % CITIES.length)];
+            out.row(id, collegeName(id), (1 + r.nextInt(200)) + ", Main Road", city[1], city[0], mobile(r),
+                    "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += colleges;
+
+        out.begin("st_course", 8);
+        for (int i = 0; i < courses; i++) {
+            out.row((long) i + 1, COURSES[i][0], COURSES[i][1], COURSES[i][0] + " degree course", "root", "root",
+                    CREATED, CREATED);
+        }
+        out.end();
+        rows += courses;
+
+        out.begin("st_subject", 9);
+        for (long id = 1; id <= subjects; id++) {
+            int course = courseOf(id);
+            out.row(id, subjectName(id), (long) course, COURSES[course - 1][0],
+                    TOPICS[(int) ((id - 1) % SUBJECTS_PER_COURSE)] + " for " + COURSES[course - 1][0], "root",
+                    "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += subjects;
+
+        out.begin("st_student", 13);
+        for (long id = 1; id <= students; id++) {
+            SplittableRandom r = random(STUDENT, id);
+            String first = FIRST_NAMES[firstNameRank.next(r)];
+            String last = LAST_NAMES[lastNameRank.next(r)];
+            long college = 1 + collegeRank.next(r);
+            out.row(id, first, last, date(r, 1998, 2006), gender(r), mobile(r),
+                    email(first, last, id), college, collegeName(college), "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += students;
+
+        out.begin("st_marksheet", 11);
+        for (long id = 1; id <= marksheets; id++) {
+            SplittableRandom s = random(STUDENT, id);
+            String name = FIRST_NAMES[firstNameRank.next(s)] + " " + LAST_NAMES[lastNameRank.next(s)];
+            SplittableRandom r = random(MARKSHEET, id);
+            double ability = gaussian(r);
+            out.row(id, rollNo(id), id, name, mark(r, ability), mark(r, ability), mark(r, ability), "root", "root",
+                    CREATED, CREATED);
+        }
+        out.end();
+        rows += marksheets;
+
+        out.begin("st_faculty", 17);
+        for (long id = 1; id <= faculty; id++) {
+            SplittableRandom r = random(FACULTY, id);
+            String first = FIRST_NAMES[firstNameRank.next(r)];
+            String last = LAST_NAMES[lastNameRank.next(r)];
+            long college = 1 + collegeRank.next(r);
+            int course = 1 + courseRank.next(r);
+            long subject = (course - 1L) * SUBJECTS_PER_COURSE + 1 + r.nextInt(SUBJECTS_PER_COURSE);
+            out.row(id, first, last, date(r, 1965, 1995), gender(r), mobile(r), email(first, last, id), college,
+                    collegeName(college), (long) course, COURSES[course - 1][0], subject, subjectName(subject),
+                    "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += faculty;
+
+        out.begin("st_timetable", 13);
+        for (long id = 1; id <= timetables; id++) {
+            SplittableRandom r = random(TIMETABLE, id);
+            long subject = 1 + (id - 1) / EXAMS_PER_SUBJECT;
+            int course = courseOf(subject);
+            int semester = 1 + r.nextInt(8);
+            out.row(id, String.valueOf(semester), "Semester " + semester + " exam",
+                    Date.valueOf(TODAY.plusDays(1 + r.nextInt(180))), EXAM_TIMES[r.nextInt(EXAM_TIMES.length)],
+                    (long) course, COURSES[course - 1][0], subject, subjectName(subject), "root", "root", CREATED,
+                    CREATED);
+        }
+        out.end();
+        rows += timetables;
+
+        out.begin("st_user", 13);
+        out.row(1L, "Admin", "Rays", ADMIN_LOGIN, ADMIN_PASSWORD, Date.valueOf("1990-01-01"), "9876543210", 1L,
+                "Male", "root", "root", CREATED, CREATED);
+        for (long id = 2; id <= users; id++) {
+            SplittableRandom r = random(USER, id);
+            String first = FIRST_NAMES[firstNameRank.next(r)];
+            String last = LAST_NAMES[lastNameRank.next(r)];
+            out.row(id, first, last, email(first, last, id), USER_PASSWORD, date(r, 1970, 2005), mobile(r),
+                    role(r), gender(r), "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += users;
+
+        out.begin("st_patient", 9);
+        for (long id = 1; id <= patients; id++) {
+            SplittableRandom r = random(PATIENT, id);
+            String name = FIRST_NAMES[firstNameRank.next(r)] + " " + LAST_NAMES[lastNameRank.next(r)];
+            // visits thin out exponentially with age, mean two months
+            long daysAgo = Math.min(730, (long) (-Math.log(1 - r.nextDouble()) * 60));
+            out.row(id, name, Date.valueOf(TODAY.minusDays(daysAgo)), mobile(r), DISEASES[diseaseRank.next(r)],
+                    "root", "root", CREATED, CREATED);
+        }
+        out.end();
+        rows += patients;
+
+        return rows;
+    }
+
+    /**
+     * Returns the random generator of one row. Mixing the table and id into
+     * the seed makes every row independent of the others.
+     */
+    private SplittableRandom random(int table, long id) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + table * 0xBF58476D1CE4E5B9L + id);
+    }
+
+    private static int courseOf(long subject) {
+        return 1 + (int) ((subject - 1) / SUBJECTS_PER_COURSE);
+    }
+
+    private static String subjectName(long subject) {
+        return COURSES[courseOf(subject) - 1][0] + " " + TOPICS[(int) ((subject - 1) % SUBJECTS_PER_COURSE)];
+    }
+
+    /**
+     * Returns a unique college name; names carry no digits, as the college
+     * form does not accept them.
+     */
+    private static String collegeName(long college) {
+        long i = college - 1;
+        String name = CITIES[(int) (i % CITIES.length)][0] + " "
+                + COLLEGE_KINDS[(int) (i / CITIES.length % COLLEGE_KINDS.length)];
+        long round = i / (CITIES.length * COLLEGE_KINDS.length);
+        if (round > 0) {
+            StringBuilder sb = new StringBuilder();
+            for (long n = round; n > 0; n /= 26) {
+                sb.append((char) ('A' + (n - 1) % 26));
+            }
+            name += " " + sb.reverse();
+        }
+        return name;
+    }
+
+    private static String email(String first, String last, long id) {
+        return first.toLowerCase() + "." + last.toLowerCase() + id + "@gmail.com";
+    }
+
+    private static String mobile(SplittableRandom r) {
+        return String.valueOf(6 + r.nextInt(4)) + (100000000 + r.nextInt(900000000));
+    }
+
+    private static String gender(SplittableRandom r) {
+        return r.nextInt(100) < 52 ? "Male" : "Female";
+    }
+
+    private static Date date(SplittableRandom r, int fromYear, int toYear) {
+        long from = LocalDate.of(fromYear, 1, 1).toEpochDay();
+        long to = LocalDate.of(toYear, 12, 31).toEpochDay();
+        return Date.valueOf(LocalDate.ofEpochDay(from + r.nextLong(to - from + 1)));
+    }
+
+    private static long role(SplittableRandom r) {
+        double u = r.nextDouble();
+        for (int i = 0; i < ROLE_SHARE.length; i++) {
+            u -= ROLE_SHARE[i];
+            if (u < 0) {
+                return i + 1;
+            }
+        }
+        return ROLE_SHARE.length;
+    }
+
+    /**
+     * Returns a mark out of 100 around 60, shifted by the student's ability so
+     * that strong students score well in all three subjects.
+     */
+    private static int mark(SplittableRandom r, double ability) {
+        long m = Math.round(60 + 15 * ability + 8 * gaussian(r));
+        return (int) Math.max(0, Math.min(100, m));
+    }
+
+    private static double gaussian(SplittableRandom r) {
+        // Box-Muller; SplittableRandom has no nextGaussian() before Java 17
+        double u = 1 - r.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * r.nextDouble());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        int students = Integer.getInteger("students", 100000);
+        long seed = Long.getLong("seed", 42L);
+        String dir = System.getProperty("out");
+        String url = System.getProperty("url");
+
+        DataGenerator generator = new DataGenerator(seed, students);
+        long t = System.nanoTime();
+        long rows;
+
+        if (dir != null) {
+            try (TsvRowWriter out = new TsvRowWriter(new File(dir))) {
+                rows = generator.generate(out);
+            }
+        } else if (url != null) {
+            try (Connection conn = DriverManager.getConnection(url, System.getProperty("user", "root"),
+                    System.getProperty("password", "root"))) {
+                Database.createSchema(conn);
+                if (Boolean.getBoolean("clean")) {
+                    Database.clear(conn);
+                }
+                try (JdbcRowWriter out = new JdbcRowWriter(conn, Integer.getInteger("batch", 1000))) {
+                    rows = generator.generate(out);
+                }
+            }
+        } else {
+            System.err.println("Set -Durl=<jdbc url> (with -Duser, -Dpassword) or -Dout=<directory>");
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf("Generated %d rows for %d students (seed %d) in %d ms%n", rows, students, seed,
+                (System.nanoTime() - t) / 1000000);
+    }
+}
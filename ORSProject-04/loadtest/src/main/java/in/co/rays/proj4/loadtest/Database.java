@@ -0,0 +1,117 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The in-memory H2 database (MySQL mode) behind the embedded webapp. It
+ * creates the tables from schema.sql and is filled by a {@link DataGenerator}.
+ * The harness keeps one connection open for the life of the run, which also
+ * keeps the in-memory database alive.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class Database implements AutoCloseable {
+
+    private final String url;
+
+    private final Connection conn;
+
+    /**
+     * Opens the database.
+     *
+     * @param url H2 URL, e.g. {@code jdbc:h2:mem:ors;MODE=MySQL;DB_CLOSE_DELAY=-1}
+     * @throws SQLException if the database cannot be opened
+     */
+    public Database(String url) throws SQLException {
+        this.url = url;
+        this.conn = DriverManager.getConnection(url, "sa", "");
+    }
+
+    /**
+     * Returns the URL the database was opened with.
+     *
+     * @return JDBC URL
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Creates the tables of schema.sql.
+     *
+     * @throws Exception if the script cannot be read or run
+     */
+    public void createSchema() throws Exception {
+        createSchema(conn);
+    }
+
+    /**
+     * Fills the tables with the rows of a generator.
+     *
+     * @param generator the data to load
+     * @return number of rows inserted
+     * @throws Exception if an insert fails
+     */
+    public long seed(DataGenerator generator) throws Exception {
+        try (JdbcRowWriter out = new JdbcRowWriter(conn, 1000)) {
+            return generator.generate(out);
+        }
+    }
+
+    /**
+     * Creates the tables of schema.sql on a connection, skipping those that
+     * exist.
+     *
+     * @param conn connection to the database
+     * @throws Exception if the script cannot be read or run
+     */
+    public static void createSchema(Connection conn) throws Exception {
+        Statement stmt = conn.createStatement();
+        for (String sql : readSchema().split(";")) {
+            if (sql.trim().length() > 0) {
+                stmt.execute(sql);
+            }
+        }
+        stmt.close();
+    }
+
+    /**
+     * Deletes all rows of the tables in schema.sql.
+     *
+     * @param conn connection to the database
+     * @throws Exception if the script cannot be read or a delete fails
+     */
+    public static void clear(Connection conn) throws Exception {
+        Matcher m = Pattern.compile("create table if not exists (\\w+)").matcher(readSchema());
+        Statement stmt = conn.createStatement();
+        while (m.find()) {
+            stmt.execute("delete from " + m.group(1));
+        }
+        stmt.close();
+    }
+
+    private static String readSchema() throws Exception {
+        InputStream in = Database.class.getResourceAsStream("/schema.sql");
+        try {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Closes the harness connection, which drops the in-memory database once
+     * the webapp has released its connections.
+     */
+    public void close() throws SQLException {
+        conn.close();
+    }
+}
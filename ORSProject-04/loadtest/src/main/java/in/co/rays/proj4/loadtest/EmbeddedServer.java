@@ -0,0 +1,72 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+
+/**
+ * Runs the war in an embedded Tomcat 9, the same major version as the
+ * Docker image.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class EmbeddedServer implements AutoCloseable {
+
+    /** Context path of the webapp; the controllers redirect to absolute URLs under it. */
+    public static final String CONTEXT = "/ORSProject-04";
+
+    private final Tomcat tomcat;
+
+    private EmbeddedServer(Tomcat tomcat) {
+        this.tomcat = tomcat;
+    }
+
+    /**
+     * Deploys the war and starts the server.
+     *
+     * @param war     the war file, usually target/ORSProject-04.war
+     * @param port    HTTP port, or 0 for any free port
+     * @param threads maximum connector threads
+     * @return the running server
+     * @throws Exception if the server cannot be started
+     */
+    public static EmbeddedServer start(File war, int port, int threads) throws Exception {
+
+        if (!war.isFile()) {
+            throw new IllegalArgumentException(war + " not found, run mvn package first");
+        }
+
+        File base = Files.createTempDirectory("ors-loadtest").toFile();
+        new File(base, "webapps").mkdirs();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(base.getAbsolutePath());
+        tomcat.setPort(port);
+        tomcat.getConnector().setProperty("maxThreads", String.valueOf(threads));
+        tomcat.getHost().setAutoDeploy(false);
+        tomcat.addWebapp(CONTEXT, war.getAbsolutePath());
+        tomcat.start();
+
+        return new EmbeddedServer(tomcat);
+    }
+
+    /**
+     * Returns the URL of the webapp.
+     *
+     * @return e.g. {@code http://localhost:8080/ORSProject-04}
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + tomcat.getConnector().getLocalPort() + CONTEXT;
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void close() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+}
@@ -0,0 +1,77 @@
+package in.co.rays.proj4.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes generated rows with batched inserts, committing every batch.
+ * On MySQL add {@code rewriteBatchedStatements=true} to the URL so that the
+ * driver sends each batch as one multi-row insert.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class JdbcRowWriter implements RowWriter {
+
+    private final Connection conn;
+
+    private final int batchSize;
+
+    private final boolean autoCommit;
+
+    private PreparedStatement pstmt;
+
+    private int pending;
+
+    /**
+     * Creates the writer.
+     *
+     * @param conn      connection to write to
+     * @param batchSize rows per batch and transaction
+     * @throws SQLException if auto-commit cannot be turned off
+     */
+    public JdbcRowWriter(Connection conn, int batchSize) throws SQLException {
+        this.conn = conn;
+        this.batchSize = batchSize;
+        this.autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+    }
+
+    public void begin(String table, int columns) throws SQLException {
+        StringBuilder sql = new StringBuilder("insert into ").append(table).append(" values(");
+        for (int i = 0; i < columns; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        pstmt = conn.prepareStatement(sql.append(")").toString());
+        pending = 0;
+    }
+
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            pstmt.setObject(i + 1, values[i]);
+        }
+        pstmt.addBatch();
+        if (++pending == batchSize) {
+            flush();
+        }
+    }
+
+    public void end() throws SQLException {
+        flush();
+        pstmt.close();
+        pstmt = null;
+    }
+
+    public void close() throws SQLException {
+        conn.setAutoCommit(autoCommit);
+    }
+
+    private void flush() throws SQLException {
+        if (pending > 0) {
+            pstmt.executeBatch();
+            conn.commit();
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * End-to-end HTTP load test. Boots the war in an embedded Tomcat against a
+ * seeded in-memory H2 database in MySQL mode, then runs each selected
+ * {@link Scenario} in turn with a fixed number of closed-loop users: a warmup
+ * that is not measured, followed by the measured run. For every scenario it
+ * reports throughput, latency percentiles and the number of SQL statements
+ * the webapp executed, in total and per request, and at the end the counters
+ * of the webapp's connection pool.
+ *
+ * <p>
+ * Options, as system properties:
+ * </p>
+ * <ul>
+ *   <li>users - concurrent users (default 20)</li>
+ *   <li>duration - measured seconds per scenario (default 20)</li>
+ *   <li>warmup - warmup seconds per scenario (default 5)</li>
+ *   <li>scenarios - comma separated names (default all, see {@link Scenarios})</li>
+ *   <li>students - size of the generated data, see {@link DataGenerator} (default 10000)</li>
+ *   <li>seed - random seed of the generated data (default 42)</li>
+ *   <li>replicas - read replicas, each a separate database seeded with the same
+ *       data (default 0); rows written during the run reach the primary only</li>
+ *   <li>war - war to deploy (default target/ORSProject-04.war)</li>
+ *   <li>port - HTTP port (default any free port)</li>
+ *   <li>threads - Tomcat connector threads (default 200)</li>
+ *   <li>ratelimit.enabled - apply the webapp's rate limits to sign in and sign up
+ *       (default false, since all users come from one address)</li>
+ * </ul>
+ *
+ * <pre>
+ * java -Dusers=50 -Dduration=30 -Dscenarios=studentSearch,meritList -jar loadtest/target/loadtest.jar
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class LoadTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:ors;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    /** Held so that the level set on it is not garbage collected. */
+    private static final Logger TOMCAT_LOG = Logger.getLogger("org.apache");
+
+    public static void main(String[] args) throws Exception {
+
+        int users = Integer.getInteger("users", 20);
+        int duration = Integer.getInteger("duration", 20);
+        int warmup = Integer.getInteger("warmup", 5);
+        int students = Integer.getInteger("students", 10000);
+        int port = Integer.getInteger("port", 0);
+        int threads = Integer.getInteger("threads", 200);
+        int replicas = Integer.getInteger("replicas", 0);
+        File war = new File(System.getProperty("war", "target/ORSProject-04.war"));
+
+        DataGenerator data = new DataGenerator(Long.getLong("seed", 42L), students);
+        Map<String, Scenario> available = Scenarios.all(data);
+        List<Scenario> scenarios = new ArrayList<Scenario>();
+        String selected = System.getProperty("scenarios", String.join(",", available.keySet()));
+        for (String name : selected.split(",")) {
+            Scenario scenario = available.get(name.trim());
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of "
+                        + available.keySet());
+            }
+            scenarios.add(scenario);
+        }
+
+        // the webapp prints every request to System.out
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        TOMCAT_LOG.setLevel(Level.WARNING);
+
+        System.setProperty("db.driver", CountingDriver.class.getName());
+        System.setProperty("db.url", CountingDriver.PREFIX + DB_URL.substring("jdbc:".length()));
+        System.setProperty("db.username", "sa");
+        System.setProperty("db.password", "");
+        // every simulated user signs in from the same address
+        System.setProperty("ratelimit.enabled", System.getProperty("ratelimit.enabled", "false"));
+
+        try (Database db = new Database(DB_URL)) {
+
+            long t = System.nanoTime();
+            db.createSchema();
+            long rows = db.seed(data);
+            out.printf("Generated %d rows for %d students in %d ms%n", rows, students,
+                    (System.nanoTime() - t) / 1000000);
+
+            // DB_CLOSE_DELAY=-1 keeps each replica after its seeding connection is closed
+            List<String> replicaUrls = new ArrayList<String>();
+            for (int i = 1; i <= replicas; i++) {
+                String url = DB_URL.replace("mem:ors", "mem:ors-replica" + i);
+                try (Database replica = new Database(url)) {
+                    replica.createSchema();
+                    replica.seed(new DataGenerator(Long.getLong("seed", 42L), students));
+                }
+                replicaUrls.add(CountingDriver.PREFIX + url.substring("jdbc:".length()));
+            }
+            if (replicas > 0) {
+                System.setProperty("db.replica.urls", String.join(",", replicaUrls));
+                out.printf("Seeded %d read replicas%n", replicas);
+            }
+
+            // not stopped at the end: undeploying only reports the webapp's pool threads as leaks
+            EmbeddedServer server = EmbeddedServer.start(war, port, threads);
+            String base = server.getBaseUrl();
+            HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER).connectTimeout(Duration.ofSeconds(10)).build();
+
+            out.printf("%s, %d users, %d s warmup + %d s per scenario%n%n", base, users, warmup, duration);
+            out.printf("%-14s %9s %7s %9s %8s %8s %8s %8s %10s %9s%n", "scenario", "requests", "errors",
+                    "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "queries", "q/req");
+
+            for (Scenario scenario : scenarios) {
+                run(scenario, http, base, users, warmup);
+
+                CountingDriver.reset();
+                long start = System.nanoTime();
+                Samples[] samples = run(scenario, http, base, users, duration);
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                long queries = CountingDriver.count();
+
+                long[] all = Samples.merge(samples);
+                int n = all.length;
+                out.printf("%-14s %9d %7d %9.1f %8.1f %8.1f %8.1f %8.1f %10d %9.2f%n", scenario.getName(), n,
+                        Samples.errors(samples), n / elapsed, Samples.percentile(all, 50),
+                        Samples.percentile(all, 90), Samples.percentile(all, 99), Samples.percentile(all, 100),
+                        queries, n == 0 ? 0.0 : (double) queries / n);
+            }
+
+            Client admin = new Client(http, base, new Samples());
+            if (admin.signIn(DataGenerator.ADMIN_LOGIN, DataGenerator.ADMIN_PASSWORD)) {
+                Client.Response stats = admin.get("/ctl/PoolStatsCtl");
+                out.printf("%nConnection pool%n%s", stats.status == 200 ? stats.body.replaceAll("(?m)^", "  ")
+                        : "  not available (HTTP " + stats.status + ")\n");
+            }
+        } finally {
+            System.setOut(out);
+        }
+        // Tomcat and the connection pool keep non-daemon threads running
+        System.exit(0);
+    }
+
+    /**
+     * Runs a scenario with {@code users} closed-loop users for
+     * {@code seconds} seconds. Users sign in first, and the clock starts when
+     * all of them are ready.
+     */
+    private static Samples[] run(final Scenario scenario, final HttpClient http, final String base, int users,
+            int seconds) throws InterruptedException {
+
+        final Samples[] samples = new Samples[users];
+        final CountDownLatch ready = new CountDownLatch(users);
+        final CountDownLatch go = new CountDownLatch(1);
+        final long[] end = new long[1];
+        Thread[] workers = new Thread[users];
+
+        for (int u = 0; u < users; u++) {
+            final int user = u;
+            samples[u] = new Samples();
+            workers[u] = new Thread(() -> {
+                Client client = new Client(http, base, samples[user]);
+                Random random = new Random(user);
+                scenario.start(client);
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < end[0]) {
+                    scenario.run(client, random);
+                }
+            }, scenario.getName() + "-" + u);
+            workers[u].start();
+        }
+
+        ready.await();
+        end[0] = System.nanoTime() + seconds * 1000000000L;
+        go.countDown();
+
+        for (Thread w : workers) {
+            w.join();
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,37 @@
+package in.co.rays.proj4.loadtest;
+
+/**
+ * Destination of the rows made by {@link DataGenerator}, one table at a time.
+ * Values are {@link Long}, {@link Integer}, {@link String},
+ * {@link java.sql.Date}, {@link java.sql.Timestamp} or null, in the column
+ * order of schema.sql.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public interface RowWriter extends AutoCloseable {
+
+    /**
+     * Starts a table.
+     *
+     * @param table   table name
+     * @param columns number of columns
+     * @throws Exception if the table cannot be written
+     */
+    void begin(String table, int columns) throws Exception;
+
+    /**
+     * Writes one row of the current table.
+     *
+     * @param values column values
+     * @throws Exception if the row cannot be written
+     */
+    void row(Object... values) throws Exception;
+
+    /**
+     * Finishes the current table.
+     *
+     * @throws Exception if the remaining rows cannot be written
+     */
+    void end() throws Exception;
+}
@@ -0,0 +1,89 @@
+package in.co.rays.proj4.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors recorded by one simulated user. Only its own thread
+ * writes to it, so no locking is needed; the samples of all users are merged
+ * after the run.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class Samples {
+
+    private long[] times = new long[1024];
+
+    private int count;
+
+    private int errors;
+
+    /**
+     * Records the latency of one request.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void add(long nanos) {
+        if (count == times.length) {
+            times = Arrays.copyOf(times, count * 2);
+        }
+        times[count++] = nanos;
+    }
+
+    /**
+     * Records a failed request or check.
+     */
+    public void error() {
+        errors++;
+    }
+
+    /**
+     * Merges the samples of all users into one sorted array.
+     *
+     * @param all samples of every user
+     * @return sorted latencies in nanoseconds
+     */
+    public static long[] merge(Samples[] all) {
+        int total = 0;
+        for (Samples s : all) {
+            total += s.count;
+        }
+        long[] merged = new long[total];
+        int k = 0;
+        for (Samples s : all) {
+            System.arraycopy(s.times, 0, merged, k, s.count);
+            k += s.count;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * Sums the errors of all users.
+     *
+     * @param all samples of every user
+     * @return number of errors
+     */
+    public static int errors(Samples[] all) {
+        int total = 0;
+        for (Samples s : all) {
+            total += s.errors;
+        }
+        return total;
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     *
+     * @param sorted latencies in nanoseconds, sorted
+     * @param p      percentile, 0 to 100
+     * @return latency in milliseconds
+     */
+    public static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, i))] / 1e6;
+    }
+}
@@ -0,0 +1,51 @@
+package in.co.rays.proj4.loadtest;
+
+import java.util.Random;
+
+/**
+ * A scripted user journey. Every simulated user runs {@link #start} once and
+ * then {@link #run} in a closed loop until the measurement ends; each HTTP
+ * request sent through the {@link Client} during {@code run} is measured.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public abstract class Scenario {
+
+    private final String name;
+
+    /**
+     * Creates a scenario.
+     *
+     * @param name name used on the command line and in the report
+     */
+    protected Scenario(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the scenario name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Prepares a user, e.g. signs in. Not measured.
+     *
+     * @param client the user's client
+     */
+    public void start(Client client) {
+        client.signIn(DataGenerator.ADMIN_LOGIN, DataGenerator.ADMIN_PASSWORD);
+    }
+
+    /**
+     * Runs one iteration of the journey.
+     *
+     * @param client the user's client
+     * @param random the user's random generator
+     */
+    public abstract void run(Client client, Random random);
+}
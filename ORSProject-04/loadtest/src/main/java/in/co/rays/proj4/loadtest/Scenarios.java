@@ -0,0 +1,100 @@
+package in.co.rays.proj4.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The built-in scenarios:
+ * <ul>
+ *   <li>login - signs in with a new session every iteration</li>
+ *   <li>studentSearch - searches students by a common first name, then pages Next</li>
+ *   <li>getMarksheet - looks up a random generated roll number</li>
+ *   <li>meritList - opens the marksheet merit list</li>
+ *   <li>collegeSave - saves a new college through the college form</li>
+ * </ul>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class Scenarios {
+
+    /**
+     * Returns the built-in scenarios by name, in report order.
+     *
+     * @param data the generator the database was filled by
+     * @return scenarios
+     */
+    public static Map<String, Scenario> all(final DataGenerator data) {
+
+        Map<String, Scenario> map = new LinkedHashMap<String, Scenario>();
+
+        add(map, new Scenario("login") {
+            public void start(Client client) {
+            }
+
+            public void run(Client client, Random random) {
+                client.clearSession();
+                Client.Response r = client.post("/LoginCtl", "login", DataGenerator.ADMIN_LOGIN, "password",
+                        DataGenerator.ADMIN_PASSWORD, "operation", "Sign In");
+                client.check(r != null && r.redirectsTo("WelcomeCtl"));
+            }
+        });
+
+        add(map, new Scenario("studentSearch") {
+            public void run(Client client, Random random) {
+                String firstName = DataGenerator.FIRST_NAMES[random.nextInt(10)];
+                Client.Response r = client.post("/ctl/StudentListCtl", "firstName", firstName, "operation",
+                        "Search");
+                client.check(r != null && r.status == 200);
+                r = client.post("/ctl/StudentListCtl", "firstName", firstName, "pageNo", "1", "operation", "Next");
+                client.check(r != null && r.status == 200);
+            }
+        });
+
+        add(map, new Scenario("getMarksheet") {
+            public void run(Client client, Random random) {
+                String rollNo = DataGenerator.rollNo(1 + random.nextInt(data.getMarksheets()));
+                Client.Response r = client.post("/ctl/GetMarksheetCtl", "rollNo", rollNo, "operation", "Go");
+                client.check(r != null && r.status == 200 && r.body.contains(rollNo));
+            }
+        });
+
+        add(map, new Scenario("meritList") {
+            public void run(Client client, Random random) {
+                Client.Response r = client.get("/ctl/MarksheetMeritListCtl");
+                client.check(r != null && r.status == 200);
+            }
+        });
+
+        final AtomicLong colleges = new AtomicLong();
+
+        add(map, new Scenario("collegeSave") {
+            public void run(Client client, Random random) {
+                String name = "College " + letters(colleges.incrementAndGet());
+                Client.Response r = client.post("/ctl/CollegeCtl", "name", name, "address", "Vijay Nagar",
+                        "state", "MP", "city", "Indore", "phoneNo", "9876543210", "operation", "Save");
+                client.check(r != null && r.status == 200 && r.body.contains("successfully saved"));
+            }
+        });
+
+        return map;
+    }
+
+    private static void add(Map<String, Scenario> map, Scenario scenario) {
+        map.put(scenario.getName(), scenario);
+    }
+
+    /**
+     * Spells a number in letters, since college names may not contain digits.
+     */
+    private static String letters(long n) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('A' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return sb.reverse().toString();
+    }
+}
@@ -0,0 +1,91 @@
+package in.co.rays.proj4.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes generated rows as tab separated files in the default format of
+ * MySQL's {@code LOAD DATA}, one {@code <table>.tsv} per table, plus a
+ * {@code load.sql} that loads them all:
+ *
+ * <pre>
+ * cd out &amp;&amp; mysql --local-infile=1 -u root -p project04 &lt; load.sql
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class TsvRowWriter implements RowWriter {
+
+    private final File dir;
+
+    private final Writer script;
+
+    private Writer out;
+
+    /**
+     * Creates the writer.
+     *
+     * @param dir output directory, created if missing
+     * @throws IOException if the directory or load.sql cannot be created
+     */
+    public TsvRowWriter(File dir) throws IOException {
+        this.dir = dir;
+        dir.mkdirs();
+        script = Files.newBufferedWriter(new File(dir, "load.sql").toPath(), StandardCharsets.UTF_8);
+        script.write("set foreign_key_checks = 0;\nset unique_checks = 0;\n");
+    }
+
+    public void begin(String table, int columns) throws IOException {
+        out = new BufferedWriter(Files.newBufferedWriter(new File(dir, table + ".tsv").toPath(),
+                StandardCharsets.UTF_8), 1 << 16);
+        script.write("load data local infile '" + table + ".tsv' into table " + table
+                + " character set utf8mb4;\n");
+    }
+
+    public void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            Object v = values[i];
+            if (v == null) {
+                out.write("\\N");
+            } else if (v instanceof java.sql.Timestamp) {
+                // Timestamp.toString() adds fractional seconds
+                String s = v.toString();
+                int dot = s.indexOf('.');
+                out.write(dot > 0 ? s.substring(0, dot) : s);
+            } else {
+                escape(v.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    public void end() throws IOException {
+        out.close();
+        out = null;
+    }
+
+    public void close() throws IOException {
+        script.write("set unique_checks = 1;\nset foreign_key_checks = 1;\n");
+        script.close();
+    }
+
+    private void escape(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == '\t' || c == '\n') {
+                out.write('\\');
+                out.write(c == '\t' ? 't' : c == '\n' ? 'n' : c);
+            } else {
+                out.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package in.co.rays.proj4.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws ranks 0 to n-1 with a Zipf distribution: rank 0 is the most frequent
+ * and the frequency of rank k falls off as {@code 1 / (k + 1)^s}. Used for the
+ * skewed columns of the generated data, e.g. a few large colleges and a long
+ * tail of small ones.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class Zipf {
+
+    private final double[] cumulative;
+
+    /**
+     * Creates the distribution.
+     *
+     * @param n number of ranks
+     * @param s skew, 0 for uniform; around 1 for natural data
+     */
+    public Zipf(int n, double s) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, s);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random source of randomness
+     * @return rank between 0 and n-1
+     */
+    public int next(SplittableRandom random) {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, i >= 0 ? i : -i - 1);
+    }
+}
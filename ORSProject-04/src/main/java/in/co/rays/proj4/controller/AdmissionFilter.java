@@ -0,0 +1,144 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.util.ConcurrencyLimiter;
+import in.co.rays.proj4.util.ConcurrencyLimiter.Priority;
+import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * AdmissionFilter admits controller requests through the
+ * {@link ConcurrencyLimiter}, so that a surge of lookups, as on the day results
+ * are published, is turned away quickly instead of queueing for database
+ * connections until every request times out.
+ * <p>
+ * Logins and requests of administrators have {@link Priority#HIGH}, marksheet
+ * and merit list lookups by other users {@link Priority#LOOKUP}, and the rest
+ * {@link Priority#NORMAL}. A request that is not admitted gets a short
+ * {@code 503 Service Unavailable} page with a {@code Retry-After} of
+ * {@code admission.retry.after} seconds. Setting {@code admission.enabled} to
+ * false lets every request through.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@WebFilter(urlPatterns = { "/ctl/*", "/LoginCtl" }, asyncSupported = true)
+public class AdmissionFilter implements Filter {
+
+    private static final Logger log = Logger.getLogger(AdmissionFilter.class);
+
+    /** Controllers whose requests are lookups */
+    private static final Set<String> LOOKUPS = new HashSet<String>(Arrays.asList(ORSView.GET_MARKSHEET_CTL,
+            ORSView.MARKSHEET_MERIT_LIST_CTL));
+
+    private static final String BUSY = "<html><head><title>Busy</title></head><body>"
+            + "<h3>The site is very busy right now. Please try again in a moment.</h3></body></html>";
+
+    private final ConcurrencyLimiter limiter = ConcurrencyLimiter.getInstance();
+
+    public void init(FilterConfig conf) throws ServletException {
+        log.info("AdmissionFilter initialized");
+    }
+
+    /**
+     * Lets the request through when it gets a slot and gives the slot back
+     * when the request is complete, which for an asynchronous request is when
+     * its {@link javax.servlet.AsyncContext} completes.
+     */
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!SystemConfig.getBoolean("admission.enabled", true)) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        Priority priority = priority(request);
+
+        if (!limiter.acquire(priority)) {
+            log.debug("Refused " + priority.getKey() + " request " + request.getServletPath() + ", limit "
+                    + limiter.getLimit());
+            busy((HttpServletResponse) resp);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(req, resp);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+
+                    public void onComplete(AsyncEvent event) {
+                        limiter.release();
+                    }
+
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * Works out the priority of a request from its controller and the role of
+     * the user signed in.
+     */
+    private static Priority priority(HttpServletRequest request) {
+
+        String uri = request.getContextPath() + request.getServletPath();
+        if (ORSView.LOGIN_CTL.equals(uri)) {
+            return Priority.HIGH;
+        }
+
+        if (ServletUtility.getRoleId(request) == RoleBean.ADMIN) {
+            return Priority.HIGH;
+        }
+
+        return LOOKUPS.contains(uri) ? Priority.LOOKUP : Priority.NORMAL;
+    }
+
+    private static void busy(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", String.valueOf(SystemConfig.getInt("admission.retry.after", 2)));
+        response.setHeader("Cache-Control", "no-store");
+        response.setContentType("text/html");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(BUSY);
+    }
+
+    public void destroy() {
+        log.info("AdmissionFilter destroyed");
+    }
+}
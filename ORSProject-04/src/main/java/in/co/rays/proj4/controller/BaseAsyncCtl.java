@@ -0,0 +1,278 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.JdbcExecutor;
+import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * BaseAsyncCtl is the asynchronous variant of {@link BaseCtl}. Instead of
+ * running its queries on the container's request thread, a subclass returns a
+ * {@link CompletableFuture} built from the {@code ...Async} model methods,
+ * which run on the bounded {@link JdbcExecutor} pool. The request thread is
+ * released through a Servlet 3.1 {@link AsyncContext} while the queries are
+ * in flight, so a slow database no longer ties up the connector threads that
+ * also serve static pages.
+ * <p>
+ * Subclasses implement {@link #doGetAsync} and {@link #doPostAsync}. The
+ * future completes with the page to dispatch to (usually {@link #getView()}),
+ * with {@link #redirect(String)} of a URL, or with {@code null} when the
+ * response is already written. A failed future is handled like
+ * {@link ServletUtility#handleException}. Lists for dropdowns are declared
+ * through {@link #preloadDatasets(Map)}; they are fetched on the JDBC pool
+ * too, and {@link #preload(HttpServletRequest)} is not called.
+ * </p>
+ * <p>
+ * The servlet and every filter in front of it must be declared with
+ * {@code asyncSupported = true}. When they are not, the same futures are
+ * simply awaited on the request thread.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public abstract class BaseAsyncCtl extends BaseCtl {
+
+	private static final Logger log = Logger.getLogger(BaseAsyncCtl.class);
+
+	/** Prefix of a view that asks for a redirect instead of a dispatch. */
+	private static final String REDIRECT = "redirect:";
+
+	/**
+	 * Handles an HTTP GET request asynchronously.
+	 *
+	 * @param request  the HttpServletRequest object
+	 * @param response the HttpServletResponse object
+	 * @return future completed with the page to show
+	 */
+	protected CompletableFuture<String> doGetAsync(HttpServletRequest request, HttpServletResponse response) {
+		return CompletableFuture.completedFuture(getView());
+	}
+
+	/**
+	 * Handles an HTTP POST request asynchronously.
+	 *
+	 * @param request  the HttpServletRequest object
+	 * @param response the HttpServletResponse object
+	 * @return future completed with the page to show
+	 */
+	protected CompletableFuture<String> doPostAsync(HttpServletRequest request, HttpServletResponse response) {
+		return CompletableFuture.completedFuture(getView());
+	}
+
+	/**
+	 * Builds the result of a handler that redirects the browser.
+	 *
+	 * @param url the URL to redirect to
+	 * @return view value understood by this class as a redirect
+	 */
+	protected static String redirect(String url) {
+		return REDIRECT + url;
+	}
+
+	/**
+	 * Fetches the datasets declared by {@link #preloadDatasets(Map)} on the
+	 * JDBC pool and sets each list as a request attribute. A dataset that fails
+	 * is replaced by an empty list.
+	 *
+	 * @param request the HttpServletRequest object
+	 * @return future completed when every dataset is in request scope
+	 */
+	protected CompletableFuture<Void> preloadAsync(final HttpServletRequest request) {
+
+		Map<String, Callable<List>> datasets = new LinkedHashMap<String, Callable<List>>();
+		preloadDatasets(datasets);
+
+		List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+
+		for (Map.Entry<String, Callable<List>> e : datasets.entrySet()) {
+			final String name = e.getKey();
+			final Callable<List> query = e.getValue();
+
+			futures.add(JdbcExecutor.supply(() -> {
+				try {
+					return query.call();
+				} catch (ApplicationException ex) {
+					throw ex;
+				} catch (Exception ex) {
+					throw new ApplicationException(ex.getMessage());
+				}
+			}).exceptionally(ex -> {
+				log.error("Error while preloading " + name, ex);
+				return new ArrayList();
+			}).thenAccept(list -> {
+				synchronized (request) {
+					request.setAttribute(name, list);
+				}
+			}));
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+	}
+
+	/**
+	 * Starts asynchronous processing of GET and POST requests. Other methods
+	 * are handled synchronously by {@link BaseCtl}.
+	 *
+	 * @param request  the HttpServletRequest object
+	 * @param response the HttpServletResponse object
+	 * @throws ServletException if a servlet-specific error occurs
+	 * @throws IOException      if an I/O error occurs
+	 */
+	@Override
+	protected void service(final HttpServletRequest request, final HttpServletResponse response)
+			throws ServletException, IOException {
+
+		String method = request.getMethod();
+
+		if (!"GET".equals(method) && !"POST".equals(method)) {
+			super.service(request, response);
+			return;
+		}
+
+		if (overRateLimit(request, response) || notModified(request, response)) {
+			return;
+		}
+
+		if (!request.isAsyncSupported()) {
+			log.debug("Async not supported for " + request.getServletPath() + ", waiting on request thread");
+			String view;
+			try {
+				view = process(request, response).get();
+			} catch (ExecutionException e) {
+				fail(e.getCause(), request, response);
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ServletException(e);
+			}
+			if (view == null) {
+				return;
+			} else if (view.startsWith(REDIRECT)) {
+				ServletUtility.redirect(view.substring(REDIRECT.length()), request, response);
+			} else {
+				ServletUtility.forward(view, request, response);
+			}
+			return;
+		}
+
+		final AsyncContext ctx = request.startAsync(request, response);
+		// milliseconds the request may take before it is failed
+		final long timeout = SystemConfig.getLong("async.timeout", 30000);
+		ctx.setTimeout(timeout);
+
+		final AtomicBoolean done = new AtomicBoolean();
+
+		ctx.addListener(new AsyncListener() {
+
+			public void onTimeout(AsyncEvent event) throws IOException {
+				if (done.compareAndSet(false, true)) {
+					log.warn("Async request timed out after " + timeout + " ms: " + request.getServletPath());
+					fail(new ApplicationException("Request timed out, please try again"), request, response);
+					ctx.complete();
+				}
+			}
+
+			public void onError(AsyncEvent event) throws IOException {
+				if (done.compareAndSet(false, true)) {
+					log.error("Async request failed: " + request.getServletPath(), event.getThrowable());
+					ctx.complete();
+				}
+			}
+
+			public void onComplete(AsyncEvent event) {
+			}
+
+			public void onStartAsync(AsyncEvent event) {
+			}
+		});
+
+		process(request, response).whenComplete((view, ex) -> {
+			if (!done.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				if (ex != null) {
+					fail(ex, request, response);
+					ctx.complete();
+				} else if (view == null) {
+					ctx.complete();
+				} else if (view.startsWith(REDIRECT)) {
+					ServletUtility.redirect(view.substring(REDIRECT.length()), request, response);
+					ctx.complete();
+				} else {
+					ctx.dispatch(view);
+				}
+			} catch (Exception e) {
+				log.error("Error while completing async request", e);
+				ctx.complete();
+			}
+		});
+	}
+
+	/**
+	 * Runs preload, validation and the GET or POST handler as one chain.
+	 */
+	private CompletableFuture<String> process(final HttpServletRequest request,
+			final HttpServletResponse response) {
+
+		return preloadAsync(request).thenCompose(v -> {
+
+			String op = DataUtility.getString(request.getParameter("operation"));
+			log.debug("Operation received: " + op);
+
+			if (isValidated(op) && !validate(request)) {
+				log.warn("Validation failed for operation: " + op);
+				BaseBean bean = (BaseBean) populateBean(request);
+				ServletUtility.setBean(bean, request);
+				return CompletableFuture.completedFuture(getView());
+			}
+
+			if ("POST".equals(request.getMethod())) {
+				return doPostAsync(request, response);
+			}
+			return doGetAsync(request, response);
+		});
+	}
+
+	/**
+	 * Sends the browser to the error page for a failed request.
+	 */
+	private static void fail(Throwable ex, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+
+		while (ex instanceof CompletionException && ex.getCause() != null) {
+			ex = ex.getCause();
+		}
+		log.error("Async request failed", ex);
+
+		Exception e = ex instanceof Exception ? (Exception) ex : new ApplicationException(ex.toString());
+		try {
+			ServletUtility.handleException(e, request, response);
+		} catch (ServletException se) {
+			throw new IOException(se);
+		}
+	}
+}
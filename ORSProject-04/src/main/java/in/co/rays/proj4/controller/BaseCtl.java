@@ -1,6 +1,12 @@
 package in.co.rays.proj4.controller;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -11,9 +17,16 @@ import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
 import in.co.rays.proj4.util.DataValidator;
+import in.co.rays.proj4.util.PreloadExecutor;
+import in.co.rays.proj4.util.RateLimiter;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SessionToken;
+import in.co.rays.proj4.util.TableVersion;
 
 /**
  * BaseCtl is an abstract controller class that provides common functionality
@@ -51,26 +64,94 @@ public abstract class BaseCtl extends HttpServlet {
 	public static final String MSG_SUCCESS = "success";
 	public static final String MSG_ERROR = "error";
 
+	/** Validation rules declared by {@link #validationRules(RuleSet.Builder)}. */
+	private volatile RuleSet rules;
+
+	/**
+	 * Builds the validation rules of the controller once, when the servlet is
+	 * initialized.
+	 */
+	@Override
+	public void init() throws ServletException {
+		rules();
+	}
+
 	/**
-	 * Validates input data submitted by the user. Subclasses should override this
-	 * method to implement custom validation rules.
+	 * Returns the validation rules of the controller, building them on first
+	 * use when {@link #init()} has not, so that a form is never accepted
+	 * unchecked.
+	 */
+	private RuleSet rules() {
+		RuleSet ruleSet = rules;
+		if (ruleSet == null) {
+			synchronized (this) {
+				ruleSet = rules;
+				if (ruleSet == null) {
+					RuleSet.Builder builder = RuleSet.builder();
+					validationRules(builder);
+					rules = ruleSet = builder.build();
+				}
+			}
+		}
+		return ruleSet;
+	}
+
+	/**
+	 * Validates input data submitted by the user. The default implementation
+	 * checks the rules declared by {@link #validationRules(RuleSet.Builder)}.
+	 * Subclasses may override this method to skip validation for some
+	 * operations or to add checks that cannot be declared as rules.
 	 *
 	 * @param request the HttpServletRequest object
 	 * @return true if validation passes, false otherwise
 	 */
 	protected boolean validate(HttpServletRequest request) {
 		log.debug("BaseCtl validate() called");
-		return true;
+		return rules().validate(request);
+	}
+
+	/**
+	 * Declares the validation rules of the form, one field per request
+	 * parameter. Called once, by {@link #init()} or by the first validation;
+	 * subclasses may override this method instead of
+	 * {@link #validate(HttpServletRequest)}.
+	 *
+	 * @param rules builder to which the fields and their rules are added
+	 */
+	protected void validationRules(RuleSet.Builder rules) {
 	}
 
 	/**
 	 * Preloads required data before loading the view. Typically used for dropdown
 	 * lists and related data. Subclasses may override this method as needed.
+	 * <p>
+	 * The default implementation fetches the datasets declared by
+	 * {@link #preloadDatasets(Map)} concurrently through {@link PreloadExecutor}
+	 * and sets each list as a request attribute under its name.
+	 * </p>
 	 *
 	 * @param request the HttpServletRequest object
 	 */
 	protected void preload(HttpServletRequest request) {
 		log.debug("BaseCtl preload() called");
+
+		Map<String, Callable<List>> datasets = new LinkedHashMap<String, Callable<List>>();
+		preloadDatasets(datasets);
+
+		if (!datasets.isEmpty()) {
+			PreloadExecutor.load(datasets, request);
+		}
+	}
+
+	/**
+	 * Declares the lists the view needs, keyed by request attribute name. The
+	 * queries are run concurrently by {@link #preload(HttpServletRequest)}, so
+	 * they must not touch the request themselves. Subclasses may override this
+	 * method instead of {@link #preload(HttpServletRequest)}.
+	 *
+	 * @param datasets map to which attribute names and their queries are added
+	 */
+	protected void preloadDatasets(Map<String, Callable<List>> datasets) {
 	}
 
 	/**
@@ -100,7 +181,7 @@ public abstract class BaseCtl extends HttpServlet {
 		String createdBy = request.getParameter("createdBy");
 		String modifiedBy = null;
 
-		UserBean userbean = (UserBean) request.getSession().getAttribute("user");
+		UserBean userbean = ServletUtility.getUser(request);
 
 		if (userbean == null) {
 			log.info("User session not found, assigning root user");
@@ -132,6 +213,131 @@ public abstract class BaseCtl extends HttpServlet {
 		return dto;
 	}
 
+	/**
+	 * Tells whether the submitted operation must pass {@link #validate} before
+	 * it is handled. Cancel, View, Delete and Reset are never validated.
+	 *
+	 * @param op the submitted operation, may be null
+	 * @return true if the request parameters must be validated
+	 */
+	protected boolean isValidated(String op) {
+		return DataValidator.isNotNull(op) && !OP_CANCEL.equalsIgnoreCase(op) && !OP_VIEW.equalsIgnoreCase(op)
+				&& !OP_DELETE.equalsIgnoreCase(op) && !OP_RESET.equalsIgnoreCase(op);
+	}
+
+	/**
+	 * Returns the name of the rate limit of an operation, or null when the
+	 * operation is not limited. A limited operation takes a token from the
+	 * {@link RateLimiter} {@code <name>.ip} for the client address and from
+	 * {@code <name>.id} for the {@code login} parameter before preload,
+	 * validation or any model call.
+	 *
+	 * @param op the submitted operation, may be null
+	 * @return name of the rate limit, or null
+	 */
+	protected String rateLimit(String op) {
+		return null;
+	}
+
+	/**
+	 * Applies the rate limit of the submitted operation. When a bucket is
+	 * empty, the form is shown again with status 429, a {@code Retry-After}
+	 * header and an error message.
+	 *
+	 * @return true if the request was refused and the response is written
+	 */
+	boolean overRateLimit(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		String op = DataUtility.getString(request.getParameter("operation"));
+		String limit = rateLimit(op);
+		if (limit == null) {
+			return false;
+		}
+
+		String client = request.getRemoteAddr();
+		long wait = RateLimiter.get(limit + ".ip").acquire(client);
+		String login = DataUtility.getString(request.getParameter("login"));
+		if (wait == 0 && DataValidator.isNotNull(login)) {
+			wait = RateLimiter.get(limit + ".id").acquire(login.toLowerCase());
+		}
+		if (wait == 0) {
+			return false;
+		}
+
+		long seconds = (wait + 999) / 1000;
+		log.warn("Rate limit " + limit + " refused " + op + " from " + client + " for " + login);
+		response.setStatus(429);
+		response.setHeader("Retry-After", String.valueOf(seconds));
+		ServletUtility.setBean(populateBean(request), request);
+		ServletUtility.setErrorMessage("Too many attempts, please try again in " + seconds + " seconds", request);
+		ServletUtility.forward(getView(), request, response);
+		return true;
+	}
+
+	/**
+	 * Returns the tables the page shown on a GET is read from, or null when
+	 * the page is not to be tagged. When a controller names its tables, a GET
+	 * gets a weak ETag made from their {@link TableVersion}, the request
+	 * parameters and the signed in user, and a browser that sends the same
+	 * tag back in {@code If-None-Match} gets {@code 304 Not Modified} before
+	 * any preload or query runs. The tables must include those of the
+	 * dropdowns of the page.
+	 *
+	 * @return names of the tables, or null
+	 */
+	protected String[] versionedTables() {
+		return null;
+	}
+
+	/**
+	 * Tags the page of a GET with an ETag, and answers with 304 when the
+	 * browser has it already.
+	 *
+	 * @return true if the request was answered with 304
+	 */
+	boolean notModified(HttpServletRequest request, HttpServletResponse response) {
+
+		String[] tables = versionedTables();
+		if (tables == null || !"GET".equals(request.getMethod())) {
+			return false;
+		}
+
+		// the header shows the name and role of the user
+		String[] all = Arrays.copyOf(tables, tables.length + 2);
+		all[tables.length] = UserModel.TABLE;
+		all[tables.length + 1] = RoleModel.TABLE;
+
+		StringBuilder key = new StringBuilder(request.getServletPath());
+		SessionToken token = SessionToken.get(request);
+		if (token != null) {
+			key.append('|').append(token.getUserId()).append('|').append(token.getRoleId());
+		} else {
+			UserBean user = ServletUtility.getUser(request);
+			key.append('|').append(user == null ? 0 : user.getId()).append('|')
+					.append(user == null ? 0 : user.getRoleId());
+		}
+		for (Map.Entry<String, String[]> e : new TreeMap<String, String[]>(request.getParameterMap()).entrySet()) {
+			key.append('|').append(e.getKey());
+			for (String v : e.getValue()) {
+				key.append('=').append(v);
+			}
+		}
+
+		String etag = TableVersion.tag(all, key.toString());
+		if (etag == null) {
+			return false;
+		}
+		response.setHeader("Cache-Control", "private, no-cache");
+		response.setHeader("ETag", etag);
+		if (TableVersion.matches(request.getHeader("If-None-Match"), etag)) {
+			log.debug("Not modified: " + request.getServletPath());
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Overridden service method that performs preprocessing, such as calling
 	 * preload() and validation logic before forwarding the request to doGet() or
@@ -148,13 +354,16 @@ public abstract class BaseCtl extends HttpServlet {
 
 		log.info("BaseCtl service() started");
 
+		if (overRateLimit(request, response) || notModified(request, response)) {
+			return;
+		}
+
 		preload(request);
 
 		String op = DataUtility.getString(request.getParameter("operation"));
 		log.debug("Operation received: " + op);
 
-		if (DataValidator.isNotNull(op) && !OP_CANCEL.equalsIgnoreCase(op) && !OP_VIEW.equalsIgnoreCase(op)
-				&& !OP_DELETE.equalsIgnoreCase(op) && !OP_RESET.equalsIgnoreCase(op)) {
+		if (isValidated(op)) {
 
 			if (!validate(request)) {
 				log.warn("Validation failed for operation: " + op);
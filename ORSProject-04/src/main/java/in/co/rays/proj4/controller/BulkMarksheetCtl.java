@@ -0,0 +1,187 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.MarksheetBean;
+import in.co.rays.proj4.bean.StudentBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.MarksheetModel;
+import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.DataUtility;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.RuleSet;
+import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * BulkMarksheetCtl looks up the marksheets of many roll numbers in a single
+ * request, for institutions that pull the results of a whole class at once.
+ * <p>
+ * Roll numbers are accepted either from the {@code rollNos} text area
+ * (separated by commas, spaces or new lines) or as repeated {@code rollNo}
+ * parameters on a GET request. Marksheets are fetched with
+ * {@link MarksheetModel#findByRollNos(String[])} and the related students with
+ * {@link StudentModel#findByPks(long[])}, so the whole page costs a couple of
+ * chunked queries instead of one query per roll number.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ * @see in.co.rays.proj4.model.MarksheetModel
+ */
+@WebServlet(name = "BulkMarksheetCtl", urlPatterns = { "/ctl/BulkMarksheetCtl" })
+public class BulkMarksheetCtl extends BaseCtl {
+
+    private static final Logger log = Logger.getLogger(BulkMarksheetCtl.class);
+
+    /**
+     * Declares that at least one roll number must be entered.
+     *
+     * @param rules builder to which the form fields are added
+     */
+    @Override
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("rollNos").required("Roll Numbers");
+    }
+
+    /**
+     * Handles HTTP GET. When {@code rollNo} parameters are present the lookup
+     * is performed directly, otherwise the empty form is shown.
+     *
+     * @param request  the {@link HttpServletRequest}
+     * @param response the {@link HttpServletResponse}
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException      if an I/O error occurs
+     */
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        log.info("BulkMarksheetCtl doGet() called");
+
+        String[] rollNos = request.getParameterValues("rollNo");
+
+        if (rollNos != null && rollNos.length > 0) {
+            try {
+                lookup(String.join(",", rollNos), request);
+            } catch (ApplicationException e) {
+                log.error("ApplicationException while fetching marksheets", e);
+                ServletUtility.handleException(e, request, response);
+                return;
+            }
+        }
+
+        ServletUtility.forward(getView(), request, response);
+    }
+
+    /**
+     * Handles HTTP POST for the Go and Reset operations.
+     *
+     * @param request  the {@link HttpServletRequest}
+     * @param response the {@link HttpServletResponse}
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException      if an I/O error occurs
+     */
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        log.info("BulkMarksheetCtl doPost() started");
+
+        String op = DataUtility.getString(request.getParameter("operation"));
+        log.debug("Operation received: " + op);
+
+        if (OP_GO.equalsIgnoreCase(op)) {
+            try {
+                lookup(request.getParameter("rollNos"), request);
+            } catch (ApplicationException e) {
+                log.error("ApplicationException while fetching marksheets", e);
+                ServletUtility.handleException(e, request, response);
+                return;
+            }
+        } else if (OP_RESET.equalsIgnoreCase(op)) {
+            ServletUtility.redirect(ORSView.BULK_MARKSHEET_CTL, request, response);
+            return;
+        }
+
+        ServletUtility.forward(getView(), request, response);
+    }
+
+    /**
+     * Parses the roll numbers, fetches their marksheets and students, and puts
+     * the result in request scope. Found marksheets keep the order in which the
+     * roll numbers were entered; unknown roll numbers are listed separately.
+     *
+     * @param input   roll numbers separated by commas, spaces or new lines
+     * @param request the {@link HttpServletRequest}
+     * @throws ApplicationException if the lookup fails
+     */
+    private void lookup(String input, HttpServletRequest request) throws ApplicationException {
+
+        Set<String> rollNos = new LinkedHashSet<String>();
+        for (String rollNo : DataUtility.getString(input).split("[\\s,;]+")) {
+            if (rollNo.length() > 0) {
+                rollNos.add(rollNo);
+            }
+        }
+
+        int max = SystemConfig.getInt("bulk.marksheet.max", 500);
+        if (max > 0 && rollNos.size() > max) {
+            log.warn("Too many roll numbers requested: " + rollNos.size());
+            ServletUtility.setErrorMessage("At most " + max + " Roll Numbers can be fetched at once", request);
+            return;
+        }
+
+        log.info("Fetching marksheets for " + rollNos.size() + " roll numbers");
+
+        // roll numbers compare case-insensitively in the database, so do the same here
+        Map<String, MarksheetBean> found = new TreeMap<String, MarksheetBean>(String.CASE_INSENSITIVE_ORDER);
+        found.putAll(new MarksheetModel().findByRollNos(rollNos.toArray(new String[0])));
+
+        List<MarksheetBean> list = new ArrayList<MarksheetBean>(found.size());
+        List<String> missing = new ArrayList<String>();
+        for (String rollNo : rollNos) {
+            MarksheetBean bean = found.get(rollNo);
+            if (bean == null) {
+                missing.add(rollNo);
+            } else {
+                list.add(bean);
+            }
+        }
+
+        long[] studentIds = new long[list.size()];
+        for (int i = 0; i < studentIds.length; i++) {
+            studentIds[i] = list.get(i).getStudentId();
+        }
+        LongMap<StudentBean> students = new StudentModel().findByPks(studentIds);
+
+        if (list.isEmpty()) {
+            ServletUtility.setErrorMessage("No record found", request);
+        }
+
+        ServletUtility.setList(list, request);
+        request.setAttribute("students", students);
+        request.setAttribute("missingRollNos", missing);
+    }
+
+    /**
+     * Returns the view path for the bulk marksheet page.
+     *
+     * @return view page path as {@link String}
+     */
+    @Override
+    protected String getView() {
+        return ORSView.BULK_MARKSHEET_VIEW;
+    }
+}
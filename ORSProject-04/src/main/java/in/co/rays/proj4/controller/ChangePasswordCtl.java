@@ -6,7 +6,6 @@ import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 import org.apache.log4j.Logger;
 
@@ -16,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -41,75 +39,45 @@ public class ChangePasswordCtl extends BaseCtl {
     public static final String OP_CHANGE_MY_PROFILE = "Change My Profile";
 
     /**
-     * Validates the change-password form.
-     * <p>
-     * Validation rules:
-     * <ul>
-     *   <li>If operation equals {@link #OP_CHANGE_MY_PROFILE} validation is skipped.</li>
-     *   <li>oldPassword must be present.</li>
-     *   <li>newPassword must be present, 8-12 characters and satisfy password complexity.</li>
-     *   <li>newPassword must differ from oldPassword.</li>
-     *   <li>confirmPassword must match newPassword.</li>
-     * </ul>
-     * </p>
+     * Validates the change-password form. Validation is skipped when the
+     * operation is {@link #OP_CHANGE_MY_PROFILE}; otherwise the rules of
+     * {@link #validationRules(RuleSet.Builder)} are checked.
      *
      * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} when validation passes; {@code false} otherwise
+     * @return {@code true} if validation passes; {@code false} otherwise
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
 
-        log.debug("ChangePasswordCtl validate() started");
-
-        boolean pass = true;
-
         String op = request.getParameter("operation");
-        log.debug("Operation received: " + op);
 
         if (OP_CHANGE_MY_PROFILE.equalsIgnoreCase(op)) {
             log.info("Validation skipped for Change My Profile operation");
-            return pass;
-        }
-
-        if (DataValidator.isNull(request.getParameter("oldPassword"))) {
-            log.warn("Old password is missing");
-            request.setAttribute("oldPassword", PropertyReader.getValue("error.require", "Old Password"));
-            pass = false;
-        } else if (request.getParameter("oldPassword").equals(request.getParameter("newPassword"))) {
-            log.warn("Old password and new password are same");
-            request.setAttribute("newPassword", "Old and New passwords should be different");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("newPassword"))) {
-            log.warn("New password is missing");
-            request.setAttribute("newPassword", PropertyReader.getValue("error.require", "New Password"));
-            pass = false;
-        } else if (!DataValidator.isPasswordLength(request.getParameter("newPassword"))) {
-            log.warn("New password length validation failed");
-            request.setAttribute("newPassword", "Password should be 8 to 12 characters");
-            pass = false;
-        } else if (!DataValidator.isPassword(request.getParameter("newPassword"))) {
-            log.warn("New password complexity validation failed");
-            request.setAttribute("newPassword", "Must contain uppercase, lowercase, digit & special character");
-            pass = false;
+            return true;
         }
 
-        if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-            log.warn("Confirm password is missing");
-            request.setAttribute("confirmPassword", PropertyReader.getValue("error.require", "Confirm Password"));
-            pass = false;
-        }
-
-        if (!request.getParameter("newPassword").equals(request.getParameter("confirmPassword"))
-                && !"".equals(request.getParameter("confirmPassword"))) {
-            log.warn("New password and confirm password do not match");
-            request.setAttribute("confirmPassword", "New and confirm passwords not matched");
-            pass = false;
-        }
+        return super.validate(request);
+    }
 
-        log.debug("ChangePasswordCtl validate() completed with status: " + pass);
-        return pass;
+    /**
+     * Declares the validation rules of the change-password form.
+     * <ul>
+     *   <li>oldPassword must be present.</li>
+     *   <li>newPassword must be present, 8-12 characters and satisfy password complexity.</li>
+     *   <li>newPassword must differ from oldPassword.</li>
+     *   <li>confirmPassword must match newPassword.</li>
+     * </ul>
+     *
+     * @param rules builder to which the form fields are added
+     */
+    @Override
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("oldPassword").required("Old Password");
+        rules.field("newPassword").required("New Password").password("Password should be 8 to 12 characters",
+                "Must contain uppercase, lowercase, digit & special character")
+                .differentFrom("oldPassword", "Old and New passwords should be different");
+        rules.field("confirmPassword").required("Confirm Password").sameAs("newPassword",
+                "New and confirm passwords not matched");
     }
 
     /**
@@ -159,7 +127,7 @@ public class ChangePasswordCtl extends BaseCtl {
      * <p>
      * If operation equals {@link BaseCtl#OP_SAVE} this method attempts to change
      * the user's password via {@link UserModel#changePassword(long, String, String)}.
-     * On success, the updated user is loaded into session and a success message is set.
+     * On success, the updated user replaces the signed in profile and a success message is set.
      * If the user selects "Change My Profile" the method redirects to the profile controller.
      * </p>
      *
@@ -181,8 +149,7 @@ public class ChangePasswordCtl extends BaseCtl {
         UserBean bean = (UserBean) populateBean(request);
         UserModel model = new UserModel();
 
-        HttpSession session = request.getSession(true);
-        UserBean user = (UserBean) session.getAttribute("user");
+        UserBean user = ServletUtility.getUser(request);
         long id = user.getId();
 
         if (OP_SAVE.equalsIgnoreCase(op)) {
@@ -192,7 +159,7 @@ public class ChangePasswordCtl extends BaseCtl {
                 if (flag == true) {
                     log.info("Password changed successfully");
                     bean = model.findByLogin(user.getLogin());
-                    session.setAttribute("user", bean);
+                    ServletUtility.setUser(bean, request);
                     ServletUtility.setBean(bean, request);
                     ServletUtility.setSuccessMessage("Password has been changed Successfully", request);
                 }
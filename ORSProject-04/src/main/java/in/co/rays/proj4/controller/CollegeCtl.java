@@ -15,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -38,67 +37,22 @@ public class CollegeCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(CollegeCtl.class);
 
     /**
-     * Validates college form fields (name, address, state, city, phoneNo).
+     * Declares the validation rules of the college form.
      * <ul>
      *   <li>Name is required and must be a valid name.</li>
      *   <li>Address, State and City are required.</li>
      *   <li>Phone number is required, must be 10 digits and a valid phone number.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} carrying form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("CollegeCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            log.warn("College name is null");
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            log.warn("Invalid college name entered");
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("address"))) {
-            log.warn("College address is null");
-            request.setAttribute("address", PropertyReader.getValue("error.require", "Address"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("state"))) {
-            log.warn("College state is null");
-            request.setAttribute("state", PropertyReader.getValue("error.require", "State"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("city"))) {
-            log.warn("College city is null");
-            request.setAttribute("city", PropertyReader.getValue("error.require", "City"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("phoneNo"))) {
-            log.warn("College phone number is null");
-            request.setAttribute("phoneNo", PropertyReader.getValue("error.require", "Phone No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("phoneNo"))) {
-            log.warn("College phone number length invalid");
-            request.setAttribute("phoneNo", "Phone No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("phoneNo"))) {
-            log.warn("Invalid college phone number");
-            request.setAttribute("phoneNo", "Invalid Phone No");
-            pass = false;
-        }
-
-        log.debug("CollegeCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("name").required("Name").name("Invalid Name");
+        rules.field("address").required("Address");
+        rules.field("state").required("State");
+        rules.field("city").required("City");
+        rules.field("phoneNo").required("Phone No").phone("Phone No must have 10 digits", "Invalid Phone No");
     }
 
     /**
@@ -240,6 +194,16 @@ public class CollegeCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Returns the tables the college form is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { CollegeModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the college form.
      *
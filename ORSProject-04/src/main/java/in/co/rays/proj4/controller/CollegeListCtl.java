@@ -15,8 +15,9 @@ import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * Controller that handles listing, searching, pagination and bulk actions for
@@ -97,14 +98,16 @@ public class CollegeListCtl extends BaseCtl {
         log.info("CollegeListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         CollegeBean bean = (CollegeBean) populateBean(request);
         CollegeModel model = new CollegeModel();
 
         try {
-            List<CollegeBean> list = model.search(bean, pageNo, pageSize);
-            List<CollegeBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<CollegeBean> pages = PagePrefetcher.search(request, CollegeModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<CollegeBean> list = pages.getList();
+            List<CollegeBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 log.warn("No college records found");
@@ -151,7 +154,7 @@ public class CollegeListCtl extends BaseCtl {
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
-        pageSize = (pageSize == 0) ? DataUtility.getInt(PropertyReader.getValue("page.size")) : pageSize;
+        pageSize = (pageSize == 0) ? SystemConfig.getInt("page.size", 10) : pageSize;
 
         CollegeBean bean = (CollegeBean) populateBean(request);
         CollegeModel model = new CollegeModel();
@@ -207,8 +210,10 @@ public class CollegeListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<CollegeBean> pages = PagePrefetcher.search(request, CollegeModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 log.warn("No college records found after operation");
@@ -232,6 +237,16 @@ public class CollegeListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the college list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { CollegeModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the college list.
      *
@@ -0,0 +1,449 @@
+package in.co.rays.proj4.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * CompressionFilter gzips the pages of the application for clients that
+ * accept it. The list views repeat the same table markup row after row and
+ * shrink to a small fraction of their size.
+ *
+ * <p>
+ * The first {@code compression.min.size} bytes of a response are held back.
+ * A response that ends within them is sent as it is, with its length, since
+ * compressing it would not pay. Once the response grows past them, or the
+ * page flushes early (see Header.jsp), it is compressed if its status is 200,
+ * its content type is one of {@code compression.mime.types} and it does not
+ * already have a Content-Encoding. The gzip stream is flushed whenever the
+ * page flushes, so the browser gets the header of a page, and starts fetching
+ * the scripts and style sheets it names, while the rest is still rendered.
+ * </p>
+ *
+ * <p>
+ * Static files are skipped; {@link StaticResourceServlet} serves compressed
+ * copies made once. Setting {@code compression.enabled} to false turns the
+ * filter off.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@WebFilter(urlPatterns = { "/*" }, asyncSupported = true)
+public class CompressionFilter implements Filter {
+
+    private static final Logger log = Logger.getLogger(CompressionFilter.class);
+
+    private static final LongAdder compressed = new LongAdder();
+    private static final LongAdder bytesIn = new LongAdder();
+    private static final LongAdder bytesOut = new LongAdder();
+
+    public void init(FilterConfig conf) throws ServletException {
+        log.info("CompressionFilter initialized");
+    }
+
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        if (!SystemConfig.getBoolean("compression.enabled", true) || StaticResourceServlet.isStatic(request)
+                || !accepts(request.getHeader("Accept-Encoding"))) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        final CompressionResponse response = new CompressionResponse((HttpServletResponse) resp);
+        response.setHeader("Vary", "Accept-Encoding");
+        boolean async = false;
+        try {
+            chain.doFilter(req, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+
+                    public void onComplete(AsyncEvent event) throws IOException {
+                        response.finish();
+                    }
+
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                response.finish();
+            }
+        }
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows gzip.
+     */
+    private static boolean accepts(String header) {
+        return header != null && StaticResourceServlet.accepts(header, "gzip");
+    }
+
+    /**
+     * Returns the counters of the filter as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        long in = bytesIn.sum();
+        long out = bytesOut.sum();
+        return "compression.responses=" + compressed.sum() + "\ncompression.bytes.in=" + in
+                + "\ncompression.bytes.out=" + out + "\ncompression.ratio="
+                + (in == 0 ? "0.00" : String.format("%.2f", (double) out / in)) + "\n";
+    }
+
+    /**
+     * A response whose body goes through a {@link CompressionStream}. The
+     * content length set by the page is kept back until it is known whether
+     * the body is compressed.
+     */
+    private static final class CompressionResponse extends HttpServletResponseWrapper {
+
+        private CompressionStream stream;
+        private PrintWriter writer;
+        private long length = -1;
+
+        private CompressionResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private HttpServletResponse raw() {
+            return (HttpServletResponse) getResponse();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (stream == null) {
+                stream = new CompressionStream(this);
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                stream = new CompressionStream(this);
+                writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            length = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            length = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                length = Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                length = Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            resetBuffer();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            resetBuffer();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            resetBuffer();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (stream != null) {
+                stream.flush();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return (stream != null && stream.decided) || super.isCommitted();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (stream != null) {
+                stream.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            length = -1;
+            if (stream != null) {
+                stream.reset();
+            }
+            setHeader("Vary", "Accept-Encoding");
+        }
+
+        /**
+         * Sends what is still held back and ends the gzip stream.
+         */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            } else if (length >= 0) {
+                raw().setContentLengthLong(length);
+            }
+        }
+
+        /**
+         * Tells whether the body may be compressed, whatever its size.
+         */
+        private boolean compressible() {
+            if (getStatus() != HttpServletResponse.SC_OK || containsHeader("Content-Encoding")) {
+                return false;
+            }
+            String type = getContentType();
+            if (type == null) {
+                return false;
+            }
+            int semi = type.indexOf(';');
+            type = (semi < 0 ? type : type.substring(0, semi)).trim().toLowerCase();
+            Set<String> types = new HashSet<String>(Arrays.asList(SystemConfig.getString(
+                    "compression.mime.types", "text/html,text/plain,text/css,application/javascript").split(
+                            "\\s*,\\s*")));
+            return types.contains(type);
+        }
+    }
+
+    /**
+     * Holds back the first bytes of a body, then writes the body either as it
+     * is or through a gzip stream.
+     */
+    private static final class CompressionStream extends ServletOutputStream {
+
+        private final CompressionResponse response;
+        private final int threshold = Math.max(0, SystemConfig.getInt("compression.min.size", 1024));
+        private ByteArrayOutputStream held = new ByteArrayOutputStream(threshold);
+        private OutputStream out;
+        private GZIPOutputStream gzip;
+        private long written;
+        private boolean decided;
+        private boolean finished;
+
+        private CompressionStream(CompressionResponse response) {
+            this.response = response;
+        }
+
+        /**
+         * Chooses between gzip and plain output and writes the bytes held
+         * back.
+         */
+        private void decide(boolean compress) throws IOException {
+            decided = true;
+            OutputStream raw = response.raw().getOutputStream();
+            if (compress && response.compressible()) {
+                response.raw().setHeader("Content-Encoding", "gzip");
+                final int level = SystemConfig.getInt("compression.level", 6);
+                gzip = new GZIPOutputStream(new CountingStream(raw), 8192, true) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+                out = gzip;
+                compressed.increment();
+            } else {
+                if (response.length >= 0) {
+                    response.raw().setContentLengthLong(response.length);
+                } else if (finished) {
+                    response.raw().setContentLength(held.size());
+                }
+                out = raw;
+            }
+            held.writeTo(out);
+            written = held.size();
+            held = null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response already finished");
+            }
+            if (!decided) {
+                if (held.size() + len <= threshold) {
+                    held.write(b, off, len);
+                    return;
+                }
+                decide(true);
+            }
+            out.write(b, off, len);
+            written += len;
+        }
+
+        /**
+         * Sends what has been written so far. A flush before the threshold
+         * is reached means the page streams, so it decides for compression.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (!decided) {
+                if (held.size() == 0) {
+                    return;
+                }
+                decide(true);
+            }
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        private void reset() {
+            if (!decided) {
+                held.reset();
+            }
+        }
+
+        private void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (!decided) {
+                decide(false);
+            }
+            if (gzip != null) {
+                gzip.finish();
+                bytesIn.add(written);
+            }
+            out.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException("Non-blocking writes are not supported when compressing");
+        }
+    }
+
+    /**
+     * Counts the compressed bytes sent.
+     */
+    private static final class CountingStream extends OutputStream {
+
+        private final OutputStream out;
+
+        private CountingStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesOut.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesOut.add(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public void destroy() {
+        log.info("CompressionFilter destroyed");
+    }
+}
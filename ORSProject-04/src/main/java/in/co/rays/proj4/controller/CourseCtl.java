@@ -15,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -39,47 +38,19 @@ public class CourseCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(CourseCtl.class);
 
     /**
-     * Validates the course form fields.
+     * Declares the validation rules of the course form.
      * <ul>
-     *   <li>Name is required and must be a valid name.</li>
-     *   <li>Duration is required.</li>
-     *   <li>Description is required.</li>
+     *   <li>name is required and must be a valid name.</li>
+     *   <li>duration and description are required.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("CourseCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            log.warn("Course name is null");
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            log.warn("Invalid course name");
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("duration"))) {
-            log.warn("Course duration is null");
-            request.setAttribute("duration", PropertyReader.getValue("error.require", "Duration"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            log.warn("Course description is null");
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        log.debug("CourseCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("name").required("Name").name("Invalid Name");
+        rules.field("duration").required("Duration");
+        rules.field("description").required("Description");
     }
 
     /**
@@ -216,6 +187,16 @@ public class CourseCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Returns the tables the course form is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { CourseModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the course form.
      *
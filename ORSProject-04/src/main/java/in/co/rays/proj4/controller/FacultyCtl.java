@@ -2,6 +2,8 @@ package in.co.rays.proj4.controller;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -19,8 +21,7 @@ import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.FacultyModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -43,40 +44,21 @@ public class FacultyCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(FacultyCtl.class);
 
     /**
-     * Preloads lists required by the view: collegeList, subjectList and courseList.
-     * These lists are typically used to populate dropdowns in the faculty form.
+     * Declares the lists required by the view: collegeList, subjectList and
+     * courseList. These lists are typically used to populate dropdowns in the
+     * faculty form and are fetched concurrently by {@link BaseCtl}.
      *
-     * @param request the {@link HttpServletRequest} to which attributes are added
+     * @param datasets map to which the list queries are added
      */
     @Override
-    protected void preload(HttpServletRequest request) {
-
-        log.debug("FacultyCtl preload() started");
-
-        CollegeModel collegeModel = new CollegeModel();
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List collegeList = collegeModel.list();
-            request.setAttribute("collegeList", collegeList);
-
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-
-            log.debug("Faculty preload lists loaded successfully");
-
-        } catch (ApplicationException e) {
-            log.error("Error while preloading faculty dropdown data", e);
-            e.printStackTrace();
-        }
+    protected void preloadDatasets(Map<String, Callable<List>> datasets) {
+        datasets.put("collegeList", () -> new CollegeModel().list());
+        datasets.put("subjectList", () -> new SubjectModel().list());
+        datasets.put("courseList", () -> new CourseModel().list());
     }
 
     /**
-     * Validates faculty form fields.
+     * Declares the validation rules of the faculty form.
      * <ul>
      *   <li>firstName and lastName are required and must be valid names.</li>
      *   <li>gender is required.</li>
@@ -86,96 +68,19 @@ public class FacultyCtl extends BaseCtl {
      *   <li>collegeId, courseId and subjectId are required.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation succeeds; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("FacultyCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            log.warn("First Name is null");
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            log.warn("Invalid First Name");
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            log.warn("Last Name is null");
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            log.warn("Invalid Last Name");
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            log.warn("Gender is null");
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            log.warn("DOB is null");
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            log.warn("Invalid DOB format");
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("email"))) {
-            log.warn("Email is null");
-            request.setAttribute("email", PropertyReader.getValue("error.require", "Email "));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("email"))) {
-            log.warn("Invalid Email");
-            request.setAttribute("email", PropertyReader.getValue("error.email", "Email "));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            log.warn("Mobile No is null");
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            log.warn("Invalid Mobile No length");
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            log.warn("Invalid Mobile No");
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("collegeId"))) {
-            log.warn("College not selected");
-            request.setAttribute("collegeId", PropertyReader.getValue("error.require", "College Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            log.warn("Course not selected");
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            log.warn("Subject not selected");
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        log.debug("FacultyCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("firstName").required("First Name").name("Invalid First Name");
+        rules.field("lastName").required("Last Name").name("Invalid Last Name");
+        rules.field("gender").required("Gender");
+        rules.field("dob").required("Date of Birth").date("Date of Birth");
+        rules.field("email").required("Email ").email("Email ");
+        rules.field("mobileNo").required("Mobile No").phone("Mobile No must have 10 digits", "Invalid Mobile No");
+        rules.field("collegeId").required("College Name");
+        rules.field("courseId").required("Course Name");
+        rules.field("subjectId").required("Subject Name");
     }
 
     /**
@@ -294,6 +199,16 @@ public class FacultyCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Returns the tables the faculty form and its dropdowns are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { FacultyModel.TABLE, CollegeModel.TABLE, CourseModel.TABLE, SubjectModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the faculty form.
      *
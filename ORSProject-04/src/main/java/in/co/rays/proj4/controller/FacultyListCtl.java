@@ -15,8 +15,9 @@ import in.co.rays.proj4.bean.FacultyBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.FacultyModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * Controller that handles listing, searching, pagination and bulk actions for
@@ -74,14 +75,16 @@ public class FacultyListCtl extends BaseCtl {
         log.info("FacultyListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         FacultyBean bean = (FacultyBean) populateBean(request);
         FacultyModel model = new FacultyModel();
 
         try {
-            List<FacultyBean> list = model.search(bean, pageNo, pageSize);
-            List<FacultyBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<FacultyBean> pages = PagePrefetcher.search(request, FacultyModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<FacultyBean> list = pages.getList();
+            List<FacultyBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 log.warn("No faculty records found");
@@ -128,7 +131,7 @@ public class FacultyListCtl extends BaseCtl {
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
-        pageSize = (pageSize == 0) ? DataUtility.getInt(PropertyReader.getValue("page.size")) : pageSize;
+        pageSize = (pageSize == 0) ? SystemConfig.getInt("page.size", 10) : pageSize;
 
         FacultyBean bean = (FacultyBean) populateBean(request);
         FacultyModel model = new FacultyModel();
@@ -184,8 +187,10 @@ public class FacultyListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<FacultyBean> pages = PagePrefetcher.search(request, FacultyModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 log.warn("No faculty records found after operation");
@@ -209,6 +214,16 @@ public class FacultyListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the faculty list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { FacultyModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the faculty list.
      *
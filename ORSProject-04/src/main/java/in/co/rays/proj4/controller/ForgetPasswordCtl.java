@@ -15,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -37,34 +36,17 @@ public class ForgetPasswordCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(ForgetPasswordCtl.class);
 
     /**
-     * Validates the forget-password form.
+     * Declares the validation rules of the forget-password form.
      * <ul>
      *   <li>login (email) is required</li>
      *   <li>login must be a valid email format</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("ForgetPasswordCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            log.warn("Login (email) is null");
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Email Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            log.warn("Invalid email format for login");
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-            pass = false;
-        }
-
-        log.debug("ForgetPasswordCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("login").required("Email Id").email("Login ");
     }
 
     /**
@@ -143,6 +125,18 @@ public class ForgetPasswordCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Rate limits each password reminder by client address and login id
+     * under the {@code ratelimit.forget} limits of system.properties.
+     *
+     * @param op the submitted operation
+     * @return {@code "forget"} for {@link #OP_GO}, otherwise null
+     */
+    @Override
+    protected String rateLimit(String op) {
+        return OP_GO.equalsIgnoreCase(op) ? "forget" : null;
+    }
+
     /**
      * Returns the JSP view path for the forget-password page.
      *
@@ -2,6 +2,7 @@ package in.co.rays.proj4.controller;
 
 import in.co.rays.proj4.controller.ORSView;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SessionToken;
 
 import java.io.IOException;
 
@@ -21,36 +22,54 @@ import org.apache.log4j.Logger;
 /**
  * FrontController is a servlet filter that performs session checking before any
  * application controller is invoked. It prevents access to protected resources
- * under {@code /doc/*} and {@code /ctl/*} when the user is not authenticated.
+ * under {@code /ctl/*} when the user is not authenticated. Static files,
+ * including the Javadoc under {@code /doc}, are served by
+ * {@link StaticResourceServlet} without this check.
  * <p>
- * If the session does not contain a {@code "user"} attribute, the filter
- * forwards the request to the login view with an error message indicating that
- * the session has expired.
+ * If there is no session, or it does not contain a {@code "user"} attribute,
+ * the filter forwards the request to the login view with an error message
+ * indicating that the session has expired. It never creates a session; only a
+ * successful sign in does.
+ * </p>
+ * <p>
+ * In stateless mode ({@code session.stateless}) the session is not used: the
+ * request must carry a valid {@link SessionToken} cookie instead, which is
+ * verified from its signature, so that any node can serve the request, and
+ * checked against the user's cached profile, so that a revoked token or an
+ * old role is refused. The token is renewed once half of its life has passed.
  * </p>
  *
  * @author Chaitanya Bhatt
  * @version 1.0
  */
-@WebFilter(urlPatterns = { "/doc/*", "/ctl/*" })
+@WebFilter(urlPatterns = { "/ctl/*" }, asyncSupported = true)
 public class FrontController implements Filter {
 
     private static final Logger log = Logger.getLogger(FrontController.class);
 
     /** 
-     * Initializes the filter. No special initialization is required for this
-     * implementation, but the method is provided for completeness and future use.
+     * Initializes the filter. In stateless mode it checks the token secret,
+     * so that a node without a usable one does not start.
      *
      * @param conf the {@link FilterConfig} provided by the servlet container
-     * @throws ServletException if an error occurs during initialization
+     * @throws ServletException if the token secret is missing or weak
      */
     public void init(FilterConfig conf) throws ServletException {
+        if (SessionToken.isEnabled()) {
+            try {
+                SessionToken.checkSecret();
+            } catch (IllegalStateException e) {
+                log.fatal("Stateless mode refused: " + e.getMessage());
+                throw new ServletException(e.getMessage(), e);
+            }
+        }
         log.info("FrontController filter initialized");
-        // No initialization required currently
     }
 
     /**
      * Performs session validation for incoming requests to protected URL
-     * patterns. If the session does not contain a "user" attribute, the request
+     * patterns. If the session does not contain a "user" attribute, or in
+     * stateless mode the request has no valid token, the request
      * is forwarded to the login view with an appropriate error message; otherwise
      * the request proceeds through the filter chain.
      *
@@ -66,14 +85,23 @@ public class FrontController implements Filter {
         HttpServletRequest request = (HttpServletRequest) req;
         HttpServletResponse response = (HttpServletResponse) resp;
 
-        HttpSession session = request.getSession();
-
         String uri = request.getRequestURI();
         request.setAttribute("uri", uri);
 
         log.debug("Intercepted request URI: " + uri);
 
-        if (session.getAttribute("user") == null) {
+        boolean signedIn;
+        SessionToken token = SessionToken.get(request);
+        if (token != null) {
+            signedIn = token.refresh(request, response);
+        } else if (SessionToken.isEnabled()) {
+            signedIn = false;
+        } else {
+            HttpSession session = request.getSession(false);
+            signedIn = session != null && session.getAttribute("user") != null;
+        }
+
+        if (!signedIn) {
             log.warn("Unauthorized access attempt detected. Session expired or user not logged in.");
             request.setAttribute("error", "Your session has been expired. Please Login again!");
             ServletUtility.forward(ORSView.LOGIN_VIEW, request, response);
@@ -14,8 +14,7 @@ import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -37,29 +36,16 @@ public class GetMarksheetCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(GetMarksheetCtl.class);
 
     /**
-     * Validates the request parameters for retrieving a marksheet.
+     * Declares the validation rules for retrieving a marksheet.
      * <ul>
      *   <li>rollNo is required.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} when validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("GetMarksheetCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("rollNo"))) {
-            log.warn("Roll number is null");
-            request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-            pass = false;
-        }
-
-        log.debug("GetMarksheetCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("rollNo").required("Roll Number");
     }
 
     /**
@@ -17,21 +17,23 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.ProfileCache;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SessionToken;
 
 /**
  * LoginCtl handles authentication-related requests including sign in, sign up
  * redirection and logout. It validates login form input, authenticates users via
- * {@link UserModel}, and stores user and role information in the session.
+ * {@link UserModel}, and stores user and role information in the session, or
+ * in stateless mode in a signed {@link SessionToken} cookie.
  *
  * <p>
  * Supported operations:
  * <ul>
  *   <li>{@link #OP_SIGN_IN} - Authenticate user and redirect to welcome page.</li>
  *   <li>{@link #OP_SIGN_UP} - Redirect to user registration controller.</li>
- *   <li>{@link #OP_LOG_OUT} - Invalidate session and display logout message.</li>
+ *   <li>{@link #OP_LOG_OUT} - Invalidate session or token and display logout message.</li>
  * </ul>
  * </p>
  *
@@ -51,12 +53,9 @@ public class LoginCtl extends BaseCtl {
     public static final String OP_LOG_OUT = "Logout";
 
     /**
-     * Validates login form input.
-     * <ul>
-     *   <li>Skips validation for Sign Up and Logout operations.</li>
-     *   <li>login is required and must be a valid email.</li>
-     *   <li>password is required.</li>
-     * </ul>
+     * Validates login form input. Validation is skipped for Sign Up and Logout
+     * operations; otherwise the rules of {@link #validationRules(RuleSet.Builder)}
+     * are checked.
      *
      * @param request the {@link HttpServletRequest} containing form parameters
      * @return {@code true} if validation passes; {@code false} otherwise
@@ -64,35 +63,29 @@ public class LoginCtl extends BaseCtl {
     @Override
     protected boolean validate(HttpServletRequest request) {
 
-        log.debug("LoginCtl validate() started");
-
-        boolean pass = true;
-
         String op = request.getParameter("operation");
 
         if (OP_SIGN_UP.equals(op) || OP_LOG_OUT.equals(op)) {
             log.debug("Validation skipped for operation: " + op);
-            return pass;
-        }
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            log.warn("Login id is null");
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Login Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            log.warn("Invalid email format for login");
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-            pass = false;
+            return true;
         }
 
-        if (DataValidator.isNull(request.getParameter("password"))) {
-            log.warn("Password is null");
-            request.setAttribute("password", PropertyReader.getValue("error.require", "Password"));
-            pass = false;
-        }
+        return super.validate(request);
+    }
 
-        log.debug("LoginCtl validate() completed with status: " + pass);
-        return pass;
+    /**
+     * Declares the validation rules of the login form.
+     * <ul>
+     *   <li>login is required and must be a valid email.</li>
+     *   <li>password is required.</li>
+     * </ul>
+     *
+     * @param rules builder to which the form fields are added
+     */
+    @Override
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("login").required("Login Id").email("Login ");
+        rules.field("password").required("Password");
     }
 
     /**
@@ -116,7 +109,8 @@ public class LoginCtl extends BaseCtl {
 
     /**
      * Handles HTTP GET requests. If operation is {@link #OP_LOG_OUT}, invalidates
-     * the session, sets a logout success message and forwards to the login view.
+     * the session and expires the token cookie, sets a logout success message and
+     * forwards to the login view.
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
@@ -128,12 +122,25 @@ public class LoginCtl extends BaseCtl {
 
         log.info("LoginCtl doGet() called");
 
-        HttpSession session = request.getSession();
         String op = DataUtility.getString(request.getParameter("operation"));
 
         if (OP_LOG_OUT.equals(op)) {
             log.info("Logout requested");
-            session.invalidate();
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.invalidate();
+            }
+            if (SessionToken.isEnabled()) {
+                SessionToken token = SessionToken.get(request);
+                if (token != null) {
+                    try {
+                        new UserModel().revokeTokens(token.getUserId());
+                    } catch (ApplicationException e) {
+                        log.error("Cannot revoke tokens of user " + token.getUserId(), e);
+                    }
+                }
+                SessionToken.clear(request, response);
+            }
             ServletUtility.setSuccessMessage("Logout Successful!", request);
             ServletUtility.forward(getView(), request, response);
             return;
@@ -146,7 +153,8 @@ public class LoginCtl extends BaseCtl {
      * Handles HTTP POST requests for Sign In and Sign Up operations.
      * <ul>
      *   <li>OP_SIGN_IN: Authenticates user, stores {@link UserBean} and role in session,
-     *       and redirects to welcome controller on success.</li>
+     *       or issues a {@link SessionToken} in stateless mode, and redirects to welcome
+     *       controller on success.</li>
      *   <li>OP_SIGN_UP: Redirects to user registration controller.</li>
      * </ul>
      *
@@ -160,7 +168,6 @@ public class LoginCtl extends BaseCtl {
 
         log.info("LoginCtl doPost() started");
 
-        HttpSession session = request.getSession();
         String op = DataUtility.getString(request.getParameter("operation"));
 
         UserModel model = new UserModel();
@@ -179,6 +186,21 @@ public class LoginCtl extends BaseCtl {
 
                     log.info("Authentication successful for login: " + bean.getLogin());
 
+                    if (SessionToken.isEnabled()) {
+                        SessionToken.issue(bean.getId(), bean.getRoleId(),
+                                ProfileCache.getTokenGeneration(bean.getId()), request, response);
+                        ProfileCache.putUser(bean);
+                        ServletUtility.redirect(ORSView.WELCOME_CTL, request, response);
+                        return;
+                    }
+
+                    // the only place a session is created; an existing one gets a new id
+                    HttpSession session = request.getSession(false);
+                    if (session != null) {
+                        request.changeSessionId();
+                    } else {
+                        session = request.getSession();
+                    }
                     session.setAttribute("user", bean);
 
                     RoleBean rolebean = role.findByPk(bean.getRoleId());
@@ -213,6 +235,18 @@ public class LoginCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Rate limits each sign in by client address and login id under the
+     * {@code ratelimit.login} limits of system.properties.
+     *
+     * @param op the submitted operation
+     * @return {@code "login"} for {@link #OP_SIGN_IN}, otherwise null
+     */
+    @Override
+    protected String rateLimit(String op) {
+        return OP_SIGN_IN.equalsIgnoreCase(op) ? "login" : null;
+    }
+
     /**
      * Returns the JSP view path for the login page.
      *
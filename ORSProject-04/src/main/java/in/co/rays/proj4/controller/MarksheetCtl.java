@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -63,89 +62,22 @@ public class MarksheetCtl extends BaseCtl {
     }
 
     /**
-     * Validates the marksheet form parameters.
+     * Declares the validation rules of the marksheet form.
      * <ul>
      *   <li>studentId is required.</li>
      *   <li>rollNo is required and must be a valid roll format.</li>
      *   <li>physics, chemistry and maths are required, must be integers and in 0-100 range.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} when validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("MarksheetCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("studentId"))) {
-            log.warn("Student ID is null");
-            request.setAttribute("studentId", PropertyReader.getValue("error.require", "Student Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("rollNo"))) {
-            log.warn("Roll number is null");
-            request.setAttribute("rollNo", PropertyReader.getValue("error.require", "Roll Number"));
-            pass = false;
-        } else if (!DataValidator.isRollNo(request.getParameter("rollNo"))) {
-            log.warn("Invalid roll number format");
-            request.setAttribute("rollNo", "Roll No is invalid");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("physics"))) {
-            log.warn("Physics marks are null");
-            request.setAttribute("physics", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (DataValidator.isNotNull(request.getParameter("physics"))
-                && !DataValidator.isInteger(request.getParameter("physics"))) {
-            log.warn("Physics marks not integer");
-            request.setAttribute("physics", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("physics")) > 100
-                || DataUtility.getInt(request.getParameter("physics")) < 0) {
-            log.warn("Physics marks out of range");
-            request.setAttribute("physics", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("chemistry"))) {
-            log.warn("Chemistry marks are null");
-            request.setAttribute("chemistry", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (DataValidator.isNotNull(request.getParameter("chemistry"))
-                && !DataValidator.isInteger(request.getParameter("chemistry"))) {
-            log.warn("Chemistry marks not integer");
-            request.setAttribute("chemistry", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("chemistry")) > 100
-                || DataUtility.getInt(request.getParameter("chemistry")) < 0) {
-            log.warn("Chemistry marks out of range");
-            request.setAttribute("chemistry", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("maths"))) {
-            log.warn("Maths marks are null");
-            request.setAttribute("maths", PropertyReader.getValue("error.require", "Marks"));
-            pass = false;
-        } else if (DataValidator.isNotNull(request.getParameter("maths"))
-                && !DataValidator.isInteger(request.getParameter("maths"))) {
-            log.warn("Maths marks not integer");
-            request.setAttribute("maths", PropertyReader.getValue("error.integer", "Marks"));
-            pass = false;
-        } else if (DataUtility.getInt(request.getParameter("maths")) > 100
-                || DataUtility.getInt(request.getParameter("maths")) < 0) {
-            log.warn("Maths marks out of range");
-            request.setAttribute("maths", "Marks should be in 0 to 100");
-            pass = false;
-        }
-
-        log.debug("MarksheetCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("studentId").required("Student Name");
+        rules.field("rollNo").required("Roll Number").rollNo("Roll No is invalid");
+        rules.field("physics").required("Marks").integer("Marks", 0, 100, "Marks should be in 0 to 100");
+        rules.field("chemistry").required("Marks").integer("Marks", 0, 100, "Marks should be in 0 to 100");
+        rules.field("maths").required("Marks").integer("Marks", 0, 100, "Marks should be in 0 to 100");
     }
 
     /**
@@ -270,6 +202,16 @@ public class MarksheetCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Returns the tables the marksheet form and its student dropdown are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { MarksheetModel.TABLE, StudentModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for marksheet form.
      *
@@ -15,8 +15,9 @@ import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * MarksheetListCtl handles listing, searching, pagination and bulk actions for
@@ -73,14 +74,16 @@ public class MarksheetListCtl extends BaseCtl {
         log.info("MarksheetListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         MarksheetBean bean = (MarksheetBean) populateBean(request);
         MarksheetModel model = new MarksheetModel();
 
         try {
-            List<MarksheetBean> list = model.search(bean, pageNo, pageSize);
-            List<MarksheetBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<MarksheetBean> pages = PagePrefetcher.search(request, MarksheetModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<MarksheetBean> list = pages.getList();
+            List<MarksheetBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 log.warn("No marksheet records found");
@@ -127,7 +130,7 @@ public class MarksheetListCtl extends BaseCtl {
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
         pageSize = (pageSize == 0)
-                ? DataUtility.getInt(PropertyReader.getValue("page.size"))
+                ? SystemConfig.getInt("page.size", 10)
                 : pageSize;
 
         MarksheetBean bean = (MarksheetBean) populateBean(request);
@@ -190,8 +193,10 @@ public class MarksheetListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<MarksheetBean> pages = PagePrefetcher.search(request, MarksheetModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 log.warn("No marksheet records found after operation");
@@ -214,6 +219,16 @@ public class MarksheetListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the marksheet list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { MarksheetModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the marksheet list.
      *
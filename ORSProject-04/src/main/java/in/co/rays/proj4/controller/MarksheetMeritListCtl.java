@@ -1,28 +1,25 @@
 package in.co.rays.proj4.controller;
 
-import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.log4j.Logger;
 
-import in.co.rays.proj4.bean.MarksheetBean;
-import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.MarksheetModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * Controller to display the merit list of marksheets.
  * <p>
  * It retrieves the merit list from {@link MarksheetModel#getMeritList(int,int)}
  * and forwards the result to the view with pagination support. Supports a
- * simple back operation to return to the welcome page.
+ * simple back operation to return to the welcome page. The query runs
+ * asynchronously through {@link BaseAsyncCtl}.
  * </p>
  *
  * @author Chaitanya Bhatt
@@ -30,36 +27,34 @@ import in.co.rays.proj4.util.ServletUtility;
  * @see in.co.rays.proj4.model.MarksheetModel
  * @see in.co.rays.proj4.bean.MarksheetBean
  */
-@WebServlet(name = "MarksheetMeritListCtl", urlPatterns = { "/ctl/MarksheetMeritListCtl" })
-public class MarksheetMeritListCtl extends BaseCtl {
+@WebServlet(name = "MarksheetMeritListCtl", urlPatterns = { "/ctl/MarksheetMeritListCtl" }, asyncSupported = true)
+public class MarksheetMeritListCtl extends BaseAsyncCtl {
 
     /** Log4j Logger */
     private static final Logger log = Logger.getLogger(MarksheetMeritListCtl.class);
 
     /**
      * Handles HTTP GET requests to fetch and display the merit list.
-     * It sets list, pageNo and pageSize attributes and forwards to the view.
+     * It sets list, pageNo and pageSize attributes and shows the view.
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
-     * @throws ServletException if a servlet-specific error occurs
-     * @throws IOException      if an I/O error occurs
+     * @return future completed with the merit list view
      */
-    protected void doGet(HttpServletRequest request, HttpServletResponse response)
-            throws ServletException, IOException {
+    @Override
+    protected CompletableFuture<String> doGetAsync(HttpServletRequest request, HttpServletResponse response) {
 
-        log.debug("MarksheetMeritListCtl doGet() started");
+        log.debug("MarksheetMeritListCtl doGetAsync() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         log.debug("Page No: " + pageNo + ", Page Size: " + pageSize);
 
         MarksheetModel model = new MarksheetModel();
 
-        try {
-            log.info("Fetching merit list");
-            List<MarksheetBean> list = model.getMeritList(pageNo, pageSize);
+        log.info("Fetching merit list");
+        return model.getMeritListAsync(pageNo, pageSize).thenApply(list -> {
 
             if (list == null || list.isEmpty()) {
                 log.warn("No merit list records found");
@@ -70,17 +65,9 @@ public class MarksheetMeritListCtl extends BaseCtl {
             ServletUtility.setPageNo(pageNo, request);
             ServletUtility.setPageSize(pageSize, request);
 
-            log.debug("Forwarding to view");
-            ServletUtility.forward(getView(), request, response);
-
-        } catch (ApplicationException e) {
-            log.error("Exception in MarksheetMeritListCtl doGet()", e);
-            e.printStackTrace();
-            ServletUtility.handleException(e, request, response);
-            return;
-        }
-
-        log.debug("MarksheetMeritListCtl doGet() ended");
+            log.debug("Showing merit list view");
+            return getView();
+        });
     }
 
     /**
@@ -89,24 +76,32 @@ public class MarksheetMeritListCtl extends BaseCtl {
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
-     * @throws ServletException if a servlet-specific error occurs
-     * @throws IOException      if an I/O error occurs
+     * @return future completed with a redirect for Back, otherwise with no view
      */
-    protected void doPost(HttpServletRequest request, HttpServletResponse response)
-            throws ServletException, IOException {
+    @Override
+    protected CompletableFuture<String> doPostAsync(HttpServletRequest request, HttpServletResponse response) {
 
-        log.debug("MarksheetMeritListCtl doPost() started");
+        log.debug("MarksheetMeritListCtl doPostAsync() started");
 
         String op = DataUtility.getString(request.getParameter("operation"));
         log.debug("Operation received: " + op);
 
         if (OP_BACK.equalsIgnoreCase(op)) {
             log.info("Back operation triggered");
-            ServletUtility.redirect(ORSView.WELCOME_CTL, request, response);
-            return;
+            return CompletableFuture.completedFuture(redirect(ORSView.WELCOME_CTL));
         }
 
-        log.debug("MarksheetMeritListCtl doPost() ended");
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Returns the tables the merit list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { MarksheetModel.TABLE };
     }
 
     /**
@@ -6,7 +6,6 @@ import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
 import org.apache.log4j.Logger;
 
@@ -16,8 +15,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -48,81 +46,44 @@ public class MyProfileCtl extends BaseCtl {
     public static final String OP_CHANGE_MY_PASSWORD = "Change Password";
 
     /**
-     * Validates profile form parameters.
-     * <ul>
-     *   <li>Skips validation for Change Password operation or when operation is null.</li>
-     *   <li>firstName and lastName are required and must be valid names.</li>
-     *   <li>gender is required.</li>
-     *   <li>mobileNo is required, must be 10 digits and a valid phone number.</li>
-     *   <li>dob is required.</li>
-     * </ul>
+     * Validates profile form parameters. Validation is skipped for the Change
+     * Password operation or when the operation is null; otherwise the rules of
+     * {@link #validationRules(RuleSet.Builder)} are checked.
      *
      * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation succeeds; {@code false} otherwise
+     * @return {@code true} if validation passes; {@code false} otherwise
      */
     @Override
     protected boolean validate(HttpServletRequest request) {
 
-        log.debug("MyProfileCtl validate() started");
-
-        boolean pass = true;
-
         String op = DataUtility.getString(request.getParameter("operation"));
-        log.debug("Operation for validation: " + op);
 
         if (OP_CHANGE_MY_PASSWORD.equalsIgnoreCase(op) || op == null) {
             log.debug("Validation skipped for Change Password or null operation");
-            return pass;
+            return true;
         }
 
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            log.warn("First Name is required");
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            log.warn("Invalid First Name");
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            log.warn("Last Name is required");
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            log.warn("Invalid Last Name");
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            log.warn("Gender is required");
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            log.warn("Mobile No is required");
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "MobileNo"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            log.warn("Mobile No length invalid");
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            log.warn("Invalid Mobile No");
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            log.warn("Date of Birth is required");
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date Of Birth"));
-            pass = false;
-        }
+        return super.validate(request);
+    }
 
-        log.debug("MyProfileCtl validate() ended with status: " + pass);
-        return pass;
+    /**
+     * Declares the validation rules of the profile form.
+     * <ul>
+     *   <li>firstName and lastName are required and must be valid names.</li>
+     *   <li>gender is required.</li>
+     *   <li>mobileNo is required, must be 10 digits and a valid phone number.</li>
+     *   <li>dob is required.</li>
+     * </ul>
+     *
+     * @param rules builder to which the form fields are added
+     */
+    @Override
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("firstName").required("First Name").name("Invalid First Name");
+        rules.field("lastName").required("Last Name").name("Invalid Last Name");
+        rules.field("gender").required("Gender");
+        rules.field("mobileNo").required("MobileNo").phone("Mobile No must have 10 digits", "Invalid Mobile No");
+        rules.field("dob").required("Date Of Birth");
     }
 
     /**
@@ -154,7 +115,7 @@ public class MyProfileCtl extends BaseCtl {
     }
 
     /**
-     * Handles HTTP GET requests. Loads the current user's profile from session
+     * Handles HTTP GET requests. Loads the current user's profile from the signed in user
      * and retrieves the up-to-date data from {@link UserModel} for display.
      *
      * @param request  the {@link HttpServletRequest}
@@ -167,8 +128,7 @@ public class MyProfileCtl extends BaseCtl {
 
         log.info("MyProfileCtl doGet() started");
 
-        HttpSession session = request.getSession(true);
-        UserBean user = (UserBean) session.getAttribute("user");
+        UserBean user = ServletUtility.getUser(request);
         long id = user.getId();
 
         UserModel model = new UserModel();
@@ -192,7 +152,7 @@ public class MyProfileCtl extends BaseCtl {
 
     /**
      * Handles HTTP POST requests for updating profile or redirecting to change
-     * password. On successful update the session user is also updated.
+     * password. On successful update the signed in profile is also updated.
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
@@ -204,9 +164,7 @@ public class MyProfileCtl extends BaseCtl {
 
         log.info("MyProfileCtl doPost() started");
 
-        HttpSession session = request.getSession(true);
-
-        UserBean user = (UserBean) session.getAttribute("user");
+        UserBean user = ServletUtility.getUser(request);
         long id = user.getId();
 
         String op = DataUtility.getString(request.getParameter("operation"));
@@ -225,6 +183,7 @@ public class MyProfileCtl extends BaseCtl {
                     user.setMobileNo(bean.getMobileNo());
                     user.setDob(bean.getDob());
                     model.update(user);
+                    ServletUtility.setUser(user, request);
                 }
                 ServletUtility.setBean(bean, request);
                 ServletUtility.setSuccessMessage("Profile has been updated Successfully. ", request);
@@ -44,6 +44,9 @@ public interface ORSView {
 	public String GET_MARKSHEET_VIEW = PAGE_FOLDER + "/GetMarksheetView.jsp";
 	public String GET_MARKSHEET_CTL = APP_CONTEXT + "/ctl/GetMarksheetCtl";
 
+	public String BULK_MARKSHEET_VIEW = PAGE_FOLDER + "/BulkMarksheetView.jsp";
+	public String BULK_MARKSHEET_CTL = APP_CONTEXT + "/ctl/BulkMarksheetCtl";
+
 	public String MARKSHEET_MERIT_LIST_VIEW = PAGE_FOLDER + "/MarksheetMeritListView.jsp";
 	public String MARKSHEET_MERIT_LIST_CTL = APP_CONTEXT + "/ctl/MarksheetMeritListCtl";
 
@@ -112,5 +115,7 @@ public interface ORSView {
 	public String PATIENT_LIST_VIEW = PAGE_FOLDER + "/PatientListView.jsp";
 	public String PATIENT_LIST_CTL = APP_CONTEXT + "/ctl/PatientListCtl";
 
+	public String POOL_STATS_CTL = APP_CONTEXT + "/ctl/PoolStatsCtl";
+
 
 }
@@ -16,8 +16,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.PatientModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 @WebServlet(name = "PatientCtl", urlPatterns = { "/ctl/PatientCtl" })
@@ -47,54 +46,11 @@ public class PatientCtl extends BaseCtl {
 	}
 
 	@Override
-	protected boolean validate(HttpServletRequest request) {
-
-		log.debug("PatientCtl validate() started");
-
-		boolean pass = true;
-
-		if (DataValidator.isNull(request.getParameter("name"))) {
-			log.warn("Patient name is required");
-			request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-			pass = false;
-		} else if (!DataValidator.isName(request.getParameter("name"))) {
-			log.warn("Invalid patient name");
-			request.setAttribute("name", "Invalid Name");
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("dateOfVisit"))) {
-			log.warn("Date of visit is required");
-			request.setAttribute("dateOfVisit", PropertyReader.getValue("error.require", "Date of Birth"));
-			pass = false;
-		} else if (!DataValidator.isDate(request.getParameter("dateOfVisit"))) {
-			log.warn("Invalid date of visit");
-			request.setAttribute("dateOfVisit", PropertyReader.getValue("error.date", "Date of Visit"));
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("mobile"))) {
-			log.warn("Mobile number is required");
-			request.setAttribute("mobile", PropertyReader.getValue("error.require", "MobileNo"));
-			pass = false;
-		} else if (!DataValidator.isPhoneLength(request.getParameter("mobile"))) {
-			log.warn("Invalid mobile number length");
-			request.setAttribute("mobile", "Mobile No must have 10 digits");
-			pass = false;
-		} else if (!DataValidator.isPhoneNo(request.getParameter("mobile"))) {
-			log.warn("Invalid mobile number");
-			request.setAttribute("mobile", "Invalid Mobile No");
-			pass = false;
-		}
-
-		if (DataValidator.isNull(request.getParameter("disease"))) {
-			log.warn("Disease is required");
-			request.setAttribute("disease", PropertyReader.getValue("error.require", "Disease"));
-			pass = false;
-		}
-
-		log.debug("PatientCtl validate() completed with status: " + pass);
-		return pass;
+	protected void validationRules(RuleSet.Builder rules) {
+		rules.field("name").required("Name").name("Invalid Name");
+		rules.field("dateOfVisit").required("Date of Birth").date("Date of Visit");
+		rules.field("mobile").required("MobileNo").phone("Mobile No must have 10 digits", "Invalid Mobile No");
+		rules.field("disease").required("Disease");
 	}
 
 	@Override
@@ -215,6 +171,16 @@ public class PatientCtl extends BaseCtl {
 		log.info("PatientCtl doPost() ended");
 	}
 
+	/**
+	 * Returns the tables the patient form is read from.
+	 *
+	 * @return names of the tables
+	 */
+	@Override
+	protected String[] versionedTables() {
+		return new String[] { PatientModel.TABLE };
+	}
+
 	@Override
 	protected String getView() {
 		log.debug("Returning Patient View");
@@ -17,8 +17,9 @@ import in.co.rays.proj4.bean.PatientBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.PatientModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 @WebServlet(name = "PatientListCtl", urlPatterns = { "/ctl/PatientListCtl" })
 public class PatientListCtl extends BaseCtl {
@@ -70,15 +71,17 @@ public class PatientListCtl extends BaseCtl {
 		log.info("PatientListCtl doGet() started");
 
 		int pageNo = 1;
-		int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+		int pageSize = SystemConfig.getInt("page.size", 10);
 
 		PatientBean bean = (PatientBean) populateBean(req);
 		PatientModel model = new PatientModel();
 
 		try {
 			log.debug("Searching patients with pagination");
-			List<PatientBean> list = model.search(bean, pageNo, pageSize);
-			List<PatientBean> next = model.search(bean, pageNo + 1, pageSize);
+			PagePrefetcher.Pages<PatientBean> pages = PagePrefetcher.search(req, PatientModel.TABLE, bean,
+					pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+			List<PatientBean> list = pages.getList();
+			List<PatientBean> next = pages.getNext();
 
 			if (list == null || list.isEmpty()) {
 				log.warn("No patient records found");
@@ -109,11 +112,11 @@ public class PatientListCtl extends BaseCtl {
 		log.info("PatientListCtl doPost() started");
 
 		int pageNo = DataUtility.getInt(req.getParameter("pageNo"));
-		int pageSize = DataUtility.getInt(PropertyReader.getValue("pageSize"));
+		int pageSize = DataUtility.getInt(req.getParameter("pageSize"));
 
 		pageNo = (pageNo == 0) ? 1 : pageNo;
 		pageSize = (pageSize == 0)
-				? DataUtility.getInt(PropertyReader.getValue("page.size"))
+				? SystemConfig.getInt("page.size", 10)
 				: pageSize;
 
 		PatientBean bean = (PatientBean) populateBean(req);
@@ -162,8 +165,10 @@ public class PatientListCtl extends BaseCtl {
 				return;
 			}
 
-			List list = model.search(bean, pageNo, pageSize);
-			List next = model.search(bean, pageNo + 1, pageSize);
+			PagePrefetcher.Pages<PatientBean> pages = PagePrefetcher.search(req, PatientModel.TABLE, bean,
+					pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+			List list = pages.getList();
+			List next = pages.getNext();
 
 			if (list == null || list.size() == 0) {
 				log.warn("No records found after operation");
@@ -187,6 +192,16 @@ public class PatientListCtl extends BaseCtl {
 		log.info("PatientListCtl doPost() ended");
 	}
 
+	/**
+	 * Returns the tables the patient list is read from.
+	 *
+	 * @return names of the tables
+	 */
+	@Override
+	protected String[] versionedTables() {
+		return new String[] { PatientModel.TABLE };
+	}
+
 	@Override
 	protected String getView() {
 		log.debug("Returning Patient List View");
@@ -0,0 +1,93 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.util.ConcurrencyLimiter;
+import in.co.rays.proj4.util.DatabaseHosts;
+import in.co.rays.proj4.util.FragmentCache;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PagePrefetcher;
+import in.co.rays.proj4.util.PoolStats;
+import in.co.rays.proj4.util.ProfileCache;
+import in.co.rays.proj4.util.RateLimiter;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SingleFlight;
+import in.co.rays.proj4.util.TableVersion;
+
+/**
+ * PoolStatsCtl writes the counters of the connection pools (active, idle and
+ * waiting connections, current size and the checkout wait histogram) as
+ * plain {@code key=value} lines, one blank-line separated block per pool, for
+ * monitoring scripts and load tests. With failover hosts configured, another
+ * block gives the current primary host, the failover counts and the recent
+ * switches. The admission limit and the requests admitted, queued and refused
+ * per priority follow, then the counters of the rate limits and of the
+ * profile cache of stateless sessions, of response compression and of the
+ * cache of rendered dropdowns and menus, the table versions behind the ETags
+ * of the pages, the hit ratios of the search cache, the queries saved by
+ * joining identical lookups and the pages of lists read ahead.
+ * Only an administrator may read them.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@WebServlet(name = "PoolStatsCtl", urlPatterns = { "/ctl/PoolStatsCtl" })
+public class PoolStatsCtl extends BaseCtl {
+
+	private static final Logger log = Logger.getLogger(PoolStatsCtl.class);
+
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response)
+			throws ServletException, IOException {
+
+		log.debug("PoolStatsCtl doGet() called");
+
+		if (ServletUtility.getRoleId(request) != RoleBean.ADMIN) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN);
+			return;
+		}
+
+		response.setContentType("text/plain");
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Cache-Control", "no-store");
+		StringBuilder sb = new StringBuilder();
+		for (PoolStats stats : JDBCDataSource.getAllStats()) {
+			if (sb.length() > 0) {
+				sb.append('\n');
+			}
+			sb.append(stats);
+		}
+		DatabaseHosts hosts = JDBCDataSource.getHosts();
+		if (hosts != null) {
+			sb.append('\n').append(hosts);
+		}
+		sb.append('\n').append(ConcurrencyLimiter.getInstance());
+		sb.append('\n').append(RateLimiter.report());
+		sb.append('\n').append(ProfileCache.report());
+		sb.append('\n').append(CompressionFilter.report());
+		sb.append('\n').append(FragmentCache.report());
+		sb.append('\n').append(TableVersion.report());
+		sb.append('\n').append(SearchCache.report());
+		sb.append('\n').append(SingleFlight.report());
+		sb.append('\n').append(PagePrefetcher.report());
+		response.getWriter().write(sb.toString());
+	}
+
+	/**
+	 * Not used; the counters are written directly by
+	 * {@link #doGet(HttpServletRequest, HttpServletResponse)}.
+	 */
+	@Override
+	protected String getView() {
+		return ORSView.ERROR_VIEW;
+	}
+}
@@ -16,8 +16,7 @@ import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -40,37 +39,18 @@ public class RoleCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(RoleCtl.class);
 
     /**
-     * Validates the role form inputs.
+     * Declares the validation rules of the role form.
      * <ul>
      *   <li>name is required and must be a valid name.</li>
      *   <li>description is required.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("RoleCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("name"))) {
-            request.setAttribute("name", "Invalid Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        log.debug("RoleCtl validate() completed with status: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("name").required("Name").name("Invalid Name");
+        rules.field("description").required("Description");
     }
 
     /**
@@ -220,6 +200,16 @@ public class RoleCtl extends BaseCtl {
         log.info("RoleCtl doPost() completed");
     }
 
+    /**
+     * Returns the tables the role form is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { RoleModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the role form.
      *
@@ -15,8 +15,9 @@ import in.co.rays.proj4.bean.RoleBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * RoleListCtl handles listing, searching, pagination and bulk actions for Role
@@ -96,7 +97,7 @@ public class RoleListCtl extends BaseCtl {
         log.info("RoleListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         log.debug("PageNo: " + pageNo + ", PageSize: " + pageSize);
 
@@ -104,8 +105,10 @@ public class RoleListCtl extends BaseCtl {
         RoleModel model = new RoleModel();
 
         try {
-            List<RoleBean> list = model.search(bean, pageNo, pageSize);
-            List<RoleBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<RoleBean> pages = PagePrefetcher.search(request, RoleModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<RoleBean> list = pages.getList();
+            List<RoleBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 log.warn("No role records found");
@@ -154,7 +157,7 @@ public class RoleListCtl extends BaseCtl {
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
         pageSize = (pageSize == 0)
-                ? DataUtility.getInt(PropertyReader.getValue("page.size"))
+                ? SystemConfig.getInt("page.size", 10)
                 : pageSize;
 
         log.debug("PageNo: " + pageNo + ", PageSize: " + pageSize);
@@ -218,8 +221,10 @@ public class RoleListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<RoleBean> pages = PagePrefetcher.search(request, RoleModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 log.warn("No role records found after operation");
@@ -244,6 +249,16 @@ public class RoleListCtl extends BaseCtl {
         log.info("RoleListCtl doPost() completed");
     }
 
+    /**
+     * Returns the tables the role list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { RoleModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the role list.
      *
@@ -0,0 +1,358 @@
+package in.co.rays.proj4.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * StaticResourceServlet serves the files under {@code /doc}, {@code /img} and
+ * {@code /js} without any of the work of a controller request: no sign in
+ * check, no session, no unit of work.
+ *
+ * <p>
+ * A file is read once and kept in memory, up to {@code static.cache.bytes}
+ * bytes in all; larger files are streamed from the war each time. Responses
+ * carry {@code Cache-Control: public, max-age=} {@code static.max.age}
+ * seconds, an ETag and a Last-Modified date, and a conditional request for an
+ * unchanged file gets {@code 304 Not Modified}.
+ * </p>
+ *
+ * <p>
+ * For a client that accepts it, a compressed variant is sent instead: a
+ * {@code .br} or {@code .gz} file next to the original, if the war has one,
+ * or else a gzip copy made once when the file is loaded. Only text types are
+ * compressed, and only when that saves at least a tenth of the size.
+ * </p>
+ *
+ * <p>
+ * The war does not change while it is deployed, so a cached file is not
+ * checked again, unless {@code static.check.interval} is more than 0
+ * milliseconds, which is useful with an exploded war during development.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@WebServlet(name = "StaticResourceServlet", urlPatterns = { "/doc/*", "/img/*", "/js/*" })
+public class StaticResourceServlet extends HttpServlet {
+
+    private static final Logger log = Logger.getLogger(StaticResourceServlet.class);
+
+    /** Servlet paths served by this servlet */
+    private static final String[] PATHS = { "/doc", "/img", "/js" };
+
+    /** One encoding of a file */
+    private static final class Variant {
+        private final String encoding;
+        private final byte[] bytes;
+        private final String etag;
+
+        private Variant(String encoding, byte[] bytes, String etag) {
+            this.encoding = encoding;
+            this.bytes = bytes;
+            this.etag = etag;
+        }
+    }
+
+    /** A file, with its compressed variants */
+    private static final class Resource {
+        private final URL url;
+        private final String contentType;
+        private final long lastModified;
+        private final long length;
+        private final String etag;
+        private final Variant identity;
+        private final Variant brotli;
+        private final Variant gzip;
+        private volatile long checked = System.currentTimeMillis();
+
+        private Resource(URL url, String contentType, long lastModified, long length, Variant identity,
+                Variant brotli, Variant gzip) {
+            this.url = url;
+            this.contentType = contentType;
+            this.lastModified = lastModified / 1000 * 1000;
+            this.length = length;
+            this.etag = "\"" + length + "-" + this.lastModified + "\"";
+            this.identity = identity;
+            this.brotli = brotli;
+            this.gzip = gzip;
+        }
+
+        private long size() {
+            return (identity == null ? 0 : identity.bytes.length) + (brotli == null ? 0 : brotli.bytes.length)
+                    + (gzip == null ? 0 : gzip.bytes.length);
+        }
+    }
+
+    private final Map<String, Resource> cache = new ConcurrentHashMap<String, Resource>();
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    /**
+     * Tells whether a request is for a static file.
+     *
+     * @param request the request
+     * @return true if this servlet serves it
+     */
+    public static boolean isStatic(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (String p : PATHS) {
+            if (path.equals(p) || path.startsWith(p + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        String path = request.getServletPath() + (request.getPathInfo() == null ? "" : request.getPathInfo());
+        if (path.endsWith("/")) {
+            path += "index.html";
+        } else if (!cache.containsKey(path) && getServletContext().getResourcePaths(path + "/") != null) {
+            response.sendRedirect(request.getRequestURI() + "/");
+            return;
+        }
+
+        Resource resource = resource(path);
+        if (resource == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Variant variant = resource.identity;
+        String accept = request.getHeader("Accept-Encoding");
+        if (resource.brotli != null && accepts(accept, "br")) {
+            variant = resource.brotli;
+        } else if (resource.gzip != null && accepts(accept, "gzip")) {
+            variant = resource.gzip;
+        }
+        String etag = variant == null ? resource.etag : variant.etag;
+
+        response.setHeader("Cache-Control", "public, max-age=" + SystemConfig.getLong("static.max.age", 31536000));
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", resource.lastModified);
+        if (resource.brotli != null || resource.gzip != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        if (notModified(request, etag, resource.lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(resource.contentType);
+        if (variant == null) {
+            // not cached: stream it from the war
+            if (resource.length >= 0) {
+                response.setContentLengthLong(resource.length);
+            }
+            try (InputStream in = resource.url.openStream()) {
+                copy(in, response.getOutputStream());
+            }
+            return;
+        }
+        if (variant.encoding != null) {
+            response.setHeader("Content-Encoding", variant.encoding);
+        }
+        response.setContentLength(variant.bytes.length);
+        response.getOutputStream().write(variant.bytes);
+    }
+
+    /**
+     * Returns the cached file of a path, loading it on first use or when it
+     * has changed.
+     *
+     * @return the file, or null if there is none
+     */
+    private Resource resource(String path) throws IOException {
+
+        Resource resource = cache.get(path);
+        long interval = SystemConfig.getLong("static.check.interval", 0);
+        long now = System.currentTimeMillis();
+        if (resource != null && (interval <= 0 || now - resource.checked < interval)) {
+            return resource;
+        }
+        if (resource != null) {
+            resource.checked = now;
+            if (resource.url.openConnection().getLastModified() / 1000 * 1000 == resource.lastModified) {
+                return resource;
+            }
+        }
+
+        Resource loaded = load(path);
+        if (resource != null) {
+            cache.remove(path, resource);
+            cachedBytes.addAndGet(-resource.size());
+        }
+        if (loaded != null) {
+            if (cachedBytes.addAndGet(loaded.size()) <= SystemConfig.getLong("static.cache.bytes", 33554432)) {
+                cache.put(path, loaded);
+            } else {
+                cachedBytes.addAndGet(-loaded.size());
+            }
+        }
+        return loaded;
+    }
+
+    private Resource load(String path) throws IOException {
+
+        if (path.contains("..") || path.toUpperCase().contains("/WEB-INF") || path.toUpperCase().contains(
+                "/META-INF")) {
+            return null;
+        }
+        URL url = getServletContext().getResource(path);
+        if (url == null) {
+            return null;
+        }
+        URLConnection conn = url.openConnection();
+        long length = conn.getContentLengthLong();
+        long lastModified = conn.getLastModified();
+
+        String type = getServletContext().getMimeType(path);
+        if (type == null) {
+            type = "application/octet-stream";
+        }
+
+        if (length > SystemConfig.getLong("static.cache.file.max", 1048576)) {
+            conn.getInputStream().close();
+            return new Resource(url, type, lastModified, length, null, null, null);
+        }
+
+        byte[] bytes;
+        try (InputStream in = conn.getInputStream()) {
+            bytes = read(in);
+        }
+        Resource probe = new Resource(url, type, lastModified, bytes.length, null, null, null);
+        Variant identity = new Variant(null, bytes, probe.etag);
+        Variant brotli = null;
+        Variant gzip = null;
+        if (compressible(type)) {
+            brotli = sibling(path + ".br", "br", probe, bytes.length);
+            gzip = sibling(path + ".gz", "gzip", probe, bytes.length);
+            if (gzip == null) {
+                byte[] zipped = gzip(bytes);
+                if (zipped.length < bytes.length * 9 / 10) {
+                    gzip = new Variant("gzip", zipped, variantTag(probe.etag, "gzip"));
+                }
+            }
+        }
+        log.debug("Loaded " + path + " (" + bytes.length + " bytes" + (brotli != null ? ", br" : "")
+                + (gzip != null ? ", gzip " + gzip.bytes.length + " bytes" : "") + ")");
+        return new Resource(url, type, lastModified, bytes.length, identity, brotli, gzip);
+    }
+
+    /**
+     * Reads a compressed file shipped next to the original, if there is one
+     * and it is smaller.
+     */
+    private Variant sibling(String path, String encoding, Resource original, int size) throws IOException {
+        URL url = getServletContext().getResource(path);
+        if (url == null) {
+            return null;
+        }
+        byte[] bytes;
+        try (InputStream in = url.openStream()) {
+            bytes = read(in);
+        }
+        return bytes.length < size ? new Variant(encoding, bytes, variantTag(original.etag, encoding)) : null;
+    }
+
+    private static String variantTag(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    private static boolean compressible(String type) {
+        return type.startsWith("text/") || type.contains("javascript") || type.contains("json")
+                || type.contains("xml") || type.equals("image/svg+xml");
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows an encoding, that is
+     * names it without {@code q=0}.
+     */
+    static boolean accepts(String header, String encoding) {
+        if (header == null) {
+            return false;
+        }
+        for (String part : header.split(",")) {
+            String[] fields = part.trim().split(";");
+            if (!fields[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < fields.length; i++) {
+                String f = fields[i].trim();
+                if (f.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(f.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String match = request.getHeader("If-None-Match");
+        if (match != null) {
+            for (String tag : match.split(",")) {
+                String t = tag.trim();
+                if (t.equals("*") || t.equals(etag) || t.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long since;
+        try {
+            since = request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return since >= 0 && lastModified <= since;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+            zip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        copy(in, out);
+        return out.toByteArray();
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+    }
+}
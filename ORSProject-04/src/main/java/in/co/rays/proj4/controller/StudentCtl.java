@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CollegeModel;
 import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -65,7 +64,7 @@ public class StudentCtl extends BaseCtl {
     }
 
     /**
-     * Validates student form fields.
+     * Declares the validation rules of the student form.
      * <ul>
      *   <li>firstName and lastName are required and must be valid names.</li>
      *   <li>mobileNo is required, must be 10 digits and a valid phone number.</li>
@@ -75,83 +74,17 @@ public class StudentCtl extends BaseCtl {
      *   <li>dob is required and must be a valid date.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-
-        log.debug("StudentCtl validate() started");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            log.warn("Validation failed: First Name is required");
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            log.warn("Validation failed: Invalid First Name");
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            log.warn("Validation failed: Last Name is required");
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            log.warn("Validation failed: Invalid Last Name");
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            log.warn("Validation failed: Mobile No is required");
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            log.warn("Validation failed: Mobile No length invalid");
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            log.warn("Validation failed: Invalid Mobile No");
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            log.warn("Validation failed: Gender is required");
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("email"))) {
-            log.warn("Validation failed: Email is required");
-            request.setAttribute("email", PropertyReader.getValue("error.require", "Email "));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("email"))) {
-            log.warn("Validation failed: Invalid Email");
-            request.setAttribute("email", PropertyReader.getValue("error.email", "Email "));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("collegeId"))) {
-            log.warn("Validation failed: College is required");
-            request.setAttribute("collegeId", PropertyReader.getValue("error.require", "College Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            log.warn("Validation failed: Date of Birth is required");
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            log.warn("Validation failed: Invalid Date of Birth");
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("firstName").required("First Name").name("Invalid First Name");
+        rules.field("lastName").required("Last Name").name("Invalid Last Name");
+        rules.field("mobileNo").required("Mobile No").phone("Mobile No must have 10 digits", "Invalid Mobile No");
+        rules.field("gender").required("Gender");
+        rules.field("email").required("Email ").email("Email ");
+        rules.field("collegeId").required("College Name");
+        rules.field("dob").required("Date of Birth").date("Date of Birth");
     }
 
     /**
@@ -304,6 +237,16 @@ public class StudentCtl extends BaseCtl {
         log.info("StudentCtl doPost() completed");
     }
 
+    /**
+     * Returns the tables the student form and its college dropdown are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { StudentModel.TABLE, CollegeModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the student form.
      *
@@ -1,9 +1,8 @@
 package in.co.rays.proj4.controller;
 
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -12,11 +11,12 @@ import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.BaseBean;
 import in.co.rays.proj4.bean.StudentBean;
-import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.StudentModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.JdbcExecutor;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * StudentListCtl handles listing, searching, pagination and bulk actions for
@@ -26,14 +26,20 @@ import in.co.rays.proj4.util.ServletUtility;
  * <p>
  * Supported operations include Search, Next, Previous, New, Delete, Reset and Back.
  * </p>
+ * <p>
+ * Requests are processed asynchronously through {@link BaseAsyncCtl}; the
+ * current page and the next one are read through the {@link PagePrefetcher},
+ * which keeps them for the session and reads the page after them in the
+ * background.
+ * </p>
  * 
  * @author Chaitanya Bhatt
  * @version 1.0
  * @see in.co.rays.proj4.model.StudentModel
  * @see in.co.rays.proj4.bean.StudentBean
  */
-@WebServlet(name = "StudentListCtl", urlPatterns = { "/ctl/StudentListCtl" })
-public class StudentListCtl extends BaseCtl {
+@WebServlet(name = "StudentListCtl", urlPatterns = { "/ctl/StudentListCtl" }, asyncSupported = true)
+public class StudentListCtl extends BaseAsyncCtl {
 
     /** Log4j Logger */
     private static final Logger log = Logger.getLogger(StudentListCtl.class);
@@ -60,168 +66,161 @@ public class StudentListCtl extends BaseCtl {
     }
 
     /**
-     * Handles HTTP GET requests. Performs an initial search and forwards the
-     * result list to the view. If no records are found, an error message is set.
+     * Handles HTTP GET requests. Performs an initial search and shows the
+     * result list. If no records are found, an error message is set.
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
-     * @throws ServletException if a servlet-specific error occurs
-     * @throws IOException      if an I/O error occurs
+     * @return future completed with the list view
      */
-    protected void doGet(HttpServletRequest request, HttpServletResponse response)
-            throws ServletException, IOException {
+    @Override
+    protected CompletableFuture<String> doGetAsync(HttpServletRequest request, HttpServletResponse response) {
 
-        log.info("StudentListCtl doGet() started");
+        log.info("StudentListCtl doGetAsync() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         StudentBean bean = (StudentBean) populateBean(request);
-        StudentModel model = new StudentModel();
 
-        try {
-            log.debug("Searching students for pageNo=" + pageNo + ", pageSize=" + pageSize);
-
-            List<StudentBean> list = model.search(bean, pageNo, pageSize);
-            List<StudentBean> next = model.search(bean, pageNo + 1, pageSize);
-
-            if (list == null || list.isEmpty()) {
-                log.warn("No student records found");
-                ServletUtility.setErrorMessage("No record found", request);
-            } else {
-                log.info("Student records fetched: " + list.size());
-            }
+        log.debug("Searching students for pageNo=" + pageNo + ", pageSize=" + pageSize);
 
-            ServletUtility.setList(list, request);
-            ServletUtility.setPageNo(pageNo, request);
-            ServletUtility.setPageSize(pageSize, request);
-            ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
-
-            ServletUtility.forward(getView(), request, response);
-
-        } catch (ApplicationException e) {
-            log.error("ApplicationException in StudentListCtl doGet()", e);
-            e.printStackTrace();
-            ServletUtility.handleException(e, request, response);
-            return;
-        }
-
-        log.info("StudentListCtl doGet() completed");
+        return search(bean, pageNo, pageSize, request);
     }
 
     /**
      * Handles HTTP POST requests for search, pagination, new, delete, reset and back
-     * operations. After performing the requested operation it forwards the updated
-     * list and pagination metadata to the view.
+     * operations. After performing the requested operation it shows the updated
+     * list and pagination metadata.
      *
      * @param request  the {@link HttpServletRequest}
      * @param response the {@link HttpServletResponse}
-     * @throws ServletException if a servlet-specific error occurs
-     * @throws IOException      if an I/O error occurs
+     * @return future completed with the list view or a redirect
      */
     @Override
-    protected void doPost(HttpServletRequest request, HttpServletResponse response)
-            throws ServletException, IOException {
-
-        log.info("StudentListCtl doPost() started");
+    protected CompletableFuture<String> doPostAsync(HttpServletRequest request, HttpServletResponse response) {
 
-        List list = null;
-        List next = null;
+        log.info("StudentListCtl doPostAsync() started");
 
         int pageNo = DataUtility.getInt(request.getParameter("pageNo"));
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
         pageSize = (pageSize == 0)
-                ? DataUtility.getInt(PropertyReader.getValue("page.size"))
+                ? SystemConfig.getInt("page.size", 10)
                 : pageSize;
 
         StudentBean bean = (StudentBean) populateBean(request);
-        StudentModel model = new StudentModel();
 
         String op = DataUtility.getString(request.getParameter("operation"));
         String[] ids = request.getParameterValues("ids");
 
         log.debug("Operation received: " + op);
 
-        try {
-
-            if (OP_SEARCH.equalsIgnoreCase(op) || "Next".equalsIgnoreCase(op)
-                    || "Previous".equalsIgnoreCase(op)) {
+        if (OP_SEARCH.equalsIgnoreCase(op) || "Next".equalsIgnoreCase(op)
+                || "Previous".equalsIgnoreCase(op)) {
 
-                if (OP_SEARCH.equalsIgnoreCase(op)) {
-                    log.debug("Search operation");
-                    pageNo = 1;
-                } else if (OP_NEXT.equalsIgnoreCase(op)) {
-                    log.debug("Next page operation");
-                    pageNo++;
-                } else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
-                    log.debug("Previous page operation");
-                    pageNo--;
-                }
+            if (OP_SEARCH.equalsIgnoreCase(op)) {
+                log.debug("Search operation");
+                pageNo = 1;
+            } else if (OP_NEXT.equalsIgnoreCase(op)) {
+                log.debug("Next page operation");
+                pageNo++;
+            } else if (OP_PREVIOUS.equalsIgnoreCase(op) && pageNo > 1) {
+                log.debug("Previous page operation");
+                pageNo--;
+            }
 
-            } else if (OP_NEW.equalsIgnoreCase(op)) {
+        } else if (OP_NEW.equalsIgnoreCase(op)) {
 
-                log.info("Redirecting to StudentCtl");
-                ServletUtility.redirect(ORSView.STUDENT_CTL, request, response);
-                return;
+            log.info("Redirecting to StudentCtl");
+            return CompletableFuture.completedFuture(redirect(ORSView.STUDENT_CTL));
 
-            } else if (OP_DELETE.equalsIgnoreCase(op)) {
+        } else if (OP_DELETE.equalsIgnoreCase(op)) {
 
-                log.info("Delete operation triggered");
-                pageNo = 1;
+            log.info("Delete operation triggered");
+            pageNo = 1;
 
-                if (ids != null && ids.length > 0) {
+            if (ids != null && ids.length > 0) {
+                StudentModel model = new StudentModel();
+                CompletableFuture<?>[] deletes = new CompletableFuture<?>[ids.length];
+                for (int i = 0; i < ids.length; i++) {
                     StudentBean deletebean = new StudentBean();
-                    for (String id : ids) {
-                        deletebean.setId(DataUtility.getInt(id));
-                        model.delete(deletebean);
-                        log.info("Student deleted with id: " + id);
-                        ServletUtility.setSuccessMessage("Student is deleted successfully", request);
-                    }
-                } else {
-                    log.warn("Delete attempted without selecting records");
-                    ServletUtility.setErrorMessage("Select at least one record", request);
+                    deletebean.setId(DataUtility.getInt(ids[i]));
+                    deletes[i] = model.deleteAsync(deletebean);
                 }
 
-            } else if (OP_RESET.equalsIgnoreCase(op)) {
+                final int size = pageSize;
+                return CompletableFuture.allOf(deletes).thenCompose(v -> {
+                    log.info("Students deleted: " + ids.length);
+                    ServletUtility.setSuccessMessage("Student is deleted successfully", request);
+                    return search(bean, 1, size, request);
+                });
+            } else {
+                log.warn("Delete attempted without selecting records");
+                ServletUtility.setErrorMessage("Select at least one record", request);
+            }
 
-                log.info("Reset operation triggered");
-                ServletUtility.redirect(ORSView.STUDENT_LIST_CTL, request, response);
-                return;
+        } else if (OP_RESET.equalsIgnoreCase(op)) {
 
-            } else if (OP_BACK.equalsIgnoreCase(op)) {
+            log.info("Reset operation triggered");
+            return CompletableFuture.completedFuture(redirect(ORSView.STUDENT_LIST_CTL));
 
-                log.info("Back operation triggered");
-                ServletUtility.redirect(ORSView.STUDENT_LIST_CTL, request, response);
-                return;
-            }
+        } else if (OP_BACK.equalsIgnoreCase(op)) {
+
+            log.info("Back operation triggered");
+            return CompletableFuture.completedFuture(redirect(ORSView.STUDENT_LIST_CTL));
+        }
+
+        return search(bean, pageNo, pageSize, request);
+    }
+
+    /**
+     * Fetches the requested page and the one after it through the
+     * {@link PagePrefetcher} on the {@link JdbcExecutor} pool and puts the list
+     * and pagination metadata in request scope.
+     *
+     * @param bean     search criteria
+     * @param pageNo   page number
+     * @param pageSize page size
+     * @param request  the {@link HttpServletRequest}
+     * @return future completed with the list view
+     */
+    private CompletableFuture<String> search(StudentBean bean, int pageNo, int pageSize,
+            HttpServletRequest request) {
+
+        StudentModel model = new StudentModel();
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+        return JdbcExecutor.supply(() -> PagePrefetcher.search(request, StudentModel.TABLE, bean, pageNo, pageSize,
+                (page, size) -> model.search(bean, page, size))).thenApply(pages -> {
 
-            if (list == null || list.size() == 0) {
-                log.warn("No student records found after operation");
-                ServletUtility.setErrorMessage("No record found ", request);
+            List<StudentBean> list = pages.getList();
+
+            if (list == null || list.isEmpty()) {
+                log.warn("No student records found");
+                ServletUtility.setErrorMessage("No record found", request);
+            } else {
+                log.info("Student records fetched: " + list.size());
             }
 
             ServletUtility.setList(list, request);
             ServletUtility.setPageNo(pageNo, request);
             ServletUtility.setPageSize(pageSize, request);
             ServletUtility.setBean(bean, request);
-            request.setAttribute("nextListSize", next.size());
-
-            ServletUtility.forward(getView(), request, response);
+            request.setAttribute("nextListSize", pages.getNext().size());
 
-        } catch (ApplicationException e) {
-            log.error("ApplicationException in StudentListCtl doPost()", e);
-            e.printStackTrace();
-            ServletUtility.handleException(e, request, response);
-            return;
-        }
+            return getView();
+        });
+    }
 
-        log.info("StudentListCtl doPost() completed");
+    /**
+     * Returns the tables the student list is read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { StudentModel.TABLE };
     }
 
     /**
@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -62,41 +61,20 @@ public class SubjectCtl extends BaseCtl {
     }
 
     /**
-     * Validates the subject form parameters.
+     * Declares the validation rules of the subject form.
      * <ul>
      *   <li>name is required.</li>
      *   <li>courseId is required.</li>
      *   <li>description is required.</li>
      * </ul>
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        log.debug("SubjectCtl validate() called");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("name"))) {
-            log.warn("Validation failed: Subject Name required");
-            request.setAttribute("name", PropertyReader.getValue("error.require", "Subject Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            log.warn("Validation failed: Course Name required");
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            log.warn("Validation failed: Description required");
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            pass = false;
-        }
-
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("name").required("Subject Name");
+        rules.field("courseId").required("Course Name");
+        rules.field("description").required("Description");
     }
 
     /**
@@ -233,6 +211,16 @@ public class SubjectCtl extends BaseCtl {
         log.info("SubjectCtl doPost() completed");
     }
 
+    /**
+     * Returns the tables the subject form and its course dropdown are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { SubjectModel.TABLE, CourseModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the subject form.
      *
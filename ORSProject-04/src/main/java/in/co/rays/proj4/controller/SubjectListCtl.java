@@ -2,6 +2,8 @@ package in.co.rays.proj4.controller;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -16,8 +18,9 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * SubjectListCtl handles listing, searching, pagination and bulk actions for
@@ -40,31 +43,16 @@ public class SubjectListCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(SubjectListCtl.class);
 
     /**
-     * Preloads subject and course lists and sets them as request attributes
-     * ("subjectList", "courseList") for dropdowns or auxiliary displays in the view.
+     * Declares the subject and course lists ("subjectList", "courseList") for
+     * dropdowns or auxiliary displays in the view. Both are fetched
+     * concurrently by {@link BaseCtl}.
      *
-     * @param request the {@link HttpServletRequest}
+     * @param datasets map to which the list queries are added
      */
     @Override
-    protected void preload(HttpServletRequest request) {
-        log.debug("SubjectListCtl preload() called");
-
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-            log.info("Preloaded subject list, size=" + subjectList.size());
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-            log.info("Preloaded course list, size=" + courseList.size());
-
-        } catch (ApplicationException e) {
-            log.error("ApplicationException in preload()", e);
-            e.printStackTrace();
-        }
+    protected void preloadDatasets(Map<String, Callable<List>> datasets) {
+        datasets.put("subjectList", () -> new SubjectModel().list());
+        datasets.put("courseList", () -> new CourseModel().list());
     }
 
     /**
@@ -104,14 +92,16 @@ public class SubjectListCtl extends BaseCtl {
         log.info("SubjectListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         SubjectBean bean = (SubjectBean) populateBean(request);
         SubjectModel model = new SubjectModel();
 
         try {
-            List<SubjectBean> list = model.search(bean, pageNo, pageSize);
-            List<SubjectBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<SubjectBean> pages = PagePrefetcher.search(request, SubjectModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<SubjectBean> list = pages.getList();
+            List<SubjectBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
@@ -160,7 +150,7 @@ public class SubjectListCtl extends BaseCtl {
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
-        pageSize = (pageSize == 0) ? DataUtility.getInt(PropertyReader.getValue("page.size")) : pageSize;
+        pageSize = (pageSize == 0) ? SystemConfig.getInt("page.size", 10) : pageSize;
 
         SubjectBean bean = (SubjectBean) populateBean(request);
         SubjectModel model = new SubjectModel();
@@ -211,8 +201,10 @@ public class SubjectListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<SubjectBean> pages = PagePrefetcher.search(request, SubjectModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found ", request);
@@ -238,6 +230,16 @@ public class SubjectListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the subject list and its dropdowns are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { SubjectModel.TABLE, CourseModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the subject list.
      *
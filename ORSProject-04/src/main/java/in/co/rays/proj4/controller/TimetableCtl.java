@@ -2,6 +2,8 @@ package in.co.rays.proj4.controller;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -18,8 +20,7 @@ import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.model.TimetableModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -45,35 +46,19 @@ public class TimetableCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(TimetableCtl.class);
 
     /**
-     * Preloads subject and course lists into request attributes for rendering
-     * dropdowns on the timetable form.
+     * Declares the subject and course lists used for rendering dropdowns on
+     * the timetable form. Both are fetched concurrently by {@link BaseCtl}.
      *
-     * @param request current {@link HttpServletRequest}
+     * @param datasets map to which the list queries are added
      */
     @Override
-    protected void preload(HttpServletRequest request) {
-        log.debug("TimetableCtl preload() called");
-
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-            log.info("Preloaded subject list, size=" + subjectList.size());
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-            log.info("Preloaded course list, size=" + courseList.size());
-
-        } catch (ApplicationException e) {
-            log.error("ApplicationException in preload()", e);
-            e.printStackTrace();
-        }
+    protected void preloadDatasets(Map<String, Callable<List>> datasets) {
+        datasets.put("subjectList", () -> new SubjectModel().list());
+        datasets.put("courseList", () -> new CourseModel().list());
     }
 
     /**
-     * Validates timetable form parameters.
+     * Declares the validation rules of the timetable form.
      * <ul>
      *   <li>semester is required.</li>
      *   <li>examDate is required, must be a valid date and not Sunday.</li>
@@ -82,60 +67,16 @@ public class TimetableCtl extends BaseCtl {
      *   <li>courseId and subjectId are required.</li>
      * </ul>
      *
-     * @param request current {@link HttpServletRequest}
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        log.debug("TimetableCtl validate() called");
-
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("semester"))) {
-            request.setAttribute("semester", PropertyReader.getValue("error.require", "Semester"));
-            log.warn("Validation failed: Semester is required");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.require", "Date of Exam"));
-            log.warn("Validation failed: Exam date is required");
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", PropertyReader.getValue("error.date", "Date of Exam"));
-            log.warn("Validation failed: Exam date is invalid");
-            pass = false;
-        } else if (DataValidator.isSunday(request.getParameter("examDate"))) {
-            request.setAttribute("examDate", "Exam should not be on Sunday");
-            log.warn("Validation failed: Exam date is Sunday");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("examTime"))) {
-            request.setAttribute("examTime", PropertyReader.getValue("error.require", "Exam Time"));
-            log.warn("Validation failed: Exam time is required");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("description"))) {
-            request.setAttribute("description", PropertyReader.getValue("error.require", "Description"));
-            log.warn("Validation failed: Description is required");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("courseId"))) {
-            request.setAttribute("courseId", PropertyReader.getValue("error.require", "Course Name"));
-            log.warn("Validation failed: CourseId is required");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("subjectId"))) {
-            request.setAttribute("subjectId", PropertyReader.getValue("error.require", "Subject Name"));
-            log.warn("Validation failed: SubjectId is required");
-            pass = false;
-        }
-
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("semester").required("Semester");
+        rules.field("examDate").required("Date of Exam").date("Date of Exam").notSunday("Exam should not be on Sunday");
+        rules.field("examTime").required("Exam Time");
+        rules.field("description").required("Description");
+        rules.field("courseId").required("Course Name");
+        rules.field("subjectId").required("Subject Name");
     }
 
     /**
@@ -302,6 +243,16 @@ public class TimetableCtl extends BaseCtl {
         log.info("doPost() forwarded to view: " + getView());
     }
 
+    /**
+     * Returns the tables the timetable form and its dropdowns are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { TimetableModel.TABLE, CourseModel.TABLE, SubjectModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the timetable form.
      *
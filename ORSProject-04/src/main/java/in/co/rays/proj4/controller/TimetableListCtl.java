@@ -2,6 +2,8 @@ package in.co.rays.proj4.controller;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -17,8 +19,9 @@ import in.co.rays.proj4.model.CourseModel;
 import in.co.rays.proj4.model.SubjectModel;
 import in.co.rays.proj4.model.TimetableModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * TimetableListCtl handles listing, searching, pagination and bulk actions for
@@ -41,31 +44,15 @@ public class TimetableListCtl extends BaseCtl {
     private static final Logger log = Logger.getLogger(TimetableListCtl.class);
 
     /**
-     * Preloads subject and course lists into request attributes for rendering
-     * dropdowns on the timetable list page.
+     * Declares the subject and course lists used for rendering dropdowns on
+     * the timetable list page. Both are fetched concurrently by {@link BaseCtl}.
      *
-     * @param request the {@link HttpServletRequest}
+     * @param datasets map to which the list queries are added
      */
     @Override
-    protected void preload(HttpServletRequest request) {
-        log.debug("TimetableListCtl preload() called");
-
-        SubjectModel subjectModel = new SubjectModel();
-        CourseModel courseModel = new CourseModel();
-
-        try {
-            List subjectList = subjectModel.list();
-            request.setAttribute("subjectList", subjectList);
-            log.info("Preloaded subject list, size=" + subjectList.size());
-
-            List courseList = courseModel.list();
-            request.setAttribute("courseList", courseList);
-            log.info("Preloaded course list, size=" + courseList.size());
-
-        } catch (ApplicationException e) {
-            log.error("ApplicationException in preload()", e);
-            e.printStackTrace();
-        }
+    protected void preloadDatasets(Map<String, Callable<List>> datasets) {
+        datasets.put("subjectList", () -> new SubjectModel().list());
+        datasets.put("courseList", () -> new CourseModel().list());
     }
 
     /**
@@ -103,14 +90,16 @@ public class TimetableListCtl extends BaseCtl {
         log.info("TimetableListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         TimetableBean bean = (TimetableBean) populateBean(request);
         TimetableModel model = new TimetableModel();
 
         try {
-            List<TimetableBean> list = model.search(bean, pageNo, pageSize);
-            List<TimetableBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<TimetableBean> pages = PagePrefetcher.search(request, TimetableModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<TimetableBean> list = pages.getList();
+            List<TimetableBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
@@ -158,7 +147,7 @@ public class TimetableListCtl extends BaseCtl {
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
-        pageSize = (pageSize == 0) ? DataUtility.getInt(PropertyReader.getValue("page.size")) : pageSize;
+        pageSize = (pageSize == 0) ? SystemConfig.getInt("page.size", 10) : pageSize;
 
         TimetableBean bean = (TimetableBean) populateBean(request);
         TimetableModel model = new TimetableModel();
@@ -213,8 +202,10 @@ public class TimetableListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<TimetableBean> pages = PagePrefetcher.search(request, TimetableModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found ", request);
@@ -239,6 +230,16 @@ public class TimetableListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the timetable list and its dropdowns are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { TimetableModel.TABLE, CourseModel.TABLE, SubjectModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the timetable list.
      *
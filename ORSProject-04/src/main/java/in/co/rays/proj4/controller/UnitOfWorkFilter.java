@@ -0,0 +1,197 @@
+package in.co.rays.proj4.controller;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.util.SystemConfig;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * UnitOfWorkFilter runs every request in a {@link UnitOfWork}, which decides
+ * whether its reads may go to a read replica.
+ * <p>
+ * A form submission runs on the primary, so that its duplicate checks and the
+ * reads that follow a save see the latest data, unless its operation only
+ * reads, like {@code Search} or {@code Next} on a list page. When a request
+ * writes, the time is sent back in the {@value #LAST_WRITE} cookie, and the
+ * requests that carry it keep reading from the primary for
+ * {@code replica.stickiness} milliseconds, long enough for the redirect after
+ * a save to show the saved record while the replicas catch up. The cookie
+ * works without a session, so it also holds when the application runs
+ * stateless and the next request goes to another node. Static files are
+ * passed straight through.
+ * </p>
+ * <p>
+ * The cookie is set just before the response is committed, when the unit has
+ * done its work: an asynchronous controller that saves after this filter has
+ * returned still sets it when it renders or redirects.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+@WebFilter(urlPatterns = { "/*" }, asyncSupported = true)
+public class UnitOfWorkFilter implements Filter {
+
+    private static final Logger log = Logger.getLogger(UnitOfWorkFilter.class);
+
+    /** Cookie holding the time of the browser's last write */
+    public static final String LAST_WRITE = "ORS_LAST_WRITE";
+
+    /** Operations of a form submission that do not write */
+    private static final Set<String> READ_OPERATIONS = new HashSet<String>(Arrays.asList(BaseCtl.OP_SEARCH,
+            BaseCtl.OP_NEXT, BaseCtl.OP_PREVIOUS, BaseCtl.OP_RESET, BaseCtl.OP_BACK, BaseCtl.OP_CANCEL,
+            BaseCtl.OP_NEW, BaseCtl.OP_LIST, BaseCtl.OP_GO, BaseCtl.OP_VIEW));
+
+    public void init(FilterConfig conf) throws ServletException {
+        log.info("UnitOfWorkFilter initialized");
+    }
+
+    /**
+     * Begins a unit of work for the request, on the primary for form
+     * submissions that may write and for browsers that wrote recently, and
+     * sets the cookie when the request wrote.
+     */
+    public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+
+        HttpServletRequest request = (HttpServletRequest) req;
+        if (StaticResourceServlet.isStatic(request)) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        String method = request.getMethod();
+        boolean primary = !"GET".equals(method) && !"HEAD".equals(method)
+                && !READ_OPERATIONS.contains(request.getParameter("operation"));
+        if (!primary) {
+            long since = System.currentTimeMillis() - lastWrite(request);
+            primary = since >= 0 && since < SystemConfig.getLong("replica.stickiness", 5000);
+        }
+
+        UnitOfWork unit = UnitOfWork.begin(primary);
+        WriteResponse response = new WriteResponse(request, (HttpServletResponse) resp, unit);
+        try {
+            chain.doFilter(req, response);
+        } finally {
+            UnitOfWork.end();
+            if (!request.isAsyncStarted()) {
+                response.stamp();
+            }
+        }
+    }
+
+    /**
+     * Returns the time of the last write sent back by the browser, or 0.
+     */
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (LAST_WRITE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * A response that sets the {@value #LAST_WRITE} cookie before it is
+     * committed, if its unit of work has written by then.
+     */
+    private static final class WriteResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private final UnitOfWork unit;
+        private boolean stamped;
+
+        private WriteResponse(HttpServletRequest request, HttpServletResponse response, UnitOfWork unit) {
+            super(response);
+            this.request = request;
+            this.unit = unit;
+        }
+
+        /**
+         * Sets the cookie once, if the unit has written and the headers can
+         * still be sent.
+         */
+        private synchronized void stamp() {
+            if (stamped || !unit.hasWritten() || isCommitted()) {
+                return;
+            }
+            stamped = true;
+            String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+            long stickiness = SystemConfig.getLong("replica.stickiness", 5000);
+            StringBuilder sb = new StringBuilder(LAST_WRITE).append('=').append(System.currentTimeMillis())
+                    .append("; Path=").append(path).append("; Max-Age=").append((stickiness + 999) / 1000)
+                    .append("; HttpOnly; SameSite=Lax");
+            if (request.isSecure()) {
+                sb.append("; Secure");
+            }
+            addHeader("Set-Cookie", sb.toString());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamp();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+    }
+
+    public void destroy() {
+        log.info("UnitOfWorkFilter destroyed");
+    }
+}
@@ -19,8 +19,7 @@ import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -73,93 +72,23 @@ public class UserCtl extends BaseCtl {
     }
 
     /**
-     * Validates user form parameters.
+     * Declares the validation rules of the user form.
      *
-     * @param request the {@link HttpServletRequest} containing form parameters
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        log.debug("UserCtl validate() called");
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Login Id"));
-            pass = false;
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login "));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("password"))) {
-            request.setAttribute("password", PropertyReader.getValue("error.require", "Password"));
-            pass = false;
-        } else if (!DataValidator.isPasswordLength(request.getParameter("password"))) {
-            request.setAttribute("password", "Password should be 8 to 12 characters");
-            pass = false;
-        } else if (!DataValidator.isPassword(request.getParameter("password"))) {
-            request.setAttribute("password", "Must contain uppercase, lowercase, digit & special character");
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword", PropertyReader.getValue("error.require", "Confirm Password"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("roleId"))) {
-            request.setAttribute("roleId", PropertyReader.getValue("error.require", "Role"));
-            pass = false;
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "MobileNo"));
-            pass = false;
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-        }
-
-        if (!request.getParameter("password").equals(request.getParameter("confirmPassword"))
-                && !"".equals(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword", "Password and Confirm Password must be Same!");
-            pass = false;
-        }
-
-        log.debug("Validation result: " + pass);
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("firstName").required("First Name").name("Invalid First Name");
+        rules.field("lastName").required("Last Name").name("Invalid Last Name");
+        rules.field("login").required("Login Id").email("Login ");
+        rules.field("password").required("Password").password("Password should be 8 to 12 characters",
+                "Must contain uppercase, lowercase, digit & special character");
+        rules.field("confirmPassword").required("Confirm Password").sameAs("password",
+                "Password and Confirm Password must be Same!");
+        rules.field("gender").required("Gender");
+        rules.field("dob").required("Date of Birth").date("Date of Birth");
+        rules.field("roleId").required("Role");
+        rules.field("mobileNo").required("MobileNo").phone("Mobile No must have 10 digits", "Invalid Mobile No");
     }
 
     /**
@@ -294,6 +223,16 @@ public class UserCtl extends BaseCtl {
         log.info("doPost() forwarded to view: " + getView());
     }
 
+    /**
+     * Returns the tables the user form and its role dropdown are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { UserModel.TABLE, RoleModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the user form.
      *
@@ -17,8 +17,9 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.model.RoleModel;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.PagePrefetcher;
 import in.co.rays.proj4.util.ServletUtility;
+import in.co.rays.proj4.util.SystemConfig;
 
 /**
  * UserListCtl handles listing, searching, pagination and bulk actions for User
@@ -103,14 +104,16 @@ public class UserListCtl extends BaseCtl {
         log.info("UserListCtl doGet() started");
 
         int pageNo = 1;
-        int pageSize = DataUtility.getInt(PropertyReader.getValue("page.size"));
+        int pageSize = SystemConfig.getInt("page.size", 10);
 
         UserBean bean = (UserBean) populateBean(request);
         UserModel model = new UserModel();
 
         try {
-            List<UserBean> list = model.search(bean, pageNo, pageSize);
-            List<UserBean> next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<UserBean> pages = PagePrefetcher.search(request, UserModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            List<UserBean> list = pages.getList();
+            List<UserBean> next = pages.getNext();
 
             if (list == null || list.isEmpty()) {
                 ServletUtility.setErrorMessage("No record found", request);
@@ -156,7 +159,7 @@ public class UserListCtl extends BaseCtl {
         int pageSize = DataUtility.getInt(request.getParameter("pageSize"));
 
         pageNo = (pageNo == 0) ? 1 : pageNo;
-        pageSize = (pageSize == 0) ? DataUtility.getInt(PropertyReader.getValue("page.size")) : pageSize;
+        pageSize = (pageSize == 0) ? SystemConfig.getInt("page.size", 10) : pageSize;
 
         UserBean bean = (UserBean) populateBean(request);
         UserModel model = new UserModel();
@@ -210,8 +213,10 @@ public class UserListCtl extends BaseCtl {
                 return;
             }
 
-            list = model.search(bean, pageNo, pageSize);
-            next = model.search(bean, pageNo + 1, pageSize);
+            PagePrefetcher.Pages<UserBean> pages = PagePrefetcher.search(request, UserModel.TABLE, bean,
+                    pageNo, pageSize, (page, size) -> model.search(bean, page, size));
+            list = pages.getList();
+            next = pages.getNext();
 
             if (list == null || list.size() == 0) {
                 ServletUtility.setErrorMessage("No record found ", request);
@@ -234,6 +239,16 @@ public class UserListCtl extends BaseCtl {
         }
     }
 
+    /**
+     * Returns the tables the user list and its role dropdown are read from.
+     *
+     * @return names of the tables
+     */
+    @Override
+    protected String[] versionedTables() {
+        return new String[] { UserModel.TABLE, RoleModel.TABLE };
+    }
+
     /**
      * Returns the JSP view path for the user list.
      *
@@ -17,8 +17,7 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.UserModel;
 import in.co.rays.proj4.util.DataUtility;
-import in.co.rays.proj4.util.DataValidator;
-import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.RuleSet;
 import in.co.rays.proj4.util.ServletUtility;
 
 /**
@@ -56,7 +55,7 @@ public class UserRegistrationCtl extends BaseCtl {
     }
 
     /**
-     * Validates the registration form parameters.
+     * Declares the validation rules of the registration form.
      * <ul>
      *   <li>firstName and lastName must be present and valid names</li>
      *   <li>login must be present and a valid email</li>
@@ -66,102 +65,20 @@ public class UserRegistrationCtl extends BaseCtl {
      *   <li>mobileNo must be present, 10 digits and a valid phone number</li>
      * </ul>
      *
-     * @param request the current {@link HttpServletRequest}
-     * @return {@code true} if validation passes; {@code false} otherwise
+     * @param rules builder to which the form fields are added
      */
     @Override
-    protected boolean validate(HttpServletRequest request) {
-        log.debug("UserRegistrationCtl validate() called");
-        boolean pass = true;
-
-        if (DataValidator.isNull(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", PropertyReader.getValue("error.require", "First Name"));
-            pass = false;
-            log.warn("Validation failed: firstName is null");
-        } else if (!DataValidator.isName(request.getParameter("firstName"))) {
-            request.setAttribute("firstName", "Invalid First Name");
-            pass = false;
-            log.warn("Validation failed: firstName invalid");
-        }
-
-        if (DataValidator.isNull(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", PropertyReader.getValue("error.require", "Last Name"));
-            pass = false;
-            log.warn("Validation failed: lastName is null");
-        } else if (!DataValidator.isName(request.getParameter("lastName"))) {
-            request.setAttribute("lastName", "Invalid Last Name");
-            pass = false;
-            log.warn("Validation failed: lastName invalid");
-        }
-
-        if (DataValidator.isNull(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.require", "Login Id"));
-            pass = false;
-            log.warn("Validation failed: login is null");
-        } else if (!DataValidator.isEmail(request.getParameter("login"))) {
-            request.setAttribute("login", PropertyReader.getValue("error.email", "Login"));
-            pass = false;
-            log.warn("Validation failed: login not a valid email");
-        }
-
-        if (DataValidator.isNull(request.getParameter("password"))) {
-            request.setAttribute("password", PropertyReader.getValue("error.require", "Password"));
-            pass = false;
-            log.warn("Validation failed: password is null");
-        } else if (!DataValidator.isPasswordLength(request.getParameter("password"))) {
-            request.setAttribute("password", "Password should be 8 to 12 characters");
-            pass = false;
-            log.warn("Validation failed: password length invalid");
-        } else if (!DataValidator.isPassword(request.getParameter("password"))) {
-            request.setAttribute("password", "Must contain uppercase, lowercase, digit & special character");
-            pass = false;
-            log.warn("Validation failed: password strength invalid");
-        }
-
-        if (DataValidator.isNull(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword", PropertyReader.getValue("error.require", "Confirm Password"));
-            pass = false;
-            log.warn("Validation failed: confirmPassword is null");
-        }
-
-        if (DataValidator.isNull(request.getParameter("gender"))) {
-            request.setAttribute("gender", PropertyReader.getValue("error.require", "Gender"));
-            pass = false;
-            log.warn("Validation failed: gender is null");
-        }
-
-        if (DataValidator.isNull(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.require", "Date of Birth"));
-            pass = false;
-            log.warn("Validation failed: dob is null");
-        } else if (!DataValidator.isDate(request.getParameter("dob"))) {
-            request.setAttribute("dob", PropertyReader.getValue("error.date", "Date of Birth"));
-            pass = false;
-            log.warn("Validation failed: dob invalid date");
-        }
-
-        if (!request.getParameter("password").equals(request.getParameter("confirmPassword"))
-                && !"".equals(request.getParameter("confirmPassword"))) {
-            request.setAttribute("confirmPassword", "Password and Confirm Password must be Same!");
-            pass = false;
-            log.warn("Validation failed: password and confirmPassword mismatch");
-        }
-
-        if (DataValidator.isNull(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", PropertyReader.getValue("error.require", "Mobile No"));
-            pass = false;
-            log.warn("Validation failed: mobileNo is null");
-        } else if (!DataValidator.isPhoneLength(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Mobile No must have 10 digits");
-            pass = false;
-            log.warn("Validation failed: mobileNo length invalid");
-        } else if (!DataValidator.isPhoneNo(request.getParameter("mobileNo"))) {
-            request.setAttribute("mobileNo", "Invalid Mobile No");
-            pass = false;
-            log.warn("Validation failed: mobileNo invalid");
-        }
-
-        return pass;
+    protected void validationRules(RuleSet.Builder rules) {
+        rules.field("firstName").required("First Name").name("Invalid First Name");
+        rules.field("lastName").required("Last Name").name("Invalid Last Name");
+        rules.field("login").required("Login Id").email("Login");
+        rules.field("password").required("Password").password("Password should be 8 to 12 characters",
+                "Must contain uppercase, lowercase, digit & special character");
+        rules.field("confirmPassword").required("Confirm Password").sameAs("password",
+                "Password and Confirm Password must be Same!");
+        rules.field("gender").required("Gender");
+        rules.field("dob").required("Date of Birth").date("Date of Birth");
+        rules.field("mobileNo").required("Mobile No").phone("Mobile No must have 10 digits", "Invalid Mobile No");
     }
 
     /**
@@ -246,6 +163,18 @@ public class UserRegistrationCtl extends BaseCtl {
         ServletUtility.forward(getView(), request, response);
     }
 
+    /**
+     * Rate limits each sign up by client address and login id under the
+     * {@code ratelimit.register} limits of system.properties.
+     *
+     * @param op the submitted operation
+     * @return {@code "register"} for {@link #OP_SIGN_UP}, otherwise null
+     */
+    @Override
+    protected String rateLimit(String op) {
+        return OP_SIGN_UP.equalsIgnoreCase(op) ? "register" : null;
+    }
+
     /**
      * Returns the JSP view path for user registration.
      *
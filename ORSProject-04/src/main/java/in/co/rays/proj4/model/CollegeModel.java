@@ -12,7 +12,12 @@ import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * CollegeModel provides CRUD and search operations for {@link CollegeBean}
@@ -30,6 +35,9 @@ public class CollegeModel {
     /** Log4j Logger */
     private static final Logger log = Logger.getLogger(CollegeModel.class);
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_college";
+
     /**
      * Returns the next primary key value for the st_college table.
      *
@@ -98,11 +106,14 @@ public class CollegeModel {
             pstmt.setTimestamp(10, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("College added successfully: " + bean.getName() + ", ID: " + pk);
         } catch (Exception e) {
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 log.error("Rollback exception in add()", ex);
                 throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
@@ -150,11 +161,14 @@ public class CollegeModel {
             pstmt.setLong(10, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("College updated successfully: " + bean.getName() + ", ID: " + bean.getId());
         } catch (Exception e) {
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 log.error("Rollback exception in update()", ex);
                 throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
@@ -182,11 +196,14 @@ public class CollegeModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("College deleted successfully, ID: " + bean.getId());
         } catch (Exception e) {
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 log.error("Rollback exception in delete()", ex);
                 throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
@@ -213,7 +230,7 @@ public class CollegeModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -242,6 +259,60 @@ public class CollegeModel {
         return bean;
     }
 
+    /**
+     * Finds College records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link CollegeBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<CollegeBean> findByPks(long[] ids) throws ApplicationException {
+        log.debug("CollegeModel findByPks() called for " + ids.length + " ids");
+        long[] keys = InClause.distinct(ids);
+        LongMap<CollegeBean> map = new LongMap<CollegeBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_college where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    CollegeBean bean = new CollegeBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setName(rs.getString(2));
+                    bean.setAddress(rs.getString(3));
+                    bean.setState(rs.getString(4));
+                    bean.setCity(rs.getString(5));
+                    bean.setPhoneNo(rs.getString(6));
+                    bean.setCreatedBy(rs.getString(7));
+                    bean.setModifiedBy(rs.getString(8));
+                    bean.setCreatedDatetime(rs.getTimestamp(9));
+                    bean.setModifiedDatetime(rs.getTimestamp(10));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+            log.debug("CollegeModel findByPks() found " + map.size() + " of " + keys.length + " ids");
+        } catch (Exception e) {
+            log.error("Exception in findByPks()", e);
+            throw new ApplicationException("Exception : Exception in getting College by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     /**
      * Finds a College record by its name.
      *
@@ -258,7 +329,7 @@ public class CollegeModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setString(1, name);
             ResultSet rs = pstmt.executeQuery();
@@ -310,6 +381,13 @@ public class CollegeModel {
      * @throws ApplicationException if a general application/database error occurs
      */
     public List<CollegeBean> search(CollegeBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<CollegeBean> searchFromDb(CollegeBean bean, int pageNo, int pageSize) throws ApplicationException {
         log.debug("CollegeModel search() called with pageNo=" + pageNo + ", pageSize=" + pageSize);
         StringBuffer sql = new StringBuffer("select * from st_college where 1 = 1");
 
@@ -343,7 +421,7 @@ public class CollegeModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
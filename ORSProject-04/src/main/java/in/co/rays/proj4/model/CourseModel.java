@@ -10,7 +10,12 @@ import in.co.rays.proj4.bean.CourseBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 import org.apache.log4j.Logger; // Added import
 
@@ -29,6 +34,9 @@ public class CourseModel {
 
     private static Logger log = Logger.getLogger(CourseModel.class); // Logger declaration
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_course";
+
     /**
      * Returns the next primary key value for the st_course table.
      *
@@ -97,13 +105,16 @@ public class CourseModel {
             pstmt.setTimestamp(8, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Course added successfully with pk=" + pk);
         } catch (Exception e) {
             log.error("Exception in adding Course", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.info("Rollback successful");
                 }
             } catch (Exception ex) {
@@ -154,13 +165,16 @@ public class CourseModel {
             pstmt.setLong(8, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Course updated successfully with id=" + bean.getId());
         } catch (Exception e) {
             log.error("Exception in updating Course", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.info("Rollback successful for update");
                 }
             } catch (Exception ex) {
@@ -190,13 +204,16 @@ public class CourseModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Course deleted successfully with id=" + bean.getId());
         } catch (Exception e) {
             log.error("Exception in deleting Course", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.info("Rollback successful for delete");
                 }
             } catch (Exception ex) {
@@ -223,7 +240,7 @@ public class CourseModel {
         CourseBean bean = null;
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -251,6 +268,58 @@ public class CourseModel {
         return bean;
     }
 
+    /**
+     * Finds Course records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link CourseBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<CourseBean> findByPks(long[] ids) throws ApplicationException {
+        log.debug("CourseModel findByPks() called for " + ids.length + " ids");
+        long[] keys = InClause.distinct(ids);
+        LongMap<CourseBean> map = new LongMap<CourseBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_course where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    CourseBean bean = new CourseBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setName(rs.getString(2));
+                    bean.setDuration(rs.getString(3));
+                    bean.setDescription(rs.getString(4));
+                    bean.setCreatedBy(rs.getString(5));
+                    bean.setModifiedBy(rs.getString(6));
+                    bean.setCreatedDatetime(rs.getTimestamp(7));
+                    bean.setModifiedDatetime(rs.getTimestamp(8));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+            log.debug("CourseModel findByPks() found " + map.size() + " of " + keys.length + " ids");
+        } catch (Exception e) {
+            log.error("Exception in findByPks()", e);
+            throw new ApplicationException("Exception : Exception in getting Course by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     /**
      * Finds a Course record by its name.
      *
@@ -264,7 +333,7 @@ public class CourseModel {
         CourseBean bean = null;
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setString(1, name);
             ResultSet rs = pstmt.executeQuery();
@@ -317,6 +386,13 @@ public class CourseModel {
      * @throws ApplicationException if a general application/database error occurs
      */
     public List<CourseBean> search(CourseBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<CourseBean> searchFromDb(CourseBean bean, int pageNo, int pageSize) throws ApplicationException {
         log.debug("CourseModel.search() start with pageNo=" + pageNo + " pageSize=" + pageSize);
         StringBuffer sql = new StringBuffer("select * from st_course where 1=1");
 
@@ -343,7 +419,7 @@ public class CourseModel {
         ArrayList<CourseBean> list = new ArrayList<CourseBean>();
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -13,7 +13,12 @@ import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 import org.apache.log4j.Logger;
 
@@ -32,6 +37,9 @@ public class FacultyModel {
 
     private static Logger log = Logger.getLogger(FacultyModel.class);
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_faculty";
+
     public Integer nextPk() throws DatabaseException {
         log.debug("Entering nextPk method");
         Connection conn = null;
@@ -110,13 +118,16 @@ public class FacultyModel {
             pstmt.setTimestamp(17, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.debug("Faculty added successfully with PK: " + pk);
         } catch (Exception e) {
             log.error("Exception in add Faculty", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in add method");
                 }
             } catch (Exception ex) {
@@ -182,13 +193,16 @@ public class FacultyModel {
             pstmt.setLong(17, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.debug("Faculty updated successfully: " + bean.getId());
         } catch (Exception e) {
             log.error("Exception in update Faculty", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in update method");
                 }
             } catch (Exception ex) {
@@ -212,13 +226,16 @@ public class FacultyModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.debug("Faculty deleted successfully: " + bean.getId());
         } catch (Exception e) {
             log.error("Exception in delete Faculty", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in delete method");
                 }
             } catch (Exception ex) {
@@ -238,7 +255,7 @@ public class FacultyModel {
         FacultyBean bean = null;
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -275,6 +292,67 @@ public class FacultyModel {
         return bean;
     }
 
+    /**
+     * Finds Faculty records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link FacultyBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<FacultyBean> findByPks(long[] ids) throws ApplicationException {
+        log.debug("FacultyModel findByPks() called for " + ids.length + " ids");
+        long[] keys = InClause.distinct(ids);
+        LongMap<FacultyBean> map = new LongMap<FacultyBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_faculty where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    FacultyBean bean = new FacultyBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setFirstName(rs.getString(2));
+                    bean.setLastName(rs.getString(3));
+                    bean.setDob(rs.getDate(4));
+                    bean.setGender(rs.getString(5));
+                    bean.setMobileNo(rs.getString(6));
+                    bean.setEmail(rs.getString(7));
+                    bean.setCollegeId(rs.getLong(8));
+                    bean.setCollegeName(rs.getString(9));
+                    bean.setCourseId(rs.getLong(10));
+                    bean.setCourseName(rs.getString(11));
+                    bean.setSubjectId(rs.getLong(12));
+                    bean.setSubjectName(rs.getString(13));
+                    bean.setCreatedBy(rs.getString(14));
+                    bean.setModifiedBy(rs.getString(15));
+                    bean.setCreatedDatetime(rs.getTimestamp(16));
+                    bean.setModifiedDatetime(rs.getTimestamp(17));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+            log.debug("FacultyModel findByPks() found " + map.size() + " of " + keys.length + " ids");
+        } catch (Exception e) {
+            log.error("Exception in findByPks()", e);
+            throw new ApplicationException("Exception : Exception in getting Faculty by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     public FacultyBean findByEmail(String email) throws ApplicationException {
         log.debug("Entering findByEmail method with email: " + email);
         StringBuffer sql = new StringBuffer("select * from st_faculty where email = ?");
@@ -282,7 +360,7 @@ public class FacultyModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setString(1, email);
             ResultSet rs = pstmt.executeQuery();
@@ -327,6 +405,13 @@ public class FacultyModel {
     }
 
     public List<FacultyBean> search(FacultyBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<FacultyBean> searchFromDb(FacultyBean bean, int pageNo, int pageSize) throws ApplicationException {
         log.debug("Entering search method with bean: " + bean + ", pageNo: " + pageNo + ", pageSize: " + pageSize);
         StringBuffer sql = new StringBuffer("select * from st_faculty where 1=1");
 
@@ -379,7 +464,7 @@ public class FacultyModel {
         ArrayList<FacultyBean> list = new ArrayList<FacultyBean>();
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -4,14 +4,26 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.JdbcExecutor;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.SingleFlight;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * MarksheetModel provides CRUD and search operations for {@link MarksheetBean}
@@ -23,7 +35,7 @@ import in.co.rays.proj4.util.JDBCDataSource;
  * Responsibilities:
  *  - generate next primary key
  *  - add / update / delete marksheet records
- *  - find marksheet by PK or roll number
+ *  - find marksheet by PK or roll number, or many of them at once
  *  - search and list marksheets with optional pagination
  *  - get merit list ordered by total marks
  *
@@ -36,6 +48,9 @@ import in.co.rays.proj4.util.JDBCDataSource;
  */
 public class MarksheetModel {
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_marksheet";
+
     /**
      * Returns the next primary key value for the st_marksheet table.
      *
@@ -114,12 +129,15 @@ public class MarksheetModel {
             pstmt.setTimestamp(11, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit(); // End transaction
+            TableVersion.bump(TABLE);
             pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                 }
             } catch (Exception ex) {
                 throw new ApplicationException("add rollback exception " + ex.getMessage());
@@ -180,11 +198,14 @@ public class MarksheetModel {
             pstmt.setLong(11, bean.getId());
             pstmt.executeUpdate();
             conn.commit(); // End transaction
+            TableVersion.bump(TABLE);
             pstmt.close();
         } catch (Exception e) {
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                 }
             } catch (Exception ex) {
                 throw new ApplicationException("Update rollback exception " + ex.getMessage());
@@ -212,11 +233,14 @@ public class MarksheetModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit(); // End transaction
+            TableVersion.bump(TABLE);
             pstmt.close();
         } catch (Exception e) {
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                 }
             } catch (Exception ex) {
                 throw new ApplicationException("Delete rollback exception " + ex.getMessage());
@@ -241,7 +265,7 @@ public class MarksheetModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -270,20 +294,82 @@ public class MarksheetModel {
     }
 
     /**
-     * Finds a marksheet by roll number.
+     * Finds Marksheet records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link MarksheetBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<MarksheetBean> findByPks(long[] ids) throws ApplicationException {
+        long[] keys = InClause.distinct(ids);
+        LongMap<MarksheetBean> map = new LongMap<MarksheetBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_marksheet where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    MarksheetBean bean = new MarksheetBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setRollNo(rs.getString(2));
+                    bean.setStudentId(rs.getLong(3));
+                    bean.setName(rs.getString(4));
+                    bean.setPhysics(rs.getInt(5));
+                    bean.setChemistry(rs.getInt(6));
+                    bean.setMaths(rs.getInt(7));
+                    bean.setCreatedBy(rs.getString(8));
+                    bean.setModifiedBy(rs.getString(9));
+                    bean.setCreatedDatetime(rs.getTimestamp(10));
+                    bean.setModifiedDatetime(rs.getTimestamp(11));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+        } catch (Exception e) {
+            throw new ApplicationException("Exception : Exception in getting Marksheet by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
+    /**
+     * Finds a marksheet by roll number. Identical lookups made at the same
+     * time run one query, through {@link SingleFlight}; the bean returned
+     * may be shared and must not be changed.
      *
      * @param rollNo roll number to search
      * @return found MarksheetBean or null if not found
      * @throws ApplicationException for general DB errors
      */
     public MarksheetBean findByRollNo(String rollNo) throws ApplicationException {
+        return SingleFlight.execute("marksheet.rollNo", TableVersion.get(TABLE) + "/" + rollNo,
+                () -> findByRollNoFromDb(rollNo));
+    }
+
+    /**
+     * Finds a marksheet by roll number on the database.
+     */
+    private MarksheetBean findByRollNoFromDb(String rollNo) throws ApplicationException {
 
         StringBuffer sql = new StringBuffer("select * from st_marksheet where roll_no = ?");
         MarksheetBean bean = null;
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setString(1, rollNo);
             ResultSet rs = pstmt.executeQuery();
@@ -311,6 +397,58 @@ public class MarksheetModel {
         return bean;
     }
 
+    /**
+     * Finds marksheets for many roll numbers at once using chunked IN queries.
+     * Used by the bulk marksheet lookup where a whole class is fetched in one
+     * request.
+     *
+     * @param rollNos roll numbers to look up; duplicates are ignored
+     * @return map of roll number to {@link MarksheetBean}; unknown roll numbers are absent
+     * @throws ApplicationException for general DB errors
+     */
+    public Map<String, MarksheetBean> findByRollNos(String[] rollNos) throws ApplicationException {
+
+        String[] keys = new LinkedHashSet<String>(Arrays.asList(rollNos)).toArray(new String[0]);
+        Map<String, MarksheetBean> map = new HashMap<String, MarksheetBean>(keys.length * 2);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_marksheet where roll_no in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    MarksheetBean bean = new MarksheetBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setRollNo(rs.getString(2));
+                    bean.setStudentId(rs.getLong(3));
+                    bean.setName(rs.getString(4));
+                    bean.setPhysics(rs.getInt(5));
+                    bean.setChemistry(rs.getInt(6));
+                    bean.setMaths(rs.getInt(7));
+                    bean.setCreatedBy(rs.getString(8));
+                    bean.setModifiedBy(rs.getString(9));
+                    bean.setCreatedDatetime(rs.getTimestamp(10));
+                    bean.setModifiedDatetime(rs.getTimestamp(11));
+                    map.put(bean.getRollNo(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+        } catch (Exception e) {
+            throw new ApplicationException("Exception in getting marksheets by roll nos");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     /**
      * Convenience wrapper to get all marksheets (no filter, no pagination).
      *
@@ -331,6 +469,13 @@ public class MarksheetModel {
      * @throws ApplicationException for general DB errors
      */
     public List<MarksheetBean> search(MarksheetBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<MarksheetBean> searchFromDb(MarksheetBean bean, int pageNo, int pageSize) throws ApplicationException {
 
         StringBuffer sql = new StringBuffer("select * from st_marksheet where 1=1");
 
@@ -363,7 +508,7 @@ public class MarksheetModel {
         ArrayList<MarksheetBean> list = new ArrayList<MarksheetBean>();
         Connection conn = null;
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -393,7 +538,9 @@ public class MarksheetModel {
 
     /**
      * Returns merit list: students who passed all subjects (marks &gt; 33) ordered by total marks desc.
-     * Supports pagination.
+     * Supports pagination. The query sorts the whole table, so it runs on the
+     * {@link Workload#REPORTING} pool, and identical requests made at the
+     * same time share one query, through {@link SingleFlight}.
      *
      * @param pageNo   page number (1-based) if using pagination
      * @param pageSize page size; pass 0 to disable pagination
@@ -401,6 +548,14 @@ public class MarksheetModel {
      * @throws ApplicationException for general DB errors
      */
     public List<MarksheetBean> getMeritList(int pageNo, int pageSize) throws ApplicationException {
+        return SingleFlight.execute("marksheet.merit", TableVersion.get(TABLE) + "/" + pageNo + "/" + pageSize,
+                () -> getMeritListFromDb(pageNo, pageSize));
+    }
+
+    /**
+     * Reads a page of the merit list from the database.
+     */
+    private List<MarksheetBean> getMeritListFromDb(int pageNo, int pageSize) throws ApplicationException {
 
         ArrayList<MarksheetBean> list = new ArrayList<MarksheetBean>();
         StringBuffer sql = new StringBuffer(
@@ -414,7 +569,7 @@ public class MarksheetModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.REPORTING);
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -436,4 +591,16 @@ public class MarksheetModel {
         }
         return list;
     }
+
+    /**
+     * Returns the merit list on the {@link JdbcExecutor} pool.
+     *
+     * @param pageNo   page number (1-based) if using pagination
+     * @param pageSize page size; pass 0 to disable pagination
+     * @return future completed with the top marksheet records by total
+     * @see #getMeritList(int, int)
+     */
+    public CompletableFuture<List<MarksheetBean>> getMeritListAsync(int pageNo, int pageSize) {
+        return JdbcExecutor.supply(() -> getMeritList(pageNo, pageSize));
+    }
 }
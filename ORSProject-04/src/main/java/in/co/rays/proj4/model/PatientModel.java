@@ -10,7 +10,12 @@ import in.co.rays.proj4.bean.PatientBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 import org.apache.log4j.Logger;
 
@@ -18,6 +23,9 @@ public class PatientModel {
 
     private static Logger log = Logger.getLogger(PatientModel.class);
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_patient";
+
     public static Integer nextPk() throws DatabaseException {
         log.debug("Entering nextPk()");
         Connection conn = null;
@@ -73,13 +81,16 @@ public class PatientModel {
 
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Patient added successfully with PK: " + pk);
         } catch (Exception e) {
             log.error("Exception in add()", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in add()");
                 }
             } catch (Exception ex) {
@@ -122,13 +133,16 @@ public class PatientModel {
 
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Patient updated successfully with ID: " + bean.getId());
         } catch (Exception e) {
             log.error("Exception in update()", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in update()");
                 }
             } catch (Exception ex) {
@@ -153,13 +167,16 @@ public class PatientModel {
             pstmt.setLong(1, id);
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Patient deleted successfully with ID: " + id);
         } catch (Exception e) {
             log.error("Exception in delete()", e);
             try {
                 if (conn != null) {
-                    conn.rollback();
+                    if (conn != null) {
+                        conn.rollback();
+                    }
                     log.debug("Transaction rollback in delete()");
                 }
             } catch (Exception ex) {
@@ -180,7 +197,7 @@ public class PatientModel {
         String sql = "SELECT * FROM st_patient WHERE id=?";
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql);
             pstmt.setLong(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -201,6 +218,50 @@ public class PatientModel {
         return bean;
     }
 
+    /**
+     * Finds Patient records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link PatientBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<PatientBean> findByPks(long[] ids) throws ApplicationException {
+        log.debug("PatientModel findByPks() called for " + ids.length + " ids");
+        long[] keys = InClause.distinct(ids);
+        LongMap<PatientBean> map = new LongMap<PatientBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_patient where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    PatientBean bean = mapResultSetToBean(rs);
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+            log.debug("PatientModel findByPks() found " + map.size() + " of " + keys.length + " ids");
+        } catch (Exception e) {
+            log.error("Exception in findByPks()", e);
+            throw new ApplicationException("Exception : Exception in getting Patient by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     public PatientBean findByName(String name) throws ApplicationException {
         log.debug("Entering findByName() with name: " + name);
         PatientBean bean = null;
@@ -208,7 +269,7 @@ public class PatientModel {
         String sql = "SELECT * FROM st_patient WHERE name=?";
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql);
             pstmt.setString(1, name);
             ResultSet rs = pstmt.executeQuery();
@@ -237,6 +298,13 @@ public class PatientModel {
     }
 
     public List<PatientBean> search(PatientBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<PatientBean> searchFromDb(PatientBean bean, int pageNo, int pageSize) throws ApplicationException {
         log.debug("Entering search() with PatientBean: " + bean + ", pageNo: " + pageNo + ", pageSize: " + pageSize);
         Connection conn = null;
         StringBuilder sql = new StringBuilder("SELECT * FROM st_patient WHERE 1=1 ");
@@ -265,7 +333,7 @@ public class PatientModel {
         List<PatientBean> list = new ArrayList<>();
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -10,7 +10,13 @@ import in.co.rays.proj4.bean.RoleBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.ProfileCache;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * RoleModel provides CRUD operations and search/list utilities for RoleBean.
@@ -27,6 +33,9 @@ public class RoleModel {
 
     private static Logger log = Logger.getLogger(RoleModel.class);
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_role";
+
     /**
      * Returns next primary key value for st_role table.
      *
@@ -85,12 +94,15 @@ public class RoleModel {
             pstmt.setTimestamp(7, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Role added successfully with ID: " + pk);
         } catch (SQLException e) {
             log.error("Exception in adding Role", e);
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
                 log.info("Rollback successful in RoleModel.add()");
             } catch (SQLException ex) {
                 log.error("Rollback failed in RoleModel.add()", ex);
@@ -117,12 +129,16 @@ public class RoleModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Role deleted successfully with ID: " + bean.getId());
+            ProfileCache.removeRole(bean.getId());
         } catch (SQLException e) {
             log.error("Exception in deleting Role", e);
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
                 log.info("Rollback successful in RoleModel.delete()");
             } catch (SQLException ex) {
                 log.error("Rollback failed in RoleModel.delete()", ex);
@@ -162,12 +178,16 @@ public class RoleModel {
             pstmt.setLong(7, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
             log.info("Role updated successfully with ID: " + bean.getId());
+            ProfileCache.removeRole(bean.getId());
         } catch (Exception e) {
             log.error("Exception in updating Role", e);
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
                 log.info("Rollback successful in RoleModel.update()");
             } catch (Exception ex) {
                 log.error("Rollback failed in RoleModel.update()", ex);
@@ -189,7 +209,7 @@ public class RoleModel {
         RoleBean bean = null;
         StringBuffer sql = new StringBuffer("select * from st_role where id = ?");
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -215,6 +235,57 @@ public class RoleModel {
         return bean;
     }
 
+    /**
+     * Finds Role records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link RoleBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<RoleBean> findByPks(long[] ids) throws ApplicationException {
+        log.debug("RoleModel findByPks() called for " + ids.length + " ids");
+        long[] keys = InClause.distinct(ids);
+        LongMap<RoleBean> map = new LongMap<RoleBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_role where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    RoleBean bean = new RoleBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setName(rs.getString(2));
+                    bean.setDescription(rs.getString(3));
+                    bean.setCreatedBy(rs.getString(4));
+                    bean.setModifiedBy(rs.getString(5));
+                    bean.setCreatedDatetime(rs.getTimestamp(6));
+                    bean.setModifiedDatetime(rs.getTimestamp(7));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+            log.debug("RoleModel findByPks() found " + map.size() + " of " + keys.length + " ids");
+        } catch (Exception e) {
+            log.error("Exception in findByPks()", e);
+            throw new ApplicationException("Exception : Exception in getting Role by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     /**
      * Finds a role by name.
      */
@@ -224,7 +295,7 @@ public class RoleModel {
         RoleBean bean = null;
         StringBuffer sql = new StringBuffer("select * from st_role where name = ?");
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setString(1, name);
             ResultSet rs = pstmt.executeQuery();
@@ -265,6 +336,13 @@ public class RoleModel {
      * Searches roles based on provided filter bean and supports pagination.
      */
     public List<RoleBean> search(RoleBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<RoleBean> searchFromDb(RoleBean bean, int pageNo, int pageSize) throws ApplicationException {
         log.debug("RoleModel.search() started");
         StringBuffer sql = new StringBuffer("select * from st_role where 1=1");
         if (bean != null) {
@@ -285,7 +363,7 @@ public class RoleModel {
         Connection conn = null;
         ArrayList<RoleBean> list = new ArrayList<RoleBean>();
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -5,13 +5,20 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import in.co.rays.proj4.bean.CollegeBean;
 import in.co.rays.proj4.bean.StudentBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.JdbcExecutor;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * StudentModel provides CRUD and search operations for StudentBean,
@@ -26,6 +33,10 @@ import in.co.rays.proj4.util.JDBCDataSource;
  * @version 1.0
  */
 public class StudentModel {
+
+	/** Table of the model, whose changes {@link TableVersion} counts */
+	public static final String TABLE = "st_student";
+
 	/**
 	 * Returns next primary key value for st_student table.
 	 *
@@ -98,10 +109,13 @@ public class StudentModel {
 			pstmt.setTimestamp(13, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
 			}
@@ -154,10 +168,13 @@ public class StudentModel {
 			pstmt.setLong(13, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -185,11 +202,14 @@ public class StudentModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			e.printStackTrace();
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -199,6 +219,19 @@ public class StudentModel {
 		}
 	}
 
+	/**
+	 * Deletes a student record on the {@link JdbcExecutor} pool.
+	 *
+	 * @param bean StudentBean containing id of student to delete
+	 * @return future completed when the record is deleted
+	 */
+	public CompletableFuture<Void> deleteAsync(StudentBean bean) {
+		return JdbcExecutor.supply(() -> {
+			delete(bean);
+			return null;
+		});
+	}
+
 	/**
 	 * Finds a student by primary key.
 	 *
@@ -213,7 +246,7 @@ public class StudentModel {
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -243,6 +276,60 @@ public class StudentModel {
 		return bean;
 	}
 
+	/**
+	 * Finds Student records for many primary keys at once. The ids are sent in
+	 * chunked IN queries, so resolving N ids costs about
+	 * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+	 * {@link #findByPk(long)}.
+	 *
+	 * @param ids primary keys to look up; duplicates are ignored
+	 * @return map of id to {@link StudentBean}; ids without a record are absent
+	 * @throws ApplicationException if a database error occurs
+	 */
+	public LongMap<StudentBean> findByPks(long[] ids) throws ApplicationException {
+		long[] keys = InClause.distinct(ids);
+		LongMap<StudentBean> map = new LongMap<StudentBean>(keys.length);
+		if (keys.length == 0) {
+			return map;
+		}
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+				int size = InClause.chunkSize(keys.length - from);
+				PreparedStatement pstmt = conn.prepareStatement(
+						"select * from st_student where id in (" + InClause.placeholders(size) + ")");
+				InClause.bind(pstmt, keys, from, size);
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					StudentBean bean = new StudentBean();
+					bean.setId(rs.getLong(1));
+					bean.setFirstName(rs.getString(2));
+					bean.setLastName(rs.getString(3));
+					bean.setDob(rs.getDate(4));
+					bean.setGender(rs.getString(5));
+					bean.setMobileNo(rs.getString(6));
+					bean.setEmail(rs.getString(7));
+					bean.setCollegeId(rs.getLong(8));
+					bean.setCollegeName(rs.getString(9));
+					bean.setCreatedBy(rs.getString(10));
+					bean.setModifiedBy(rs.getString(11));
+					bean.setCreatedDatetime(rs.getTimestamp(12));
+					bean.setModifiedDatetime(rs.getTimestamp(13));
+					map.put(bean.getId(), bean);
+				}
+				rs.close();
+				pstmt.close();
+			}
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting Student by pks");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return map;
+	}
+
 	/**
 	 * Finds a student by email.
 	 *
@@ -257,7 +344,7 @@ public class StudentModel {
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setString(1, Email);
 			ResultSet rs = pstmt.executeQuery();
@@ -307,6 +394,13 @@ public class StudentModel {
 	 * @throws ApplicationException if a SQL error occurs during search
 	 */
 	public List<StudentBean> search(StudentBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+	}
+
+	/**
+	 * Runs a search on the database, without the {@link SearchCache}.
+	 */
+	private List<StudentBean> searchFromDb(StudentBean bean, int pageNo, int pageSize) throws ApplicationException {
 
 		StringBuffer sql = new StringBuffer("select * from st_student where 1 = 1");
 
@@ -345,7 +439,7 @@ public class StudentModel {
 		ArrayList<StudentBean> list = new ArrayList<StudentBean>();
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
@@ -374,4 +468,17 @@ public class StudentModel {
 		}
 		return list;
 	}
+
+	/**
+	 * Searches students on the {@link JdbcExecutor} pool.
+	 *
+	 * @param bean     StudentBean filter (null means no filter)
+	 * @param pageNo   page number (1-based)
+	 * @param pageSize number of records per page; 0 returns all matching rows
+	 * @return future completed with the matching students
+	 * @see #search(StudentBean, int, int)
+	 */
+	public CompletableFuture<List<StudentBean>> searchAsync(StudentBean bean, int pageNo, int pageSize) {
+		return JdbcExecutor.supply(() -> search(bean, pageNo, pageSize));
+	}
 }
@@ -11,7 +11,12 @@ import in.co.rays.proj4.bean.SubjectBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * SubjectModel provides CRUD and search operations for SubjectBean,
@@ -27,6 +32,10 @@ import in.co.rays.proj4.util.JDBCDataSource;
  * @version 1.0
  */
 public class SubjectModel {
+
+	/** Table of the model, whose changes {@link TableVersion} counts */
+	public static final String TABLE = "st_subject";
+
 	/**
 	 * Returns next primary key value for st_subject table.
 	 *
@@ -90,11 +99,14 @@ public class SubjectModel {
 			pstmt.setTimestamp(9, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			e.printStackTrace();
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
 			}
@@ -133,10 +145,13 @@ public class SubjectModel {
 			pstmt.setLong(9, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -161,10 +176,13 @@ public class SubjectModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit(); // End transaction
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -186,7 +204,7 @@ public class SubjectModel {
 		SubjectBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -212,6 +230,56 @@ public class SubjectModel {
 		return bean;
 	}
 
+	/**
+	 * Finds Subject records for many primary keys at once. The ids are sent in
+	 * chunked IN queries, so resolving N ids costs about
+	 * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+	 * {@link #findByPk(long)}.
+	 *
+	 * @param ids primary keys to look up; duplicates are ignored
+	 * @return map of id to {@link SubjectBean}; ids without a record are absent
+	 * @throws ApplicationException if a database error occurs
+	 */
+	public LongMap<SubjectBean> findByPks(long[] ids) throws ApplicationException {
+		long[] keys = InClause.distinct(ids);
+		LongMap<SubjectBean> map = new LongMap<SubjectBean>(keys.length);
+		if (keys.length == 0) {
+			return map;
+		}
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+				int size = InClause.chunkSize(keys.length - from);
+				PreparedStatement pstmt = conn.prepareStatement(
+						"select * from st_subject where id in (" + InClause.placeholders(size) + ")");
+				InClause.bind(pstmt, keys, from, size);
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					SubjectBean bean = new SubjectBean();
+					bean.setId(rs.getLong(1));
+					bean.setName(rs.getString(2));
+					bean.setCourseId(rs.getLong(3));
+					bean.setCourseName(rs.getString(4));
+					bean.setDescription(rs.getString(5));
+					bean.setCreatedBy(rs.getString(6));
+					bean.setModifiedBy(rs.getString(7));
+					bean.setCreatedDatetime(rs.getTimestamp(8));
+					bean.setModifiedDatetime(rs.getTimestamp(9));
+					map.put(bean.getId(), bean);
+				}
+				rs.close();
+				pstmt.close();
+			}
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting Subject by pks");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return map;
+	}
+
 	/**
 	 * Finds a subject by name.
 	 *
@@ -224,7 +292,7 @@ public class SubjectModel {
 		SubjectBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setString(1, name);
 			ResultSet rs = pstmt.executeQuery();
@@ -270,6 +338,13 @@ public class SubjectModel {
 	 * @throws ApplicationException if a SQL error occurs during search
 	 */
 	public List<SubjectBean> search(SubjectBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+	}
+
+	/**
+	 * Runs a search on the database, without the {@link SearchCache}.
+	 */
+	private List<SubjectBean> searchFromDb(SubjectBean bean, int pageNo, int pageSize) throws ApplicationException {
 		StringBuffer sql = new StringBuffer("select * from st_subject where 1=1");
 
 		if (bean != null) {
@@ -299,7 +374,7 @@ public class SubjectModel {
 		ArrayList<SubjectBean> list = new ArrayList<SubjectBean>();
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
@@ -8,9 +8,16 @@ import java.sql.SQLException;
 import in.co.rays.proj4.bean.TicketBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.TableVersion;
 
 public class TicketModel {
+
+	/** Table of the model, whose changes {@link TableVersion} counts */
+	public static final String TABLE = "ticket_booking";
+
 	public long nextPk() throws DatabaseException {
 		Connection conn = null;
 		long pk = 0;
@@ -53,10 +60,13 @@ public class TicketModel {
 			pstmt.setTimestamp(12, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (SQLException e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 				throw new ApplicationException("Exception : add rollback exception " + e.getMessage());
 			} catch (SQLException e1) {
 				throw new ApplicationException("Exception : Exception in add User");
@@ -88,10 +98,13 @@ public class TicketModel {
 			pstmt.setLong(12, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (SQLException e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 				throw new ApplicationException("Exception : add rollback exception " + e.getMessage());
 			} catch (SQLException e1) {
 				throw new ApplicationException("Exception : Exception in update User");
@@ -110,10 +123,13 @@ public class TicketModel {
 			pstmt.setString(1, bean.getUserId());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (SQLException e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 				throw new ApplicationException("Exception : add rollback exception " + e.getMessage());
 			} catch (SQLException e1) {
 				throw new ApplicationException("Exception : Exception in delete User");
@@ -127,7 +143,7 @@ public class TicketModel {
 		TicketBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement("select * from ticket_booking where user_id = ?");
 			pstmt.setString(1, userId);
 			ResultSet rs = pstmt.executeQuery();
@@ -157,7 +173,7 @@ public class TicketModel {
 		TicketBean bean = null;
 		Connection conn = null;
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement("select * from ticket_booking where id = ?");
 			pstmt.setLong(1, id);
 			ResultSet rs = pstmt.executeQuery();
@@ -182,6 +198,59 @@ public class TicketModel {
 		}
 		return bean;
 	}
+
+	/**
+	 * Finds Ticket records for many primary keys at once. The ids are sent in
+	 * chunked IN queries, so resolving N ids costs about
+	 * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+	 * {@link #findByPk(long)}.
+	 *
+	 * @param ids primary keys to look up; duplicates are ignored
+	 * @return map of id to {@link TicketBean}; ids without a record are absent
+	 * @throws ApplicationException if a database error occurs
+	 */
+	public LongMap<TicketBean> findByPks(long[] ids) throws ApplicationException {
+		long[] keys = InClause.distinct(ids);
+		LongMap<TicketBean> map = new LongMap<TicketBean>(keys.length);
+		if (keys.length == 0) {
+			return map;
+		}
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+				int size = InClause.chunkSize(keys.length - from);
+				PreparedStatement pstmt = conn.prepareStatement(
+						"select * from ticket_booking where id in (" + InClause.placeholders(size) + ")");
+				InClause.bind(pstmt, keys, from, size);
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					TicketBean bean = new TicketBean();
+					bean.setId(rs.getLong(1));
+					bean.setUserId(rs.getString(2));
+					bean.setBookingDate(rs.getDate(3));
+					bean.setSeatNo(rs.getString(4));
+					bean.setQuentity(rs.getInt(5));
+					bean.setAmount(rs.getInt(6));
+					bean.setPaymentMode(rs.getString(7));
+					bean.setBookingStatus(rs.getString(8));
+					bean.setCreatedBy(rs.getString(9));
+					bean.setModifiedBy(rs.getString(10));
+					bean.setCreatedDatetime(rs.getTimestamp(11));
+					bean.setModifiedDatetime(rs.getTimestamp(12));
+					map.put(bean.getId(), bean);
+				}
+				rs.close();
+				pstmt.close();
+			}
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting Ticket by pks");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return map;
+	}
 	
 //	public List<TicketBean> search() {
 //		
@@ -23,10 +23,18 @@ import in.co.rays.proj4.bean.TimetableBean;
 import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 public class TimetableModel {
 
+    /** Table of the model, whose changes {@link TableVersion} counts */
+    public static final String TABLE = "st_timetable";
+
     /**
      * Returns the next primary key for st_timetable.
      *
@@ -94,11 +102,14 @@ public class TimetableModel {
             pstmt.setTimestamp(13, bean.getModifiedDatetime());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
         } catch (Exception e) {
             e.printStackTrace();
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
             }
@@ -151,10 +162,13 @@ public class TimetableModel {
             pstmt.executeUpdate();
 
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
         } catch (Exception e) {
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
             }
@@ -179,11 +193,14 @@ public class TimetableModel {
             pstmt.setLong(1, bean.getId());
             pstmt.executeUpdate();
             conn.commit();
+            TableVersion.bump(TABLE);
             pstmt.close();
 
         } catch (Exception e) {
             try {
-                conn.rollback();
+                if (conn != null) {
+                    conn.rollback();
+                }
             } catch (Exception ex) {
                 throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
             }
@@ -206,7 +223,7 @@ public class TimetableModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, pk);
             ResultSet rs = pstmt.executeQuery();
@@ -236,6 +253,60 @@ public class TimetableModel {
         return bean;
     }
 
+    /**
+     * Finds Timetable records for many primary keys at once. The ids are sent in
+     * chunked IN queries, so resolving N ids costs about
+     * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+     * {@link #findByPk(long)}.
+     *
+     * @param ids primary keys to look up; duplicates are ignored
+     * @return map of id to {@link TimetableBean}; ids without a record are absent
+     * @throws ApplicationException if a database error occurs
+     */
+    public LongMap<TimetableBean> findByPks(long[] ids) throws ApplicationException {
+        long[] keys = InClause.distinct(ids);
+        LongMap<TimetableBean> map = new LongMap<TimetableBean>(keys.length);
+        if (keys.length == 0) {
+            return map;
+        }
+        Connection conn = null;
+
+        try {
+            conn = JDBCDataSource.getReadConnection();
+            for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+                int size = InClause.chunkSize(keys.length - from);
+                PreparedStatement pstmt = conn.prepareStatement(
+                        "select * from st_timetable where id in (" + InClause.placeholders(size) + ")");
+                InClause.bind(pstmt, keys, from, size);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    TimetableBean bean = new TimetableBean();
+                    bean.setId(rs.getLong(1));
+                    bean.setSemester(rs.getString(2));
+                    bean.setDescription(rs.getString(3));
+                    bean.setExamDate(rs.getDate(4));
+                    bean.setExamTime(rs.getString(5));
+                    bean.setCourseId(rs.getLong(6));
+                    bean.setCourseName(rs.getString(7));
+                    bean.setSubjectId(rs.getLong(8));
+                    bean.setSubjectName(rs.getString(9));
+                    bean.setCreatedBy(rs.getString(10));
+                    bean.setModifiedBy(rs.getString(11));
+                    bean.setCreatedDatetime(rs.getTimestamp(12));
+                    bean.setModifiedDatetime(rs.getTimestamp(13));
+                    map.put(bean.getId(), bean);
+                }
+                rs.close();
+                pstmt.close();
+            }
+        } catch (Exception e) {
+            throw new ApplicationException("Exception : Exception in getting Timetable by pks");
+        } finally {
+            JDBCDataSource.closeConnection(conn);
+        }
+        return map;
+    }
+
     /**
      * Checks if timetable exists for given course on a specific exam date.
      */
@@ -245,7 +316,7 @@ public class TimetableModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
             pstmt.setDate(2, new java.sql.Date(examDate.getTime()));
@@ -290,7 +361,7 @@ public class TimetableModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
@@ -335,7 +406,7 @@ public class TimetableModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
@@ -381,7 +452,7 @@ public class TimetableModel {
         Connection conn = null;
 
         try {
-            conn = JDBCDataSource.getConnection();
+            conn = JDBCDataSource.getReadConnection();
             PreparedStatement pstmt = conn.prepareStatement(sql.toString());
             pstmt.setLong(1, courseId);
             pstmt.setLong(2, subjectId);
@@ -437,6 +508,13 @@ public class TimetableModel {
      * @throws ApplicationException if search fails
      */
     public List<TimetableBean> search(TimetableBean bean, int pageNo, int pageSize) throws ApplicationException {
+        return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+    }
+
+    /**
+     * Runs a search on the database, without the {@link SearchCache}.
+     */
+    private List<TimetableBean> searchFromDb(TimetableBean bean, int pageNo, int pageSize) throws ApplicationException {
         StringBuffer sql = new StringBuffer("select * from st_timetable where 1=1");
 
         if (bean != null) {
@@ -477,7 +555,7 @@ public class TimetableModel {
         ArrayList<TimetableBean> list = new ArrayList<TimetableBean>();
         Connection conn = null;
         try {
-           	conn = JDBCDataSource.getConnection();
+           	conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
            	PreparedStatement pstmt = conn.prepareStatement(sql.toString());
            	ResultSet rs = pstmt.executeQuery();
            	while (rs.next()) {
@@ -6,6 +6,7 @@ import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 
 import in.co.rays.proj4.bean.UserBean;
 import in.co.rays.proj4.exception.ApplicationException;
@@ -15,7 +16,13 @@ import in.co.rays.proj4.exception.RecordNotFoundException;
 import in.co.rays.proj4.util.EmailBuilder;
 import in.co.rays.proj4.util.EmailMessage;
 import in.co.rays.proj4.util.EmailUtility;
+import in.co.rays.proj4.util.InClause;
 import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.LongMap;
+import in.co.rays.proj4.util.ProfileCache;
+import in.co.rays.proj4.util.SearchCache;
+import in.co.rays.proj4.util.TableVersion;
+import in.co.rays.proj4.util.Workload;
 
 /**
  * UserModel handles all database operations related to User entity such as add,
@@ -29,6 +36,9 @@ import in.co.rays.proj4.util.JDBCDataSource;
  */
 public class UserModel {
 
+	/** Table of the model, whose changes {@link TableVersion} counts */
+	public static final String TABLE = "st_user";
+
 	/**
 	 * Returns the next primary key for User table.
 	 *
@@ -97,10 +107,13 @@ public class UserModel {
 			pstmt.setTimestamp(13, bean.getModifiedDatetime());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				ex.printStackTrace();
 				throw new ApplicationException("Exception : add rollback exception " + ex.getMessage());
@@ -130,6 +143,8 @@ public class UserModel {
 			throw new DuplicateRecordException("Login Id is already exist");
 		}
 
+		UserBean old = beanExist != null ? beanExist : findByPk(bean.getId());
+
 		try {
 			conn = JDBCDataSource.getConnection();
 			conn.setAutoCommit(false);
@@ -150,11 +165,15 @@ public class UserModel {
 			pstmt.setLong(13, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
+			ProfileCache.removeUser(bean.getId());
 		} catch (Exception e) {
 			e.printStackTrace();
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -162,6 +181,83 @@ public class UserModel {
 		} finally {
 			JDBCDataSource.closeConnection(conn);
 		}
+
+		// a new password or role signs the user out of every stateless session
+		if (old != null && (old.getRoleId() != bean.getRoleId()
+				|| !Objects.equals(old.getPassword(), bean.getPassword()))) {
+			revokeTokens(bean.getId());
+		}
+	}
+
+	/**
+	 * Returns the generation of a user's sign in tokens. Read from the
+	 * primary, so that a revocation is seen at once.
+	 *
+	 * @param id the user ID
+	 * @return the generation, 0 if the tokens were never revoked
+	 * @throws ApplicationException if an application-level exception occurs
+	 */
+	public long getTokenGeneration(long id) throws ApplicationException {
+
+		long generation = 0;
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getPrimaryReadConnection();
+			PreparedStatement pstmt = conn.prepareStatement("select generation from st_user_token where user_id = ?");
+			pstmt.setLong(1, id);
+			ResultSet rs = pstmt.executeQuery();
+			if (rs.next()) {
+				generation = rs.getLong(1);
+			}
+			rs.close();
+			pstmt.close();
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting token generation");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return generation;
+	}
+
+	/**
+	 * Revokes every sign in token issued to a user so far, by raising the
+	 * generation of the user's tokens.
+	 *
+	 * @param id the user ID
+	 * @throws ApplicationException if an application-level exception occurs
+	 */
+	public void revokeTokens(long id) throws ApplicationException {
+
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getConnection();
+			conn.setAutoCommit(false);
+			PreparedStatement pstmt = conn
+					.prepareStatement("update st_user_token set generation = generation + 1 where user_id = ?");
+			pstmt.setLong(1, id);
+			if (pstmt.executeUpdate() == 0) {
+				pstmt.close();
+				pstmt = conn.prepareStatement("insert into st_user_token values(?, 1)");
+				pstmt.setLong(1, id);
+				pstmt.executeUpdate();
+			}
+			conn.commit();
+			pstmt.close();
+			ProfileCache.removeUser(id);
+		} catch (Exception e) {
+			try {
+				if (conn != null) {
+					conn.rollback();
+				}
+			} catch (Exception ex) {
+				throw new ApplicationException("Exception : Revoke rollback exception " + ex.getMessage());
+			}
+			throw new ApplicationException("Exception : Exception in revoking tokens");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
 	}
 
 	/**
@@ -181,10 +277,14 @@ public class UserModel {
 			pstmt.setLong(1, bean.getId());
 			pstmt.executeUpdate();
 			conn.commit();
+			TableVersion.bump(TABLE);
 			pstmt.close();
+			ProfileCache.removeUser(bean.getId());
 		} catch (Exception e) {
 			try {
-				conn.rollback();
+				if (conn != null) {
+					conn.rollback();
+				}
 			} catch (Exception ex) {
 				throw new ApplicationException("Exception : Delete rollback exception " + ex.getMessage());
 			}
@@ -209,7 +309,7 @@ public class UserModel {
 		StringBuffer sql = new StringBuffer("select * from st_user where id = ?");
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setLong(1, pk);
 			ResultSet rs = pstmt.executeQuery();
@@ -240,6 +340,60 @@ public class UserModel {
 		return bean;
 	}
 
+	/**
+	 * Finds User records for many primary keys at once. The ids are sent in
+	 * chunked IN queries, so resolving N ids costs about
+	 * N / {@link InClause#CHUNK_SIZE} round trips instead of N calls to
+	 * {@link #findByPk(long)}.
+	 *
+	 * @param ids primary keys to look up; duplicates are ignored
+	 * @return map of id to {@link UserBean}; ids without a record are absent
+	 * @throws ApplicationException if a database error occurs
+	 */
+	public LongMap<UserBean> findByPks(long[] ids) throws ApplicationException {
+		long[] keys = InClause.distinct(ids);
+		LongMap<UserBean> map = new LongMap<UserBean>(keys.length);
+		if (keys.length == 0) {
+			return map;
+		}
+		Connection conn = null;
+
+		try {
+			conn = JDBCDataSource.getReadConnection();
+			for (int from = 0; from < keys.length; from += InClause.CHUNK_SIZE) {
+				int size = InClause.chunkSize(keys.length - from);
+				PreparedStatement pstmt = conn.prepareStatement(
+						"select * from st_user where id in (" + InClause.placeholders(size) + ")");
+				InClause.bind(pstmt, keys, from, size);
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					UserBean bean = new UserBean();
+					bean.setId(rs.getLong(1));
+					bean.setFirstName(rs.getString(2));
+					bean.setLastName(rs.getString(3));
+					bean.setLogin(rs.getString(4));
+					bean.setPassword(rs.getString(5));
+					bean.setDob(rs.getDate(6));
+					bean.setMobileNo(rs.getString(7));
+					bean.setRoleId(rs.getLong(8));
+					bean.setGender(rs.getString(9));
+					bean.setCreatedBy(rs.getString(10));
+					bean.setModifiedBy(rs.getString(11));
+					bean.setCreatedDatetime(rs.getTimestamp(12));
+					bean.setModifiedDatetime(rs.getTimestamp(13));
+					map.put(bean.getId(), bean);
+				}
+				rs.close();
+				pstmt.close();
+			}
+		} catch (Exception e) {
+			throw new ApplicationException("Exception : Exception in getting User by pks");
+		} finally {
+			JDBCDataSource.closeConnection(conn);
+		}
+		return map;
+	}
+
 	/**
 	 * Finds a user by login ID.
 	 *
@@ -255,7 +409,7 @@ public class UserModel {
 		Connection conn = null;
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setString(1, login);
 			ResultSet rs = pstmt.executeQuery();
@@ -302,7 +456,7 @@ public class UserModel {
 		StringBuffer sql = new StringBuffer("select * from st_user where login = ? and password = ?");
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection();
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			pstmt.setString(1, login);
 			pstmt.setString(2, password);
@@ -347,6 +501,13 @@ public class UserModel {
 	 * @throws ApplicationException if an application-level exception occurs
 	 */
 	public List<UserBean> search(UserBean bean, int pageNo, int pageSize) throws ApplicationException {
+		return SearchCache.search(TABLE, bean, pageNo, pageSize, () -> searchFromDb(bean, pageNo, pageSize));
+	}
+
+	/**
+	 * Runs a search on the database, without the {@link SearchCache}.
+	 */
+	private List<UserBean> searchFromDb(UserBean bean, int pageNo, int pageSize) throws ApplicationException {
 
 		Connection conn = null;
 		ArrayList<UserBean> list = new ArrayList<UserBean>();
@@ -389,7 +550,7 @@ public class UserModel {
 		}
 
 		try {
-			conn = JDBCDataSource.getConnection();
+			conn = JDBCDataSource.getReadConnection(Workload.ofSearch(pageSize));
 			PreparedStatement pstmt = conn.prepareStatement(sql.toString());
 			ResultSet rs = pstmt.executeQuery();
 			while (rs.next()) {
@@ -420,7 +581,8 @@ public class UserModel {
 	}
 
 	/**
-	 * Changes the password of a user.
+	 * Changes the password of a user. The confirmation email is sent in the
+	 * background.
 	 *
 	 * @param id          the user ID
 	 * @param oldPassword the current password
@@ -462,7 +624,7 @@ public class UserModel {
 		msg.setMessage(message);
 		msg.setMessageType(EmailMessage.HTML_MSG);
 
-		EmailUtility.sendMail(msg);
+		EmailUtility.sendMailAsync(msg);
 
 		return flag;
 	}
@@ -508,7 +670,7 @@ public class UserModel {
 	}
 
 	/**
-	 * Registers a new user and sends confirmation email.
+	 * Registers a new user and sends confirmation email in the background.
 	 *
 	 * @param bean the UserBean containing user details
 	 * @return primary key of the newly registered user
@@ -532,7 +694,7 @@ public class UserModel {
 		msg.setMessage(message);
 		msg.setMessageType(EmailMessage.HTML_MSG);
 
-		EmailUtility.sendMail(msg);
+		EmailUtility.sendMailAsync(msg);
 
 		return pk;
 	}
@@ -0,0 +1,100 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PoolStats;
+
+/**
+ * Manual check of query timeouts and the circuit breaker.
+ *
+ * <p>
+ * testTimeout runs a statement that takes longer than
+ * {@code query.timeout.interactive}; it must fail after about that many
+ * seconds. The statement is {@code select sleep(60)} for MySQL, or the value
+ * of {@code -Dslow.sql}.
+ * </p>
+ *
+ * <p>
+ * testBreaker runs a query in a loop on 24 threads for the number of
+ * seconds given as the first argument (default 60) and prints, every half
+ * second, how many queries succeeded and failed, the slowest one and the
+ * state of the breaker. Stop the database while it runs: while the pool
+ * waits for connections the queries fail slowly, then the breaker opens and
+ * they fail at once; start it again and the breaker goes half-open and
+ * closes.
+ * </p>
+ */
+public class TestCircuitBreaker {
+
+	public static void main(String[] args) throws Exception {
+
+		testTimeout();
+		testBreaker(args.length > 0 ? Integer.parseInt(args[0]) : 60);
+		System.exit(0);
+	}
+
+	public static void testTimeout() {
+
+		String sql = System.getProperty("slow.sql", "select sleep(60)");
+		long start = System.currentTimeMillis();
+		try (Connection conn = JDBCDataSource.getReadConnection();
+				Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery(sql)) {
+			System.out.println("slow query finished, timeout not applied");
+		} catch (Exception e) {
+			System.out.println("slow query cancelled after " + (System.currentTimeMillis() - start) + " ms: "
+					+ e.getClass().getSimpleName());
+		}
+	}
+
+	public static void testBreaker(int seconds) throws Exception {
+
+		final long end = System.currentTimeMillis() + seconds * 1000L;
+		final AtomicLong ok = new AtomicLong();
+		final AtomicLong failed = new AtomicLong();
+		final AtomicLong slowest = new AtomicLong();
+		final AtomicReference<String> error = new AtomicReference<String>("");
+
+		for (int i = 0; i < 24; i++) {
+			Thread t = new Thread(new Runnable() {
+				public void run() {
+					while (System.currentTimeMillis() < end) {
+						long start = System.currentTimeMillis();
+						try (Connection conn = JDBCDataSource.getReadConnection();
+								Statement stmt = conn.createStatement();
+								ResultSet rs = stmt.executeQuery("select 1")) {
+							rs.next();
+							ok.incrementAndGet();
+						} catch (Exception e) {
+							failed.incrementAndGet();
+							error.set(e.getMessage());
+						}
+						slowest.accumulateAndGet(System.currentTimeMillis() - start, Math::max);
+						try {
+							Thread.sleep(50);
+						} catch (InterruptedException e) {
+							return;
+						}
+					}
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+
+		while (System.currentTimeMillis() < end) {
+			Thread.sleep(500);
+			String e = error.getAndSet("");
+			System.out.printf("%s ok=%4d failed=%4d slowest=%5d ms breaker=%-9s %s%n", LocalTime.now(),
+					ok.getAndSet(0), failed.getAndSet(0), slowest.getAndSet(0), JDBCDataSource.getStats()
+							.getBreaker(), e.length() > 70 ? e.substring(0, 70) : e);
+		}
+		System.out.println(JDBCDataSource.getStats());
+	}
+}
@@ -0,0 +1,97 @@
+package in.co.rays.proj4.test;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import in.co.rays.proj4.util.ConcurrencyLimiter;
+import in.co.rays.proj4.util.ConcurrencyLimiter.Priority;
+
+/**
+ * Manual check of the admission limit. A semaphore of 30 permits stands in
+ * for the connection pool and each request holds a permit for 20 ms. 400
+ * threads send lookups and four threads send high priority requests, each
+ * waiting 100 ms after a refusal. Every second the program prints the limit
+ * and, per priority, the requests that completed, were refused and their mean
+ * time. The limit should settle near what the pool can serve, the lookups
+ * should take the refusals, and the high priority requests should go through
+ * with little delay. The first argument, if any, is the number of seconds to
+ * run (default 15).
+ */
+public class TestConcurrencyLimiter {
+
+	private static final Semaphore POOL = new Semaphore(30, true);
+
+	private static final ConcurrencyLimiter LIMITER = ConcurrencyLimiter.getInstance();
+
+	public static void main(String[] args) throws Exception {
+
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+		long end = System.currentTimeMillis() + seconds * 1000L;
+
+		AtomicLong[] done = { new AtomicLong(), new AtomicLong() };
+		AtomicLong[] refused = { new AtomicLong(), new AtomicLong() };
+		AtomicLong[] nanos = { new AtomicLong(), new AtomicLong() };
+
+		for (int i = 0; i < 404; i++) {
+			final int k = i < 4 ? 0 : 1;
+			final Priority priority = k == 0 ? Priority.HIGH : Priority.LOOKUP;
+			Thread t = new Thread(() -> {
+				while (System.currentTimeMillis() < end) {
+					long start = System.nanoTime();
+					if (!LIMITER.acquire(priority)) {
+						refused[k].incrementAndGet();
+						sleep(100);
+						continue;
+					}
+					try {
+						request();
+					} finally {
+						LIMITER.release();
+					}
+					done[k].incrementAndGet();
+					nanos[k].addAndGet(System.nanoTime() - start);
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+
+		while (System.currentTimeMillis() < end) {
+			Thread.sleep(1000);
+			StringBuilder sb = new StringBuilder("limit=" + LIMITER.getLimit());
+			for (int k = 0; k < 2; k++) {
+				long n = done[k].getAndSet(0);
+				long t = nanos[k].getAndSet(0);
+				sb.append(k == 0 ? "  high" : "  lookup").append(" done=").append(n).append(" refused=")
+						.append(refused[k].getAndSet(0)).append(" mean=").append(n == 0 ? 0 : t / n / 1000000)
+						.append(" ms");
+			}
+			System.out.println(sb);
+		}
+		System.out.println(LIMITER);
+		System.exit(0);
+	}
+
+	/**
+	 * Checks out a permit of the pool, reporting the wait, and holds it for
+	 * 20 ms.
+	 */
+	private static void request() {
+		long start = System.nanoTime();
+		POOL.acquireUninterruptibly();
+		ConcurrencyLimiter.sample(System.nanoTime() - start, false);
+		try {
+			sleep(20);
+		} finally {
+			POOL.release();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
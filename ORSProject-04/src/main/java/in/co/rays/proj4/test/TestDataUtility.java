@@ -0,0 +1,125 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import in.co.rays.proj4.util.DataUtility;
+
+/**
+ * Checks DataUtility's date parsing and formatting, alone and from many
+ * threads at once. Every thread parses and formats its own random dates and
+ * compares the results with values computed independently; any difference is
+ * counted as an error. For comparison the same run is made against one shared
+ * SimpleDateFormat, which is how DataUtility used to work.
+ *
+ * <pre>
+ * java -cp ... in.co.rays.proj4.test.TestDataUtility 16 100000
+ * </pre>
+ *
+ * Exits with status 1 if DataUtility gave a wrong answer.
+ */
+public class TestDataUtility {
+
+	public static void main(String[] args) throws Exception {
+
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+
+		long errors = testParse();
+
+		long concurrent = testConcurrent(threads, iterations, false);
+		System.out.println("DataUtility, " + threads + " threads : " + concurrent + " errors");
+
+		long legacy = testConcurrent(threads, iterations / 10, true);
+		System.out.println("shared SimpleDateFormat    : " + legacy + " errors (for comparison)");
+
+		System.exit(errors + concurrent == 0 ? 0 : 1);
+	}
+
+	public static long testParse() {
+		long errors = 0;
+		errors += check("valid date", DataUtility.getLocalDate("15-08-2023"), LocalDate.of(2023, 8, 15));
+		errors += check("surrounding spaces", DataUtility.getLocalDate(" 15-08-2023 "), LocalDate.of(2023, 8, 15));
+		errors += check("single digits", DataUtility.getLocalDate("5-8-2023"), LocalDate.of(2023, 8, 5));
+		errors += check("leap day", DataUtility.getLocalDate("29-02-2024"), LocalDate.of(2024, 2, 29));
+		errors += check("not a leap year", DataUtility.getLocalDate("29-02-2023"), null);
+		errors += check("day out of range", DataUtility.getLocalDate("32-01-2023"), null);
+		errors += check("month out of range", DataUtility.getLocalDate("15-13-2023"), null);
+		errors += check("wrong shape", DataUtility.getLocalDate("2023/08/15"), null);
+		errors += check("trailing text", DataUtility.getLocalDate("15-08-2023x"), null);
+		errors += check("empty", DataUtility.getLocalDate(""), null);
+		errors += check("null", DataUtility.getLocalDate(null), null);
+		errors += check("timestamp", DataUtility.getLocalDateTime("15-08-2023 10:30:45"),
+				LocalDateTime.of(2023, 8, 15, 10, 30, 45));
+		errors += check("bad hour", DataUtility.getLocalDateTime("15-08-2023 24:30:45"), null);
+		errors += check("Date round trip", DataUtility.getDateString(DataUtility.getDate("01-01-2000")), "01-01-2000");
+		errors += check("sql.Date", DataUtility.getDateString(java.sql.Date.valueOf("2023-08-15")), "15-08-2023");
+		errors += check("null Date", DataUtility.getDateString((Date) null), "");
+		errors += check("Timestamp", DataUtility.getTimestamp("15-08-2023 10:30:45"),
+				Timestamp.valueOf("2023-08-15 10:30:45"));
+		System.out.println("single thread             : " + errors + " errors");
+		return errors;
+	}
+
+	public static long testConcurrent(int threads, final int iterations, final boolean legacy)
+			throws InterruptedException {
+
+		final SimpleDateFormat shared = new SimpleDateFormat(DataUtility.APP_DATE_FORMAT);
+		final AtomicLong errors = new AtomicLong();
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+
+		for (int t = 0; t < threads; t++) {
+			new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+					for (int i = 0; i < iterations; i++) {
+						LocalDate expected = LocalDate.ofEpochDay(random.nextLong(-20000, 40000));
+						String text = String.format("%02d-%02d-%04d", expected.getDayOfMonth(),
+								expected.getMonthValue(), expected.getYear());
+						Date parsed;
+						String formatted;
+						if (legacy) {
+							try {
+								parsed = shared.parse(text);
+								formatted = shared.format(parsed);
+							} catch (Exception e) {
+								errors.incrementAndGet();
+								continue;
+							}
+						} else {
+							parsed = DataUtility.getDate(text);
+							formatted = DataUtility.getDateString(parsed);
+						}
+						if (!text.equals(formatted)) {
+							errors.incrementAndGet();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					done.countDown();
+				}
+			}).start();
+		}
+
+		start.countDown();
+		done.await();
+		return errors.get();
+	}
+
+	private static int check(String name, Object actual, Object expected) {
+		boolean ok = expected == null ? actual == null : expected.equals(actual);
+		if (!ok) {
+			System.out.println("FAILED " + name + ": expected " + expected + " but was " + actual);
+		}
+		return ok ? 0 : 1;
+	}
+}
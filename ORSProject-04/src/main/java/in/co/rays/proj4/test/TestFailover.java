@@ -0,0 +1,56 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalTime;
+
+import in.co.rays.proj4.util.DatabaseHosts;
+import in.co.rays.proj4.util.JDBCDataSource;
+
+/**
+ * Manual check of primary failover. Start two MySQL servers with the
+ * project04 schema, for example on ports 3306 and 3307, and run
+ *
+ * <pre>
+ * java -Ddb.failover.urls=jdbc:mysql://localhost:3306/project04,jdbc:mysql://localhost:3307/project04 \
+ *      in.co.rays.proj4.test.TestFailover
+ * </pre>
+ *
+ * The program runs a query on the primary every half second and prints the
+ * host it ran on. Stop the first server: after a few failed queries the
+ * queries move to the second one. Start it again: once it has passed its
+ * checks they move back. The host state and the switches are printed at the
+ * end. The first argument, if any, is the number of seconds to run (default
+ * 60).
+ */
+public class TestFailover {
+
+	public static void main(String[] args) throws Exception {
+
+		int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+		DatabaseHosts hosts = JDBCDataSource.getHosts();
+		if (hosts == null) {
+			System.out.println("Set url.failover or -Ddb.failover.urls to two or more hosts");
+			return;
+		}
+
+		long end = System.currentTimeMillis() + seconds * 1000L;
+		while (System.currentTimeMillis() < end) {
+			String result;
+			try (Connection conn = JDBCDataSource.getConnection();
+					Statement stmt = conn.createStatement();
+					ResultSet rs = stmt.executeQuery("select 1")) {
+				rs.next();
+				result = "ok     " + conn.getMetaData().getURL();
+			} catch (Exception e) {
+				result = "failed " + e.getMessage();
+			}
+			System.out.println(LocalTime.now() + " " + result);
+			Thread.sleep(500);
+		}
+
+		System.out.println(hosts);
+		System.exit(0);
+	}
+}
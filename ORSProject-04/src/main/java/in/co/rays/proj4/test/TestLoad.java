@@ -0,0 +1,139 @@
+package in.co.rays.proj4.test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import in.co.rays.proj4.util.ThreadPools;
+
+/**
+ * Simple closed-loop load driver used to compare the default war with the
+ * one built by the java21 (virtual thread) profile against a running server.
+ * It signs in once, then every simulated user requests the pages in turn
+ * until the duration is over, and prints throughput and latency percentiles.
+ *
+ * <pre>
+ * java -cp ... in.co.rays.proj4.test.TestLoad http://localhost:8080/ORSProject-04 admin@gmail.com pass 1000 60
+ * </pre>
+ *
+ * Run it with {@code -Dthreads.virtual=true} on Java 21 so that 1000+ users
+ * do not need 1000+ platform threads in the driver itself.
+ */
+public class TestLoad {
+
+	private static final List<String> PAGES = Arrays.asList("/ctl/StudentListCtl", "/ctl/MarksheetMeritListCtl",
+			"/ctl/FacultyCtl", "/ctl/TimetableCtl");
+
+	public static void main(String[] args) throws Exception {
+
+		String base = args.length > 0 ? args[0] : "http://localhost:8080/ORSProject-04";
+		String login = args.length > 1 ? args[1] : "admin@gmail.com";
+		String password = args.length > 2 ? args[2] : "admin";
+		int users = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+		int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+		String cookie = signIn(client, base, login, password);
+		System.out.println("Signed in, session " + cookie);
+
+		final long[][] latencies = new long[users][];
+		final int[] counts = new int[users];
+		final AtomicLong errors = new AtomicLong();
+		final long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+		ExecutorService executor = ThreadPools.newBoundedExecutor("load", users, 0, false);
+		CountDownLatch done = new CountDownLatch(users);
+
+		long start = System.nanoTime();
+
+		for (int u = 0; u < users; u++) {
+			final int user = u;
+			executor.execute(() -> {
+				long[] times = new long[1024];
+				int n = 0;
+				try {
+					while (System.nanoTime() < end) {
+						String page = PAGES.get((user + n) % PAGES.size());
+						HttpRequest request = HttpRequest.newBuilder(URI.create(base + page))
+								.header("Cookie", cookie).timeout(Duration.ofSeconds(30)).GET().build();
+						long t = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() >= 400) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						if (n == times.length) {
+							times = Arrays.copyOf(times, n * 2);
+						}
+						times[n++] = System.nanoTime() - t;
+					}
+				} finally {
+					latencies[user] = times;
+					counts[user] = n;
+					done.countDown();
+				}
+			});
+		}
+
+		done.await();
+		double elapsed = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+
+		int total = 0;
+		for (int c : counts) {
+			total += c;
+		}
+		long[] all = new long[total];
+		int k = 0;
+		for (int u = 0; u < users; u++) {
+			System.arraycopy(latencies[u], 0, all, k, counts[u]);
+			k += counts[u];
+		}
+		Arrays.sort(all);
+
+		System.out.println("Threads     : " + (ThreadPools.isVirtual() ? "virtual" : "platform"));
+		System.out.println("Users       : " + users);
+		System.out.println("Requests    : " + total + " (" + errors.get() + " errors)");
+		System.out.printf("Throughput  : %.1f req/s%n", total / elapsed);
+		System.out.printf("p50 / p99   : %.1f / %.1f ms%n", percentile(all, 50), percentile(all, 99));
+		System.out.printf("max         : %.1f ms%n", total == 0 ? 0 : all[total - 1] / 1e6);
+	}
+
+	private static String signIn(HttpClient client, String base, String login, String password) throws Exception {
+
+		String form = "login=" + URLEncoder.encode(login, StandardCharsets.UTF_8) + "&password="
+				+ URLEncoder.encode(password, StandardCharsets.UTF_8) + "&operation="
+				+ URLEncoder.encode("Sign In", StandardCharsets.UTF_8);
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/LoginCtl"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form)).build();
+
+		HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+		String cookie = response.headers().firstValue("Set-Cookie").orElse("");
+		int semi = cookie.indexOf(';');
+		return semi > 0 ? cookie.substring(0, semi) : cookie;
+	}
+
+	private static double percentile(long[] sorted, int p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, i)] / 1e6;
+	}
+}
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import in.co.rays.proj4.bean.MarksheetBean;
 import in.co.rays.proj4.exception.ApplicationException;
@@ -23,6 +24,7 @@ public class TestMarksheetModel {
 //		testUpdate();
 //		testFindByPk();
 //		testFindByRollNo();
+//		testFindByRollNos();
 //		testSearch();
 //		testList();
 //		testNextPk();
@@ -92,6 +94,19 @@ public class TestMarksheetModel {
 		}
 	}
 
+	public static void testFindByRollNos() {
+		try {
+			Map<String, MarksheetBean> map = model.findByRollNos(new String[] { "200303105216", "200303105211", "NOPE" });
+			System.out.println("Found " + map.size() + " marksheets");
+			for (MarksheetBean b : map.values()) {
+				System.out.print("Roll No. : " + b.getRollNo() + "\t");
+				System.out.println("Name : " + b.getName());
+			}
+		} catch (ApplicationException e) {
+			e.printStackTrace();
+		}
+	}
+
 	public static void testFindByPk() {
 		try {
 			bean = model.findByPk(2);
@@ -0,0 +1,70 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PoolStats;
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * Manual check that a saturated pool does not trip the circuit breaker.
+ *
+ * <p>
+ * Run it against a live database. It starts three threads per connection
+ * the pool may open ({@code maxpoolsize}); each checks out a connection,
+ * holds it for twice {@code pool.checkout.timeout} and gives it back, for
+ * the number of seconds given as the first argument (default 30). Most
+ * checkouts then time out waiting for a busy connection. The timeouts must
+ * be counted, but the breaker must stay closed with no trips: the database
+ * answered every connection the pool opened.
+ * </p>
+ */
+public class TestPoolSaturation {
+
+	public static void main(String[] args) throws Exception {
+
+		testSaturation(args.length > 0 ? Integer.parseInt(args[0]) : 30);
+		System.exit(0);
+	}
+
+	public static void testSaturation(int seconds) throws Exception {
+
+		PoolStats before = JDBCDataSource.getStats();
+		final long hold = 2 * SystemConfig.getLong("pool.checkout.timeout", 5000);
+		final long end = System.currentTimeMillis() + seconds * 1000L;
+		final AtomicLong ok = new AtomicLong();
+		final AtomicLong failed = new AtomicLong();
+
+		for (int i = 0; i < 3 * before.getLimit(); i++) {
+			Thread t = new Thread(new Runnable() {
+				public void run() {
+					while (System.currentTimeMillis() < end) {
+						try (Connection conn = JDBCDataSource.getConnection()) {
+							ok.incrementAndGet();
+							Thread.sleep(hold);
+						} catch (InterruptedException e) {
+							return;
+						} catch (Exception e) {
+							failed.incrementAndGet();
+						}
+					}
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+
+		while (System.currentTimeMillis() < end) {
+			Thread.sleep(1000);
+			PoolStats stats = JDBCDataSource.getStats();
+			System.out.printf("ok=%5d failed=%5d active=%3d waiting=%3d breaker=%s%n", ok.get(), failed.get(),
+					stats.getActive(), stats.getWaiting(), stats.getBreaker());
+		}
+
+		PoolStats after = JDBCDataSource.getStats();
+		System.out.println("timeouts: " + (after.getTimeouts() - before.getTimeouts()) + " (expect more than 0)");
+		System.out.println("breaker: " + after.getBreaker() + " (expect closed), trips: "
+				+ (after.getTrips() - before.getTrips()) + " (expect 0)");
+	}
+}
@@ -0,0 +1,77 @@
+package in.co.rays.proj4.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import in.co.rays.proj4.util.RateLimiter;
+
+/**
+ * Manual check of the rate limits, with the {@code ratelimit.login.ip}
+ * settings of system.properties (60 per minute, burst 20).
+ *
+ * <p>
+ * testBurst takes 30 tokens at once for one address: the first 20 must go
+ * through. testConcurrent lets 16 threads take tokens for one address for
+ * three seconds: no more than the burst plus three seconds of refill may go
+ * through. testKeys takes a token for 10000 addresses and prints the number
+ * of buckets held and the counters.
+ * </p>
+ */
+public class TestRateLimiter {
+
+	public static void main(String[] args) throws Exception {
+
+		testBurst();
+		testConcurrent();
+		testKeys();
+	}
+
+	public static void testBurst() {
+
+		RateLimiter limiter = RateLimiter.get("login.ip");
+		int allowed = 0;
+		long wait = 0;
+		for (int i = 0; i < 30; i++) {
+			wait = limiter.acquire("10.0.0.1");
+			if (wait == 0) {
+				allowed++;
+			}
+		}
+		System.out.println("burst: " + allowed + " of 30 allowed, next token in " + wait + " ms");
+	}
+
+	public static void testConcurrent() throws Exception {
+
+		final RateLimiter limiter = RateLimiter.get("login.ip");
+		final long end = System.currentTimeMillis() + 3000;
+		final AtomicInteger allowed = new AtomicInteger();
+		final AtomicInteger refused = new AtomicInteger();
+
+		Thread[] threads = new Thread[16];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				while (System.currentTimeMillis() < end) {
+					if (limiter.acquire("10.0.0.2") == 0) {
+						allowed.incrementAndGet();
+					} else {
+						refused.incrementAndGet();
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		System.out.println("concurrent: " + allowed + " allowed, " + refused + " refused in 3 s (expect 23)");
+	}
+
+	public static void testKeys() {
+
+		RateLimiter limiter = RateLimiter.get("login.ip");
+		for (int i = 0; i < 10000; i++) {
+			limiter.acquire("10.1." + (i / 256) + "." + (i % 256));
+		}
+		System.out.println("keys: " + limiter.getBuckets() + " buckets");
+		System.out.print(RateLimiter.report());
+	}
+}
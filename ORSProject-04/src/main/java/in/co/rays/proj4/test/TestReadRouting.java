@@ -0,0 +1,67 @@
+package in.co.rays.proj4.test;
+
+import java.sql.Timestamp;
+
+import in.co.rays.proj4.bean.CollegeBean;
+import in.co.rays.proj4.model.CollegeModel;
+import in.co.rays.proj4.util.JDBCDataSource;
+import in.co.rays.proj4.util.PoolStats;
+import in.co.rays.proj4.util.UnitOfWork;
+
+/**
+ * Manual check of read/write routing against two database instances that do
+ * not replicate, so that it is visible where each query went. Start a second
+ * MySQL with the project04 schema, for example on port 3307, and run
+ *
+ * <pre>
+ * java -Ddb.replica.urls=jdbc:mysql://localhost:3307/project04 in.co.rays.proj4.test.TestReadRouting
+ * </pre>
+ *
+ * A college is added on the primary; inside the unit of work that wrote it,
+ * it is read back from the primary, outside it the read goes to the replica,
+ * which does not have it. The college is deleted before the program ends.
+ */
+public class TestReadRouting {
+
+	static CollegeModel model = new CollegeModel();
+
+	public static void main(String[] args) throws Exception {
+
+		String name = "Routing Test " + System.currentTimeMillis();
+		CollegeBean bean = new CollegeBean();
+		bean.setName(name);
+		bean.setAddress("Test Address");
+		bean.setState("Test State");
+		bean.setCity("Test City");
+		bean.setPhoneNo("9999999999");
+		bean.setCreatedBy("test");
+		bean.setModifiedBy("test");
+		bean.setCreatedDatetime(new Timestamp(System.currentTimeMillis()));
+		bean.setModifiedDatetime(new Timestamp(System.currentTimeMillis()));
+
+		UnitOfWork.begin(false);
+		try {
+			System.out.println("read before write   : " + (model.findByName(name) != null) + " (replica)");
+			bean.setId(model.add(bean));
+			System.out.println("read after write    : " + (model.findByName(name) != null) + " (primary)");
+		} finally {
+			UnitOfWork.end();
+		}
+
+		System.out.println("read in a new unit  : " + (model.findByName(name) != null) + " (replica)");
+		System.out.println("paged search        : " + model.search(null, 1, 5).size() + " rows (replica)");
+
+		UnitOfWork.begin(true);
+		try {
+			model.delete(bean);
+			System.out.println("deleted on primary  : " + (model.findByName(name) == null));
+		} finally {
+			UnitOfWork.end();
+		}
+
+		for (PoolStats stats : JDBCDataSource.getAllStats()) {
+			System.out.println(stats.getName() + " up=" + stats.isUp() + " checkouts=" + stats.getCheckouts());
+		}
+		System.exit(0);
+	}
+}
@@ -0,0 +1,108 @@
+package in.co.rays.proj4.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.SingleFlight;
+
+/**
+ * Manual check of the single-flight lookups, without a database.
+ *
+ * <p>
+ * testShared starts 50 threads on the same key at once, with a lookup that
+ * takes 200 ms: it must run once, and every thread must get its result.
+ * testFailure does the same with a lookup that fails: every thread must get
+ * the exception. testKeys runs two keys at once: each must run once.
+ * </p>
+ */
+public class TestSingleFlight {
+
+	public static void main(String[] args) throws Exception {
+
+		testShared();
+		testFailure();
+		testKeys();
+		System.out.print(SingleFlight.report());
+	}
+
+	public static void testShared() throws Exception {
+
+		final AtomicInteger runs = new AtomicInteger();
+		final AtomicInteger results = new AtomicInteger();
+		run(50, i -> {
+			String result = SingleFlight.execute("test.shared", "1", () -> {
+				runs.incrementAndGet();
+				pause();
+				return "merit";
+			});
+			if ("merit".equals(result)) {
+				results.incrementAndGet();
+			}
+		});
+		System.out.println("shared: " + runs + " run (expect 1), " + results + " of 50 results");
+	}
+
+	public static void testFailure() throws Exception {
+
+		final AtomicInteger runs = new AtomicInteger();
+		final AtomicInteger failures = new AtomicInteger();
+		run(50, i -> {
+			try {
+				SingleFlight.execute("test.failure", "1", () -> {
+					runs.incrementAndGet();
+					pause();
+					throw new ApplicationException("lookup failed");
+				});
+			} catch (ApplicationException e) {
+				failures.incrementAndGet();
+			}
+		});
+		System.out.println("failure: " + runs + " run (expect 1), " + failures + " of 50 failed");
+	}
+
+	public static void testKeys() throws Exception {
+
+		final AtomicInteger runs = new AtomicInteger();
+		run(20, i -> SingleFlight.execute("test.keys", String.valueOf(i % 2), () -> {
+			runs.incrementAndGet();
+			pause();
+			return i % 2;
+		}));
+		System.out.println("keys: " + runs + " run (expect 2)");
+	}
+
+	private static void pause() {
+		try {
+			Thread.sleep(200);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private interface Task {
+		void run(int i) throws Exception;
+	}
+
+	private static void run(int n, final Task task) throws Exception {
+
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[n];
+		for (int i = 0; i < n; i++) {
+			final int index = i;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+					task.run(index);
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread t : threads) {
+			t.join();
+		}
+	}
+}
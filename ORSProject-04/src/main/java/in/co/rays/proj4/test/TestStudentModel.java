@@ -13,10 +13,24 @@ import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.exception.DatabaseException;
 import in.co.rays.proj4.exception.DuplicateRecordException;
 import in.co.rays.proj4.model.StudentModel;
+import in.co.rays.proj4.util.LongMap;
 
 public class TestStudentModel {
 	static StudentModel model = new StudentModel();
 
+	public static void testFindByPks() {
+		try {
+			LongMap<StudentBean> map = model.findByPks(new long[] { 1, 2, 3, 2, 999 });
+			System.out.println("Found " + map.size() + " students");
+			for (StudentBean bean : map.values()) {
+				System.out.print("Id : " + bean.getId() + "\t");
+				System.out.println("Name : " + bean.getFirstName() + " " + bean.getLastName());
+			}
+		} catch (ApplicationException e) {
+			e.printStackTrace();
+		}
+	}
+
 	public static void main(String[] args) {
 //		testNextPk();
 //		testAdd();
@@ -24,6 +38,7 @@ public class TestStudentModel {
 //		testUpdate();
 //		testFindByPk();
 //		testFindByEmail();
+//		testFindByPks();
 //		testSearch();
 //		testList();
 //		testNextPk();
@@ -0,0 +1,74 @@
+package in.co.rays.proj4.test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import in.co.rays.proj4.util.PropertyReader;
+import in.co.rays.proj4.util.SystemConfig;
+
+/**
+ * Manual check of {@link SystemConfig}: typed lookups, message templates and
+ * reloading after system.properties changes. Run it from the compiled
+ * classes so that system.properties is a plain file; the file is restored
+ * before the program ends.
+ */
+public class TestSystemConfig {
+
+	public static void main(String[] args) throws Exception {
+
+		testLookups();
+		testTemplates();
+		testReload();
+	}
+
+	public static void testLookups() {
+
+		System.out.println("page.size          : " + SystemConfig.getInt("page.size", -1));
+		System.out.println("async.timeout      : " + SystemConfig.getLong("async.timeout", -1));
+		System.out.println("smtp.server        : " + SystemConfig.getString("smtp.server"));
+		System.out.println("missing (default)  : " + SystemConfig.getInt("no.such.key", 42));
+		System.out.println("not a number       : " + SystemConfig.getInt("smtp.server", 7));
+	}
+
+	public static void testTemplates() {
+
+		System.out.println(PropertyReader.getValue("error.require", "Email"));
+		System.out.println(PropertyReader.getValue("error.multipleFields", new String[] { "Roll No", "Name" }));
+		System.out.println(PropertyReader.getValue("error.multipleFields", "Roll No"));
+		System.out.println(PropertyReader.getValue("no.such.key", "x"));
+	}
+
+	public static void testReload() throws Exception {
+
+		File file = new File(TestSystemConfig.class.getClassLoader()
+				.getResource("in/co/rays/proj4/bundle/system.properties").toURI());
+		byte[] original = Files.readAllBytes(file.toPath());
+
+		final int[] reloads = new int[1];
+		SystemConfig.addListener(new SystemConfig.Listener() {
+			public void reloaded() {
+				reloads[0]++;
+			}
+		});
+
+		try {
+			String changed = new String(original, StandardCharsets.UTF_8).replace("page.size=10", "page.size=25");
+			Files.write(file.toPath(), changed.getBytes(StandardCharsets.UTF_8));
+			// make sure the modification time differs on coarse file systems
+			file.setLastModified(System.currentTimeMillis() + 2000);
+
+			long interval = SystemConfig.getLong("config.reload.interval", 0);
+			System.out.println("Waiting " + interval + " ms for the reload check");
+			Thread.sleep(interval + 100);
+
+			System.out.println("page.size after edit : " + SystemConfig.getInt("page.size", -1) + " (" + reloads[0]
+					+ " reload)");
+		} finally {
+			Files.write(file.toPath(), original);
+			file.setLastModified(System.currentTimeMillis() + 4000);
+			System.out.println("restored, reload now : " + SystemConfig.reload() + ", page.size "
+					+ SystemConfig.getInt("page.size", -1));
+		}
+	}
+}
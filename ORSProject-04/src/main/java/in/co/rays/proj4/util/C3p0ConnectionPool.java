@@ -0,0 +1,84 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+
+/**
+ * {@link ConnectionPool} backed by c3p0, the pool the application has always
+ * used. c3p0 rebuilds its pool when its size changes, so it is not resized
+ * adaptively; a new {@code maxpoolsize} is still applied on reload.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class C3p0ConnectionPool implements ConnectionPool {
+
+    private ComboPooledDataSource cpds;
+
+    public void open(Settings settings) throws Exception {
+        cpds = new ComboPooledDataSource(settings.getName());
+        cpds.setDriverClass(settings.getDriver());
+        cpds.setJdbcUrl(settings.getUrl());
+        cpds.setUser(settings.getUsername());
+        cpds.setPassword(settings.getPassword());
+        cpds.setInitialPoolSize(settings.getMinSize());
+        cpds.setMinPoolSize(settings.getMinSize());
+        cpds.setMaxPoolSize(settings.getMaxSize());
+        cpds.setAcquireIncrement(SystemConfig.getInt("acquireincrement", 10));
+        cpds.setCheckoutTimeout((int) Math.min(Integer.MAX_VALUE, settings.getCheckoutTimeout()));
+    }
+
+    public Connection getConnection() throws SQLException {
+        return cpds.getConnection();
+    }
+
+    public int getActive() {
+        try {
+            return cpds.getNumBusyConnectionsDefaultUser();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    public int getIdle() {
+        try {
+            return cpds.getNumIdleConnectionsDefaultUser();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    public int getWaiting() {
+        try {
+            return cpds.getNumThreadsAwaitingCheckoutDefaultUser();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    public int getMaxSize() {
+        return cpds.getMaxPoolSize();
+    }
+
+    public void setMaxSize(int size) {
+        cpds.setMaxPoolSize(size);
+    }
+
+    public boolean isResizable() {
+        return false;
+    }
+
+    public void evict() {
+        try {
+            cpds.softResetDefaultUser();
+        } catch (SQLException e) {
+            cpds.hardReset();
+        }
+    }
+
+    public void close() {
+        cpds.close();
+    }
+}
@@ -0,0 +1,259 @@
+package in.co.rays.proj4.util;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+/**
+ * CircuitBreaker stops calls to a database that is failing, so that requests
+ * fail at once instead of each waiting for a connect or query timeout.
+ *
+ * <p>
+ * The breaker counts the outcome of every statement and checkout in windows
+ * of {@code breaker.window} milliseconds. While closed, it opens as soon as a
+ * window has seen at least {@code breaker.min.calls} calls of which
+ * {@code breaker.failure.percent} percent or more failed. While open, every
+ * call is refused for {@code breaker.open} milliseconds; after that it is
+ * half-open and lets {@code breaker.probes} calls through. The first outcome of a probe
+ * decides: a success closes the breaker, a failure opens it again. Probes
+ * that never report are given up after another {@code breaker.open}
+ * milliseconds.
+ * </p>
+ *
+ * <p>
+ * Only errors that say the database is unreachable or too slow count as
+ * failures (see {@link #isFailure(SQLException)}); a duplicate key or a
+ * syntax error means the database answered. A checkout counts only when the
+ * driver could not connect (see {@link #isConnectFailure(SQLException)}): a
+ * checkout that timed out because every connection was busy says the pool is
+ * saturated, not that the database is down, and is left to the
+ * {@link ConcurrencyLimiter}.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = Logger.getLogger(CircuitBreaker.class);
+
+    /** States of a breaker */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+
+    private final AtomicReference<State> state = new AtomicReference<State>(State.CLOSED);
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong windowEnd = new AtomicLong(System.nanoTime());
+
+    /** End of the open period, or of the current half-open period */
+    private volatile long until;
+    private final AtomicInteger probes = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong trips = new AtomicLong();
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param name name used in logs, usually that of the pool
+     */
+    public CircuitBreaker(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Tells whether a call may go ahead. A refused call is counted as
+     * rejected and should fail at once.
+     *
+     * @return false while the breaker is open, or half-open with all probes
+     *         out
+     */
+    public boolean allow() {
+        State s = state.get();
+        if (s == State.CLOSED) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (s == State.OPEN) {
+            if (now - until < 0) {
+                rejected.increment();
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                probes.set(0);
+                until = now + openNanos();
+                log.info("Circuit breaker " + name + " is half-open, probing the database");
+            }
+        } else if (now - until >= 0) {
+            // the probes did not report back
+            probes.set(0);
+            until = now + openNanos();
+        }
+        if (probes.incrementAndGet() <= Math.max(1, SystemConfig.getInt("breaker.probes", 1))) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Records a call that reached the database.
+     */
+    public void success() {
+        State s = state.get();
+        if (s == State.CLOSED) {
+            roll();
+            calls.increment();
+        } else if (s == State.HALF_OPEN && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            calls.reset();
+            failures.reset();
+            windowEnd.set(System.nanoTime() + windowNanos());
+            log.info("Circuit breaker " + name + " is closed, the database answers again");
+        }
+    }
+
+    /**
+     * Records a call that failed because of the database.
+     */
+    public void failure() {
+        State s = state.get();
+        if (s == State.HALF_OPEN) {
+            open(State.HALF_OPEN, "a probe failed");
+        } else if (s == State.CLOSED) {
+            roll();
+            calls.increment();
+            failures.increment();
+            long n = calls.sum();
+            long failed = failures.sum();
+            if (n >= SystemConfig.getInt("breaker.min.calls", 20)
+                    && failed * 100 >= n * SystemConfig.getInt("breaker.failure.percent", 50)) {
+                open(State.CLOSED, failed + " of " + n + " calls failed");
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a call that threw.
+     *
+     * @param e the exception of the call
+     */
+    public void record(SQLException e) {
+        if (isFailure(e)) {
+            failure();
+        } else {
+            success();
+        }
+    }
+
+    /**
+     * Tells whether an exception means the database is unreachable or too
+     * slow: a connection error (SQL state class 08), a timeout or a
+     * cancelled statement.
+     *
+     * @param e the exception
+     * @return true if it should count against the database
+     */
+    public static boolean isFailure(SQLException e) {
+        if (e instanceof SQLTimeoutException || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String sqlState = e.getSQLState();
+        return sqlState != null && (sqlState.startsWith("08") || sqlState.equals("57014")
+                || sqlState.startsWith("HYT"));
+    }
+
+    /**
+     * Tells whether a failed checkout means the driver could not connect: an
+     * error of SQL state class 08, or a socket error or timeout, anywhere in
+     * its causes. A pool that only timed out waiting for a busy connection
+     * reports neither.
+     *
+     * @param e the exception of the checkout
+     * @return true if it should count against the database
+     */
+    public static boolean isConnectFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SQLException) {
+                String sqlState = ((SQLException) t).getSQLState();
+                if (sqlState != null && sqlState.startsWith("08")) {
+                    return true;
+                }
+            }
+            if (t instanceof SocketException || t instanceof SocketTimeoutException
+                    || t instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void open(State from, String reason) {
+        if (state.compareAndSet(from, State.OPEN)) {
+            until = System.nanoTime() + openNanos();
+            trips.incrementAndGet();
+            log.warn("Circuit breaker " + name + " is open for " + TimeUnit.NANOSECONDS.toMillis(openNanos())
+                    + " ms: " + reason);
+        }
+    }
+
+    /**
+     * Starts a new counting window once the current one has ended. One
+     * caller per window resets the counters.
+     */
+    private void roll() {
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos())) {
+            calls.reset();
+            failures.reset();
+        }
+    }
+
+    private static long openNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(100, SystemConfig.getLong("breaker.open", 5000)));
+    }
+
+    private static long windowNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(100, SystemConfig.getLong("breaker.window", 10000)));
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns the number of calls refused while open or half-open.
+     *
+     * @return refused calls since startup
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of times the breaker opened.
+     *
+     * @return openings since startup
+     */
+    public long getTrips() {
+        return trips.get();
+    }
+}
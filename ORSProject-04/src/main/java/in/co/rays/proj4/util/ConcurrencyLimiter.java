@@ -0,0 +1,350 @@
+package in.co.rays.proj4.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+/**
+ * ConcurrencyLimiter limits how many requests are in progress at once, with
+ * a limit that follows the latency of the database.
+ *
+ * <p>
+ * Every checkout of a database connection reports how long it waited for the
+ * pool (see {@link #sample(long, boolean)}); that wait is the time requests
+ * spend queueing for the database, whatever their queries cost. Once per
+ * {@code admission.interval} milliseconds the limit is adjusted by additive
+ * increase and multiplicative decrease: when checkouts waited longer than
+ * {@code admission.wait.target} milliseconds on average, or one timed out,
+ * it is cut to {@code admission.backoff} percent of itself; otherwise it
+ * grows by its square root, provided the requests in progress have used at
+ * least half of it. The limit stays between {@code admission.limit.min} and
+ * {@code admission.limit.max}.
+ * </p>
+ *
+ * <p>
+ * Each request has a {@link Priority}. A request may start while the requests
+ * in progress fill less than the share of the limit of its priority
+ * ({@code admission.share.normal} and {@code admission.share.lookup} percent,
+ * the whole limit for {@link Priority#HIGH}), so lookups cannot take the last
+ * slots from logins and admins. Otherwise it waits, at most
+ * {@code admission.queue.timeout} milliseconds and with no more than
+ * {@code admission.queue.size} requests of its priority waiting, and is
+ * refused after that.
+ * Slots that free up go to waiting requests of the highest priority first.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class ConcurrencyLimiter {
+
+    private static final Logger log = Logger.getLogger(ConcurrencyLimiter.class);
+
+    /** Priorities of requests, highest first */
+    public enum Priority {
+
+        /** Logins and administrators */
+        HIGH("high"),
+
+        /** Other requests of signed in users */
+        NORMAL("normal"),
+
+        /** Marksheet and merit list lookups */
+        LOOKUP("lookup");
+
+        private final String key;
+
+        Priority(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the percentage of the limit requests of this priority may
+         * fill.
+         *
+         * @return percent between 1 and 100
+         */
+        int share() {
+            if (this == HIGH) {
+                return 100;
+            }
+            return Math.max(1, Math.min(100, SystemConfig.getInt("admission.share." + key, 100)));
+        }
+    }
+
+    private static final ConcurrencyLimiter INSTANCE = new ConcurrencyLimiter();
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    /** A request waiting for a slot */
+    private static final class Waiter {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        boolean grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                latch.countDown();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Waits to be granted a slot.
+         *
+         * @return true if granted, false if the wait timed out or was
+         *         interrupted
+         */
+        boolean await(long millis) {
+            try {
+                latch.await(millis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return !state.compareAndSet(WAITING, CANCELLED);
+        }
+    }
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Map<Priority, Queue<Waiter>> queues = new EnumMap<Priority, Queue<Waiter>>(Priority.class);
+    private final Map<Priority, AtomicInteger> queueSizes = new EnumMap<Priority, AtomicInteger>(Priority.class);
+
+    private volatile double limit = SystemConfig.getInt("admission.limit.initial", 40);
+    private volatile double wait;
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder sampleNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicLong nextUpdate = new AtomicLong(System.nanoTime());
+
+    private final Map<Priority, LongAdder> admitted = new EnumMap<Priority, LongAdder>(Priority.class);
+    private final Map<Priority, LongAdder> queued = new EnumMap<Priority, LongAdder>(Priority.class);
+    private final Map<Priority, LongAdder> rejected = new EnumMap<Priority, LongAdder>(Priority.class);
+
+    private ConcurrencyLimiter() {
+        for (Priority p : Priority.values()) {
+            queues.put(p, new ConcurrentLinkedQueue<Waiter>());
+            queueSizes.put(p, new AtomicInteger());
+            admitted.put(p, new LongAdder());
+            queued.put(p, new LongAdder());
+            rejected.put(p, new LongAdder());
+        }
+    }
+
+    public static ConcurrencyLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a checkout of a database connection.
+     *
+     * @param nanos  time the checkout waited
+     * @param failed true if it timed out without a connection
+     */
+    public static void sample(long nanos, boolean failed) {
+        INSTANCE.samples.increment();
+        INSTANCE.sampleNanos.add(nanos);
+        if (failed) {
+            INSTANCE.timeouts.increment();
+        }
+        INSTANCE.update();
+    }
+
+    /**
+     * Takes a slot for a request, waiting for one if needed. A request that
+     * gets a slot must give it back with {@link #release()}.
+     *
+     * @param priority priority of the request
+     * @return true if the request may go ahead, false if it is refused
+     */
+    public boolean acquire(Priority priority) {
+
+        if (waiting.get() == 0 && tryIncrement(cap(priority))) {
+            admitted.get(priority).increment();
+            return true;
+        }
+
+        AtomicInteger queueSize = queueSizes.get(priority);
+        if (queueSize.incrementAndGet() > SystemConfig.getInt("admission.queue.size", 100)) {
+            queueSize.decrementAndGet();
+            rejected.get(priority).increment();
+            return false;
+        }
+        waiting.incrementAndGet();
+
+        Waiter waiter = new Waiter();
+        Queue<Waiter> queue = queues.get(priority);
+        queue.add(waiter);
+        try {
+            // a slot may have been released before the waiter was queued
+            drain();
+            if (waiter.await(SystemConfig.getLong("admission.queue.timeout", 500))) {
+                queued.get(priority).increment();
+                admitted.get(priority).increment();
+                return true;
+            }
+            queue.remove(waiter);
+            rejected.get(priority).increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            queueSize.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gives back the slot of a request that has finished.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+        if (waiting.get() > 0) {
+            drain();
+        }
+        update();
+    }
+
+    /**
+     * Hands free slots to waiting requests, highest priority first.
+     */
+    private void drain() {
+        for (Priority p : Priority.values()) {
+            Queue<Waiter> queue = queues.get(p);
+            Waiter waiter;
+            while ((waiter = queue.peek()) != null) {
+                if (waiter.state.get() != WAITING) {
+                    queue.remove(waiter);
+                    continue;
+                }
+                if (!tryIncrement(cap(p))) {
+                    break;
+                }
+                if (queue.remove(waiter) && waiter.grant()) {
+                    continue;
+                }
+                // another thread took this waiter, or it gave up
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private boolean tryIncrement(int cap) {
+        for (;;) {
+            int n = inFlight.get();
+            if (n >= cap) {
+                return false;
+            }
+            if (inFlight.compareAndSet(n, n + 1)) {
+                peak.accumulateAndGet(n + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    private int cap(Priority priority) {
+        return Math.max(1, (int) (limit * priority.share() / 100));
+    }
+
+    /**
+     * Adjusts the limit once the interval has elapsed. One caller per
+     * interval does the work; the others go on.
+     */
+    private void update() {
+        long now = System.nanoTime();
+        long due = nextUpdate.get();
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(100, SystemConfig.getLong("admission.interval",
+                1000)));
+        if (now - due < 0 || !nextUpdate.compareAndSet(due, now + interval)) {
+            return;
+        }
+
+        long n = samples.sumThenReset();
+        long nanos = sampleNanos.sumThenReset();
+        long failed = timeouts.sumThenReset();
+        int used = peak.getAndSet(inFlight.get());
+
+        double mean = n == 0 ? 0 : (double) nanos / n;
+        wait = mean;
+        double old = limit;
+        double next = old;
+        if (failed > 0 || mean > TimeUnit.MILLISECONDS.toNanos(SystemConfig.getLong("admission.wait.target", 10))) {
+            next = old * Math.max(10, Math.min(100, SystemConfig.getInt("admission.backoff", 90))) / 100.0;
+        } else if (used >= old / 2) {
+            next = old + Math.sqrt(old);
+        }
+        double min = SystemConfig.getInt("admission.limit.min", 8);
+        double max = Math.max(min, SystemConfig.getInt("admission.limit.max", 200));
+        limit = Math.max(min, Math.min(max, next));
+
+        if ((int) limit != (int) old) {
+            log.debug("Admission limit " + (int) old + " -> " + (int) limit + " (mean checkout wait "
+                    + String.format("%.2f", mean / 1e6) + " ms, " + failed + " timeouts in " + n
+                    + " checkouts, peak in progress " + used + ")");
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return requests allowed in progress at once
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Returns the number of requests in progress.
+     *
+     * @return requests holding a slot
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests refused so far.
+     *
+     * @param priority priority of the requests
+     * @return refused requests since startup
+     */
+    public long getRejected(Priority priority) {
+        return rejected.get(priority).sum();
+    }
+
+    /**
+     * Returns the state of the limiter as key=value lines.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("admission.limit=").append((int) limit).append('\n');
+        sb.append("admission.inflight=").append(inFlight.get()).append('\n');
+        sb.append("admission.waiting=").append(waiting.get()).append('\n');
+        sb.append("admission.wait.ms=").append(String.format("%.2f", wait / 1e6)).append('\n');
+        for (Priority p : Priority.values()) {
+            sb.append("admission.").append(p.getKey()).append(".admitted=").append(admitted.get(p).sum())
+                    .append('\n');
+            sb.append("admission.").append(p.getKey()).append(".queued=").append(queued.get(p).sum())
+                    .append('\n');
+            sb.append("admission.").append(p.getKey()).append(".rejected=").append(rejected.get(p).sum())
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
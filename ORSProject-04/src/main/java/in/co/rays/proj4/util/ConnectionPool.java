@@ -0,0 +1,165 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ConnectionPool is the service interface between {@link JDBCDataSource} and
+ * the pooling library behind it. An implementation is chosen by the
+ * {@code pool.provider} key of system.properties: {@code hikari},
+ * {@code c3p0}, or the name of any class implementing this interface with a
+ * public no-argument constructor.
+ *
+ * <p>
+ * JDBCDataSource times every checkout, turns timeouts into a clear exception
+ * and decides the pool size; an implementation only has to hand out
+ * connections, report its counters and apply a new size.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public interface ConnectionPool {
+
+    /**
+     * Creates the pool. Called once, before any other method.
+     *
+     * @param settings connection and sizing settings
+     * @throws Exception if the pool cannot be created
+     */
+    void open(Settings settings) throws Exception;
+
+    /**
+     * Checks out a connection, waiting at most the checkout timeout.
+     *
+     * @return a connection, returned to the pool by {@link Connection#close()}
+     * @throws SQLException if no connection could be had in time
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Returns the number of connections checked out.
+     *
+     * @return active connections
+     */
+    int getActive();
+
+    /**
+     * Returns the number of open connections not checked out.
+     *
+     * @return idle connections
+     */
+    int getIdle();
+
+    /**
+     * Returns the number of threads waiting for a connection.
+     *
+     * @return waiting threads
+     */
+    int getWaiting();
+
+    /**
+     * Returns the current maximum number of connections.
+     *
+     * @return maximum pool size
+     */
+    int getMaxSize();
+
+    /**
+     * Changes the maximum number of connections.
+     *
+     * @param size new maximum pool size
+     */
+    void setMaxSize(int size);
+
+    /**
+     * Tells whether {@link #setMaxSize(int)} is cheap enough to be called
+     * while the pool is busy. Adaptive sizing is only done for pools that are.
+     *
+     * @return true if the pool can be resized in place
+     */
+    boolean isResizable();
+
+    /**
+     * Retires every connection of the pool without closing the pool: idle
+     * connections are closed at once, checked out ones when they are
+     * returned. New connections are opened as they are needed.
+     */
+    void evict();
+
+    /**
+     * Closes every connection of the pool.
+     */
+    void close();
+
+    /**
+     * Settings of a pool, read from system.properties by JDBCDataSource.
+     */
+    final class Settings {
+
+        private final String name;
+        private final String driver;
+        private final String url;
+        private final String username;
+        private final String password;
+        private final int minSize;
+        private final int maxSize;
+        private final long checkoutTimeout;
+
+        /**
+         * Creates the settings of a pool.
+         *
+         * @param name            pool name, used in thread names and logs
+         * @param driver          JDBC driver class
+         * @param url             JDBC URL
+         * @param username        database user
+         * @param password        database password
+         * @param minSize         connections kept open when idle
+         * @param maxSize         initial maximum number of connections
+         * @param checkoutTimeout milliseconds to wait for a connection
+         */
+        public Settings(String name, String driver, String url, String username, String password, int minSize,
+                int maxSize, long checkoutTimeout) {
+            this.name = name;
+            this.driver = driver;
+            this.url = url;
+            this.username = username;
+            this.password = password;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.checkoutTimeout = checkoutTimeout;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDriver() {
+            return driver;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getCheckoutTimeout() {
+            return checkoutTimeout;
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package in.co.rays.proj4.util;
 
 import java.sql.Timestamp;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
 import java.util.Date;
 
 /**
@@ -18,6 +26,15 @@ import java.util.Date;
  * </ul>
  * </p>
  *
+ * <p>
+ * Dates are parsed and formatted with {@code java.time}, so every method is
+ * safe to call from any number of request threads. Input in the exact shape
+ * {@value #APP_DATE_FORMAT} or {@value #APP_TIME_FORMAT} is read by a hand
+ * written parser that allocates nothing when the input is invalid; other
+ * input, such as a single digit day, goes through a {@link DateTimeFormatter}.
+ * Impossible dates such as 31-02-2024 are rejected rather than rolled over.
+ * </p>
+ *
  * @author Chaitanya Bhatt
  * @version 1.0
  */
@@ -29,9 +46,23 @@ public class DataUtility {
     /** Application time format used for parsing and formatting timestamps. */
     public static final String APP_TIME_FORMAT = "dd-MM-yyyy HH:mm:ss";
 
-    private static final SimpleDateFormat formatter = new SimpleDateFormat(APP_DATE_FORMAT);
+    /** Formatter of {@value #APP_DATE_FORMAT}; immutable, so it can be shared. */
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /** Formatter of {@value #APP_TIME_FORMAT}; immutable, so it can be shared. */
+    public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu HH:mm:ss")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    /** Parsers for input that is not in the fixed shape, e.g. 5-8-2023. */
+    private static final DateTimeFormatter DATE_PARSER = DateTimeFormatter.ofPattern("d-M-uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private static final DateTimeFormatter TIME_PARSER = DateTimeFormatter.ofPattern("d-M-uuuu H:m:s")
+            .withResolverStyle(ResolverStyle.STRICT);
 
-    private static final SimpleDateFormat timeFormatter = new SimpleDateFormat(APP_TIME_FORMAT);
+    /** Time zone in which dates start, as SimpleDateFormat used. */
+    private static final ZoneId ZONE = ZoneId.systemDefault();
 
     /**
      * Returns trimmed version of the input string when it is non-null and not empty.
@@ -68,11 +99,7 @@ public class DataUtility {
      * @return parsed int if valid integer, otherwise 0
      */
     public static int getInt(String val) {
-        if (DataValidator.isInteger(val)) {
-            return Integer.parseInt(val);
-        } else {
-            return 0;
-        }
+        return (int) parse(val, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
     }
 
     /**
@@ -82,57 +109,238 @@ public class DataUtility {
      * @return parsed long if valid long, otherwise 0
      */
     public static long getLong(String val) {
-        if (DataValidator.isLong(val)) {
-            return Long.parseLong(val);
-        } else {
-            return 0;
+        return parse(val, Long.MIN_VALUE, Long.MAX_VALUE, 0);
+    }
+
+    /**
+     * Converts a numeric string to long, validating and parsing it in one
+     * pass.
+     *
+     * @param val      numeric string
+     * @param fallback value returned when val is not a valid long
+     * @return parsed long, or fallback
+     */
+    public static long getLong(String val, long fallback) {
+        return parse(val, Long.MIN_VALUE, Long.MAX_VALUE, fallback);
+    }
+
+    /**
+     * Parses a decimal number with an optional sign, as
+     * {@link Long#parseLong(String)} does, but returns fallback instead of
+     * throwing when the value is invalid or outside min..max.
+     */
+    private static long parse(String val, long min, long max, long fallback) {
+        if (val == null || val.isEmpty()) {
+            return fallback;
+        }
+        int i = 0;
+        boolean negative = val.charAt(0) == '-';
+        if (negative || val.charAt(0) == '+') {
+            i = 1;
         }
+        if (i == val.length()) {
+            return fallback;
+        }
+        // accumulate negatively so that Long.MIN_VALUE does not overflow
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long n = 0;
+        for (; i < val.length(); i++) {
+            int digit = val.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || n < multmin) {
+                return fallback;
+            }
+            n *= 10;
+            if (n < limit + digit) {
+                return fallback;
+            }
+            n -= digit;
+        }
+        return negative ? n : -n;
     }
 
     /**
      * Parses a date string using the application date format.
      *
      * @param val date string in {@value #APP_DATE_FORMAT} format
-     * @return parsed {@link Date} or {@code null} on parse failure
+     * @return parsed {@link Date} at the start of that day, or {@code null} if
+     *         the value is not a valid date
      */
     public static Date getDate(String val) {
-        Date date = null;
-        try {
-            date = formatter.parse(val);
-        } catch (Exception e) {
+        LocalDate date = getLocalDate(val);
+        return date == null ? null : new Date(date.atStartOfDay(ZONE).toInstant().toEpochMilli());
+    }
 
+    /**
+     * Parses a date string using the application date format.
+     *
+     * @param val date string in {@value #APP_DATE_FORMAT} format
+     * @return parsed {@link LocalDate} or {@code null} if the value is not a
+     *         valid date
+     */
+    public static LocalDate getLocalDate(String val) {
+        if (val == null) {
+            return null;
         }
-        return date;
+        int start = start(val);
+        int end = end(val, start);
+        int length = end - start;
+
+        if (length == APP_DATE_FORMAT.length()) {
+            return parseDate(val, start);
+        }
+        if (length >= 8 && length < APP_DATE_FORMAT.length()) {
+            try {
+                return LocalDate.parse(val.substring(start, end), DATE_PARSER);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return null;
     }
 
     /**
      * Formats a {@link Date} using the application date format.
      *
      * @param date the date to format
-     * @return formatted date string or empty string on failure
+     * @return formatted date string or empty string if date is null
      */
     public static String getDateString(Date date) {
-        try {
-            return formatter.format(date);
-        } catch (Exception e) {
+        if (date == null) {
+            return "";
+        }
+        if (date instanceof java.sql.Date) {
+            return getDateString(((java.sql.Date) date).toLocalDate());
         }
-        return "";
+        return getDateString(LocalDate.ofInstant(Instant.ofEpochMilli(date.getTime()), ZONE));
+    }
+
+    /**
+     * Formats a {@link LocalDate} using the application date format.
+     *
+     * @param date the date to format
+     * @return formatted date string or empty string if date is null
+     */
+    public static String getDateString(LocalDate date) {
+        if (date == null) {
+            return "";
+        }
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            return DATE_FORMATTER.format(date);
+        }
+        char[] c = new char[10];
+        put2(c, 0, date.getDayOfMonth());
+        c[2] = '-';
+        put2(c, 3, date.getMonthValue());
+        c[5] = '-';
+        put2(c, 6, year / 100);
+        put2(c, 8, year % 100);
+        return new String(c);
     }
 
     /**
      * Parses a timestamp string using the application time format.
      *
      * @param val timestamp string in {@value #APP_TIME_FORMAT} format
-     * @return parsed {@link Timestamp} or {@code null} on parse failure
+     * @return parsed {@link Timestamp} or {@code null} if the value is not a
+     *         valid date and time
      */
     public static Timestamp getTimestamp(String val) {
-        Timestamp timeStamp = null;
-        try {
-            timeStamp = new Timestamp((timeFormatter.parse(val)).getTime());
-        } catch (Exception e) {
+        LocalDateTime time = getLocalDateTime(val);
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    /**
+     * Parses a timestamp string using the application time format.
+     *
+     * @param val timestamp string in {@value #APP_TIME_FORMAT} format
+     * @return parsed {@link LocalDateTime} or {@code null} if the value is not
+     *         a valid date and time
+     */
+    public static LocalDateTime getLocalDateTime(String val) {
+        if (val == null) {
             return null;
         }
-        return timeStamp;
+        int start = start(val);
+        int end = end(val, start);
+        int length = end - start;
+
+        if (length == APP_TIME_FORMAT.length()) {
+            LocalDate date = parseDate(val, start);
+            if (date == null || val.charAt(start + 10) != ' ' || val.charAt(start + 13) != ':'
+                    || val.charAt(start + 16) != ':') {
+                return null;
+            }
+            int hour = digits(val, start + 11, 2);
+            int minute = digits(val, start + 14, 2);
+            int second = digits(val, start + 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return null;
+            }
+            return date.atTime(hour, minute, second);
+        }
+        if (length >= 13 && length < APP_TIME_FORMAT.length()) {
+            try {
+                return LocalDateTime.parse(val.substring(start, end), TIME_PARSER);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads dd-MM-yyyy at the given offset, or returns null.
+     */
+    private static LocalDate parseDate(String s, int i) {
+        if (s.charAt(i + 2) != '-' || s.charAt(i + 5) != '-') {
+            return null;
+        }
+        int day = digits(s, i, 2);
+        int month = digits(s, i + 3, 2);
+        int year = digits(s, i + 6, 4);
+        if (day < 1 || month < 1 || month > 12 || year < 1
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Reads n decimal digits at the given offset, or returns -1.
+     */
+    private static int digits(String s, int i, int n) {
+        int value = 0;
+        for (int k = i; k < i + n; k++) {
+            char c = s.charAt(k);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static void put2(char[] c, int i, int value) {
+        c[i] = (char) ('0' + value / 10);
+        c[i + 1] = (char) ('0' + value % 10);
+    }
+
+    private static int start(String s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int end(String s, int start) {
+        int i = s.length();
+        while (i > start && s.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
     }
 
     /**
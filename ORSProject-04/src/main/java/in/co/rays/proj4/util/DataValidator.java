@@ -2,6 +2,7 @@ package in.co.rays.proj4.util;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.regex.Pattern;
 
 /**
  * DataValidator provides validation utilities for common input patterns used
@@ -22,11 +23,23 @@ import java.util.Date;
  *
  * <p>All methods are static so the class can be used without creating an instance.</p>
  *
+ * <p>The regular expressions are compiled once, and numbers, phone numbers,
+ * roll numbers and passwords are checked by scanning their characters, so no
+ * method allocates or throws while it validates.</p>
+ *
  * @author 
  * @version 1.0
  */
 public class DataValidator {
 
+    private static final Pattern EMAIL = Pattern
+            .compile("^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+
+    private static final Pattern NAME = Pattern.compile("^[^-\\s][\\p{L} .'-]+$");
+
+    /** Special characters of which a password needs at least one. */
+    private static final String PASSWORD_SPECIALS = "@#$%^&+=";
+
     /**
      * Checks if the input string is null or empty after trimming.
      *
@@ -34,11 +47,16 @@ public class DataValidator {
      * @return true if null or empty, otherwise false
      */
     public static boolean isNull(String val) {
-        if (val == null || val.trim().length() == 0) {
+        if (val == null) {
             return true;
-        } else {
-            return false;
         }
+        // same as val.trim().length() == 0 without the copy
+        for (int i = 0; i < val.length(); i++) {
+            if (val.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -59,16 +77,7 @@ public class DataValidator {
      */
     public static boolean isInteger(String val) {
 
-        if (isNotNull(val)) {
-            try {
-                Integer.parseInt(val);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNumber(val, Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     /**
@@ -78,16 +87,7 @@ public class DataValidator {
      * @return true if long, otherwise false
      */
     public static boolean isLong(String val) {
-        if (isNotNull(val)) {
-            try {
-                Long.parseLong(val);
-                return true;
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNumber(val, Long.MIN_VALUE, Long.MAX_VALUE);
     }
 
     /**
@@ -98,18 +98,7 @@ public class DataValidator {
      */
     public static boolean isEmail(String val) {
 
-        String emailreg = "^[_A-Za-z0-9-]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(emailreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-        } else {
-            return false;
-        }
+        return isNotNull(val) && EMAIL.matcher(val).matches();
     }
 
     /**
@@ -120,17 +109,7 @@ public class DataValidator {
      */
     public static boolean isName(String val) {
 
-        String namereg = "^[^-\\s][\\p{L} .'-]+$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(namereg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        return isNotNull(val) && NAME.matcher(val).matches();
     }
 
     /**
@@ -141,17 +120,9 @@ public class DataValidator {
      */
     public static boolean isRollNo(String val) {
 
-        String rollreg = "[a-zA-Z]{2}[0-9]{3}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(rollreg);
-            } catch (NumberFormatException e) {
-                return false;
-            }
-        } else {
-            return false;
-        }
+        // [a-zA-Z]{2}[0-9]{3}
+        return val != null && val.length() == 5 && isLetter(val.charAt(0)) && isLetter(val.charAt(1))
+                && isDigit(val.charAt(2)) && isDigit(val.charAt(3)) && isDigit(val.charAt(4));
     }
 
     /**
@@ -170,18 +141,23 @@ public class DataValidator {
      */
     public static boolean isPassword(String val) {
 
-        String passreg = "(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(passreg);
-            } catch (NumberFormatException e) {
+        // (?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])(?=.*[@#$%^&+=])(?=\\S+$).{8,12}
+        if (val == null || val.length() < 8 || val.length() > 12) {
+            return false;
+        }
+        boolean digit = false, lower = false, upper = false, special = false;
+        for (int i = 0; i < val.length(); i++) {
+            char c = val.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r' || c == '\u0085'
+                    || c == '\u2028' || c == '\u2029') {
                 return false;
             }
-
-        } else {
-            return false;
+            digit |= isDigit(c);
+            lower |= c >= 'a' && c <= 'z';
+            upper |= c >= 'A' && c <= 'Z';
+            special |= PASSWORD_SPECIALS.indexOf(c) >= 0;
         }
+        return digit && lower && upper && special;
     }
 
     /**
@@ -207,18 +183,16 @@ public class DataValidator {
      */
     public static boolean isPhoneNo(String val) {
 
-        String phonereg = "^[6-9][0-9]{9}$";
-
-        if (isNotNull(val)) {
-            try {
-                return val.matches(phonereg);
-            } catch (NumberFormatException e) {
+        // ^[6-9][0-9]{9}$
+        if (val == null || val.length() != 10 || val.charAt(0) < '6' || val.charAt(0) > '9') {
+            return false;
+        }
+        for (int i = 1; i < 10; i++) {
+            if (!isDigit(val.charAt(i))) {
                 return false;
             }
-
-        } else {
-            return false;
         }
+        return true;
     }
 
     /**
@@ -270,6 +244,48 @@ public class DataValidator {
         }
     }
 
+    /**
+     * Checks that a string is a decimal number between min and max, with an
+     * optional sign, as accepted by {@link Long#parseLong(String)}.
+     */
+    private static boolean isNumber(String val, long min, long max) {
+        if (val == null || val.isEmpty()) {
+            return false;
+        }
+        int i = 0;
+        boolean negative = val.charAt(0) == '-';
+        if (negative || val.charAt(0) == '+') {
+            i = 1;
+        }
+        if (i == val.length()) {
+            return false;
+        }
+        // accumulate negatively so that Long.MIN_VALUE does not overflow
+        long limit = negative ? min : -max;
+        long multmin = limit / 10;
+        long n = 0;
+        for (; i < val.length(); i++) {
+            char c = val.charAt(i);
+            if (!isDigit(c) || n < multmin) {
+                return false;
+            }
+            n *= 10;
+            if (n < limit + (c - '0')) {
+                return false;
+            }
+            n -= c - '0';
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
     /**
      * Test runner for all validation methods.
      *
@@ -0,0 +1,334 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+/**
+ * DatabaseHosts is an ordered list of database hosts of which one, the
+ * current primary, receives the connections of a pool. The hosts are checked
+ * in the background every {@code failover.check.interval} milliseconds by
+ * opening and validating a connection to each of them.
+ *
+ * <p>
+ * The current host is left after {@code failover.failures} failed checks in a
+ * row, for the first host in the list that passed its last check. A host
+ * earlier in the list than the current one is returned to once it has passed
+ * {@code failover.recoveries} checks in a row, so a host that comes back is
+ * not used before it is steady. Every switch is recorded as an event and
+ * reported to the listeners, which let their pools retire the connections to
+ * the old host; the pools themselves are kept.
+ * </p>
+ *
+ * <p>
+ * Pools reach the current host through {@link FailoverDriver} and the URL
+ * returned by {@link #getDriverUrl()}.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class DatabaseHosts {
+
+    private static final Logger log = Logger.getLogger(DatabaseHosts.class);
+
+    /** Most recent switches kept for {@link #toString()} */
+    private static final int EVENTS = 20;
+
+    private static final Map<String, DatabaseHosts> REGISTRY = new ConcurrentHashMap<String, DatabaseHosts>();
+
+    /**
+     * Called after the current host has changed.
+     */
+    public interface Listener {
+
+        /**
+         * Called on the health check thread after a switch.
+         *
+         * @param from index of the old host
+         * @param to   index of the new host
+         */
+        void switched(int from, int to);
+    }
+
+    private final String name;
+    private final String[] urls;
+    private final Properties info;
+
+    private final boolean[] up;
+    private final int[] failures;
+    private final int[] successes;
+
+    private volatile int current;
+    private volatile long failovers;
+    private volatile long failbacks;
+
+    private final Deque<String> events = new ArrayDeque<String>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    private ScheduledExecutorService checker;
+
+    /**
+     * Creates the host list and registers it with {@link FailoverDriver}.
+     *
+     * @param name     name of the list, used in the driver URL and logs
+     * @param driver   JDBC driver class of the hosts
+     * @param urls     JDBC URLs of the hosts, most preferred first
+     * @param username database user
+     * @param password database password
+     * @throws ClassNotFoundException if the driver class cannot be loaded
+     */
+    public DatabaseHosts(String name, String driver, String[] urls, String username, String password)
+            throws ClassNotFoundException {
+        Class.forName(driver);
+        this.name = name;
+        this.urls = urls.clone();
+        this.info = new Properties();
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+        this.up = new boolean[urls.length];
+        this.failures = new int[urls.length];
+        this.successes = new int[urls.length];
+        REGISTRY.put(name, this);
+    }
+
+    /**
+     * Returns the host list registered under a name.
+     *
+     * @param name name of the list
+     * @return the list, or null
+     */
+    static DatabaseHosts get(String name) {
+        return REGISTRY.get(name);
+    }
+
+    /**
+     * Checks every host once, picks the first one that is up and starts the
+     * background checks.
+     */
+    public synchronized void start() {
+        if (checker != null) {
+            return;
+        }
+        check();
+        for (int i = 0; i < urls.length; i++) {
+            if (up[i]) {
+                current = i;
+                break;
+            }
+        }
+        log.info("Database hosts " + name + " start on " + urls[current]);
+        long interval = Math.max(100, SystemConfig.getLong("failover.check.interval", 2000));
+        checker = ThreadPools.newScheduledExecutor("db-health-" + name);
+        checker.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    check();
+                    choose();
+                } catch (Throwable e) {
+                    log.error("Health check of database hosts " + name + " failed", e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background checks.
+     */
+    public synchronized void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+            checker = null;
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Returns the URL that pools connect to, served by {@link FailoverDriver}.
+     *
+     * @return driver URL of this list
+     */
+    public String getDriverUrl() {
+        return FailoverDriver.PREFIX + name;
+    }
+
+    /**
+     * Returns the URL of the current host.
+     *
+     * @return JDBC URL
+     */
+    public String getCurrentUrl() {
+        return urls[current];
+    }
+
+    /**
+     * Opens a connection to the current host.
+     */
+    Connection connect(Properties properties) throws SQLException {
+        Properties merged = new Properties();
+        merged.putAll(info);
+        if (properties != null) {
+            merged.putAll(properties);
+        }
+        return DriverManager.getConnection(getCurrentUrl(), merged);
+    }
+
+    /**
+     * Checks every host and updates its counters.
+     */
+    private void check() {
+        int timeout = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(
+                SystemConfig.getLong("failover.check.timeout", 1000) + 999));
+        for (int i = 0; i < urls.length; i++) {
+            boolean ok;
+            String error = "connection not valid";
+            try (Connection conn = DriverManager.getConnection(urls[i], probeInfo(urls[i]))) {
+                ok = conn.isValid(timeout);
+            } catch (SQLException e) {
+                ok = false;
+                error = e.getMessage();
+            }
+            if (ok && !up[i]) {
+                log.info("Database host " + urls[i] + " is up");
+            } else if (!ok && up[i]) {
+                log.warn("Database host " + urls[i] + " is down: " + error);
+            }
+            synchronized (this) {
+                up[i] = ok;
+                failures[i] = ok ? 0 : failures[i] + 1;
+                successes[i] = ok ? successes[i] + 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Connection properties of a health check, with connect and read
+     * timeouts for MySQL so that a host that does not answer cannot hold up
+     * the checks.
+     */
+    private Properties probeInfo(String url) {
+        Properties p = new Properties();
+        p.putAll(info);
+        if (url.startsWith("jdbc:mysql:")) {
+            String timeout = String.valueOf(SystemConfig.getLong("failover.check.timeout", 1000));
+            p.setProperty("connectTimeout", timeout);
+            p.setProperty("socketTimeout", timeout);
+        }
+        return p;
+    }
+
+    /**
+     * Moves to another host when the current one has failed, or back to a
+     * more preferred one that has recovered.
+     */
+    private void choose() {
+        int from = current;
+        int to = from;
+        String kind = null;
+        synchronized (this) {
+            int recoveries = Math.max(1, SystemConfig.getInt("failover.recoveries", 3));
+            for (int i = 0; i < from; i++) {
+                if (successes[i] >= recoveries) {
+                    to = i;
+                    kind = "failback";
+                    break;
+                }
+            }
+            if (to == from && failures[from] >= Math.max(1, SystemConfig.getInt("failover.failures", 2))) {
+                for (int i = 0; i < urls.length; i++) {
+                    if (i != from && up[i]) {
+                        to = i;
+                        kind = "failover";
+                        break;
+                    }
+                }
+            }
+            if (to == from) {
+                return;
+            }
+            current = to;
+            if ("failover".equals(kind)) {
+                failovers++;
+            } else {
+                failbacks++;
+            }
+            if (events.size() == EVENTS) {
+                events.removeFirst();
+            }
+            events.addLast(Instant.now() + " " + kind + " " + urls[from] + " -> " + urls[to]);
+        }
+        log.warn("Database hosts " + name + ": " + kind + " from " + urls[from] + " to " + urls[to]);
+        for (Listener listener : listeners) {
+            listener.switched(from, to);
+        }
+    }
+
+    /**
+     * Returns the number of moves away from a failed host.
+     *
+     * @return failovers since startup
+     */
+    public long getFailovers() {
+        return failovers;
+    }
+
+    /**
+     * Returns the number of moves back to a more preferred host.
+     *
+     * @return failbacks since startup
+     */
+    public long getFailbacks() {
+        return failbacks;
+    }
+
+    /**
+     * Returns the most recent switches, oldest first.
+     *
+     * @return one line per switch: time, kind, old and new host
+     */
+    public synchronized List<String> getEvents() {
+        return new ArrayList<String>(events);
+    }
+
+    /**
+     * Returns the state of the hosts as {@code key=value} lines.
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("hosts=").append(name).append('\n');
+        sb.append("hosts.current=").append(urls[current]).append('\n');
+        sb.append("hosts.failovers=").append(failovers).append('\n');
+        sb.append("hosts.failbacks=").append(failbacks).append('\n');
+        for (int i = 0; i < urls.length; i++) {
+            sb.append("host.").append(i + 1).append('=').append(urls[i]).append('\n');
+            sb.append("host.").append(i + 1).append(".up=").append(up[i]).append('\n');
+        }
+        int n = 1;
+        for (String event : events) {
+            sb.append("event.").append(n++).append('=').append(event).append('\n');
+        }
+        return sb.toString();
+    }
+}
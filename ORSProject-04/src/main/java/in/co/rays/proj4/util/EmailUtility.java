@@ -1,7 +1,9 @@
 package in.co.rays.proj4.util;
 
 import java.util.Properties;
-import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import javax.mail.Authenticator;
 import javax.mail.Message;
@@ -11,6 +13,8 @@ import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
+import org.apache.log4j.Logger;
+
 import in.co.rays.proj4.exception.ApplicationException;
 
 /**
@@ -28,6 +32,7 @@ import in.co.rays.proj4.exception.ApplicationException;
  *     <li>SSL/TLS configuration</li>
  *     <li>Sending email to one or multiple recipients</li>
  *     <li>Sending HTML or Plain Text messages</li>
+ *     <li>Sending in the background on a {@link ThreadPools} executor</li>
  * </ul>
  *
  * <p>
@@ -51,20 +56,23 @@ import in.co.rays.proj4.exception.ApplicationException;
  */
 public class EmailUtility {
 
-    /** Load SMTP configuration from properties file */
-    static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+    private static final Logger log = Logger.getLogger(EmailUtility.class);
 
     /** SMTP Host (e.g., smtp.gmail.com) */
-    private static final String SMTP_HOST_NAME = rb.getString("smtp.server");
+    private static final String SMTP_HOST_NAME = SystemConfig.getString("smtp.server");
 
     /** SMTP Port (e.g., 465 or 587) */
-    private static final String SMTP_PORT = rb.getString("smtp.port");
+    private static final String SMTP_PORT = SystemConfig.getString("smtp.port");
 
     /** Email address used to authenticate with SMTP server */
-    private static final String emailFromAddress = rb.getString("email.login");
+    private static final String emailFromAddress = SystemConfig.getString("email.login");
 
     /** Password for SMTP authentication */
-    private static final String emailPassword = rb.getString("email.pwd");
+    private static final String emailPassword = SystemConfig.getString("email.pwd");
+
+    /** Sends mail in the background; virtual-thread-per-task when enabled */
+    private static final ExecutorService mailExecutor = ThreadPools.newTaskExecutor("mail",
+            SystemConfig.getInt("mail.threads", 4));
 
     /** Stores JavaMail SMTP properties */
     private static Properties props = new Properties();
@@ -119,6 +127,26 @@ public class EmailUtility {
         }
     }
 
+    /**
+     * Sends an email in the background so the calling request does not wait
+     * for the SMTP server. A failure is logged and also completes the returned
+     * future exceptionally.
+     *
+     * @param emailMessageDTO object containing email details such as
+     *                        To, Subject, Message, and Message Type
+     * @return future completed once the mail is sent
+     */
+    public static CompletableFuture<Void> sendMailAsync(final EmailMessage emailMessageDTO) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                sendMail(emailMessageDTO);
+            } catch (ApplicationException e) {
+                log.error("Could not send mail to " + emailMessageDTO.getTo(), e);
+                throw new CompletionException(e);
+            }
+        }, mailExecutor);
+    }
+
     /**
      * Converts a comma-separated list of email IDs into an array of InternetAddress.
      *
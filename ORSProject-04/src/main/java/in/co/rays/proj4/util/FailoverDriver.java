@@ -0,0 +1,68 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+
+/**
+ * FailoverDriver is the JDBC driver through which a connection pool reaches
+ * the current host of a {@link DatabaseHosts} list. Its URLs have the form
+ * {@code jdbc:failover:<name>}; every new connection is opened on the host
+ * that is current at that moment, so the pool stays the same when the list
+ * fails over and only its connections move.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class FailoverDriver implements Driver {
+
+    /** URL prefix of this driver, followed by the name of the host list */
+    public static final String PREFIX = "jdbc:failover:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new FailoverDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        DatabaseHosts hosts = DatabaseHosts.get(url.substring(PREFIX.length()));
+        if (hosts == null) {
+            throw new SQLException("No database hosts registered for " + url);
+        }
+        return hosts.connect(info);
+    }
+
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
@@ -0,0 +1,166 @@
+package in.co.rays.proj4.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * FragmentCache keeps pieces of HTML that many pages render the same way:
+ * the &lt;select&gt; of a reference list, built by {@link HTMLUtility}, and
+ * the menu of the header for each role.
+ *
+ * <p>
+ * A dropdown is keyed by its name and the version of its data, which is a
+ * fingerprint of the keys and labels it is built from. The controllers read
+ * the lists fresh for every form, so the version follows any change of the
+ * data, made on this node or on another, without the models having to tell.
+ * A hit is confirmed by comparing the keys and labels, so two lists with the
+ * same fingerprint never share markup. The markup is kept without any option
+ * selected, together with where the {@code selected} marker of each value
+ * goes; a request only splices the marker in.
+ * </p>
+ *
+ * <p>
+ * At most {@code fragment.cache.max} dropdowns are kept; when the cache is
+ * full it is emptied, which also drops the markup of old versions. Setting
+ * {@code fragment.cache.enabled} to false builds every fragment again.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class FragmentCache {
+
+    /** The markup of a dropdown, with no option selected. */
+    static final class Select {
+        private final String[] keys;
+        private final String[] values;
+        private final String html;
+        private final Map<String, int[]> marks;
+
+        Select(String[] keys, String[] values, String html, Map<String, int[]> marks) {
+            this.keys = keys;
+            this.values = values;
+            this.html = html;
+            this.marks = marks;
+        }
+
+        /**
+         * Returns the markup with the option of a value selected.
+         *
+         * @param selectedVal the value, may be null
+         * @return the HTML
+         */
+        String render(String selectedVal) {
+            int[] at = selectedVal == null ? null : marks.get(selectedVal);
+            if (at == null) {
+                return html;
+            }
+            StringBuilder sb = new StringBuilder(html.length() + 9 * at.length);
+            int from = 0;
+            for (int mark : at) {
+                sb.append(html, from, mark).append(" selected");
+                from = mark;
+            }
+            return sb.append(html, from, html.length()).toString();
+        }
+    }
+
+    private static final Map<String, Select> SELECTS = new ConcurrentHashMap<String, Select>();
+    private static final Map<Long, String> MENUS = new ConcurrentHashMap<Long, String>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private FragmentCache() {
+    }
+
+    /**
+     * Returns the dropdown for a list of keys and labels, building it if the
+     * cache has no markup for this version of the list.
+     *
+     * @param name   name of the select element
+     * @param keys   option values, in order
+     * @param values option labels, in order
+     * @return the dropdown
+     */
+    static Select select(String name, String[] keys, String[] values) {
+
+        if (!SystemConfig.getBoolean("fragment.cache.enabled", true)) {
+            return build(name, keys, values);
+        }
+        String id = name + '\u0000' + version(keys, values);
+        Select select = SELECTS.get(id);
+        if (select != null && Arrays.equals(select.keys, keys) && Arrays.equals(select.values, values)) {
+            hits.increment();
+            return select;
+        }
+        misses.increment();
+        select = build(name, keys, values);
+        if (SELECTS.size() >= SystemConfig.getInt("fragment.cache.max", 256)) {
+            SELECTS.clear();
+        }
+        SELECTS.put(id, select);
+        return select;
+    }
+
+    /**
+     * Returns the menu of a role, rendering it on first use. The menus only
+     * depend on the role, so they are kept as long as the application runs.
+     *
+     * @param roleId the role
+     * @param render renders the menu of a role
+     * @return the HTML
+     */
+    static String menu(long roleId, LongFunction<String> render) {
+        if (!SystemConfig.getBoolean("fragment.cache.enabled", true)) {
+            return render.apply(roleId);
+        }
+        return MENUS.computeIfAbsent(roleId, render::apply);
+    }
+
+    /**
+     * Fingerprint of the data of a dropdown.
+     */
+    private static long version(String[] keys, String[] values) {
+        long h = keys.length;
+        for (int i = 0; i < keys.length; i++) {
+            h = h * 1000003 + keys[i].hashCode();
+            h = h * 1000003 + values[i].hashCode();
+        }
+        return h;
+    }
+
+    private static Select build(String name, String[] keys, String[] values) {
+
+        StringBuilder sb = new StringBuilder(128 + keys.length * 48);
+        sb.append("<select style=\"width: 169px;text-align-last: center;\"; class='form-control' name='")
+                .append(name).append("'>");
+        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+
+        Map<String, int[]> marks = new HashMap<String, int[]>(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            sb.append("\n<option");
+            int[] at = marks.get(keys[i].trim());
+            at = at == null ? new int[1] : Arrays.copyOf(at, at.length + 1);
+            at[at.length - 1] = sb.length();
+            marks.put(keys[i].trim(), at);
+            sb.append(" value='").append(keys[i]).append("'>").append(values[i]).append("</option>");
+        }
+        sb.append("\n</select>");
+        return new Select(keys, values, sb.toString(), marks);
+    }
+
+    /**
+     * Returns the counters of the cache as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        return "fragment.selects=" + SELECTS.size() + "\nfragment.menus=" + MENUS.size() + "\nfragment.hits="
+                + hits.sum() + "\nfragment.misses=" + misses.sum() + "\n";
+    }
+}
@@ -0,0 +1,94 @@
+package in.co.rays.proj4.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * GuardedConnection wraps a pooled connection so that every statement
+ * created on it gets the query timeout of its operation class, and every
+ * statement it runs reports its outcome to the {@link CircuitBreaker} of the
+ * pool. The models keep calling {@code prepareStatement} and
+ * {@code executeQuery} as before; the timeout makes the driver cancel a
+ * statement that runs too long, which frees the request thread and the
+ * connection.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+final class GuardedConnection implements InvocationHandler {
+
+    private final Connection conn;
+    private final int timeout;
+    private final CircuitBreaker breaker;
+
+    private GuardedConnection(Connection conn, int timeout, CircuitBreaker breaker) {
+        this.conn = conn;
+        this.timeout = timeout;
+        this.breaker = breaker;
+    }
+
+    /**
+     * Wraps a connection.
+     *
+     * @param conn    the pooled connection
+     * @param timeout query timeout in seconds, 0 for none
+     * @param breaker breaker told of the outcome of each statement
+     * @return the wrapped connection
+     */
+    static Connection wrap(Connection conn, int timeout, CircuitBreaker breaker) {
+        return (Connection) Proxy.newProxyInstance(GuardedConnection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new GuardedConnection(conn, timeout, breaker));
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result = invokeOn(conn, method, args);
+        if (result instanceof Statement) {
+            Statement stmt = (Statement) result;
+            if (timeout > 0) {
+                stmt.setQueryTimeout(timeout);
+            }
+            return Proxy.newProxyInstance(GuardedConnection.class.getClassLoader(),
+                    new Class<?>[] { method.getReturnType() }, new GuardedStatement(stmt));
+        }
+        return result;
+    }
+
+    /**
+     * Reports the outcome of the {@code execute} methods of a statement.
+     */
+    private class GuardedStatement implements InvocationHandler {
+
+        private final Statement stmt;
+
+        GuardedStatement(Statement stmt) {
+            this.stmt = stmt;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeOn(stmt, method, args);
+            }
+            try {
+                Object result = invokeOn(stmt, method, args);
+                breaker.success();
+                return result;
+            } catch (SQLException e) {
+                breaker.record(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -2,9 +2,12 @@ package in.co.rays.proj4.util;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import in.co.rays.proj4.bean.DropdownListBean;
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.controller.LoginCtl;
+import in.co.rays.proj4.controller.ORSView;
 import in.co.rays.proj4.model.RoleModel;
 
 /**
@@ -23,6 +26,12 @@ import in.co.rays.proj4.model.RoleModel;
  * </ul>
  *
  * <p>
+ * The markup of a dropdown is built once per version of its data and kept in
+ * the {@link FragmentCache}; only the selected option is marked per request.
+ * The header menu of each role is kept there as well.
+ * </p>
+ *
+ * <p>
  * Used heavily in forms like:
  * <ul>
  *     <li>User Registration</li>
@@ -47,24 +56,14 @@ public class HTMLUtility {
      */
     public static String getList(String name, String selectedVal, HashMap<String, String> map) {
 
-        StringBuffer sb = new StringBuffer(
-                "<select style=\"width: 169px;text-align-last: center;\"; class='form-control' name='" + name + "'>");
-
-        sb.append("\n<option selected value=''>-------------Select-------------</option>");
-
-        Set<String> keys = map.keySet();
-        String val = null;
-
-        for (String key : keys) {
-            val = map.get(key);
-            if (key.trim().equals(selectedVal)) {
-                sb.append("\n<option selected value='" + key + "'>" + val + "</option>");
-            } else {
-                sb.append("\n<option value='" + key + "'>" + val + "</option>");
-            }
+        String[] keys = new String[map.size()];
+        String[] values = new String[keys.length];
+        int i = 0;
+        for (Map.Entry<String, String> e : map.entrySet()) {
+            keys[i] = String.valueOf(e.getKey());
+            values[i++] = String.valueOf(e.getValue());
         }
-        sb.append("\n</select>");
-        return sb.toString();
+        return FragmentCache.select(name, keys, values).render(selectedVal);
     }
 
     /**
@@ -86,28 +85,72 @@ public class HTMLUtility {
 
         List<DropdownListBean> dd = (List<DropdownListBean>) list;
 
-        StringBuffer sb = new StringBuffer("<select style=\"width: 169px;text-align-last: center;\"; "
-                + "class='form-control' name='" + name + "'>");
+        String[] keys = new String[dd.size()];
+        String[] values = new String[keys.length];
+        int i = 0;
+        for (DropdownListBean obj : dd) {
+            keys[i] = String.valueOf(obj.getKey());
+            values[i++] = String.valueOf(obj.getValue());
+        }
+        return FragmentCache.select(name, keys, values).render(selectedVal);
+    }
 
-        sb.append("\n<option selected value=''>-------------Select-------------</option>");
+    /**
+     * Returns the menu links of the header for a role. The menu is the same
+     * for every user of a role, so it is rendered once per role.
+     *
+     * @param roleId role of the signed in user
+     * @return HTML of the menu, from My Profile to Logout
+     */
+    public static String getMenu(long roleId) {
+        return FragmentCache.menu(roleId, HTMLUtility::renderMenu);
+    }
 
-        String key = null;
-        String val = null;
+    private static String renderMenu(long roleId) {
+
+        StringBuilder sb = new StringBuilder(2048);
+        link(sb, ORSView.MY_PROFILE_CTL, "My Profile");
+        link(sb, ORSView.CHANGE_PASSWORD_CTL, "Change Password");
+        link(sb, ORSView.GET_MARKSHEET_CTL, "Get Marksheet");
+        link(sb, ORSView.BULK_MARKSHEET_CTL, "Bulk Marksheet");
+        link(sb, ORSView.MARKSHEET_MERIT_LIST_CTL, "Merit List");
+
+        if (roleId == RoleBean.ADMIN) {
+            link(sb, ORSView.USER_CTL, "Add User");
+            link(sb, ORSView.USER_LIST_CTL, "User List");
+            link(sb, ORSView.ROLE_CTL, "Add Role");
+            link(sb, ORSView.ROLE_LIST_CTL, "Role List");
+            link(sb, ORSView.PATIENT_CTL, "Add Patient");
+            link(sb, ORSView.PATIENT_LIST_CTL, "Patient List");
+            link(sb, ORSView.COLLEGE_CTL, "Add College");
+            link(sb, ORSView.COLLEGE_LIST_CTL, "College List");
+        }
 
-        for (DropdownListBean obj : dd) {
-            key = obj.getKey();
-            val = obj.getValue();
-
-            if (key.trim().equals(selectedVal)) {
-                sb.append("\n<option selected value='" + key + "'>" + val + "</option>");
-            } else {
-                sb.append("\n<option value='" + key + "'>" + val + "</option>");
-            }
+        if (roleId == RoleBean.FACULTY || roleId == RoleBean.ADMIN) {
+            link(sb, ORSView.STUDENT_CTL, "Add Student");
+            link(sb, ORSView.STUDENT_LIST_CTL, "Student List");
+            link(sb, ORSView.MARKSHEET_CTL, "Add Marksheet");
+            link(sb, ORSView.MARKSHEET_LIST_CTL, "Marksheet List");
+            link(sb, ORSView.COURSE_CTL, "Add Course");
+            link(sb, ORSView.COURSE_LIST_CTL, "Course List");
+            link(sb, ORSView.SUBJECT_CTL, "Add Subject");
+            link(sb, ORSView.SUBJECT_LIST_CTL, "Subject List");
+            link(sb, ORSView.FACULTY_CTL, "Add Faculty");
+            link(sb, ORSView.FACULTY_LIST_CTL, "Faculty List");
+            link(sb, ORSView.TIMETABLE_CTL, "Add Timetable");
+            link(sb, ORSView.TIMETABLE_LIST_CTL, "Timetable List");
         }
-        sb.append("\n</select>");
+
+        sb.append("\n    <a href=\"").append(ORSView.JAVA_DOC).append("\" target=\"blank\"><b>Java Doc</b></a> |");
+        sb.append("\n    <a href=\"").append(ORSView.LOGIN_CTL).append("?operation=").append(LoginCtl.OP_LOG_OUT)
+                .append("\"><b>Logout</b></a>\n");
         return sb.toString();
     }
 
+    private static void link(StringBuilder sb, String href, String label) {
+        sb.append("\n    <a href=\"").append(href).append("\"><b>").append(label).append("</b></a> |");
+    }
+
     /**
      * Test method: Generates a dropdown using a HashMap.
      */
@@ -0,0 +1,87 @@
+package in.co.rays.proj4.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * {@link ConnectionPool} backed by HikariCP, whose lock-free checkout is much
+ * cheaper under contention than c3p0's and whose size can be changed while it
+ * is in use. For MySQL it also turns on the driver's prepared statement
+ * cache, since every model call prepares its statements anew.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class HikariConnectionPool implements ConnectionPool {
+
+    /** HikariCP does not accept a shorter checkout timeout. */
+    private static final long MIN_TIMEOUT = 250;
+
+    private HikariDataSource ds;
+
+    public void open(Settings settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(settings.getName());
+        config.setDriverClassName(settings.getDriver());
+        config.setJdbcUrl(settings.getUrl());
+        config.setUsername(settings.getUsername());
+        config.setPassword(settings.getPassword());
+        config.setMinimumIdle(Math.min(settings.getMinSize(), settings.getMaxSize()));
+        config.setMaximumPoolSize(settings.getMaxSize());
+        config.setConnectionTimeout(Math.max(MIN_TIMEOUT, settings.getCheckoutTimeout()));
+        // start even when the database is down, as c3p0 did; checkouts fail until it is up
+        config.setInitializationFailTimeout(-1);
+        if (settings.getUrl().startsWith("jdbc:mysql:")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", "250");
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        }
+        ds = new HikariDataSource(config);
+    }
+
+    public Connection getConnection() throws SQLException {
+        return ds.getConnection();
+    }
+
+    public int getActive() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    public int getIdle() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    public int getWaiting() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    public int getMaxSize() {
+        return ds.getHikariConfigMXBean().getMaximumPoolSize();
+    }
+
+    public void setMaxSize(int size) {
+        ds.getHikariConfigMXBean().setMaximumPoolSize(size);
+    }
+
+    public boolean isResizable() {
+        return true;
+    }
+
+    public void evict() {
+        HikariPoolMXBean pool = ds.getHikariPoolMXBean();
+        if (pool != null) {
+            pool.softEvictConnections();
+        }
+    }
+
+    public void close() {
+        ds.close();
+    }
+}
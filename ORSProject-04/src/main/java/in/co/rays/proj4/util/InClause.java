@@ -0,0 +1,132 @@
+package in.co.rays.proj4.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * InClause helps the models run multi-get queries of the form
+ * {@code select * from st_xxx where id in (?, ?, ...)}.
+ *
+ * <p>
+ * Keys are split into chunks of at most {@link #CHUNK_SIZE}. Every chunk is
+ * padded up to the next power of two by repeating its last key, so a lookup of
+ * any size uses one of only a handful of distinct SQL strings. That keeps the
+ * driver and server statement caches warm instead of filling them with one
+ * statement per list length.
+ * </p>
+ *
+ * Typical use inside a model:
+ * <pre>
+ * long[] keys = InClause.distinct(ids);
+ * for (int from = 0; from &lt; keys.length; from += InClause.CHUNK_SIZE) {
+ *     int size = InClause.chunkSize(keys.length - from);
+ *     PreparedStatement pstmt = conn.prepareStatement(
+ *             "select * from st_student where id in (" + InClause.placeholders(size) + ")");
+ *     InClause.bind(pstmt, keys, from, size);
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class InClause {
+
+    /** Maximum number of keys sent in one IN query. */
+    public static final int CHUNK_SIZE = 512;
+
+    /** Cached "?, ?, ..." strings indexed by log2 of the chunk size. */
+    private static final String[] PLACEHOLDERS = new String[Integer.numberOfTrailingZeros(CHUNK_SIZE) + 1];
+
+    static {
+        for (int i = 0; i < PLACEHOLDERS.length; i++) {
+            int n = 1 << i;
+            StringBuilder sb = new StringBuilder(n * 3);
+            for (int j = 0; j < n; j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+                sb.append('?');
+            }
+            PLACEHOLDERS[i] = sb.toString();
+        }
+    }
+
+    /**
+     * Returns the padded size of the next chunk.
+     *
+     * @param remaining number of keys still to be queried
+     * @return power of two between 1 and {@link #CHUNK_SIZE}
+     */
+    public static int chunkSize(int remaining) {
+        if (remaining >= CHUNK_SIZE) {
+            return CHUNK_SIZE;
+        }
+        return remaining <= 1 ? 1 : Integer.highestOneBit(remaining - 1) << 1;
+    }
+
+    /**
+     * Returns the placeholder list for a chunk size returned by
+     * {@link #chunkSize(int)}.
+     *
+     * @param size padded chunk size
+     * @return comma separated list of '?'
+     */
+    public static String placeholders(int size) {
+        return PLACEHOLDERS[Integer.numberOfTrailingZeros(size)];
+    }
+
+    /**
+     * Binds one chunk of long keys to the statement, repeating the last key of
+     * the chunk for the padding slots.
+     *
+     * @param pstmt statement prepared with {@link #placeholders(int)}
+     * @param keys  all keys
+     * @param from  index of the first key of this chunk
+     * @param size  padded chunk size
+     * @throws SQLException if binding fails
+     */
+    public static void bind(PreparedStatement pstmt, long[] keys, int from, int size) throws SQLException {
+        int last = Math.min(keys.length, from + size) - 1;
+        for (int i = 0; i < size; i++) {
+            pstmt.setLong(i + 1, keys[Math.min(from + i, last)]);
+        }
+    }
+
+    /**
+     * Binds one chunk of string keys to the statement, repeating the last key
+     * of the chunk for the padding slots.
+     *
+     * @param pstmt statement prepared with {@link #placeholders(int)}
+     * @param keys  all keys
+     * @param from  index of the first key of this chunk
+     * @param size  padded chunk size
+     * @throws SQLException if binding fails
+     */
+    public static void bind(PreparedStatement pstmt, String[] keys, int from, int size) throws SQLException {
+        int last = Math.min(keys.length, from + size) - 1;
+        for (int i = 0; i < size; i++) {
+            pstmt.setString(i + 1, keys[Math.min(from + i, last)]);
+        }
+    }
+
+    /**
+     * Returns the sorted distinct keys of the given array. The input is not
+     * modified.
+     *
+     * @param ids keys, possibly with duplicates
+     * @return sorted keys without duplicates
+     */
+    public static long[] distinct(long[] ids) {
+        long[] keys = Arrays.copyOf(ids, ids.length);
+        Arrays.sort(keys);
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (n == 0 || keys[i] != keys[n - 1]) {
+                keys[n++] = keys[i];
+            }
+        }
+        return n == keys.length ? keys : Arrays.copyOf(keys, n);
+    }
+}
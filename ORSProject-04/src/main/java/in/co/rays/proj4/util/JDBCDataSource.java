@@ -1,14 +1,21 @@
 package in.co.rays.proj4.util;
 
 import java.sql.*;
-import java.util.ResourceBundle;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-import com.mchange.v2.c3p0.ComboPooledDataSource;
+import org.apache.log4j.Logger;
 
 /**
  * <p>
  * JDBCDataSource is a Singleton class responsible for managing all database
- * connections using the C3P0 connection pooling library.
+ * connections through a pluggable {@link ConnectionPool}.
  * </p>
  *
  * <p>
@@ -16,25 +23,98 @@ import com.mchange.v2.c3p0.ComboPooledDataSource;
  * </p>
  * <ul>
  *     <li>Loads database configuration from system.properties file</li>
- *     <li>Creates and manages a shared connection pool</li>
+ *     <li>Creates and manages one connection pool per {@link Workload}</li>
  *     <li>Provides static methods to acquire and close connections</li>
  *     <li>Ensures efficient memory and resource usage</li>
  * </ul>
  *
  * <p>
- * Parameters loaded from the ResourceBundle:
+ * Parameters loaded from {@link SystemConfig}:
  * </p>
  * <ul>
+ *     <li>pool.provider  {@code hikari}, {@code c3p0} or a {@link ConnectionPool} class name</li>
  *     <li>driver  JDBC driver class</li>
  *     <li>url  Database connection URL</li>
+ *     <li>url.failover  comma separated URLs of the primary's hosts, most preferred first, instead of url</li>
+ *     <li>replica.urls  comma separated URLs of read replicas, none by default</li>
+ *     <li>replica.retry.interval  milliseconds before a failed replica is tried again</li>
  *     <li>username  DB username</li>
  *     <li>password  DB password</li>
- *     <li>initialpoolsize  starting number of connections</li>
- *     <li>acquireincrement  connections added when pool is exhausted</li>
- *     <li>maxpoolsize  maximum allowed connections</li>
+ *     <li>initialpoolsize  maximum pool size to start with</li>
+ *     <li>minpoolsize  connections kept open, and the smallest maximum size</li>
+ *     <li>maxpoolsize  largest maximum size adaptive sizing may reach</li>
+ *     <li>acquireincrement  step by which the maximum size is changed</li>
+ *     <li>pool.checkout.timeout  milliseconds to wait for a connection</li>
+ *     <li>pool.adaptive  whether to adjust the maximum size to the load</li>
+ *     <li>pool.adapt.interval  milliseconds between size adjustments</li>
+ *     <li>pool.adapt.wait  mean checkout wait, in milliseconds, above which the pool grows</li>
+ *     <li>query.timeout.interactive, query.timeout.reporting, query.timeout.write  statement
+ *         timeouts, in seconds, of reads per workload and of writes</li>
  * </ul>
  *
  * <p>
+ * The pools are bulkheads: interactive queries and long reporting scans draw
+ * on separate connections, so a run of merit lists or full-table preloads
+ * cannot starve logins and saves. The sizing keys above and the checkout
+ * timeout may be set per pool as {@code pool.<workload>.<key>}, for example
+ * {@code pool.reporting.maxpoolsize}; a pool without its own value uses the
+ * shared one.
+ * </p>
+ *
+ * <p>
+ * Reads and writes are routed separately. {@link #getConnection(Workload)}
+ * always returns a connection of the primary database and is used for
+ * writes; {@link #getReadConnection(Workload)} is used by the read-only model
+ * methods and takes the replicas in turn, each with pools of its own. A read
+ * goes to the primary instead when the current {@link UnitOfWork} must see
+ * its own writes, or when every replica is down. A read that must not lag
+ * behind the primary takes {@link #getPrimaryReadConnection(Workload)}, which
+ * does not send the rest of the unit to the primary. A replica whose checkout
+ * fails is left out for {@code replica.retry.interval}; after that the next
+ * read tries it again, and it is back in the rotation once a checkout
+ * succeeds.
+ * </p>
+ *
+ * <p>
+ * When {@code url.failover} (or {@code -Ddb.failover.urls}) lists hosts, the
+ * primary pools connect through {@link FailoverDriver} to the current host of
+ * a {@link DatabaseHosts} list, which checks the hosts in the background and
+ * fails over to the next one that is up, and back when the preferred host
+ * has recovered. On each switch the pools retire their connections to the
+ * old host but are otherwise kept, with their sizes and counters. The state
+ * of the hosts and the switches are available from {@link #getHosts()}.
+ * </p>
+ *
+ * <p>
+ * A checkout that cannot get a connection within {@code pool.checkout.timeout}
+ * fails with an {@link SQLTransientConnectionException} naming the pool and
+ * its state, instead of waiting indefinitely or returning null.
+ * </p>
+ *
+ * <p>
+ * Every statement created on a checked out connection gets the query timeout
+ * of its operation class: {@code query.timeout.write} on connections from
+ * {@link #getConnection(Workload)}, and the timeout of the workload on read
+ * connections. Each pool has a {@link CircuitBreaker} that counts checkouts
+ * the driver could not connect for and failed statements; a checkout that
+ * only timed out because every connection was busy is left to the
+ * {@link ConcurrencyLimiter}. While the breaker is open, checkouts of the
+ * pool fail at once with an {@link SQLTransientConnectionException}, and a
+ * read replica whose breaker is open is left out like one that is down.
+ * </p>
+ *
+ * <p>
+ * Every checkout is timed. When the pool can be resized in place, the maximum
+ * size is adjusted between {@code minpoolsize} and {@code maxpoolsize} once
+ * per interval: it grows by {@code acquireincrement} when checkouts waited
+ * longer than {@code pool.adapt.wait} on average or timed out, and shrinks
+ * when they did not wait and connections sat idle. The counters and the wait
+ * histogram are available from {@link #getStats(Workload)}. The waits and
+ * the timeouts are also reported to the {@link ConcurrencyLimiter}, which
+ * admits fewer requests while checkouts queue.
+ * </p>
+ *
+ * <p>
  * This class is used throughout the project to safely obtain and release
  * connections for all model classes.
  * </p>
@@ -44,68 +124,579 @@ import com.mchange.v2.c3p0.ComboPooledDataSource;
  */
 public class JDBCDataSource {
 
-    /** Singleton instance of JDBCDataSource */
-    private static JDBCDataSource jds = null;
+    private static final Logger log = Logger.getLogger(JDBCDataSource.class);
+
+    /** Lazily created pools, one per workload, safe to reach from several threads at once */
+    private static class Holder {
+        private static final Map<Workload, JDBCDataSource> INSTANCES = new EnumMap<Workload, JDBCDataSource>(
+                Workload.class);
+
+        /** Hosts of the primary, or null when it has a single URL */
+        private static final DatabaseHosts HOSTS = newHosts();
+
+        static {
+            String driver = getSetting("db.driver", "driver");
+            String[] replicaUrls = getUrls("db.replica.urls", "replica.urls");
+            for (Workload workload : Workload.values()) {
+                JDBCDataSource[] replicas = new JDBCDataSource[replicaUrls.length];
+                for (int i = 0; i < replicas.length; i++) {
+                    replicas[i] = new JDBCDataSource(workload, workload.getKey() + ".replica" + (i + 1), driver,
+                            replicaUrls[i], new JDBCDataSource[0]);
+                }
+                INSTANCES.put(workload, HOSTS == null
+                        ? new JDBCDataSource(workload, workload.getKey(), driver, getPrimaryUrl(), replicas)
+                        : new JDBCDataSource(workload, workload.getKey(), FailoverDriver.class.getName(),
+                                HOSTS.getDriverUrl(), replicas));
+            }
+            if (HOSTS != null) {
+                HOSTS.addListener(new DatabaseHosts.Listener() {
+                    public void switched(int from, int to) {
+                        for (JDBCDataSource primary : INSTANCES.values()) {
+                            primary.evict();
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private final Workload workload;
 
-    /** C3P0 connection pool instance */
-    private ComboPooledDataSource cpds = null;
+    private final String name;
 
-    /** Loads DB configuration from system.properties file */
-    private static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
+    /** Read replicas of a primary pool, empty for a replica */
+    private final JDBCDataSource[] replicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /** Set while a replica is left out of the rotation */
+    private volatile boolean down;
+
+    private final AtomicLong retryAt = new AtomicLong();
+
+    private final String provider;
+
+    private final CircuitBreaker breaker;
+
+    /** The pool, or null if it could not be created */
+    private final ConnectionPool pool;
+
+    private final Throwable failure;
+
+    private final long checkoutTimeout;
+
+    private volatile int minSize;
+
+    private volatile int limit;
+
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder[] waits = new LongAdder[PoolStats.WAIT_BOUNDS.length + 1];
+
+    /** Counters of the current adaptive sizing interval */
+    private final LongAdder windowCheckouts = new LongAdder();
+    private final LongAdder windowWaitNanos = new LongAdder();
+    private final LongAdder windowTimeouts = new LongAdder();
+    private final AtomicLong nextAdapt = new AtomicLong();
 
     /**
-     * Private constructor to initialize connection pool.
-     * This ensures Singleton implementation.
+     * Private constructor to initialize the connection pool of a workload on
+     * one database. This ensures Singleton implementation.
      */
-    private JDBCDataSource() {
+    private JDBCDataSource(Workload workload, String name, String driver, String url, JDBCDataSource[] replicas) {
+
+        this.workload = workload;
+        this.name = name;
+        this.replicas = replicas;
+        this.breaker = new CircuitBreaker(name);
+        this.provider = getSetting("pool.provider", "pool.provider");
+        this.checkoutTimeout = SystemConfig.getLong("pool." + workload.getKey() + ".checkout.timeout",
+                SystemConfig.getLong("pool.checkout.timeout", 5000));
+        this.minSize = getPoolInt("minpoolsize", 10);
+        this.limit = Math.max(minSize, getPoolInt("maxpoolsize", 100));
 
+        for (int i = 0; i < waits.length; i++) {
+            waits[i] = new LongAdder();
+        }
+
+        ConnectionPool created = null;
+        Throwable error = null;
+        int start = limit;
         try {
-            cpds = new ComboPooledDataSource();
-            cpds.setDriverClass(rb.getString("driver"));
+            created = newPool(provider);
+            // without adaptive sizing the pool may always grow to maxpoolsize
+            if (isAdaptive() && created.isResizable()) {
+                start = clamp(getPoolInt("initialpoolsize", minSize));
+            }
+            created.open(new ConnectionPool.Settings(name, driver, url,
+                    getSetting("db.username", "username"), getSetting("db.password", "password"), minSize, start,
+                    checkoutTimeout));
+            log.info("Connection pool " + name + " (" + provider + ") sized " + minSize + ".." + start + " of "
+                    + limit);
+        } catch (Throwable e) {
+            log.error("Cannot create connection pool " + name + " (" + provider + ")", e);
+            created = null;
+            error = e;
+        }
+        this.pool = created;
+        this.failure = error;
+        this.nextAdapt.set(System.nanoTime() + adaptInterval());
+
+        SystemConfig.addListener(new SystemConfig.Listener() {
+            public void reloaded() {
+                resize();
+            }
+        });
+    }
 
-            String env = System.getProperty("env");
+    /**
+     * Returns the URL of the primary database.
+     */
+    private static String getPrimaryUrl() {
+        if (System.getProperty("db.url") != null) {
+            return System.getProperty("db.url");
+        } else if ("docker".equals(System.getProperty("env"))) {
+            return SystemConfig.getString("url.docker");
+        }
+        return SystemConfig.getString("url.local");
+    }
 
-            if ("docker".equals(env)) {
-                cpds.setJdbcUrl(rb.getString("url.docker"));
-            } else {
-                cpds.setJdbcUrl(rb.getString("url.local"));
+    /**
+     * Creates and starts the host list of the primary when
+     * {@code url.failover} names its hosts.
+     */
+    private static DatabaseHosts newHosts() {
+        String[] urls = getUrls("db.failover.urls", "url.failover");
+        if (urls.length == 0) {
+            return null;
+        }
+        try {
+            DatabaseHosts hosts = new DatabaseHosts("primary", getSetting("db.driver", "driver"), urls,
+                    getSetting("db.username", "username"), getSetting("db.password", "password"));
+            hosts.start();
+            return hosts;
+        } catch (ClassNotFoundException e) {
+            log.error("Cannot load the JDBC driver of the failover hosts, using the primary URL alone", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a comma separated list of URLs, for example
+     * {@code -Ddb.replica.urls} or {@code replica.urls}.
+     */
+    private static String[] getUrls(String property, String key) {
+        String value = getSetting(property, key);
+        List<String> urls = new ArrayList<String>();
+        if (value != null) {
+            for (String url : value.split(",")) {
+                if (url.trim().length() > 0) {
+                    urls.add(url.trim());
+                }
             }
+        }
+        return urls.toArray(new String[urls.size()]);
+    }
 
-           
-            
-            cpds.setUser(rb.getString("username"));
-            cpds.setPassword(rb.getString("password"));
-            cpds.setInitialPoolSize(Integer.parseInt(rb.getString("initialpoolsize")));
-            cpds.setAcquireIncrement(Integer.parseInt(rb.getString("acquireincrement")));
-            cpds.setMaxPoolSize(Integer.parseInt(rb.getString("maxpoolsize")));
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Creates the pool implementation named by {@code pool.provider}.
+     */
+    private static ConnectionPool newPool(String provider) throws Exception {
+        if ("hikari".equalsIgnoreCase(provider)) {
+            return new HikariConnectionPool();
+        } else if ("c3p0".equalsIgnoreCase(provider)) {
+            return new C3p0ConnectionPool();
         }
+        return (ConnectionPool) Class.forName(provider).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Returns a connection setting, letting a system property (for example
+     * {@code -Ddb.url=...} from the benchmarks and load tests) override the
+     * value in system.properties.
+     *
+     * @param property system property name
+     * @param key      key in system.properties
+     * @return the setting
+     */
+    private static String getSetting(String property, String key) {
+        String value = System.getProperty(property);
+        return value != null ? value : SystemConfig.getString(key);
+    }
+
+    /**
+     * Returns a sizing setting of this pool: {@code pool.<workload>.<key>},
+     * or the shared {@code key} if the pool has no value of its own.
+     */
+    private int getPoolInt(String key, int defaultValue) {
+        return SystemConfig.getInt("pool." + workload.getKey() + "." + key, SystemConfig.getInt(key, defaultValue));
     }
 
     /**
-     * Returns the Singleton instance of JDBCDataSource.
+     * Returns the Singleton instance of JDBCDataSource for interactive
+     * queries.
      *
      * @return JDBCDataSource instance
      */
     public static JDBCDataSource getInstance() {
-        if (jds == null) {
-            jds = new JDBCDataSource();
+        return getInstance(Workload.INTERACTIVE);
+    }
+
+    /**
+     * Returns the Singleton instance of JDBCDataSource for a workload.
+     *
+     * @param workload workload of the pool
+     * @return JDBCDataSource instance
+     */
+    public static JDBCDataSource getInstance(Workload workload) {
+        return Holder.INSTANCES.get(workload);
+    }
+
+    /**
+     * Returns a database connection from the interactive connection pool of
+     * the primary database.
+     *
+     * @return Connection object
+     * @throws SQLException if no connection is available within
+     *                      {@code pool.checkout.timeout}, or the pool could
+     *                      not be created
+     */
+    public static Connection getConnection() throws SQLException {
+        return getConnection(Workload.INTERACTIVE);
+    }
+
+    /**
+     * Returns a database connection from the connection pool of a workload
+     * on the primary database, for statements that write. The reads of the
+     * current {@link UnitOfWork} go to the primary from then on.
+     *
+     * @param workload workload of the query the connection is for
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool's
+     *                      checkout timeout, or the pool could not be created
+     */
+    public static Connection getConnection(Workload workload) throws SQLException {
+        UnitOfWork.markWritten();
+        return getInstance(workload).checkout(true);
+    }
+
+    /**
+     * Returns a database connection for interactive reads, from a read
+     * replica if there is one.
+     *
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool's
+     *                      checkout timeout, or the pool could not be created
+     */
+    public static Connection getReadConnection() throws SQLException {
+        return getReadConnection(Workload.INTERACTIVE);
+    }
+
+    /**
+     * Returns a database connection for reads of a workload. The connection
+     * comes from the next available replica, or from the primary when there
+     * are no replicas, none is available, or the current {@link UnitOfWork}
+     * must see its own writes. Only statements that do not write may be run
+     * on it.
+     *
+     * @param workload workload of the query the connection is for
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool's
+     *                      checkout timeout, or the pool could not be created
+     */
+    public static Connection getReadConnection(Workload workload) throws SQLException {
+        return getInstance(workload).checkoutRead();
+    }
+
+    /**
+     * Returns a database connection for interactive reads from the primary
+     * database.
+     *
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool's
+     *                      checkout timeout, or the pool could not be created
+     */
+    public static Connection getPrimaryReadConnection() throws SQLException {
+        return getPrimaryReadConnection(Workload.INTERACTIVE);
+    }
+
+    /**
+     * Returns a database connection for reads of a workload from the primary
+     * database, for reads that must not lag behind it, such as the checks
+     * that decide whether a sign in is still valid. Unlike
+     * {@link #getConnection(Workload)}, it leaves the reads of the current
+     * {@link UnitOfWork} where they were. Only statements that do not write
+     * may be run on it.
+     *
+     * @param workload workload of the query the connection is for
+     * @return Connection object
+     * @throws SQLException if no connection is available within the pool's
+     *                      checkout timeout, or the pool could not be created
+     */
+    public static Connection getPrimaryReadConnection(Workload workload) throws SQLException {
+        return getInstance(workload).checkout(false);
+    }
+
+    /**
+     * Returns the counters of the interactive connection pool.
+     *
+     * @return a snapshot of the pool counters
+     */
+    public static PoolStats getStats() {
+        return getStats(Workload.INTERACTIVE);
+    }
+
+    /**
+     * Returns the counters of the connection pool of a workload.
+     *
+     * @param workload workload of the pool
+     * @return a snapshot of the pool counters
+     */
+    public static PoolStats getStats(Workload workload) {
+        return getInstance(workload).stats();
+    }
+
+    /**
+     * Returns the hosts of the primary database, with the current host and
+     * the failovers so far.
+     *
+     * @return the hosts, or null unless {@code url.failover} is set
+     */
+    public static DatabaseHosts getHosts() {
+        return Holder.HOSTS;
+    }
+
+    /**
+     * Returns the counters of every connection pool, in {@link Workload}
+     * order, each primary pool followed by its replicas.
+     *
+     * @return snapshots of the pool counters
+     */
+    public static List<PoolStats> getAllStats() {
+        List<PoolStats> list = new ArrayList<PoolStats>();
+        for (Workload workload : Workload.values()) {
+            JDBCDataSource primary = getInstance(workload);
+            list.add(primary.stats());
+            for (JDBCDataSource replica : primary.replicas) {
+                list.add(replica.stats());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Checks out a read connection from the replicas in turn, falling back
+     * to this primary pool.
+     */
+    private Connection checkoutRead() throws SQLException {
+        int n = replicas.length;
+        if (n == 0 || UnitOfWork.readsFromPrimary()) {
+            return checkout(false);
+        }
+        int first = Math.floorMod(nextReplica.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            JDBCDataSource replica = replicas[(first + i) % n];
+            if (!replica.isAvailable()) {
+                continue;
+            }
+            try {
+                Connection conn = replica.checkout(false);
+                replica.markUp();
+                return conn;
+            } catch (SQLException e) {
+                replica.markDown();
+            }
         }
-        return jds;
+        return checkout(false);
     }
 
     /**
-     * Returns a database connection from the C3P0 connection pool.
+     * Retires the connections of the pool after its database host changed.
+     */
+    private void evict() {
+        if (pool != null) {
+            log.info("Retiring the connections of pool " + name);
+            pool.evict();
+        }
+    }
+
+    /**
+     * Tells whether a replica may be tried: it is up, or it is down and the
+     * retry interval has elapsed. One caller per interval gets to retry it.
+     */
+    private boolean isAvailable() {
+        if (!down) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long at = retryAt.get();
+        return now - at >= 0 && retryAt.compareAndSet(at, now + retryInterval());
+    }
+
+    private void markDown() {
+        retryAt.set(System.nanoTime() + retryInterval());
+        if (!down) {
+            down = true;
+            log.warn("Replica pool " + name + " is down, reads go to the other databases for "
+                    + TimeUnit.NANOSECONDS.toMillis(retryInterval()) + " ms");
+        }
+    }
+
+    private void markUp() {
+        if (down) {
+            down = false;
+            log.info("Replica pool " + name + " is back up");
+        }
+    }
+
+    private static long retryInterval() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(100, SystemConfig.getLong("replica.retry.interval", 10000)));
+    }
+
+    /**
+     * Checks out a connection, timing the wait, and wraps it to apply the
+     * query timeout and report to the circuit breaker.
      *
-     * @return Connection object or null if connection cannot be created
+     * @param write true if the connection is for statements that write
      */
-    public static Connection getConnection() {
+    private Connection checkout(boolean write) throws SQLException {
+
+        if (pool == null) {
+            throw new SQLNonTransientConnectionException("Connection pool " + name + " is not available: "
+                    + failure, failure);
+        }
+
+        if (!breaker.allow()) {
+            throw new SQLTransientConnectionException("Database is not answering, circuit breaker of pool " + name
+                    + " is " + breaker.getState());
+        }
+
+        long start = System.nanoTime();
         try {
-            return getInstance().cpds.getConnection();
+            Connection conn = pool.getConnection();
+            long waited = System.nanoTime() - start;
+            record(waited);
+            ConcurrencyLimiter.sample(waited, false);
+            return GuardedConnection.wrap(conn, queryTimeout(write), breaker);
         } catch (SQLException e) {
-            return null;
+            if (CircuitBreaker.isConnectFailure(e)) {
+                breaker.failure();
+            }
+            ConcurrencyLimiter.sample(System.nanoTime() - start, true);
+            timeouts.increment();
+            windowTimeouts.increment();
+            String msg = "No database connection from pool " + name + " within "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (active " + pool.getActive()
+                    + ", idle " + pool.getIdle() + ", waiting " + pool.getWaiting() + ", max " + pool.getMaxSize()
+                    + ")";
+            log.warn(msg + ": " + e.getMessage());
+            throw new SQLTransientConnectionException(msg, e.getSQLState(), e);
+        } finally {
+            adapt();
+        }
+    }
+
+    /**
+     * Adds a successful checkout to the counters.
+     */
+    private void record(long nanos) {
+        checkouts.increment();
+        windowCheckouts.increment();
+        windowWaitNanos.add(nanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int i = 0;
+        while (i < PoolStats.WAIT_BOUNDS.length && millis >= PoolStats.WAIT_BOUNDS[i]) {
+            i++;
+        }
+        waits[i].increment();
+    }
+
+    /**
+     * Adjusts the maximum pool size once the adaptive sizing interval has
+     * elapsed. One caller per interval does the work; the others go on.
+     */
+    private void adapt() {
+        long now = System.nanoTime();
+        long next = nextAdapt.get();
+        if (now - next < 0 || !nextAdapt.compareAndSet(next, now + adaptInterval())) {
+            return;
+        }
+
+        long n = windowCheckouts.sumThenReset();
+        long waited = windowWaitNanos.sumThenReset();
+        long failed = windowTimeouts.sumThenReset();
+
+        if (!isAdaptive() || !pool.isResizable()) {
+            return;
+        }
+
+        double meanWait = n == 0 ? 0 : waited / 1e6 / n;
+        double target = SystemConfig.getLong("pool.adapt.wait", 5);
+        int step = Math.max(1, SystemConfig.getInt("acquireincrement", 10));
+        int max = pool.getMaxSize();
+        int size = max;
+
+        if ((failed > 0 || meanWait > target) && max < limit) {
+            size = Math.min(limit, max + step);
+        } else if (failed == 0 && meanWait < target / 10 && pool.getIdle() > step && max > minSize) {
+            size = Math.max(minSize, max - step);
         }
+
+        if (size != max) {
+            log.info("Resizing connection pool " + name + " from " + max + " to " + size + " (mean wait "
+                    + String.format("%.2f", meanWait) + " ms, " + failed + " timeouts in " + n + " checkouts)");
+            pool.setMaxSize(size);
+        }
+    }
+
+    /**
+     * Applies changed size bounds from system.properties to the running pool.
+     */
+    private void resize() {
+        minSize = getPoolInt("minpoolsize", minSize);
+        limit = Math.max(minSize, getPoolInt("maxpoolsize", limit));
+        if (pool == null) {
+            return;
+        }
+        int max = pool.getMaxSize();
+        int size = isAdaptive() && pool.isResizable() ? clamp(max) : limit;
+        if (size != max) {
+            log.info("Resizing connection pool " + name + " from " + max + " to " + size);
+            pool.setMaxSize(size);
+        }
+    }
+
+    private PoolStats stats() {
+        long[] counts = new long[waits.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = waits[i].sum();
+        }
+        return new PoolStats(name, provider, pool == null ? 0 : pool.getActive(),
+                pool == null ? 0 : pool.getIdle(), pool == null ? 0 : pool.getWaiting(),
+                pool == null ? 0 : pool.getMaxSize(), minSize, limit, checkouts.sum(), timeouts.sum(), counts,
+                pool != null && !down, breaker.getState().name().toLowerCase(), breaker.getTrips(),
+                breaker.getRejected());
+    }
+
+    /**
+     * Returns the statement timeout, in seconds, of an operation class.
+     */
+    private int queryTimeout(boolean write) {
+        return write ? SystemConfig.getInt("query.timeout.write", 15)
+                : SystemConfig.getInt("query.timeout." + workload.getKey(),
+                        workload == Workload.REPORTING ? 60 : 10);
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(limit, size));
+    }
+
+    private static boolean isAdaptive() {
+        return SystemConfig.getBoolean("pool.adaptive", true);
+    }
+
+    private static long adaptInterval() {
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(100, SystemConfig.getLong("pool.adapt.interval", 5000)));
     }
 
     /**
@@ -0,0 +1,104 @@
+package in.co.rays.proj4.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * JdbcExecutor runs model calls off the servlet container's request threads
+ * and hands back a {@link CompletableFuture} for the result. It backs the
+ * {@code ...Async} methods of the models and the asynchronous controllers.
+ *
+ * <p>
+ * At most as many calls run at once as the connection pool has connections
+ * ({@code maxpoolsize}), so the number of JDBC calls in flight is capped
+ * explicitly and a worker never waits on the pool for a connection. Calls
+ * beyond that wait in a bounded queue ({@code jdbc.queue}); when the queue is
+ * full the returned future fails at once with an
+ * {@link ApplicationException} instead of piling up more work on a database
+ * that is already slow. The calls run on platform or virtual threads as
+ * chosen by {@link ThreadPools}, inside the {@link UnitOfWork} of the caller.
+ * </p>
+ *
+ * Example:
+ * <pre>
+ * public CompletableFuture&lt;List&lt;StudentBean&gt;&gt; searchAsync(StudentBean bean, int pageNo, int pageSize) {
+ *     return JdbcExecutor.supply(() -&gt; search(bean, pageNo, pageSize));
+ * }
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class JdbcExecutor {
+
+    private static final Logger log = Logger.getLogger(JdbcExecutor.class);
+
+    /**
+     * A unit of JDBC work, usually a call to a synchronous model method.
+     *
+     * @param <T> result type
+     */
+    public interface JdbcCall<T> {
+
+        /**
+         * Runs the call.
+         *
+         * @return result of the call
+         * @throws ApplicationException if the model call fails
+         */
+        T call() throws ApplicationException;
+    }
+
+    private static final int THREADS = SystemConfig.getInt("maxpoolsize", 100);
+
+    private static final int QUEUE = SystemConfig.getInt("jdbc.queue", 200);
+
+    private static final ExecutorService executor = ThreadPools.newBoundedExecutor("jdbc", THREADS, QUEUE, false);
+
+    /**
+     * Runs a call on the JDBC pool.
+     *
+     * @param <T>  result type
+     * @param call the model call
+     * @return future completed with the result, or exceptionally with the
+     *         {@link ApplicationException} thrown by the call
+     */
+    public static <T> CompletableFuture<T> supply(final JdbcCall<T> call) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        final UnitOfWork unit = UnitOfWork.current();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    UnitOfWork previous = UnitOfWork.attach(unit);
+                    try {
+                        future.complete(call.call());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    } finally {
+                        UnitOfWork.attach(previous);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("JDBC executor saturated, " + THREADS + " running and " + QUEUE + " queued");
+            future.completeExceptionally(new ApplicationException("Database is busy, please try again"));
+        }
+        return future;
+    }
+
+    /**
+     * Returns the executor itself, for callers that chain their own stages
+     * onto the JDBC pool.
+     *
+     * @return the JDBC executor
+     */
+    public static Executor executor() {
+        return executor;
+    }
+}
@@ -0,0 +1,185 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LongMap is a small open-addressing hash map keyed by primitive {@code long}
+ * values. It is used by the models' {@code findByPks(long[])} methods so that
+ * large id lookups do not box every key into a {@link Long}.
+ *
+ * <p>
+ * Null values are not allowed; {@link #get(long)} returns {@code null} for a
+ * missing key. The map is not synchronized and is meant to be filled once and
+ * then read by the calling request.
+ * </p>
+ *
+ * @param <V> value type
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class LongMap<V> {
+
+    /** Keys of the occupied slots. */
+    private long[] keys;
+
+    /** Values of the slots; a {@code null} entry marks a free slot. */
+    private Object[] values;
+
+    /** Number of entries in the map. */
+    private int size;
+
+    /** Bit mask used to turn a hash into a slot index. */
+    private int mask;
+
+    /**
+     * Creates an empty map sized for the given number of entries.
+     *
+     * @param expectedSize number of entries expected to be stored
+     */
+    public LongMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Creates an empty map with a default capacity.
+     */
+    public LongMap() {
+        this(8);
+    }
+
+    /**
+     * Stores a value against a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value, must not be null
+     * @return the previous value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongMap does not accept null values");
+        }
+        int i = indexOf(key);
+        V old = (V) values[i];
+        if (old == null) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        if (size * 2 > keys.length) {
+            resize();
+        }
+        return old;
+    }
+
+    /**
+     * Returns the value stored for a key.
+     *
+     * @param key the key
+     * @return value or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[indexOf(key)];
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key
+     * @return true if the map holds a value for the key
+     */
+    public boolean containsKey(long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    /**
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the map has no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns all keys in slot order.
+     *
+     * @return array of keys
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int j = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all values in slot order.
+     *
+     * @return list of values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<V>(size);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the slot holding the key, or the free slot where it would go.
+     */
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Doubles the table and re-inserts every entry.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Spreads sequential ids over the table (Fibonacci hashing).
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,316 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * PagePrefetcher serves the pages of a list that a user steps through with
+ * Next and Previous from memory.
+ *
+ * <p>
+ * A list page reads its page and the one after it, to know whether there is
+ * a next page. PagePrefetcher keeps both for the session, and reads the page
+ * after those on a background thread. When the user clicks Next, the page
+ * and the one after it are then both in memory, and no query is run while
+ * the user waits. The pages of a session are dropped, and a read still
+ * running is cancelled, when the session searches something else, jumps to
+ * a page that is not next to them or changes the table. Pages are kept for
+ * {@code prefetch.ttl} milliseconds, for at most {@code prefetch.sessions}
+ * sessions.
+ * </p>
+ *
+ * <p>
+ * The background reads must never take connections from the users. They run
+ * on {@code prefetch.threads} threads without a queue; a read is dropped
+ * when they are all busy, and also when the connection pool of the search
+ * has requests waiting or {@code prefetch.pool.percent} percent of its
+ * connections in use. A page still being read when the user asks for it is
+ * waited for at most {@code prefetch.wait} milliseconds. Setting
+ * {@code prefetch.enabled} to false reads every page on the request thread.
+ * </p>
+ *
+ * <p>
+ * Every caller gets its own copy of the list, but the beans in it are shared
+ * and must not be changed.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class PagePrefetcher {
+
+    private static final Logger log = Logger.getLogger(PagePrefetcher.class);
+
+    /**
+     * Reads a page of a search.
+     *
+     * @param <T> bean type
+     */
+    public interface PageQuery<T> {
+
+        /**
+         * Reads a page.
+         *
+         * @param pageNo   page number
+         * @param pageSize page size
+         * @return the page
+         * @throws ApplicationException if the query fails
+         */
+        List<T> page(int pageNo, int pageSize) throws ApplicationException;
+    }
+
+    /**
+     * A page of a list and the one after it.
+     *
+     * @param <T> bean type
+     */
+    public static final class Pages<T> {
+        private final List<T> list;
+        private final List<T> next;
+
+        private Pages(List<T> list, List<T> next) {
+            this.list = list;
+            this.next = next;
+        }
+
+        public List<T> getList() {
+            return list;
+        }
+
+        public List<T> getNext() {
+            return next;
+        }
+    }
+
+    /** The pages of one search kept for a session. */
+    private static final class Window {
+        private final String search;
+        private final long version;
+        private final Map<Integer, Future<List<?>>> pages = new ConcurrentHashMap<Integer, Future<List<?>>>();
+        private volatile long used = System.currentTimeMillis();
+
+        private Window(String search, long version) {
+            this.search = search;
+            this.version = version;
+        }
+
+        private void cancel() {
+            for (Future<List<?>> page : pages.values()) {
+                if (page.cancel(true)) {
+                    cancelled.increment();
+                }
+            }
+        }
+    }
+
+    private static final int THREADS = Math.max(1, SystemConfig.getInt("prefetch.threads", 2));
+
+    private static final ExecutorService executor = ThreadPools.newBoundedExecutor("prefetch", THREADS, 0, false);
+
+    private static final Map<String, Window> WINDOWS = new ConcurrentHashMap<String, Window>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder started = new LongAdder();
+    private static final LongAdder skipped = new LongAdder();
+    private static final LongAdder cancelled = new LongAdder();
+
+    private PagePrefetcher() {
+    }
+
+    /**
+     * Returns a page of a search and the one after it, from memory when the
+     * session has them, and starts reading the page after those.
+     *
+     * @param <T>      bean type
+     * @param request  the request, which names the session
+     * @param table    table searched
+     * @param bean     search criteria, may be null
+     * @param pageNo   page number
+     * @param pageSize page size
+     * @param query    reads a page of the search
+     * @return the page and the next one
+     * @throws ApplicationException if a query fails
+     */
+    public static <T> Pages<T> search(HttpServletRequest request, String table, Object bean, int pageNo,
+            int pageSize, PageQuery<T> query) throws ApplicationException {
+
+        String owner = owner(request);
+        if (owner == null || pageSize <= 0 || !SystemConfig.getBoolean("prefetch.enabled", true)) {
+            return new Pages<T>(query.page(pageNo, pageSize), query.page(pageNo + 1, pageSize));
+        }
+
+        String search = table + '\u0000' + SearchCache.fingerprint(bean, 0, pageSize);
+        long version = TableVersion.get(table);
+        Window window = WINDOWS.get(owner);
+        if (window == null || !window.search.equals(search) || window.version != version
+                || expired(window) || !window.pages.containsKey(pageNo) && !window.pages.containsKey(pageNo + 1)) {
+            if (window != null) {
+                window.cancel();
+            }
+            window = new Window(search, version);
+            if (!put(owner, window)) {
+                return new Pages<T>(query.page(pageNo, pageSize), query.page(pageNo + 1, pageSize));
+            }
+        }
+        window.used = System.currentTimeMillis();
+
+        List<T> list = get(window, pageNo, pageSize, query);
+        List<T> next = get(window, pageNo + 1, pageSize, query);
+
+        for (Iterator<Map.Entry<Integer, Future<List<?>>>> it = window.pages.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Integer, Future<List<?>>> e = it.next();
+            if (e.getKey() < pageNo - 1 || e.getKey() > pageNo + 2) {
+                if (e.getValue().cancel(true)) {
+                    cancelled.increment();
+                }
+                it.remove();
+            }
+        }
+        if (next != null && next.size() == pageSize && TableVersion.settled(table)) {
+            prefetch(window, table, pageNo + 2, pageSize, query);
+        }
+        return new Pages<T>(list, next);
+    }
+
+    /**
+     * Returns a page the window holds, or reads it on the calling thread.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> get(Window window, int pageNo, int pageSize, PageQuery<T> query)
+            throws ApplicationException {
+
+        Future<List<?>> page = window.pages.get(pageNo);
+        if (page != null && !page.isCancelled()) {
+            try {
+                List<T> list = (List<T>) page.get(SystemConfig.getLong("prefetch.wait", 200), TimeUnit.MILLISECONDS);
+                hits.increment();
+                return new ArrayList<T>(list);
+            } catch (TimeoutException e) {
+                log.debug("Prefetch of page " + pageNo + " not ready, reading it");
+            } catch (ExecutionException e) {
+                log.debug("Prefetch of page " + pageNo + " failed, reading it", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApplicationException("Interrupted while waiting for page " + pageNo);
+            }
+        }
+        misses.increment();
+        List<T> list = query.page(pageNo, pageSize);
+        if (list != null) {
+            window.pages.put(pageNo, CompletableFuture.<List<?>> completedFuture(new ArrayList<T>(list)));
+        }
+        return list;
+    }
+
+    /**
+     * Starts reading a page on the prefetch threads, unless the window has
+     * it or the budget is spent.
+     */
+    private static <T> void prefetch(final Window window, String table, final int pageNo, final int pageSize,
+            final PageQuery<T> query) {
+
+        if (window.pages.containsKey(pageNo)) {
+            return;
+        }
+        final Workload workload = Workload.ofSearch(pageSize);
+        if (busy(workload)) {
+            skipped.increment();
+            return;
+        }
+        try {
+            Future<List<?>> page = executor.submit(() -> {
+                if (busy(workload)) {
+                    skipped.increment();
+                    throw new IllegalStateException("Connection pool busy");
+                }
+                return (List<?>) query.page(pageNo, pageSize);
+            });
+            window.pages.put(pageNo, page);
+            started.increment();
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            log.debug("Prefetch threads busy, page " + pageNo + " of " + table + " not read");
+        }
+    }
+
+    /**
+     * Tells whether the pool of a workload is too busy to lend a connection
+     * to a prefetch.
+     */
+    private static boolean busy(Workload workload) {
+        PoolStats stats = JDBCDataSource.getStats(workload);
+        int percent = SystemConfig.getInt("prefetch.pool.percent", 50);
+        return stats.getWaiting() > 0 || stats.getActive() * 100 >= stats.getMaxSize() * percent;
+    }
+
+    /**
+     * Names the session of a request: the signed in user in stateless mode,
+     * otherwise the HTTP session, or null if there is neither.
+     */
+    private static String owner(HttpServletRequest request) {
+        SessionToken token = SessionToken.get(request);
+        if (token != null) {
+            return "u" + token.getUserId();
+        }
+        HttpSession session = request.getSession(false);
+        return session == null ? null : "s" + session.getId();
+    }
+
+    private static boolean put(String owner, Window window) {
+
+        if (WINDOWS.size() >= SystemConfig.getInt("prefetch.sessions", 1000)) {
+            for (Iterator<Window> it = WINDOWS.values().iterator(); it.hasNext();) {
+                Window w = it.next();
+                if (expired(w)) {
+                    it.remove();
+                    w.cancel();
+                }
+            }
+            if (WINDOWS.size() >= SystemConfig.getInt("prefetch.sessions", 1000)) {
+                log.debug("Prefetch windows full, not keeping pages of " + owner);
+                WINDOWS.remove(owner);
+                return false;
+            }
+        }
+        Window previous = WINDOWS.put(owner, window);
+        if (previous != null && previous != window) {
+            previous.cancel();
+        }
+        return true;
+    }
+
+    private static boolean expired(Window window) {
+        return System.currentTimeMillis() - window.used > SystemConfig.getLong("prefetch.ttl", 60000);
+    }
+
+    /**
+     * Returns the counters of the prefetcher as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        return new StringBuilder().append("prefetch.sessions=").append(WINDOWS.size()).append("\nprefetch.hits=")
+                .append(hits.sum()).append("\nprefetch.misses=").append(misses.sum()).append("\nprefetch.started=")
+                .append(started.sum()).append("\nprefetch.skipped=").append(skipped.sum())
+                .append("\nprefetch.cancelled=").append(cancelled.sum()).append('\n').toString();
+    }
+}
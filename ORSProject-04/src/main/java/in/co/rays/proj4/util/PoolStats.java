@@ -0,0 +1,195 @@
+package in.co.rays.proj4.util;
+
+/**
+ * PoolStats is a snapshot of the counters of a connection pool, as returned
+ * by {@link JDBCDataSource#getStats(Workload)}. The wait histogram counts checkouts
+ * by the time they waited for a connection: {@code waits[i]} is the number
+ * of checkouts that waited less than {@code WAIT_BOUNDS[i]} milliseconds and
+ * at least the bound before it; the last entry counts the longer ones.
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class PoolStats {
+
+    /** Upper bounds, in milliseconds, of the wait histogram buckets. */
+    public static final long[] WAIT_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+    private final String name;
+    private final String provider;
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int maxSize;
+    private final int minSize;
+    private final int limit;
+    private final long checkouts;
+    private final long timeouts;
+    private final long[] waits;
+    private final boolean up;
+    private final String breaker;
+    private final long trips;
+    private final long rejected;
+
+    PoolStats(String name, String provider, int active, int idle, int waiting, int maxSize, int minSize, int limit,
+            long checkouts, long timeouts, long[] waits, boolean up, String breaker, long trips, long rejected) {
+        this.name = name;
+        this.provider = provider;
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.minSize = minSize;
+        this.limit = limit;
+        this.checkouts = checkouts;
+        this.timeouts = timeouts;
+        this.waits = waits;
+        this.up = up;
+        this.breaker = breaker;
+        this.trips = trips;
+        this.rejected = rejected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Returns the current maximum size, which adaptive sizing moves between
+     * {@link #getMinSize()} and {@link #getLimit()}.
+     *
+     * @return current maximum number of connections
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getCheckouts() {
+        return checkouts;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Tells whether the pool is in use: it could be created and, for a read
+     * replica, is not left out of the rotation after a failed checkout.
+     *
+     * @return true if the pool is up
+     */
+    public boolean isUp() {
+        return up;
+    }
+
+    /**
+     * Returns the state of the pool's circuit breaker.
+     *
+     * @return {@code closed}, {@code open} or {@code half_open}
+     */
+    public String getBreaker() {
+        return breaker;
+    }
+
+    /**
+     * Returns the number of times the circuit breaker opened.
+     *
+     * @return breaker openings
+     */
+    public long getTrips() {
+        return trips;
+    }
+
+    /**
+     * Returns the number of checkouts refused by the open circuit breaker.
+     *
+     * @return refused checkouts
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Returns the wait histogram, one entry per bucket of {@link #WAIT_BOUNDS}
+     * plus one for longer waits.
+     *
+     * @return checkout counts per bucket
+     */
+    public long[] getWaits() {
+        return waits.clone();
+    }
+
+    /**
+     * Returns the wait below which the given percentage of checkouts fell,
+     * as the upper bound of its histogram bucket.
+     *
+     * @param percent percentage, 0 to 100
+     * @return bucket bound in milliseconds, or -1 if beyond the last bound
+     */
+    public long getWaitPercentile(double percent) {
+        long total = 0;
+        for (long w : waits) {
+            total += w;
+        }
+        long rank = (long) Math.ceil(percent / 100 * total);
+        long seen = 0;
+        for (int i = 0; i < WAIT_BOUNDS.length; i++) {
+            seen += waits[i];
+            if (seen >= rank) {
+                return WAIT_BOUNDS[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the counters as {@code key=value} lines.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("pool=").append(name).append('\n');
+        sb.append("provider=").append(provider).append('\n');
+        sb.append("up=").append(up).append('\n');
+        sb.append("active=").append(active).append('\n');
+        sb.append("idle=").append(idle).append('\n');
+        sb.append("waiting=").append(waiting).append('\n');
+        sb.append("size.max=").append(maxSize).append('\n');
+        sb.append("size.min=").append(minSize).append('\n');
+        sb.append("size.limit=").append(limit).append('\n');
+        sb.append("checkouts=").append(checkouts).append('\n');
+        sb.append("timeouts=").append(timeouts).append('\n');
+        sb.append("breaker=").append(breaker).append('\n');
+        sb.append("breaker.trips=").append(trips).append('\n');
+        sb.append("breaker.rejected=").append(rejected).append('\n');
+        for (int i = 0; i < waits.length; i++) {
+            sb.append(i < WAIT_BOUNDS.length ? "wait.lt." + WAIT_BOUNDS[i] + "ms=" : "wait.ge."
+                    + WAIT_BOUNDS[WAIT_BOUNDS.length - 1] + "ms=").append(waits[i]).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.log4j.Logger;
+
+/**
+ * PreloadExecutor fetches the preload datasets of a form controller
+ * (dropdown lists and the like) concurrently, so that rendering a form waits
+ * for the slowest query instead of the sum of all of them.
+ *
+ * <p>
+ * The datasets run on a small shared pool created by {@link ThreadPools}. The
+ * pool and its queue are bounded; when both are full the request thread runs
+ * the query itself, so a burst of requests degrades to the old sequential behaviour
+ * instead of queueing without limit. Results that are not ready within
+ * {@code preload.timeout} milliseconds are cancelled and replaced by an empty
+ * list, so the form still renders with an empty dropdown.
+ * </p>
+ *
+ * <p>
+ * The time taken by every dataset, in milliseconds, is put in request scope
+ * under {@link #TIMINGS} and written to the debug log. A timed out or failed
+ * dataset is recorded as {@code -1}.
+ * </p>
+ *
+ * Configuration keys in system.properties:
+ * <ul>
+ *     <li>preload.threads - number of worker threads</li>
+ *     <li>preload.timeout - maximum wait for all datasets, in milliseconds</li>
+ * </ul>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class PreloadExecutor {
+
+    private static final Logger log = Logger.getLogger(PreloadExecutor.class);
+
+    /** Request attribute holding the per-dataset timings. */
+    public static final String TIMINGS = "preloadTimings";
+
+    private static final int THREADS = Math.max(1, SystemConfig.getInt("preload.threads", 8));
+
+    private static final ExecutorService executor = ThreadPools.newBoundedExecutor("preload", THREADS, THREADS * 4,
+            true);
+
+    /**
+     * Fetches all datasets and sets each one as a request attribute under its
+     * name. Returns once every dataset is loaded or the timeout has elapsed.
+     *
+     * @param datasets attribute name to query, in declaration order
+     * @param request  the {@link HttpServletRequest} receiving the lists
+     */
+    public static void load(Map<String, Callable<List>> datasets, HttpServletRequest request) {
+
+        Map<String, Long> timings = new LinkedHashMap<String, Long>();
+        Map<String, Future<Long>> futures = new LinkedHashMap<String, Future<Long>>();
+
+        long start = System.nanoTime();
+        long timeout = Math.max(1L, SystemConfig.getLong("preload.timeout", 3000));
+
+        // a single dataset gains nothing from a thread hop
+        if (datasets.size() == 1) {
+            Map.Entry<String, Callable<List>> e = datasets.entrySet().iterator().next();
+            timings.put(e.getKey(), fetch(e.getKey(), e.getValue(), request));
+        } else {
+            for (Map.Entry<String, Callable<List>> e : datasets.entrySet()) {
+                futures.put(e.getKey(), executor.submit(task(e.getKey(), e.getValue(), request)));
+            }
+        }
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        for (Map.Entry<String, Future<Long>> e : futures.entrySet()) {
+            String name = e.getKey();
+            Future<Long> future = e.getValue();
+            try {
+                timings.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                log.warn("Preload of " + name + " timed out after " + timeout + " ms");
+                timings.put(name, -1L);
+            } catch (InterruptedException ex) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                timings.put(name, -1L);
+            } catch (ExecutionException ex) {
+                log.error("Error while preloading " + name, ex.getCause());
+                timings.put(name, -1L);
+            }
+            if (timings.get(name) < 0) {
+                synchronized (request) {
+                    request.setAttribute(name, new ArrayList());
+                }
+            }
+        }
+
+        request.setAttribute(TIMINGS, Collections.unmodifiableMap(timings));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Preloaded " + timings + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+                    + " ms");
+        }
+    }
+
+    /**
+     * Wraps a dataset query so that it sets its own request attribute when it
+     * completes in time.
+     */
+    private static Callable<Long> task(final String name, final Callable<List> query,
+            final HttpServletRequest request) {
+        final UnitOfWork unit = UnitOfWork.current();
+        return new Callable<Long>() {
+            public Long call() throws Exception {
+                long t = System.nanoTime();
+                List list;
+                UnitOfWork previous = UnitOfWork.attach(unit);
+                try {
+                    list = query.call();
+                } finally {
+                    UnitOfWork.attach(previous);
+                }
+                synchronized (request) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        request.setAttribute(name, list);
+                    }
+                }
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t);
+            }
+        };
+    }
+
+    /**
+     * Runs a dataset query on the calling thread.
+     */
+    private static long fetch(String name, Callable<List> query, HttpServletRequest request) {
+        long t = System.nanoTime();
+        try {
+            request.setAttribute(name, query.call());
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t);
+        } catch (Exception e) {
+            log.error("Error while preloading " + name, e);
+            request.setAttribute(name, new ArrayList());
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package in.co.rays.proj4.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import in.co.rays.proj4.bean.RoleBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.model.RoleModel;
+import in.co.rays.proj4.model.UserModel;
+
+/**
+ * ProfileCache holds the profiles of signed in users and the names of roles
+ * for {@code session.profile.ttl} milliseconds, so that in stateless mode,
+ * where a request only carries the ids in its {@link SessionToken}, a page
+ * that shows the user's name does not read st_user every time.
+ *
+ * <p>
+ * Profiles are loaded on first use. {@link UserModel} and {@link RoleModel}
+ * drop the entry of a record they update or delete; other nodes keep their
+ * copy until it expires, so the time to live bounds how stale a name in the
+ * header can be. The generation of each user's {@link SessionToken}s is kept
+ * the same way, so a token revoked through one node is refused by the others
+ * within that time too. At most {@code session.profile.max} profiles are kept; when
+ * the cache is full, expired entries are dropped, and if that is not enough,
+ * all of them.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class ProfileCache {
+
+    /** A cached value and when it was loaded. */
+    private static final class Entry<V> {
+        private final V value;
+        private final long loaded = System.currentTimeMillis();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    private static final Map<Long, Entry<UserBean>> USERS = new ConcurrentHashMap<Long, Entry<UserBean>>();
+    private static final Map<Long, Entry<String>> ROLES = new ConcurrentHashMap<Long, Entry<String>>();
+    private static final Map<Long, Entry<Long>> GENERATIONS = new ConcurrentHashMap<Long, Entry<Long>>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private ProfileCache() {
+    }
+
+    /**
+     * Returns the profile of a user, loading it if it is not cached.
+     *
+     * @param id id of the user
+     * @return the user, or null if there is no such user
+     * @throws ApplicationException if the user cannot be loaded
+     */
+    public static UserBean getUser(long id) throws ApplicationException {
+        Entry<UserBean> entry = USERS.get(id);
+        if (entry != null && !expired(entry)) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        UserBean bean = new UserModel().findByPk(id);
+        if (bean != null) {
+            put(USERS, id, new Entry<UserBean>(bean));
+        }
+        return bean;
+    }
+
+    /**
+     * Returns the generation of a user's sign in tokens, loading it if it is
+     * not cached.
+     *
+     * @param id id of the user
+     * @return the generation
+     * @throws ApplicationException if the generation cannot be loaded
+     */
+    public static long getTokenGeneration(long id) throws ApplicationException {
+        Entry<Long> entry = GENERATIONS.get(id);
+        if (entry != null && !expired(entry)) {
+            return entry.value;
+        }
+        long generation = new UserModel().getTokenGeneration(id);
+        put(GENERATIONS, id, new Entry<Long>(generation));
+        return generation;
+    }
+
+    /**
+     * Returns the name of a role, loading it if it is not cached.
+     *
+     * @param id id of the role
+     * @return the name, or null if there is no such role
+     * @throws ApplicationException if the role cannot be loaded
+     */
+    public static String getRoleName(long id) throws ApplicationException {
+        Entry<String> entry = ROLES.get(id);
+        if (entry != null && !expired(entry)) {
+            return entry.value;
+        }
+        RoleBean bean = new RoleModel().findByPk(id);
+        if (bean != null) {
+            put(ROLES, id, new Entry<String>(bean.getName()));
+        }
+        return bean == null ? null : bean.getName();
+    }
+
+    /**
+     * Caches a profile just read, e.g. by a sign in.
+     *
+     * @param bean the user
+     */
+    public static void putUser(UserBean bean) {
+        put(USERS, bean.getId(), new Entry<UserBean>(bean));
+    }
+
+    /**
+     * Drops the profile and token generation of a user that has changed.
+     *
+     * @param id id of the user
+     */
+    public static void removeUser(long id) {
+        USERS.remove(id);
+        GENERATIONS.remove(id);
+    }
+
+    /**
+     * Drops the name of a role that has changed.
+     *
+     * @param id id of the role
+     */
+    public static void removeRole(long id) {
+        ROLES.remove(id);
+    }
+
+    private static <V> void put(Map<Long, Entry<V>> map, long id, Entry<V> entry) {
+        if (map.size() >= SystemConfig.getInt("session.profile.max", 10000)) {
+            for (Iterator<Entry<V>> it = map.values().iterator(); it.hasNext();) {
+                if (expired(it.next())) {
+                    it.remove();
+                }
+            }
+            if (map.size() >= SystemConfig.getInt("session.profile.max", 10000)) {
+                map.clear();
+            }
+        }
+        map.put(id, entry);
+    }
+
+    private static boolean expired(Entry<?> entry) {
+        return System.currentTimeMillis() - entry.loaded > SystemConfig.getLong("session.profile.ttl", 60000);
+    }
+
+    /**
+     * Returns the counters of the cache as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        return "profile.cached=" + USERS.size() + "\nprofile.hits=" + hits.sum() + "\nprofile.misses="
+                + misses.sum() + "\n";
+    }
+}
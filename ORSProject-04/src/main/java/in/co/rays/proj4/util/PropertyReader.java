@@ -1,7 +1,5 @@
 package in.co.rays.proj4.util;
 
-import java.util.ResourceBundle;
-
 /**
  * <p>
  * PropertyReader is a utility class used to read values from the system
@@ -31,14 +29,16 @@ import java.util.ResourceBundle;
  * <b>in.co.rays.proj4.bundle.system.properties</b>
  * </p>
  *
+ * <p>
+ * The values come from {@link SystemConfig}, which keeps them parsed and
+ * reloads the file when it changes.
+ * </p>
+ *
  * @author
  * @version 1.0
  */
 public class PropertyReader {
 
-    /** Loads the system.properties file */
-    private static ResourceBundle rb = ResourceBundle.getBundle("in.co.rays.proj4.bundle.system");
-
     /**
      * Returns the value of a given key from the properties file.
      *
@@ -47,14 +47,7 @@ public class PropertyReader {
      */
     public static String getValue(String key) {
 
-        String val = null;
-
-        try {
-            val = rb.getString(key); // Example: "{0} is required"
-        } catch (Exception e) {
-            val = key; // fallback to key if missing
-        }
-        return val;
+        return SystemConfig.getString(key, key); // fallback to key if missing
     }
 
     /**
@@ -72,9 +65,7 @@ public class PropertyReader {
      * @return formatted message
      */
     public static String getValue(String key, String param) {
-        String msg = getValue(key); // e.g. "{0} is required"
-        msg = msg.replace("{0}", param);
-        return msg;
+        return format(key, param); // e.g. "{0} is required"
     }
 
     /**
@@ -93,11 +84,15 @@ public class PropertyReader {
      * @return formatted message
      */
     public static String getValue(String key, String[] params) {
-        String msg = getValue(key); // e.g. "{0} and {1} are required"
-        for (int i = 0; i < params.length; i++) {
-            msg = msg.replace("{" + i + "}", params[i]);
-        }
-        return msg;
+        return format(key, params); // e.g. "{0} and {1} are required"
+    }
+
+    /**
+     * Formats the precompiled message of a key, or the key itself if missing.
+     */
+    private static String format(String key, String... params) {
+        SystemConfig.Template template = SystemConfig.getTemplate(key);
+        return template == null ? key : template.format(params);
     }
 
     /**
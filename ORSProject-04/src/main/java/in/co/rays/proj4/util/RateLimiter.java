@@ -0,0 +1,214 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+/**
+ * RateLimiter keeps a token bucket per key, such as a client address or a
+ * login id, and refuses a call when the bucket of its key is empty. Each
+ * limit has a name; its bucket refills at {@code ratelimit.<name>.rate}
+ * tokens per minute and holds at most {@code ratelimit.<name>.burst} tokens.
+ * A rate of 0 turns the limit off.
+ *
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it will
+ * be full again; taking a token moves that time one refill interval later
+ * and succeeds if the bucket does not then need longer than a full refill.
+ * Taking a token is a compare-and-set, with no lock. The buckets are spread
+ * over {@code ratelimit.shards} maps by the hash of their key. A bucket that
+ * has filled up again behaves exactly like a new one, so every
+ * {@code ratelimit.sweep.interval} milliseconds the full buckets of a shard
+ * are dropped. A shard holds at most its part of {@code ratelimit.max.keys}
+ * buckets; a key arriving at a shard that is full even after a sweep is let
+ * through and counted as an overflow, since refusing it would let a caller
+ * with many addresses lock everybody else out.
+ * </p>
+ *
+ * <p>
+ * Setting {@code ratelimit.enabled} to false, in system.properties or with
+ * {@code -Dratelimit.enabled=false} (as the load test does), lets every call
+ * through.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class RateLimiter {
+
+    private static final Logger log = Logger.getLogger(RateLimiter.class);
+
+    private static final Map<String, RateLimiter> LIMITERS = new ConcurrentHashMap<String, RateLimiter>();
+
+    /** Buckets of the keys whose hash falls in one shard */
+    private static final class Shard {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<String, AtomicLong>();
+        private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+    }
+
+    private final String name;
+    private final Shard[] shards;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    private RateLimiter(String name) {
+        this.name = name;
+        int n = Integer.highestOneBit(Math.max(1, Math.min(1024, SystemConfig.getInt("ratelimit.shards", 16))));
+        this.shards = new Shard[n];
+        for (int i = 0; i < n; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Returns the limiter of a name, creating it on first use.
+     *
+     * @param name name of the limit, e.g. {@code login.ip}
+     * @return the limiter
+     */
+    public static RateLimiter get(String name) {
+        return LIMITERS.computeIfAbsent(name, RateLimiter::new);
+    }
+
+    /**
+     * Tells whether rate limiting is on.
+     *
+     * @return false if turned off in system.properties or by a system
+     *         property
+     */
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty("ratelimit.enabled"))
+                && SystemConfig.getBoolean("ratelimit.enabled", true);
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key the key, e.g. a client address
+     * @return 0 if the call may go ahead, otherwise the milliseconds until
+     *         the bucket has a token again
+     */
+    public long acquire(String key) {
+
+        int rate = SystemConfig.getInt("ratelimit." + name + ".rate", 0);
+        if (rate <= 0 || key == null || !isEnabled()) {
+            return 0;
+        }
+        long interval = TimeUnit.MINUTES.toNanos(1) / rate;
+        long capacity = interval * Math.max(1, SystemConfig.getInt("ratelimit." + name + ".burst", 1));
+
+        long now = System.nanoTime();
+        Shard shard = shards[(key.hashCode() ^ (key.hashCode() >>> 16)) & (shards.length - 1)];
+        sweep(shard, now);
+
+        AtomicLong bucket = shard.buckets.get(key);
+        if (bucket == null) {
+            if (shard.buckets.size() >= maxKeys()) {
+                overflows.increment();
+                return 0;
+            }
+            bucket = shard.buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        for (;;) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + interval;
+            if (next - now > capacity) {
+                rejected.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - now - capacity));
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the full buckets of a shard once the sweep interval has elapsed,
+     * or at once when the shard has reached its size. One caller per
+     * interval does the work.
+     */
+    private void sweep(Shard shard, long now) {
+        long due = shard.nextSweep.get();
+        long interval = TimeUnit.MILLISECONDS.toNanos(Math.max(1000,
+                SystemConfig.getLong("ratelimit.sweep.interval", 60000)));
+        boolean full = shard.buckets.size() >= maxKeys();
+        if ((now - due < 0 && !full) || !shard.nextSweep.compareAndSet(due, now + interval)) {
+            return;
+        }
+        int before = shard.buckets.size();
+        for (Iterator<Map.Entry<String, AtomicLong>> it = shard.buckets.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, AtomicLong> e = it.next();
+            if (e.getValue().get() - now <= 0) {
+                it.remove();
+                evicted.increment();
+            }
+        }
+        if (full) {
+            log.warn("Rate limit " + name + " shard full, swept " + (before - shard.buckets.size()) + " of "
+                    + before + " buckets");
+        }
+    }
+
+    private int maxKeys() {
+        return Math.max(1, SystemConfig.getInt("ratelimit.max.keys", 100000) / shards.length);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of buckets held.
+     *
+     * @return buckets in all shards
+     */
+    public int getBuckets() {
+        int n = 0;
+        for (Shard shard : shards) {
+            n += shard.buckets.size();
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of calls refused.
+     *
+     * @return refused calls since startup
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the counters of every limiter as key=value lines.
+     *
+     * @return the counters, one block of lines per limiter
+     */
+    public static String report() {
+        List<RateLimiter> all = new ArrayList<RateLimiter>(LIMITERS.values());
+        all.sort((a, b) -> a.name.compareTo(b.name));
+        StringBuilder sb = new StringBuilder();
+        sb.append("ratelimit.enabled=").append(isEnabled()).append('\n');
+        for (RateLimiter l : all) {
+            String p = "ratelimit." + l.name + ".";
+            sb.append(p).append("allowed=").append(l.allowed.sum()).append('\n');
+            sb.append(p).append("rejected=").append(l.rejected.sum()).append('\n');
+            sb.append(p).append("buckets=").append(l.getBuckets()).append('\n');
+            sb.append(p).append("evicted=").append(l.evicted.sum()).append('\n');
+            sb.append(p).append("overflows=").append(l.overflows.sum()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,352 @@
+package in.co.rays.proj4.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.log4j.Logger;
+
+/**
+ * RuleSet validates the parameters of a form against rules declared once per
+ * controller, instead of hand coding the same null, name, email and phone
+ * checks in every {@code validate()} method.
+ *
+ * <p>
+ * Rules are declared per parameter and checked in order; the first rule that
+ * fails puts its message in request scope under the parameter name, as the
+ * views expect, and the remaining rules of that parameter are skipped. A
+ * blank parameter only fails {@link Field#required(String)}; the other rules
+ * are not checked for it. A message from system.properties, such as
+ * {@code error.require}, is kept as its key and label and looked up only when
+ * its check fails, so a reloaded message takes effect at once. Validating a
+ * request compiles no regular expressions and throws no exceptions.
+ * </p>
+ *
+ * Example, in a controller:
+ * <pre>
+ * protected void validationRules(RuleSet.Builder rules) {
+ *     rules.field("name").required("Name").name("Invalid Name");
+ *     rules.field("physics").required("Marks").integer("Marks", 0, 100, "Marks should be in 0 to 100");
+ * }
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class RuleSet {
+
+    private static final Logger log = Logger.getLogger(RuleSet.class);
+
+    /**
+     * A check of one non-blank parameter value.
+     */
+    public interface Check {
+
+        /**
+         * Checks a value.
+         *
+         * @param value   the parameter value, never blank
+         * @param request the request, for checks against other parameters
+         * @return true if the value is valid
+         */
+        boolean test(String value, HttpServletRequest request);
+    }
+
+    /**
+     * A rule as stored in the rule set: returns the message of the failed
+     * check, or null if the value passes.
+     */
+    private interface Rule {
+        String apply(String value, HttpServletRequest request);
+    }
+
+    private final String[] names;
+    private final boolean[] required;
+    private final String[] requiredLabels;
+    private final Rule[][] rules;
+
+    private RuleSet(List<Field> fields) {
+        int n = fields.size();
+        names = new String[n];
+        required = new boolean[n];
+        requiredLabels = new String[n];
+        rules = new Rule[n][];
+        for (int i = 0; i < n; i++) {
+            Field f = fields.get(i);
+            names[i] = f.name;
+            required[i] = f.requiredLabel != null;
+            requiredLabels[i] = f.requiredLabel;
+            rules[i] = f.rules.toArray(new Rule[f.rules.size()]);
+        }
+    }
+
+    /**
+     * Starts a new rule set.
+     *
+     * @return an empty builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Validates the parameters of a request and sets the message of every
+     * failed parameter as a request attribute.
+     *
+     * @param request the request to validate
+     * @return true if every parameter passed
+     */
+    public boolean validate(HttpServletRequest request) {
+        boolean pass = true;
+        for (int i = 0; i < names.length; i++) {
+            String value = request.getParameter(names[i]);
+            String message = null;
+            if (DataValidator.isNull(value)) {
+                if (required[i]) {
+                    message = PropertyReader.getValue("error.require", requiredLabels[i]);
+                }
+            } else {
+                for (Rule rule : rules[i]) {
+                    message = rule.apply(value, request);
+                    if (message != null) {
+                        break;
+                    }
+                }
+            }
+            if (message != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Validation failed for " + names[i] + ": " + message);
+                }
+                request.setAttribute(names[i], message);
+                pass = false;
+            }
+        }
+        return pass;
+    }
+
+    /**
+     * Tells whether the rule set has no fields.
+     *
+     * @return true if there is nothing to validate
+     */
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    /**
+     * Collects the fields of a rule set.
+     */
+    public static class Builder {
+
+        private final List<Field> fields = new ArrayList<Field>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a parameter to validate. Parameters are validated in the order
+         * they are added.
+         *
+         * @param name request parameter name, also the attribute for its message
+         * @return the field, to declare its rules on
+         */
+        public Field field(String name) {
+            Field f = new Field(name);
+            fields.add(f);
+            return f;
+        }
+
+        /**
+         * Builds the immutable rule set.
+         *
+         * @return the rule set
+         */
+        public RuleSet build() {
+            return new RuleSet(fields);
+        }
+    }
+
+    /**
+     * The rules of one parameter.
+     */
+    public static class Field {
+
+        private final String name;
+        private final List<Rule> rules = new ArrayList<Rule>();
+        private String requiredLabel;
+
+        private Field(String name) {
+            this.name = name;
+        }
+
+        /**
+         * The parameter must not be blank ({@code error.require}).
+         *
+         * @param label field label used in the message
+         * @return this field
+         */
+        public Field required(String label) {
+            requiredLabel = label;
+            return this;
+        }
+
+        /**
+         * Adds a custom check.
+         *
+         * @param check   the check
+         * @param message message when the check fails
+         * @return this field
+         */
+        public Field check(final Check check, final String message) {
+            rules.add((value, request) -> check.test(value, request) ? null : message);
+            return this;
+        }
+
+        /**
+         * Adds a check whose message is looked up in system.properties when
+         * it fails.
+         */
+        private Field check(final Check check, final String key, final String label) {
+            rules.add((value, request) -> check.test(value, request) ? null : PropertyReader.getValue(key, label));
+            return this;
+        }
+
+        /**
+         * The value must match a regular expression, compiled here once.
+         *
+         * @param regex   the expression the whole value must match
+         * @param message message when it does not
+         * @return this field
+         */
+        public Field matches(String regex, String message) {
+            final Pattern pattern = Pattern.compile(regex);
+            return check((value, request) -> pattern.matcher(value).matches(), message);
+        }
+
+        /**
+         * The value must be a name, see {@link DataValidator#isName(String)}.
+         *
+         * @param message message when it is not
+         * @return this field
+         */
+        public Field name(String message) {
+            return check((value, request) -> DataValidator.isName(value), message);
+        }
+
+        /**
+         * The value must be an email address ({@code error.email}).
+         *
+         * @param label field label used in the message
+         * @return this field
+         */
+        public Field email(String label) {
+            return check((value, request) -> DataValidator.isEmail(value), "error.email", label);
+        }
+
+        /**
+         * The value must be a 10 digit phone number starting with 6 to 9.
+         *
+         * @param lengthMessage message when it is not 10 characters long
+         * @param message       message when it is not a phone number
+         * @return this field
+         */
+        public Field phone(String lengthMessage, String message) {
+            check((value, request) -> DataValidator.isPhoneLength(value), lengthMessage);
+            return check((value, request) -> DataValidator.isPhoneNo(value), message);
+        }
+
+        /**
+         * The value must be a strong password of 8 to 12 characters.
+         *
+         * @param lengthMessage message when the length is wrong
+         * @param message       message when the password is too weak
+         * @return this field
+         */
+        public Field password(String lengthMessage, String message) {
+            check((value, request) -> DataValidator.isPasswordLength(value), lengthMessage);
+            return check((value, request) -> DataValidator.isPassword(value), message);
+        }
+
+        /**
+         * The value must be a roll number, see {@link DataValidator#isRollNo(String)}.
+         *
+         * @param message message when it is not
+         * @return this field
+         */
+        public Field rollNo(String message) {
+            return check((value, request) -> DataValidator.isRollNo(value), message);
+        }
+
+        /**
+         * The value must be an integer between {@code min} and {@code max}. It
+         * is parsed once for both checks.
+         *
+         * @param label        field label used in the {@code error.integer} message
+         * @param min          smallest valid value
+         * @param max          largest valid value
+         * @param rangeMessage message when the number is out of range
+         * @return this field
+         */
+        public Field integer(final String label, final int min, final int max, final String rangeMessage) {
+            rules.add((value, request) -> {
+                // Long.MIN_VALUE is not a valid int, so it can stand for "not a number"
+                long n = DataUtility.getLong(value, Long.MIN_VALUE);
+                if (n < Integer.MIN_VALUE || n > Integer.MAX_VALUE) {
+                    return PropertyReader.getValue("error.integer", label);
+                }
+                return n >= min && n <= max ? null : rangeMessage;
+            });
+            return this;
+        }
+
+        /**
+         * The value must be a date in the application format ({@code error.date}).
+         *
+         * @param label field label used in the message
+         * @return this field
+         */
+        public Field date(String label) {
+            return check((value, request) -> DataUtility.getLocalDate(value) != null, "error.date", label);
+        }
+
+        /**
+         * The date must not be a Sunday. Declare after {@link #date(String)}.
+         *
+         * @param message message when it is a Sunday
+         * @return this field
+         */
+        public Field notSunday(String message) {
+            return check((value, request) -> {
+                LocalDate date = DataUtility.getLocalDate(value);
+                return date == null || date.getDayOfWeek() != DayOfWeek.SUNDAY;
+            }, message);
+        }
+
+        /**
+         * The value must equal another parameter, e.g. a password confirmation.
+         *
+         * @param other   name of the other parameter
+         * @param message message when they differ
+         * @return this field
+         */
+        public Field sameAs(final String other, String message) {
+            return check((value, request) -> value.equals(request.getParameter(other)), message);
+        }
+
+        /**
+         * The value must differ from another parameter, e.g. a new password
+         * from the old one.
+         *
+         * @param other   name of the other parameter
+         * @param message message when they are equal
+         * @return this field
+         */
+        public Field differentFrom(final String other, String message) {
+            return check((value, request) -> !value.equals(request.getParameter(other)), message);
+        }
+    }
+}
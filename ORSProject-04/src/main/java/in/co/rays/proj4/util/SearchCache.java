@@ -0,0 +1,272 @@
+package in.co.rays.proj4.util;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JdbcExecutor.JdbcCall;
+
+/**
+ * SearchCache keeps the results of the {@code search(bean, pageNo, pageSize)}
+ * methods of the models, so that the pages many users ask for, such as the
+ * first page of a list or the lists behind the dropdowns, are not read again
+ * for every request.
+ *
+ * <p>
+ * A result is keyed by its table and a fingerprint of the search: the bean
+ * properties that are set, in name order, and the page. An unset property,
+ * null, an empty string or 0, leaves the search unfiltered in every model,
+ * so it is left out of the fingerprint. A result is kept with the
+ * {@link TableVersion} of its table read before the query, and is used only
+ * while the table is still at that version, so a change made through this
+ * node is seen at once. A change made through another node is seen when the
+ * result expires, {@code search.cache.ttl} milliseconds after it was read.
+ * </p>
+ *
+ * <p>
+ * The versions are kept by each node, so the cache is bypassed when the
+ * application runs stateless ({@link SessionToken#isEnabled()}): then the
+ * nodes serve the same users in turn, and a user who saved on one node must
+ * not get an older list from another. It is also bypassed for the rest of a
+ * {@link UnitOfWork} that has written or reads from the primary.
+ * </p>
+ *
+ * <p>
+ * At most {@code search.cache.max} results of {@code search.cache.bytes}
+ * bytes in all, as estimated from their strings, are kept. A result larger
+ * than a quarter of that is not kept. When the cache is full, stale and
+ * expired results are dropped, and if that is not enough, all of them.
+ * Identical searches that miss at the same time run one query, through
+ * {@link SingleFlight}.
+ * </p>
+ *
+ * <p>
+ * Every caller gets its own copy of the list, but the beans in it are shared
+ * and must not be changed. Setting {@code search.cache.enabled} to false
+ * reads every search from the database.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class SearchCache {
+
+    private static final Logger log = Logger.getLogger(SearchCache.class);
+
+    /** A result, the version of its table and when it was read. */
+    private static final class Entry {
+        private final String table;
+        private final long version;
+        private final List<?> list;
+        private final long bytes;
+        private final long loaded = System.currentTimeMillis();
+
+        private Entry(String table, long version, List<?> list, long bytes) {
+            this.table = table;
+            this.version = version;
+            this.list = list;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Hits and misses of a table. */
+    private static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+
+    /** Readable properties of each bean class, in name order. */
+    private static final ClassValue<Method[]> GETTERS = new ClassValue<Method[]>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            try {
+                PropertyDescriptor[] props = Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+                Arrays.sort(props, Comparator.comparing(PropertyDescriptor::getName));
+                List<Method> getters = new ArrayList<Method>();
+                for (PropertyDescriptor p : props) {
+                    // key and value only repeat other properties for dropdowns
+                    if (p.getReadMethod() != null && !"key".equals(p.getName()) && !"value".equals(p.getName())) {
+                        getters.add(p.getReadMethod());
+                    }
+                }
+                return getters.toArray(new Method[getters.size()]);
+            } catch (IntrospectionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<String, Entry>();
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<String, Counters>();
+    private static final AtomicLong bytes = new AtomicLong();
+    private static final LongAdder bypassed = new LongAdder();
+
+    private SearchCache() {
+    }
+
+    /**
+     * Returns the cached result of a search, or runs the query and keeps its
+     * result.
+     *
+     * @param <T>      bean type
+     * @param table    table searched
+     * @param bean     search criteria, may be null
+     * @param pageNo   page number
+     * @param pageSize page size, 0 for all records
+     * @param query    runs the search on the database
+     * @return a copy of the result
+     * @throws ApplicationException if the query fails
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> search(String table, Object bean, int pageNo, int pageSize, JdbcCall<List<T>> query)
+            throws ApplicationException {
+
+        if (!SystemConfig.getBoolean("search.cache.enabled", true)) {
+            return query.call();
+        }
+        if (SessionToken.isEnabled() || UnitOfWork.readsFromPrimary()) {
+            bypassed.increment();
+            return query.call();
+        }
+
+        String key = table + '\u0000' + fingerprint(bean, pageNo, pageSize);
+        Counters counters = COUNTERS.computeIfAbsent(table, t -> new Counters());
+        long version = TableVersion.get(table);
+
+        Entry entry = ENTRIES.get(key);
+        if (entry != null && entry.version == version && !expired(entry)) {
+            counters.hits.increment();
+            return new ArrayList<T>((List<T>) entry.list);
+        }
+        counters.misses.increment();
+
+        List<T> list = SingleFlight.execute("search." + table, version + "\u0000" + key, query);
+        if (list != null && TableVersion.settled(table)) {
+            put(key, new Entry(table, version, new ArrayList<T>(list), estimate(list)));
+        }
+        return list;
+    }
+
+    /**
+     * Builds the fingerprint of a search from the properties of its bean that
+     * are set and its page.
+     */
+    static String fingerprint(Object bean, int pageNo, int pageSize) {
+
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(pageNo).append('/').append(pageSize);
+        if (bean == null) {
+            return sb.toString();
+        }
+        for (Method getter : GETTERS.get(bean.getClass())) {
+            Object value;
+            try {
+                value = getter.invoke(bean);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+            if (value == null || "".equals(value) || (value instanceof Number && ((Number) value).doubleValue() == 0)) {
+                continue;
+            }
+            if (value instanceof Date) {
+                value = ((Date) value).getTime();
+            }
+            sb.append('\u0000').append(getter.getName()).append('=').append(value);
+        }
+        return sb.toString();
+    }
+
+    private static void put(String key, Entry entry) {
+
+        long maxBytes = SystemConfig.getLong("search.cache.bytes", 16777216);
+        if (entry.bytes > maxBytes / 4) {
+            log.debug("Result of " + entry.bytes + " bytes from " + entry.table + " not cached");
+            return;
+        }
+        int max = SystemConfig.getInt("search.cache.max", 2000);
+        if (ENTRIES.size() >= max || bytes.get() + entry.bytes > maxBytes) {
+            for (Iterator<Entry> it = ENTRIES.values().iterator(); it.hasNext();) {
+                Entry e = it.next();
+                if (e.version != TableVersion.get(e.table) || expired(e)) {
+                    it.remove();
+                    bytes.addAndGet(-e.bytes);
+                }
+            }
+            if (ENTRIES.size() >= max || bytes.get() + entry.bytes > maxBytes) {
+                log.info("Search cache full, " + ENTRIES.size() + " results dropped");
+                for (Iterator<Entry> it = ENTRIES.values().iterator(); it.hasNext();) {
+                    Entry e = it.next();
+                    it.remove();
+                    bytes.addAndGet(-e.bytes);
+                }
+            }
+        }
+        Entry previous = ENTRIES.put(key, entry);
+        bytes.addAndGet(entry.bytes - (previous == null ? 0 : previous.bytes));
+    }
+
+    private static boolean expired(Entry entry) {
+        return System.currentTimeMillis() - entry.loaded > SystemConfig.getLong("search.cache.ttl", 30000);
+    }
+
+    /**
+     * Estimates the memory held by a result: a fixed cost per bean and per
+     * property, and two bytes per character of its strings.
+     */
+    private static long estimate(List<?> list) {
+        long size = 64 + 8L * list.size();
+        for (Object bean : list) {
+            Method[] getters = GETTERS.get(bean.getClass());
+            size += 16 + 8L * getters.length;
+            for (Method getter : getters) {
+                if (getter.getReturnType() == String.class) {
+                    try {
+                        String s = (String) getter.invoke(bean);
+                        size += s == null ? 0 : 40 + 2L * s.length();
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                } else if (!getter.getReturnType().isPrimitive()) {
+                    size += 24;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the counters of the cache, with the hit ratio of each table, as
+     * key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("search.cached=").append(ENTRIES.size()).append("\nsearch.bytes=").append(bytes.get()).append('\n');
+        sb.append("search.bypassed=").append(bypassed.sum()).append('\n');
+        for (Map.Entry<String, Counters> e : COUNTERS.entrySet()) {
+            long hits = e.getValue().hits.sum();
+            long misses = e.getValue().misses.sum();
+            sb.append("search.").append(e.getKey()).append(".hits=").append(hits).append('\n');
+            sb.append("search.").append(e.getKey()).append(".misses=").append(misses).append('\n');
+            sb.append("search.").append(e.getKey()).append(".ratio=")
+                    .append(hits + misses == 0 ? "0.00" : String.format("%.2f", (double) hits / (hits + misses)))
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -7,8 +7,13 @@ import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.log4j.Logger;
 
 import in.co.rays.proj4.bean.BaseBean;
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
 import in.co.rays.proj4.controller.BaseCtl;
 import in.co.rays.proj4.controller.ORSView;
 
@@ -36,6 +41,11 @@ import in.co.rays.proj4.controller.ORSView;
  */
 public class ServletUtility {
 
+    private static final Logger log = Logger.getLogger(ServletUtility.class);
+
+    /** Request attribute caching the profile of the signed in user. */
+    private static final String USER = ServletUtility.class.getName() + ".user";
+
     /**
      * Forwards the request to the specified JSP page.
      *
@@ -151,6 +161,84 @@ public class ServletUtility {
         return (BaseBean) request.getAttribute("bean");
     }
 
+    /**
+     * Returns the signed in user: the profile named by the
+     * {@link SessionToken} in stateless mode, otherwise the {@code "user"}
+     * attribute of the session. The profile is looked up once per request.
+     *
+     * @param request HttpServletRequest object
+     * @return the user, or null if nobody is signed in
+     */
+    public static UserBean getUser(HttpServletRequest request) {
+        Object user = request.getAttribute(USER);
+        if (user == null) {
+            SessionToken token = SessionToken.get(request);
+            if (token != null) {
+                try {
+                    user = ProfileCache.getUser(token.getUserId());
+                } catch (ApplicationException e) {
+                    log.error("Cannot load profile of user " + token.getUserId(), e);
+                }
+            } else {
+                HttpSession session = request.getSession(false);
+                user = session == null ? null : session.getAttribute("user");
+            }
+            request.setAttribute(USER, user == null ? "" : user);
+        }
+        return user instanceof UserBean ? (UserBean) user : null;
+    }
+
+    /**
+     * Returns the role id of the signed in user without loading the profile
+     * in stateless mode.
+     *
+     * @param request HttpServletRequest object
+     * @return role id, or 0 if nobody is signed in
+     */
+    public static long getRoleId(HttpServletRequest request) {
+        SessionToken token = SessionToken.get(request);
+        if (token != null) {
+            return token.getRoleId();
+        }
+        UserBean user = getUser(request);
+        return user == null ? 0 : user.getRoleId();
+    }
+
+    /**
+     * Returns the role name of the signed in user.
+     *
+     * @param request HttpServletRequest object
+     * @return role name, or null if nobody is signed in
+     */
+    public static String getRole(HttpServletRequest request) {
+        SessionToken token = SessionToken.get(request);
+        if (token == null) {
+            HttpSession session = request.getSession(false);
+            return session == null ? null : (String) session.getAttribute("role");
+        }
+        try {
+            return ProfileCache.getRoleName(token.getRoleId());
+        } catch (ApplicationException e) {
+            log.error("Cannot load role " + token.getRoleId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the profile of the signed in user after it has been changed.
+     *
+     * @param bean    the changed user
+     * @param request HttpServletRequest object
+     */
+    public static void setUser(UserBean bean, HttpServletRequest request) {
+        ProfileCache.removeUser(bean.getId());
+        HttpSession session = request.getSession(false);
+        if (session != null && session.getAttribute("user") != null) {
+            session.setAttribute("user", bean);
+        }
+        request.setAttribute(USER, bean);
+    }
+
     /**
      * Retrieves a request parameter by name.
      *
@@ -235,6 +323,8 @@ public class ServletUtility {
     public static void handleException(Exception e, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
         request.setAttribute("exception", e);
+        // a tagged page that failed must not be kept by the browser
+        response.setHeader("Cache-Control", "no-store");
         response.sendRedirect(ORSView.ERROR_CTL);
     }
 }
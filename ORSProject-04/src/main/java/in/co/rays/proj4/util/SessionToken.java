@@ -0,0 +1,344 @@
+package in.co.rays.proj4.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.bean.UserBean;
+import in.co.rays.proj4.exception.ApplicationException;
+
+/**
+ * SessionToken is the signed cookie that identifies a signed in user when
+ * the application runs stateless, so that any Tomcat behind a load balancer
+ * can serve any request without a shared or sticky {@code HttpSession}.
+ *
+ * <p>
+ * The cookie carries the user id, the role id, the generation of the user's
+ * tokens and the expiry time in seconds, followed by an HMAC-SHA256 of the
+ * four over a secret shared by every node:
+ * {@code <userId>.<roleId>.<generation>.<expiry>.<signature>}. The token
+ * expires {@code session.token.ttl} seconds after it was issued and is issued
+ * again once half of that has passed, so an active user stays signed in.
+ * </p>
+ *
+ * <p>
+ * A token can be revoked before it expires. Signing out, a new password and a
+ * new role raise the generation of the user's tokens (see
+ * {@link in.co.rays.proj4.model.UserModel#revokeTokens(long)}), which signs
+ * the user out everywhere. {@link #refresh} compares the generation, and the
+ * role, with the user's profile on every request. The profile comes from the
+ * {@link ProfileCache}, so the node that made the change sees it at once and
+ * the others within {@code session.profile.ttl} milliseconds.
+ * </p>
+ *
+ * <p>
+ * Stateless mode is off unless {@code session.stateless} is true, in
+ * system.properties or with {@code -Dsession.stateless=true}. The secret is
+ * read from the {@code SESSION_TOKEN_SECRET} environment variable, from the
+ * file named by {@code SESSION_TOKEN_SECRET_FILE} (a Docker secret, say), or
+ * else from {@code session.token.secret}; the environment keeps it out of the
+ * war and out of the command line that {@code ps} shows. Anyone who knows the
+ * secret can sign in as any user with any role, so stateless mode refuses to
+ * start without one, with one shorter than {@value #MIN_SECRET} bytes, or
+ * with a placeholder such as {@code change-me}.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class SessionToken {
+
+    private static final Logger log = Logger.getLogger(SessionToken.class);
+
+    /** Name of the cookie. */
+    public static final String COOKIE = "ORS_TOKEN";
+
+    /** Request attribute holding the verified token, or {@link #NONE}. */
+    private static final String ATTRIBUTE = SessionToken.class.getName();
+
+    /** Marks a request whose cookie is missing or not valid. */
+    private static final Object NONE = new Object();
+
+    /** Shortest secret accepted, in bytes. */
+    public static final int MIN_SECRET = 32;
+
+    /** Secrets found in examples and templates, never accepted. */
+    private static final String[] PLACEHOLDERS = { "change-me", "changeme", "change_me", "secret", "password",
+            "session.token.secret" };
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static volatile SecretKeySpec key;
+
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final long userId;
+    private final long roleId;
+    private final long generation;
+    private final long expiry;
+
+    private SessionToken(long userId, long roleId, long generation, long expiry) {
+        this.userId = userId;
+        this.roleId = roleId;
+        this.generation = generation;
+        this.expiry = expiry;
+    }
+
+    /**
+     * Tells whether the application runs stateless.
+     *
+     * @return true if signed in users are identified by the cookie
+     */
+    public static boolean isEnabled() {
+        String flag = System.getProperty("session.stateless");
+        return flag != null ? Boolean.parseBoolean(flag) : SystemConfig.getBoolean("session.stateless", false);
+    }
+
+    /**
+     * Returns the verified token of a request. The cookie is verified once per
+     * request; later calls return the same result.
+     *
+     * @param request the request
+     * @return the token, or null if stateless mode is off or the request has
+     *         no valid, unexpired token
+     */
+    public static SessionToken get(HttpServletRequest request) {
+
+        Object cached = request.getAttribute(ATTRIBUTE);
+        if (cached != null) {
+            return cached == NONE ? null : (SessionToken) cached;
+        }
+
+        SessionToken token = null;
+        if (isEnabled() && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    token = verify(cookie.getValue());
+                    break;
+                }
+            }
+        }
+        request.setAttribute(ATTRIBUTE, token == null ? NONE : token);
+        return token;
+    }
+
+    /**
+     * Signs a user in by setting a new token cookie.
+     *
+     * @param userId     id of the user
+     * @param roleId     role of the user
+     * @param generation current generation of the user's tokens
+     * @param request    the request
+     * @param response   the response
+     * @return the token
+     */
+    public static SessionToken issue(long userId, long roleId, long generation, HttpServletRequest request,
+            HttpServletResponse response) {
+        long expiry = System.currentTimeMillis() / 1000 + ttl();
+        SessionToken token = new SessionToken(userId, roleId, generation, expiry);
+        setCookie(token.encode(), ttl(), request, response);
+        request.setAttribute(ATTRIBUTE, token);
+        return token;
+    }
+
+    /**
+     * Checks the token of a request against the user's profile, and issues it
+     * again when the role has changed or more than half of its life has
+     * passed. A token of a removed user, or one that has been revoked, is
+     * cleared. If the profile cannot be read the token is refused, since it
+     * cannot be checked.
+     *
+     * @param request  the request
+     * @param response the response, not yet committed
+     * @return false if the token was refused and cleared
+     */
+    public boolean refresh(HttpServletRequest request, HttpServletResponse response) {
+        UserBean user;
+        long current;
+        try {
+            user = ProfileCache.getUser(userId);
+            current = user == null ? -1 : ProfileCache.getTokenGeneration(userId);
+        } catch (ApplicationException e) {
+            log.warn("Cannot load user " + userId + ", token refused", e);
+            clear(request, response);
+            return false;
+        }
+        if (user == null || current != generation) {
+            clear(request, response);
+            return false;
+        }
+        if (user.getRoleId() != roleId || expiry - System.currentTimeMillis() / 1000 < ttl() / 2) {
+            issue(userId, user.getRoleId(), generation, request, response);
+        }
+        return true;
+    }
+
+    /**
+     * Signs the user out by expiring the cookie.
+     *
+     * @param request  the request
+     * @param response the response
+     */
+    public static void clear(HttpServletRequest request, HttpServletResponse response) {
+        setCookie("", 0, request, response);
+        request.setAttribute(ATTRIBUTE, NONE);
+    }
+
+    /**
+     * Parses and checks a cookie value.
+     *
+     * @return the token, or null if it is malformed, forged or expired
+     */
+    static SessionToken verify(String value) {
+        int sig = value == null ? -1 : value.lastIndexOf('.');
+        if (sig < 0) {
+            return null;
+        }
+        String payload = value.substring(0, sig);
+        byte[] signature;
+        try {
+            signature = DECODER.decode(value.substring(sig + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            log.warn("Session token with a bad signature");
+            return null;
+        }
+        String[] parts = payload.split("\\.");
+        if (parts.length != 4) {
+            return null;
+        }
+        SessionToken token = new SessionToken(DataUtility.getLong(parts[0]), DataUtility.getLong(parts[1]),
+                DataUtility.getLong(parts[2]), DataUtility.getLong(parts[3]));
+        if (token.userId <= 0 || token.expiry <= System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        return token;
+    }
+
+    String encode() {
+        String payload = userId + "." + roleId + "." + generation + "." + expiry;
+        return payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    private static byte[] sign(String payload) {
+        Mac mac = MAC.get();
+        try {
+            mac.init(key());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Checks the secret tokens are signed with, so that a node with a weak
+     * secret fails at startup rather than accept forged tokens.
+     *
+     * @throws IllegalStateException if the secret is missing, too short or a
+     *                               placeholder
+     */
+    public static void checkSecret() {
+        key();
+    }
+
+    private static SecretKeySpec key() {
+        if (key == null) {
+            synchronized (SessionToken.class) {
+                if (key == null) {
+                    String secret = secret();
+                    if (secret == null || secret.trim().isEmpty()) {
+                        throw new IllegalStateException("Stateless mode needs SESSION_TOKEN_SECRET");
+                    }
+                    byte[] bytes = secret.trim().getBytes(StandardCharsets.UTF_8);
+                    if (bytes.length < MIN_SECRET) {
+                        throw new IllegalStateException(
+                                "SESSION_TOKEN_SECRET must be at least " + MIN_SECRET + " bytes long");
+                    }
+                    for (String placeholder : PLACEHOLDERS) {
+                        if (placeholder.equalsIgnoreCase(secret.trim())) {
+                            throw new IllegalStateException("SESSION_TOKEN_SECRET is a placeholder");
+                        }
+                    }
+                    key = new SecretKeySpec(bytes, "HmacSHA256");
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Reads the secret from the environment, a secret file, or the
+     * configuration, in that order.
+     */
+    private static String secret() {
+        String secret = System.getenv("SESSION_TOKEN_SECRET");
+        if (secret != null && !secret.trim().isEmpty()) {
+            return secret;
+        }
+        String file = System.getenv("SESSION_TOKEN_SECRET_FILE");
+        if (file != null && !file.trim().isEmpty()) {
+            try {
+                return new String(Files.readAllBytes(Paths.get(file.trim())), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read SESSION_TOKEN_SECRET_FILE " + file, e);
+            }
+        }
+        return System.getProperty("session.token.secret", SystemConfig.getString("session.token.secret"));
+    }
+
+    private static int ttl() {
+        return Math.max(60, SystemConfig.getInt("session.token.ttl", 1800));
+    }
+
+    /**
+     * Writes the cookie header directly, since {@link Cookie} cannot carry
+     * the SameSite attribute.
+     */
+    private static void setCookie(String value, int maxAge, HttpServletRequest request,
+            HttpServletResponse response) {
+        String path = request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+        StringBuilder sb = new StringBuilder(COOKIE).append('=').append(value).append("; Path=").append(path)
+                .append("; Max-Age=").append(maxAge).append("; HttpOnly; SameSite=Lax");
+        if (request.isSecure()) {
+            sb.append("; Secure");
+        }
+        response.addHeader("Set-Cookie", sb.toString());
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getRoleId() {
+        return roleId;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getExpiry() {
+        return expiry;
+    }
+}
@@ -0,0 +1,154 @@
+package in.co.rays.proj4.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.log4j.Logger;
+
+import in.co.rays.proj4.exception.ApplicationException;
+import in.co.rays.proj4.util.JdbcExecutor.JdbcCall;
+
+/**
+ * SingleFlight runs identical lookups that arrive at the same time once. The
+ * first caller of a key runs the query on its own thread; callers of the same
+ * key that arrive while it runs wait for it, without a connection, and get
+ * its result or its exception. When results are published, hundreds of
+ * requests for the same merit list page or roll number then cost one query.
+ *
+ * <p>
+ * A waiting caller gives up after {@code singleflight.timeout} milliseconds
+ * with an {@link ApplicationException}; it does not run the query itself,
+ * since a query that slow would only be slowed down further. A caller whose
+ * unit of work reads from the primary, because it has just written, always
+ * runs its own query, so it never gets a result read before its write.
+ * Callers should put the {@link TableVersion} of the table in the key for the
+ * same reason: a caller that comes after a change does not join a query that
+ * may have started before it.
+ * </p>
+ *
+ * <p>
+ * A list is copied for every waiting caller; other results, such as beans,
+ * are shared and must not be changed. The calls saved are counted per kind
+ * of lookup and, for the first {@code singleflight.keys.max} keys that saved
+ * any, per key. Setting {@code singleflight.enabled} to false runs every
+ * lookup.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class SingleFlight {
+
+    private static final Logger log = Logger.getLogger(SingleFlight.class);
+
+    /** Counters of a kind of lookup. */
+    private static final class Counters {
+        private final LongAdder executed = new LongAdder();
+        private final LongAdder saved = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    private static final Map<String, CompletableFuture<Object>> FLIGHTS = new ConcurrentHashMap<String, CompletableFuture<Object>>();
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<String, Counters>();
+    private static final Map<String, LongAdder> SAVED = new ConcurrentHashMap<String, LongAdder>();
+
+    private SingleFlight() {
+    }
+
+    /**
+     * Runs a lookup, or waits for the same lookup already running.
+     *
+     * @param <T>  result type
+     * @param name kind of lookup, such as {@code marksheet.rollNo}
+     * @param key  arguments of the lookup
+     * @param call runs the lookup
+     * @return the result
+     * @throws ApplicationException if the lookup fails or the wait times out
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T execute(String name, String key, JdbcCall<T> call) throws ApplicationException {
+
+        if (!SystemConfig.getBoolean("singleflight.enabled", true) || UnitOfWork.readsFromPrimary()) {
+            return call.call();
+        }
+
+        String id = name + '\u0000' + key;
+        Counters counters = COUNTERS.computeIfAbsent(name, n -> new Counters());
+        CompletableFuture<Object> mine = new CompletableFuture<Object>();
+        CompletableFuture<Object> running = FLIGHTS.putIfAbsent(id, mine);
+
+        if (running == null) {
+            counters.executed.increment();
+            try {
+                T result = call.call();
+                mine.complete(result);
+                return result;
+            } catch (Throwable t) {
+                mine.completeExceptionally(t);
+                throw t;
+            } finally {
+                FLIGHTS.remove(id, mine);
+            }
+        }
+
+        counters.saved.increment();
+        LongAdder perKey = SAVED.get(id);
+        if (perKey == null && SAVED.size() < SystemConfig.getInt("singleflight.keys.max", 1000)) {
+            perKey = SAVED.computeIfAbsent(id, k -> new LongAdder());
+        }
+        if (perKey != null) {
+            perKey.increment();
+        }
+
+        long timeout = SystemConfig.getLong("singleflight.timeout", 10000);
+        try {
+            Object result = running.get(timeout, TimeUnit.MILLISECONDS);
+            return (T) (result instanceof List ? new ArrayList<Object>((List<Object>) result) : result);
+        } catch (TimeoutException e) {
+            counters.timeouts.increment();
+            log.warn("Gave up waiting " + timeout + " ms for " + name + " " + key);
+            throw new ApplicationException("Request timed out, please try again");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApplicationException) {
+                throw (ApplicationException) cause;
+            }
+            throw new ApplicationException(String.valueOf(cause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("Interrupted while waiting for " + name);
+        }
+    }
+
+    /**
+     * Returns the counters of each kind of lookup, and the ten keys that
+     * saved the most calls, as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("singleflight.running=").append(FLIGHTS.size()).append('\n');
+        for (Map.Entry<String, Counters> e : COUNTERS.entrySet()) {
+            String prefix = "singleflight." + e.getKey();
+            sb.append(prefix).append(".executed=").append(e.getValue().executed.sum()).append('\n');
+            sb.append(prefix).append(".saved=").append(e.getValue().saved.sum()).append('\n');
+            sb.append(prefix).append(".timeouts=").append(e.getValue().timeouts.sum()).append('\n');
+        }
+        List<Map.Entry<String, LongAdder>> keys = new ArrayList<Map.Entry<String, LongAdder>>(SAVED.entrySet());
+        keys.sort(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed());
+        for (Map.Entry<String, LongAdder> e : keys.subList(0, Math.min(10, keys.size()))) {
+            sb.append("singleflight.saved[").append(e.getKey().replace('\u0000', ' ')).append("]=")
+                    .append(e.getValue().sum()).append('\n');
+        }
+        return sb.toString();
+    }
+}
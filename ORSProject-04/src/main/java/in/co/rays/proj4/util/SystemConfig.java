@@ -0,0 +1,347 @@
+package in.co.rays.proj4.util;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+/**
+ * SystemConfig is the single owner of the settings in <b>system.properties</b>.
+ * The file is read once into an immutable snapshot in which every value is
+ * already parsed: numbers are parsed once and messages are compiled into
+ * {@link Template}s, so reading {@code page.size} on every request or
+ * formatting {@code error.require} costs a map lookup.
+ *
+ * <p>
+ * When system.properties is a plain file, as it is in an exploded war, it is
+ * reloaded after it changes without restarting Tomcat. The file is checked
+ * at most once every {@code config.reload.interval} milliseconds, by whichever
+ * request reads a setting first after the interval; {@code 0} turns reloading
+ * off. A reload that fails keeps the previous settings. Values read on every
+ * use, such as the page size and timeouts, change at once; components that
+ * size themselves from a setting, such as the connection pool, register a
+ * {@link Listener}.
+ * </p>
+ *
+ * Example:
+ * <pre>
+ * int pageSize = SystemConfig.getInt("page.size", 10);
+ * String msg = SystemConfig.getTemplate("error.require").format("Email");
+ * </pre>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class SystemConfig {
+
+    private static final Logger log = Logger.getLogger(SystemConfig.class);
+
+    /** Location of system.properties on the class path. */
+    private static final String RESOURCE = "in/co/rays/proj4/bundle/system.properties";
+
+    /**
+     * Notified after system.properties has been reloaded.
+     */
+    public interface Listener {
+
+        /**
+         * Called once the new settings are in effect.
+         */
+        void reloaded();
+    }
+
+    /**
+     * A message with {@code {0}}, {@code {1}}, ... placeholders, split into
+     * its literal parts once so that formatting is a single append pass.
+     * Placeholders without a matching parameter are kept as they are.
+     */
+    public static final class Template {
+
+        private final String text;
+
+        /** Literal parts; parts[i] comes before the placeholder params[i]. */
+        private final String[] parts;
+
+        private final int[] params;
+
+        private Template(String text) {
+            this.text = text;
+            List<String> parts = new ArrayList<String>();
+            List<Integer> params = new ArrayList<Integer>();
+            int from = 0;
+            int i = text.indexOf('{');
+            while (i >= 0) {
+                int close = text.indexOf('}', i);
+                int index = close > i + 1 && Character.isDigit(text.charAt(i + 1))
+                        ? (int) DataUtility.getLong(text.substring(i + 1, close), -1)
+                        : -1;
+                if (index >= 0) {
+                    parts.add(text.substring(from, i));
+                    params.add(index);
+                    from = close + 1;
+                    i = text.indexOf('{', from);
+                } else {
+                    i = text.indexOf('{', i + 1);
+                }
+            }
+            parts.add(text.substring(from));
+            this.parts = parts.toArray(new String[parts.size()]);
+            this.params = new int[params.size()];
+            for (int p = 0; p < this.params.length; p++) {
+                this.params[p] = params.get(p);
+            }
+        }
+
+        /**
+         * Replaces the placeholders with the given parameters.
+         *
+         * @param args values for {0}, {1}, ...
+         * @return the message
+         */
+        public String format(String... args) {
+            if (params.length == 0) {
+                return text;
+            }
+            if (params.length == 1 && params[0] < args.length) {
+                // a single concatenation sizes the result exactly
+                return parts[0] + args[params[0]] + parts[1];
+            }
+            int length = text.length();
+            for (int index : params) {
+                length += index < args.length ? String.valueOf(args[index]).length() : 0;
+            }
+            StringBuilder sb = new StringBuilder(length);
+            for (int p = 0; p < params.length; p++) {
+                sb.append(parts[p]);
+                int index = params[p];
+                if (index < args.length) {
+                    sb.append(args[index]);
+                } else {
+                    sb.append('{').append(index).append('}');
+                }
+            }
+            return sb.append(parts[params.length]).toString();
+        }
+
+        /**
+         * Returns the message with its placeholders.
+         */
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * One setting, parsed when the file is loaded.
+     */
+    private static final class Entry {
+
+        final String value;
+        final boolean isNumber;
+        final long number;
+        final Template template;
+
+        Entry(String value) {
+            this.value = value;
+            String trimmed = value.trim();
+            this.isNumber = DataValidator.isLong(trimmed);
+            this.number = isNumber ? DataUtility.getLong(trimmed) : 0;
+            this.template = new Template(value);
+        }
+    }
+
+    private static volatile Map<String, Entry> entries = Collections.emptyMap();
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    private static final URL url = SystemConfig.class.getClassLoader().getResource(RESOURCE);
+
+    /** The file to watch, or null when the settings come from a jar. */
+    private static final File file = toFile(url);
+
+    private static volatile long lastModified;
+
+    private static volatile long interval;
+
+    private static final AtomicLong nextCheck = new AtomicLong();
+
+    static {
+        if (!load()) {
+            throw new IllegalStateException("Cannot read " + RESOURCE);
+        }
+    }
+
+    /**
+     * Returns a setting.
+     *
+     * @param key the property key
+     * @return the value, or null if the key is missing
+     */
+    public static String getString(String key) {
+        Entry e = entry(key);
+        return e == null ? null : e.value;
+    }
+
+    /**
+     * Returns a setting, or a default when the key is missing.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing
+     * @return the value
+     */
+    public static String getString(String key, String defaultValue) {
+        Entry e = entry(key);
+        return e == null ? defaultValue : e.value;
+    }
+
+    /**
+     * Returns a numeric setting.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or not an int
+     * @return the value
+     */
+    public static int getInt(String key, int defaultValue) {
+        Entry e = entry(key);
+        if (e == null || !e.isNumber || e.number != (int) e.number) {
+            return defaultValue;
+        }
+        return (int) e.number;
+    }
+
+    /**
+     * Returns a numeric setting.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing or not a number
+     * @return the value
+     */
+    public static long getLong(String key, long defaultValue) {
+        Entry e = entry(key);
+        return e == null || !e.isNumber ? defaultValue : e.number;
+    }
+
+    /**
+     * Returns a true/false setting.
+     *
+     * @param key          the property key
+     * @param defaultValue value returned when the key is missing
+     * @return true if the value is {@code true}, ignoring case
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        Entry e = entry(key);
+        return e == null ? defaultValue : "true".equalsIgnoreCase(e.value.trim());
+    }
+
+    /**
+     * Returns a message template.
+     *
+     * @param key the message key
+     * @return the compiled message, or null if the key is missing
+     */
+    public static Template getTemplate(String key) {
+        Entry e = entry(key);
+        return e == null ? null : e.template;
+    }
+
+    /**
+     * Registers a listener called after every reload.
+     *
+     * @param listener the listener
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Reloads system.properties now if it has changed on disk.
+     *
+     * @return true if new settings were loaded
+     */
+    public static boolean reload() {
+        if (file == null || file.lastModified() == lastModified) {
+            return false;
+        }
+        if (!load()) {
+            return false;
+        }
+        log.info("Reloaded " + RESOURCE);
+        for (Listener l : listeners) {
+            try {
+                l.reloaded();
+            } catch (RuntimeException e) {
+                log.error("Error in configuration listener " + l, e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks up a setting, first checking for changes when the reload
+     * interval has elapsed.
+     */
+    private static Entry entry(String key) {
+        if (interval > 0) {
+            long now = System.nanoTime();
+            long next = nextCheck.get();
+            // one caller per interval checks the file, the others go on
+            if (now - next >= 0 && nextCheck.compareAndSet(next, now + interval)) {
+                reload();
+            }
+        }
+        return entries.get(key);
+    }
+
+    /**
+     * Reads the file into a new snapshot.
+     *
+     * @return false if it could not be read
+     */
+    private static synchronized boolean load() {
+        if (url == null) {
+            return false;
+        }
+        long modified = file == null ? 0 : file.lastModified();
+        Properties props = new Properties();
+        try (InputStream in = url.openStream()) {
+            props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("Cannot read " + RESOURCE + ", keeping the current settings", e);
+            return false;
+        }
+        Map<String, Entry> map = new HashMap<String, Entry>();
+        for (String key : props.stringPropertyNames()) {
+            map.put(key, new Entry(props.getProperty(key)));
+        }
+        entries = map;
+        lastModified = modified;
+        Entry e = map.get("config.reload.interval");
+        interval = file == null || e == null || !e.isNumber ? 0 : TimeUnit.MILLISECONDS.toNanos(e.number);
+        nextCheck.set(System.nanoTime() + interval);
+        return true;
+    }
+
+    private static File toFile(URL url) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package in.co.rays.proj4.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TableVersion counts the changes made to each table, so that a page built
+ * from some tables can tell whether it would come out the same as before
+ * without reading them. The models bump the version of their table after
+ * every add, update and delete they commit; the controllers turn the
+ * versions of the tables of a page into an HTTP ETag (see
+ * {@code BaseCtl.versionedTables()}).
+ *
+ * <p>
+ * The versions are kept in memory and start again at 0 with the application,
+ * so every tag also carries a random number drawn at startup. The tag is the
+ * first 128 bits of a SHA-256 of the tables, their versions and everything
+ * else the page depends on, so that two different pages cannot be made to
+ * share a tag. Two cases need care:
+ * </p>
+ * <ul>
+ * <li>With read replicas, a page read right after a change may still come
+ * from a replica that has not applied it. For {@code replica.stickiness}
+ * milliseconds after a change of one of its tables, a page gets no tag.</li>
+ * <li>In stateless mode, where several nodes share the database, a node does
+ * not see the changes made through the others. The tags then also change
+ * every {@code etag.window} seconds, which bounds how long a browser may keep
+ * showing a page that another node has changed.</li>
+ * </ul>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class TableVersion {
+
+    /** Version and time of the last change of a table. */
+    private static final class Version {
+        private volatile long value;
+        private volatile long changed;
+    }
+
+    private static final Map<String, Version> VERSIONS = new ConcurrentHashMap<String, Version>();
+
+    /** Drawn at startup, so that tags of an earlier run never match. */
+    private static final long EPOCH = new SecureRandom().nextLong();
+
+    /** Hashes the tables, versions and key of a page into its tag. */
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final LongAdder tagged = new LongAdder();
+    private static final LongAdder notModified = new LongAdder();
+
+    private TableVersion() {
+    }
+
+    private static Version version(String table) {
+        return VERSIONS.computeIfAbsent(table.toLowerCase(), t -> new Version());
+    }
+
+    /**
+     * Records a committed change of a table.
+     *
+     * @param table name of the table
+     */
+    public static void bump(String table) {
+        Version v = version(table);
+        synchronized (v) {
+            v.value++;
+            v.changed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Returns the number of changes of a table since startup.
+     *
+     * @param table name of the table
+     * @return the version
+     */
+    public static long get(String table) {
+        return version(table).value;
+    }
+
+    /**
+     * Tells whether what was read from a table may be kept. With read
+     * replicas, a read made within {@code replica.stickiness} milliseconds
+     * of a change may still miss it.
+     *
+     * @param table name of the table
+     * @return false if the table changed too recently
+     */
+    public static boolean settled(String table) {
+        if (SystemConfig.getString("replica.urls", "").trim().isEmpty()) {
+            return true;
+        }
+        return System.currentTimeMillis() - version(table).changed >= SystemConfig.getLong("replica.stickiness",
+                5000);
+    }
+
+    /**
+     * Builds a weak ETag for a page made from some tables.
+     *
+     * @param tables tables the page is read from
+     * @param key    everything else the page depends on, such as its
+     *               parameters and the signed in user
+     * @return the tag, or null if the page must not be tagged now
+     */
+    public static String tag(String[] tables, String key) {
+
+        StringBuilder sb = new StringBuilder(64 + key.length()).append(EPOCH);
+        for (String table : tables) {
+            if (!settled(table)) {
+                return null;
+            }
+            sb.append('\u0000').append(table).append('=').append(version(table).value);
+        }
+        if (SessionToken.isEnabled()) {
+            long window = Math.max(1, SystemConfig.getLong("etag.window", 30));
+            sb.append('\u0000').append(System.currentTimeMillis() / 1000 / window);
+        }
+        sb.append('\u0000').append(key);
+
+        byte[] digest = SHA256.get().digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder tag = new StringBuilder(36).append("W/\"");
+        for (int i = 0; i < 16; i++) {
+            tag.append(Character.forDigit((digest[i] >> 4) & 0xf, 16)).append(Character.forDigit(digest[i] & 0xf, 16));
+        }
+        tagged.increment();
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Tells whether an If-None-Match header names a tag.
+     *
+     * @param header the header, may be null
+     * @param etag   the tag of the page
+     * @return true if the browser has the page already
+     */
+    public static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String t : header.split(",")) {
+            t = t.trim();
+            if (t.equals("*") || t.equals(etag) || t.equals(opaque)) {
+                notModified.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the versions and counters as key=value lines.
+     *
+     * @return the counters
+     */
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Version> e : VERSIONS.entrySet()) {
+            sb.append("version.").append(e.getKey()).append('=').append(e.getValue().value).append('\n');
+        }
+        return sb.append("etag.tagged=").append(tagged.sum()).append("\netag.not.modified=")
+                .append(notModified.sum()).append('\n').toString();
+    }
+}
@@ -0,0 +1,246 @@
+package in.co.rays.proj4.util;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * ThreadPools creates the executors used for work taken off the request
+ * threads: JDBC calls, preload queries, email dispatch and periodic checks.
+ *
+ * <p>
+ * When virtual threads are enabled and the JVM supports them (Java 21+),
+ * every task gets its own virtual thread. Otherwise ordinary pools of daemon
+ * platform threads are used. Virtual threads are enabled by the
+ * {@code threads.virtual} key of system.properties, which the {@code java21}
+ * Maven profile sets to {@code true}, or by {@code -Dthreads.virtual=true}.
+ * The Java 21 API is reached through reflection so that this class still
+ * compiles for Java 11.
+ * </p>
+ *
+ * <p>
+ * A bounded executor keeps its limit in both modes: on virtual threads a
+ * semaphore caps how many tasks run at once, which is what keeps JDBC calls
+ * within the size of the connection pool.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public class ThreadPools {
+
+    private static final Logger log = Logger.getLogger(ThreadPools.class);
+
+    /** Creates a virtual thread factory for a name prefix, or null. */
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+
+    /** Executors.newThreadPerTaskExecutor(ThreadFactory), or null. */
+    private static final Method PER_TASK;
+
+    private static final boolean VIRTUAL;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        Method perTask = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = name;
+        BUILDER_FACTORY = factory;
+        PER_TASK = perTask;
+
+        String flag = System.getProperty("threads.virtual");
+        if (flag == null) {
+            flag = SystemConfig.getString("threads.virtual", "false");
+        }
+        boolean wanted = "true".equalsIgnoreCase(flag.trim());
+        if (wanted && OF_VIRTUAL == null) {
+            log.warn("threads.virtual is set but this JVM has no virtual threads, using platform threads");
+        }
+        VIRTUAL = wanted && OF_VIRTUAL != null;
+        log.info("Background executors use " + (VIRTUAL ? "virtual" : "platform") + " threads");
+    }
+
+    /**
+     * Tells whether executors created by this class use virtual threads.
+     *
+     * @return true if virtual threads are in use
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL;
+    }
+
+    /**
+     * Creates an executor that runs at most {@code threads} tasks at a time and
+     * holds at most {@code queue} more. When both are full the task is run by
+     * the calling thread if {@code callerRuns} is set, otherwise it is rejected
+     * with a {@link RejectedExecutionException}.
+     *
+     * @param name       thread name prefix
+     * @param threads    maximum number of tasks running at once
+     * @param queue      maximum number of waiting tasks
+     * @param callerRuns run overflow on the caller instead of rejecting it
+     * @return the executor
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queue, boolean callerRuns) {
+        if (VIRTUAL) {
+            return new BoundedExecutor(newVirtualExecutor(name), threads, queue, callerRuns);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queue)), newPlatformFactory(name),
+                callerRuns ? new ThreadPoolExecutor.CallerRunsPolicy() : new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates an executor for background work such as email dispatch. On
+     * virtual threads every task gets its own thread; on platform threads at
+     * most {@code threads} run at once and overflow runs on the caller.
+     *
+     * @param name    thread name prefix
+     * @param threads number of platform threads
+     * @return the executor
+     */
+    public static ExecutorService newTaskExecutor(String name, int threads) {
+        if (VIRTUAL) {
+            return newVirtualExecutor(name);
+        }
+        return newBoundedExecutor(name, threads, threads * 100, true);
+    }
+
+    /**
+     * Creates an executor for periodic background work such as health
+     * checks, on one daemon platform thread in either mode.
+     *
+     * @param name thread name prefix
+     * @return the executor
+     */
+    public static ScheduledExecutorService newScheduledExecutor(String name) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, newPlatformFactory(name));
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Returns a thread-per-task executor of named virtual threads.
+     */
+    private static ExecutorService newVirtualExecutor(String name) {
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, name + "-", 1L);
+            ThreadFactory factory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+            return (ExecutorService) PER_TASK.invoke(null, factory);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Returns a factory of named daemon platform threads.
+     */
+    private static ThreadFactory newPlatformFactory(final String name) {
+        return new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    /**
+     * Caps the number of running and waiting tasks of a thread-per-task
+     * executor.
+     */
+    private static class BoundedExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore running;
+        private final Semaphore admitted;
+        private final boolean callerRuns;
+
+        BoundedExecutor(ExecutorService delegate, int threads, int queue, boolean callerRuns) {
+            this.delegate = delegate;
+            this.running = new Semaphore(threads);
+            this.admitted = new Semaphore(threads + Math.max(0, queue));
+            this.callerRuns = callerRuns;
+        }
+
+        public void execute(final Runnable task) {
+            if (!admitted.tryAcquire()) {
+                if (callerRuns) {
+                    task.run();
+                    return;
+                }
+                throw new RejectedExecutionException("Executor is full");
+            }
+            try {
+                delegate.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            running.acquireUninterruptibly();
+                            try {
+                                task.run();
+                            } finally {
+                                running.release();
+                            }
+                        } finally {
+                            admitted.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package in.co.rays.proj4.util;
+
+/**
+ * UnitOfWork tells {@link JDBCDataSource} whether the reads of the current
+ * thread may go to a read replica. A unit of work is begun for every request
+ * by {@code UnitOfWorkFilter}; it reads from the primary when it was begun
+ * that way (a form submission, or a browser that wrote a moment ago) and
+ * from the moment it checks out a connection for writing, so that a request
+ * always sees its own writes.
+ *
+ * <p>
+ * The unit is kept in a thread local. Code that hands model calls to other
+ * threads, such as {@link JdbcExecutor} and {@link PreloadExecutor}, carries
+ * it over with {@link #current()} and {@link #attach(UnitOfWork)}. Outside a
+ * unit of work, reads go to the replicas.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public final class UnitOfWork {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<UnitOfWork>();
+
+    private final boolean primary;
+
+    private volatile boolean written;
+
+    private UnitOfWork(boolean primary) {
+        this.primary = primary;
+    }
+
+    /**
+     * Begins a unit of work on the current thread.
+     *
+     * @param primary true if all reads of the unit must go to the primary
+     * @return the new unit
+     */
+    public static UnitOfWork begin(boolean primary) {
+        UnitOfWork unit = new UnitOfWork(primary);
+        CURRENT.set(unit);
+        return unit;
+    }
+
+    /**
+     * Ends the unit of work of the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the unit of work of the current thread.
+     *
+     * @return the unit, or null outside a unit of work
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes a unit of work, usually one taken from another thread with
+     * {@link #current()}, the unit of the current thread.
+     *
+     * @param unit the unit, or null for none
+     * @return the unit it replaces, to be attached again afterwards
+     */
+    public static UnitOfWork attach(UnitOfWork unit) {
+        UnitOfWork previous = CURRENT.get();
+        if (unit == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(unit);
+        }
+        return previous;
+    }
+
+    /**
+     * Records that the current unit of work checked out a connection for
+     * writing.
+     */
+    static void markWritten() {
+        UnitOfWork unit = CURRENT.get();
+        if (unit != null) {
+            unit.written = true;
+        }
+    }
+
+    /**
+     * Tells whether the reads of the current thread must go to the primary.
+     *
+     * @return true inside a unit begun on the primary or one that has written
+     */
+    static boolean readsFromPrimary() {
+        UnitOfWork unit = CURRENT.get();
+        return unit != null && (unit.primary || unit.written);
+    }
+
+    /**
+     * Tells whether the unit checked out a connection for writing.
+     *
+     * @return true if the unit has written
+     */
+    public boolean hasWritten() {
+        return written;
+    }
+}
@@ -0,0 +1,59 @@
+package in.co.rays.proj4.util;
+
+/**
+ * Workload names the connection pool a query is run on. Each workload has a
+ * pool of its own in {@link JDBCDataSource}, with its own size and checkout
+ * timeout, so that a burst of one kind of query can only exhaust its own
+ * connections.
+ *
+ * <p>
+ * A model passes the workload of a query to
+ * {@link JDBCDataSource#getConnection(Workload)}; the settings of its pool are
+ * read from system.properties as {@code pool.<key>.<setting>}, falling back
+ * to the shared setting of the same name.
+ * </p>
+ *
+ * @author Chaitanya Bhatt
+ * @version 1.0
+ */
+public enum Workload {
+
+    /**
+     * Short queries a user is waiting for: logins, form loads and saves,
+     * lookups by key and paged lists. The default.
+     */
+    INTERACTIVE("interactive"),
+
+    /**
+     * Long reads that scan a whole table: unpaged searches such as the
+     * {@code list()} preloads of dropdowns, and the merit list.
+     */
+    REPORTING("reporting");
+
+    private final String key;
+
+    private Workload(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the name of the workload's pool, used in its settings, logs and
+     * counters.
+     *
+     * @return pool name
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the workload of a search: a paged search is interactive, an
+     * unpaged one reads the whole table and is reporting.
+     *
+     * @param pageSize page size of the search; 0 disables pagination
+     * @return the workload to run the search on
+     */
+    public static Workload ofSearch(int pageSize) {
+        return pageSize > 0 ? INTERACTIVE : REPORTING;
+    }
+}
@@ -0,0 +1,165 @@
+-- Schema of the project04 database. Column order matters: the models insert
+-- with "insert into st_xxx values(...)" and read result columns by index.
+-- Runs on MySQL 8 and on H2 in MODE=MySQL (benchmarks and load tests).
+
+create table if not exists st_role (
+  id bigint not null primary key,
+  name varchar(50),
+  description varchar(100),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_user (
+  id bigint not null primary key,
+  first_name varchar(50),
+  last_name varchar(50),
+  login varchar(100) unique,
+  password varchar(50),
+  dob date,
+  mobile_no varchar(15),
+  role_id bigint,
+  gender varchar(10),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+-- Generation of a user's sign in tokens in stateless mode; raising it
+-- revokes every token issued before. No row means generation 0.
+create table if not exists st_user_token (
+  user_id bigint not null primary key,
+  generation bigint not null
+);
+
+create table if not exists st_college (
+  id bigint not null primary key,
+  name varchar(100),
+  address varchar(200),
+  state varchar(50),
+  city varchar(50),
+  phone_no varchar(15),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_course (
+  id bigint not null primary key,
+  name varchar(100),
+  duration varchar(20),
+  description varchar(200),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_subject (
+  id bigint not null primary key,
+  name varchar(100),
+  course_id bigint,
+  course_name varchar(100),
+  description varchar(200),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_student (
+  id bigint not null primary key,
+  first_name varchar(50),
+  last_name varchar(50),
+  dob date,
+  gender varchar(10),
+  mobile_no varchar(15),
+  email varchar(100),
+  college_id bigint,
+  college_name varchar(100),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_marksheet (
+  id bigint not null primary key,
+  roll_no varchar(20) unique,
+  student_id bigint,
+  name varchar(100),
+  physics int,
+  chemistry int,
+  maths int,
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_faculty (
+  id bigint not null primary key,
+  first_name varchar(50),
+  last_name varchar(50),
+  dob date,
+  gender varchar(10),
+  mobile_no varchar(15),
+  email varchar(100),
+  college_id bigint,
+  college_name varchar(100),
+  course_id bigint,
+  course_name varchar(100),
+  subject_id bigint,
+  subject_name varchar(100),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_timetable (
+  id bigint not null primary key,
+  semester varchar(20),
+  description varchar(200),
+  exam_date date,
+  exam_time varchar(50),
+  course_id bigint,
+  course_name varchar(100),
+  subject_id bigint,
+  subject_name varchar(100),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists st_patient (
+  id bigint not null primary key,
+  name varchar(100),
+  dateofvisit date,
+  mobileNo varchar(15),
+  disease varchar(100),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
+
+create table if not exists ticket_booking (
+  id bigint not null primary key,
+  user_id varchar(50),
+  booking_date date,
+  seat_no varchar(20),
+  quentity int,
+  amount int,
+  payment_mode varchar(20),
+  booking_status varchar(20),
+  created_by varchar(50),
+  modified_by varchar(50),
+  created_datetime timestamp null,
+  modified_datetime timestamp null
+);
@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 
 <%@page import="in.co.rays.proj4.util.ServletUtility"%>
 <%@page import="in.co.rays.proj4.bean.UserBean"%>
@@ -12,7 +13,7 @@
 	<br>
 	<br>
 	<%
-		UserBean userBean = (UserBean) session.getAttribute("user");
+		UserBean userBean = ServletUtility.getUser(request);
 
 		boolean userLoggedIn = userBean != null;
 
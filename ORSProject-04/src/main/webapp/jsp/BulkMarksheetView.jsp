@@ -0,0 +1,126 @@
+<%@ page session="false"%>
+<%@page import="in.co.rays.proj4.controller.ORSView"%>
+<%@page import="java.text.DecimalFormat"%>
+<%@page import="in.co.rays.proj4.controller.BulkMarksheetCtl"%>
+<%@page import="in.co.rays.proj4.util.DataUtility"%>
+<%@page import="in.co.rays.proj4.util.LongMap"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
+<%@page import="in.co.rays.proj4.bean.MarksheetBean"%>
+<%@page import="in.co.rays.proj4.bean.StudentBean"%>
+<%@page import="java.util.List"%>
+
+<html>
+<head>
+<title>Bulk Marksheet</title>
+<link rel="icon" type="image/png"
+	href="<%=ORSView.APP_CONTEXT%>/img/logo.png" sizes="16x16" />
+</head>
+<body>
+	<%@ include file="Header.jsp"%>
+
+	<div align="center">
+		<h1 align="center" style="margin-bottom: -15; color: navy">Bulk
+			Marksheet</h1>
+
+		<div style="height: 15px; margin-bottom: 12px">
+			<h3>
+				<font color="red"><%=ServletUtility.getErrorMessage(request)%></font>
+			</h3>
+		</div>
+
+		<form action="<%=ORSView.BULK_MARKSHEET_CTL%>" method="post">
+			<table>
+				<tr>
+					<th align="left">Roll Nos :-</th>
+					<td><textarea name="rollNos" rows="4" cols="40"
+							placeholder="Enter Roll Nos separated by comma or new line"><%=ServletUtility.getParameter("rollNos", request)%></textarea>
+					</td>
+					<td><input type="submit" name="operation"
+						value="<%=BulkMarksheetCtl.OP_GO%>"> <input type="submit"
+						name="operation" value="<%=BulkMarksheetCtl.OP_RESET%>"></td>
+					<td style="position: fixed;"><font color="red"><%=ServletUtility.getErrorMessage("rollNos", request)%></font>
+					</td>
+				</tr>
+			</table>
+
+			<br>
+
+			<%
+				List<MarksheetBean> list = (List<MarksheetBean>) ServletUtility.getList(request);
+				LongMap<StudentBean> students = (LongMap<StudentBean>) request.getAttribute("students");
+				List<String> missing = (List<String>) request.getAttribute("missingRollNos");
+				int index = 1;
+
+				if (list != null && list.size() != 0) {
+			%>
+			<table border="1"
+				style="width: 100%; border: groove; padding: 1px; border-color: #e1e6f1e3;">
+				<thead>
+					<tr style="background-color: #e1e6f1e3;">
+						<th width="5%">S.No</th>
+						<th width="10%">Roll No</th>
+						<th width="20%">Name</th>
+						<th width="20%">College</th>
+						<th width="8%">Physics</th>
+						<th width="8%">Chemistry</th>
+						<th width="8%">Maths</th>
+						<th width="8%">Total</th>
+						<th width="8%">Percentage (%)</th>
+						<th width="5%">Result</th>
+					</tr>
+				</thead>
+				<tbody>
+					<%
+						for (MarksheetBean bean : list) {
+								StudentBean student = students.get(bean.getStudentId());
+
+								int physics = bean.getPhysics();
+								int chemistry = bean.getChemistry();
+								int maths = bean.getMaths();
+								int total = physics + chemistry + maths;
+								float percentage = (float) total / 3;
+								percentage = Float.parseFloat(new DecimalFormat("##.##").format(percentage));
+					%>
+					<tr>
+						<td style="text-align: center;"><%=index++%></td>
+						<td style="text-align: center; text-transform: uppercase;"><%=bean.getRollNo()%></td>
+						<td style="text-transform: capitalize; text-align: center;"><%=DataUtility.getStringData(bean.getName())%></td>
+						<td style="text-align: center;"><%=student == null ? "" : DataUtility.getStringData(student.getCollegeName())%></td>
+						<td style="text-align: center;"><%=physics%></td>
+						<td style="text-align: center;"><%=chemistry%></td>
+						<td style="text-align: center;"><%=maths%></td>
+						<td style="text-align: center;"><%=total%></td>
+						<td style="text-align: center;"><%=percentage%> %</td>
+						<td style="text-align: center;">
+							<%
+								if (physics >= 33 && chemistry >= 33 && maths >= 33) {
+							%><span style="color: forestgreen;">Pass</span>
+							<%
+								} else {
+							%><span style="color: red;">Fail</span>
+							<%
+								}
+							%>
+						</td>
+					</tr>
+					<%
+						}
+					%>
+				</tbody>
+			</table>
+			<%
+				}
+
+				if (missing != null && missing.size() != 0) {
+			%>
+			<h3>
+				<font color="red">Roll Nos not found: <%=String.join(", ", missing)%></font>
+			</h3>
+			<%
+				}
+			%>
+		</form>
+	</div>
+	<%@ include file="Footer.jsp"%>
+</body>
+</html>
@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
 <%@ page isErrorPage="true"%>
 <%@ page language="java" contentType="text/html; charset=ISO-8859-1"
@@ -1,6 +1,6 @@
+<%@ page session="false"%>
 
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
-<%@page import="java.text.SimpleDateFormat"%>
 <%@page import="in.co.rays.proj4.util.DataUtility"%>
 <%@page import="in.co.rays.proj4.controller.FacultyListCtl"%>
 <%@page import="in.co.rays.proj4.util.ServletUtility"%>
@@ -90,8 +90,7 @@
 					<td style="text-align: center; text-transform: capitalize;"><%=bean.getGender()%></td>
 					<td style="text-align: center;"><%=bean.getMobileNo()%></td>
 					<%
-						SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-						String date = sdf.format(bean.getDob());
+						String date = DataUtility.getDateString(bean.getDob());
 					%>
 					<td style="text-align: center;"><%=date%></td>
 					<td style="text-align: center;"><a href="<%=ORSView.FACULTY_CTL%>?id=<%=bean.getId()%>">Edit</a></td>
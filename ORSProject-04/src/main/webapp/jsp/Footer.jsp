@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 <html>
 <head>
 <style type="text/css">
@@ -1,7 +1,8 @@
-<%@page import="in.co.rays.proj4.bean.RoleBean"%>
+<%@ page session="false"%>
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
-<%@page import="in.co.rays.proj4.controller.LoginCtl"%>
+<%@page import="in.co.rays.proj4.util.HTMLUtility"%>
 <%@page import="in.co.rays.proj4.bean.UserBean"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
 <%@ page language="java" contentType="text/html; charset=ISO-8859-1"
 	pageEncoding="ISO-8859-1"%>
 <!DOCTYPE html>
@@ -22,66 +23,17 @@
 <body>
 	<img src="<%=ORSView.APP_CONTEXT%>/img/customLogo.jpg" align="right" width="100" height="40">
 	<%
-    UserBean user = (UserBean) session.getAttribute("user");
+    UserBean user = ServletUtility.getUser(request);
     boolean loggedIn = user != null;
 %>
 
 <!-- Logged In View -->
 <% if (loggedIn) { %>
 
-    <h3>Hi, <%=user.getFirstName()%> (<%=session.getAttribute("role")%>)</h3>
+    <h3>Hi, <%=user.getFirstName()%> (<%=ServletUtility.getRole(request)%>)</h3>
 
-    <!-- Common menus -->
-    <a href="<%=ORSView.MY_PROFILE_CTL%>"><b>My Profile</b></a> |
-    <a href="<%=ORSView.CHANGE_PASSWORD_CTL%>"><b>Change Password</b></a> |
-    <a href="<%=ORSView.GET_MARKSHEET_CTL%>"><b>Get Marksheet</b></a> |
-    <a href="<%=ORSView.MARKSHEET_MERIT_LIST_CTL%>"><b>Merit List</b></a> |
-
-    <!-- Admin Only -->
-    <% if (user.getRoleId() == RoleBean.ADMIN) { %>
-
-        <a href="<%=ORSView.USER_CTL%>"><b>Add User</b></a> |
-        <a href="<%=ORSView.USER_LIST_CTL%>"><b>User List</b></a> |
-        <a href="<%=ORSView.ROLE_CTL%>"><b>Add Role</b></a> |
-        <a href="<%=ORSView.ROLE_LIST_CTL%>"><b>Role List</b></a> |
-        
-        <a href="<%=ORSView.PATIENT_CTL%>" ><b>Add Patient</b></a>|
-        <a href="<%=ORSView.PATIENT_LIST_CTL%>" ><b>Patient List</b></a>|
-
-        <!-- College menus (Admin only since College role removed) -->
-        <a href="<%=ORSView.COLLEGE_CTL%>"><b>Add College</b></a> |
-        <a href="<%=ORSView.COLLEGE_LIST_CTL%>"><b>College List</b></a> |
-
-    <% } %>
-
-    <!-- Faculty + Admin Menus (College role replaced with Faculty) -->
-    <% if (user.getRoleId() == RoleBean.FACULTY || user.getRoleId() == RoleBean.ADMIN) { %>
-
-        <a href="<%=ORSView.STUDENT_CTL%>"><b>Add Student</b></a> |
-        <a href="<%=ORSView.STUDENT_LIST_CTL%>"><b>Student List</b></a> |
-
-        <a href="<%=ORSView.MARKSHEET_CTL%>"><b>Add Marksheet</b></a> |
-        <a href="<%=ORSView.MARKSHEET_LIST_CTL%>"><b>Marksheet List</b></a> |
-
-        <a href="<%=ORSView.COURSE_CTL%>"><b>Add Course</b></a> |
-        <a href="<%=ORSView.COURSE_LIST_CTL%>"><b>Course List</b></a> |
-
-        <a href="<%=ORSView.SUBJECT_CTL%>"><b>Add Subject</b></a> |
-        <a href="<%=ORSView.SUBJECT_LIST_CTL%>"><b>Subject List</b></a> |
-
-        <a href="<%=ORSView.FACULTY_CTL%>"><b>Add Faculty</b></a> |
-        <a href="<%=ORSView.FACULTY_LIST_CTL%>"><b>Faculty List</b></a> |
-
-        <a href="<%=ORSView.TIMETABLE_CTL%>"><b>Add Timetable</b></a> |
-        <a href="<%=ORSView.TIMETABLE_LIST_CTL%>"><b>Timetable List</b></a> |
-
-    <% } %>
-
-    <!-- Admin Only -->
-    <a href="<%=ORSView.JAVA_DOC%>" target="blank"><b>Java Doc</b></a> |
-
-    <!-- Logout -->
-    <a href="<%=ORSView.LOGIN_CTL%>?operation=<%=LoginCtl.OP_LOG_OUT%>"><b>Logout</b></a>
+    <!-- Menus of the role, rendered once per role -->
+    <%=HTMLUtility.getMenu(user.getRoleId())%>
 
 <% } else { %>
 
@@ -92,5 +44,7 @@
 
 <% } %>
 	<hr>
+	<%-- Sends the header now, so the browser fetches its scripts and styles while the rest of the page is rendered --%>
+	<% out.flush(); %>
 </body>
 </html>
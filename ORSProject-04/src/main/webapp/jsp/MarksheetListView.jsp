@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
 <%@page import="java.util.Collections"%>
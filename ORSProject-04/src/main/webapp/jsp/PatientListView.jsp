@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 
 <%@page import="java.util.HashMap"%>
 <%@page import="in.co.rays.proj4.model.PatientModel"%>
@@ -8,7 +9,6 @@
 <%@page import="in.co.rays.proj4.util.HTMLUtility"%>
 <%@page import="in.co.rays.proj4.model.RoleModel"%>
 <%@page import="java.util.Date"%>
-<%@page import="java.text.SimpleDateFormat"%>
 <%@page import="in.co.rays.proj4.util.DataUtility"%>
 <%@page import="in.co.rays.proj4.bean.BaseBean"%>
 <%@page import="in.co.rays.proj4.controller.UserListCtl"%>
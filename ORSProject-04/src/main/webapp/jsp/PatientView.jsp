@@ -1,3 +1,4 @@
+<%@ page session="false"%>
 
 <%@page import="in.co.rays.proj4.controller.PatientCtl"%>
 <%@page import="in.co.rays.proj4.bean.PatientBean"%>
@@ -1,6 +1,6 @@
+<%@ page session="false"%>
 
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
-<%@page import="java.text.SimpleDateFormat"%>
 <%@page import="in.co.rays.proj4.util.DataUtility"%>
 <%@page import="in.co.rays.proj4.controller.StudentListCtl"%>
 <%@page import="in.co.rays.proj4.util.ServletUtility"%>
@@ -93,8 +93,7 @@
 					<td style="text-align: center; text-transform: capitalize;"><%=bean.getGender()%></td>
 					<td style="text-align: center;"><%=bean.getMobileNo()%></td>
 					<%
-						SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-								String date = sdf.format(bean.getDob());
+								String date = DataUtility.getDateString(bean.getDob());
 					%>
 					<td style="text-align: center;"><%=date%></td>
 					<td style="text-align: center;"><a
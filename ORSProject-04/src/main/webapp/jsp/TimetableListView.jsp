@@ -1,7 +1,7 @@
+<%@ page session="false"%>
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
 <%@page import="java.util.LinkedHashMap"%>
 <%@page import="in.co.rays.proj4.util.HTMLUtility"%>
-<%@page import="java.text.SimpleDateFormat"%>
 <%@page import="in.co.rays.proj4.util.DataUtility"%>
 <%@page import="in.co.rays.proj4.controller.TimetableListCtl"%>
 <%@page import="in.co.rays.proj4.util.ServletUtility"%>
@@ -90,8 +90,7 @@
 					<td style="text-align: center; text-transform: capitalize;"><%=bean.getSubjectName()%></td>
 					<td style="text-align: center;"><%=bean.getSemester()%></td>
 					<%
-						SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yyyy");
-								String date = sdf.format(bean.getExamDate());
+						String date = DataUtility.getDateString(bean.getExamDate());
 					%>
 					<td style="text-align: center;"><%=date%></td>
 					<td style="text-align: center; text-transform: capitalize;"><%=bean.getExamTime()%></td>
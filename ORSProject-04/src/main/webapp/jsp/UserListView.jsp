@@ -1,10 +1,10 @@
+<%@ page session="false"%>
 <%@page import="java.util.HashMap"%>
 <%@page import="in.co.rays.proj4.bean.RoleBean"%>
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
 <%@page import="in.co.rays.proj4.util.HTMLUtility"%>
 <%@page import="in.co.rays.proj4.model.RoleModel"%>
 <%@page import="java.util.Date"%>
-<%@page import="java.text.SimpleDateFormat"%>
 <%@page import="in.co.rays.proj4.util.DataUtility"%>
 <%@page import="in.co.rays.proj4.bean.BaseBean"%>
 <%@page import="in.co.rays.proj4.controller.UserListCtl"%>
@@ -102,8 +102,7 @@
 							RoleModel model = new RoleModel();
 							RoleBean roleBean = model.findByPk(bean.getRoleId());
 
-							SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-							String date = sdf.format(bean.getDob());
+							String date = DataUtility.getDateString(bean.getDob());
 				%>
 
 				<tr>
@@ -1,6 +1,8 @@
+<%@ page session="false"%>
 <%@page import="in.co.rays.proj4.controller.ORSView"%>
 <%@page import="in.co.rays.proj4.bean.UserBean"%>
 <%@page import="in.co.rays.proj4.bean.RoleBean"%>
+<%@page import="in.co.rays.proj4.util.ServletUtility"%>
 <html>
 <head>
 <title>Welcome to ORS</title>
@@ -16,7 +18,7 @@
 		</h1>
 
 		<%
-			UserBean beanUserBean = (UserBean) session.getAttribute("user");
+			UserBean beanUserBean = ServletUtility.getUser(request);
 			if (beanUserBean != null) {
 				if (beanUserBean.getRoleId() == RoleBean.STUDENT) {
 		%>